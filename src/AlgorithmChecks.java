@@ -0,0 +1,612 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Class which checks the algorithms built on top of the solvers against simple brute force versions of them, on random networks
+ * The networks are the same random networks DifferentialHarness.generate() makes, so a failing case can be made again
+ * from the seed and its number, and the checks of the solvers themselves are left to the DifferentialHarness
+ *
+ * The PERT simulation is checked by giving every task the same estimates as its duration, when every sample must finish
+ * at the critical path length and exactly the critical tasks must be critical, and by giving the tasks random estimates,
+ * when every sample must finish between the critical path lengths with every task at its optimistic and its pessimistic estimate
+ * Each step of the CrashOptimiser is checked against trying every set of tasks to shorten by one, on networks of up to 12 tasks
+ * The PathEnumerator is checked against finding every path with a depth first search, and against a ladder of 40 diamonds,
+ * which has 2^40 critical paths, so taking the first 1000 of them only finishes if the paths are found lazily
+ * The SensitivityAnalysis is checked by solving the network again with each task's duration changed to every value in its range
+ * and to the values just outside it
+ * The PrecedenceConverter is checked on random precedence tables, whose converted networks must keep every activity and exactly
+ * the dependencies of the table, and must have the critical path length found by a longest path over the activities themselves
+ *
+ * Run with:
+ * java -cp "out/production/Critical Path Teaching Tool" AlgorithmChecks [cases] [seed] [max nodes]
+ * The program exits with status 1 if any check failed, so it can be run by CI
+ */
+class AlgorithmChecks {
+    private static final int FAILURES_SHOWN = 5;
+    private static final int PERT_SAMPLES = 256;
+    private static final int MAX_BRUTE_FORCE_TASKS = 12;
+
+    /**
+     * Runs every check on the random networks, then prints how many failed and the first few failures
+     * @param args  - Amount of cases (default 2000), seed (default 1), largest amount of nodes (default 12)
+     */
+    public static void main(String[] args) {
+        long cases = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int maxNodes = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+        int failed = 0;
+        failed += run("PERT simulation", cases, seed, maxNodes, AlgorithmChecks::checkPert);
+        failed += report("PERT distributions", checkDistributions());
+        failed += run("Crashing", cases, seed, maxNodes, AlgorithmChecks::checkCrashing);
+        failed += run("Sensitivity", cases, seed, maxNodes, AlgorithmChecks::checkSensitivity);
+        failed += run("Paths", cases, seed, maxNodes, AlgorithmChecks::checkPaths);
+        failed += report("Lazy paths", checkLazyPaths());
+        failed += report("Precedence conversion", checkPrecedence(cases, seed, maxNodes));
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Function to run one check on every case, printing how many failed and the first few failures
+     * Cyclic cases are skipped, as none of the algorithms take a cyclic network
+     * @param name      - Name of the check
+     * @param cases     - Amount of cases
+     * @param seed      - Seed the cases are made from
+     * @param maxNodes  - Largest amount of nodes in a case
+     * @param check     - The check, which gives a description of what went wrong, or null if nothing did
+     * @return          - Amount of cases which failed
+     */
+    private static int run(String name, long cases, long seed, int maxNodes, Function<DifferentialHarness.Case, String> check) {
+        long startTime = System.nanoTime();
+        int failed = 0;
+        int checked = 0;
+        for (long number = 0; number < cases; number++) {
+            DifferentialHarness.Case c = DifferentialHarness.generate(seed, number, maxNodes);
+            if (DifferentialHarness.reference(c) == null) {
+                continue;
+            }
+            checked++;
+            String problem;
+            try {
+                problem = check.apply(c);
+            }
+            catch (RuntimeException e) {
+                problem = "threw " + e;
+            }
+            if (problem != null) {
+                failed++;
+                if (failed <= FAILURES_SHOWN) {
+                    System.out.println(name + ", case " + number + " (seed " + seed + "): " + problem);
+                    System.out.print(c);
+                }
+            }
+        }
+        System.out.printf("%s: %d networks in %.2fs, %d failed%n", name, checked, (System.nanoTime() - startTime) / 1e9, failed);
+        return failed;
+    }
+
+    /**
+     * Function to print the result of a check which is not run on the random networks
+     * @param name      - Name of the check
+     * @param problem   - Description of what went wrong, or null if nothing did
+     * @return          - 1 if the check failed, otherwise 0
+     */
+    private static int report(String name, String problem) {
+        System.out.println(name + ": " + (problem == null ? "passed" : problem));
+        return problem == null ? 0 : 1;
+    }
+
+    /**
+     * Function to make a snapshot of a case, with no Nodes or Tasks behind it
+     * @param c     - The network
+     * @return      - The snapshot
+     */
+    static NetworkSnapshot snapshot(DifferentialHarness.Case c) {
+        return new NetworkSnapshot(new Node[c.NODE_COUNT], new Task[c.START.length], c.START, c.END, c.DURATION, 0);
+    }
+
+    /**
+     * Function to check the PERT simulation of a network
+     * With every estimate equal to the duration, every sample must finish at the critical path length,
+     * and each task's criticality index must be 1 if it has no float and 0 otherwise
+     * With random estimates, every sample must finish between the critical path lengths found with every task at its optimistic
+     * and at its pessimistic estimate, the percentiles must not decrease, every criticality index must be between 0 and 1,
+     * and running again with the same seed must give the same results
+     * @param c     - The network, which must not be cyclic
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkPert(DifferentialHarness.Case c) {
+        if (c.START.length == 0) {
+            return null;
+        }
+        int[][] expected = DifferentialHarness.reference(c);
+        NetworkSnapshot s = snapshot(c);
+        PertSimulation exact = new PertSimulation(s, c.DURATION, c.DURATION);
+        exact.run(PERT_SAMPLES, 1, PertSimulation.Distribution.BETA);
+        if (exact.getPercentile(0) != expected[2][0] || exact.getPercentile(1) != expected[2][0]) {
+            return "fixed durations finished between " + exact.getPercentile(0) + " and " + exact.getPercentile(1)
+                    + ", expected " + expected[2][0];
+        }
+        for (int t = 0; t < c.START.length; t++) {
+            boolean critical = expected[1][c.END[t]] - expected[0][c.START[t]] - c.DURATION[t] == 0;
+            if (exact.getCriticalityIndex(t) != (critical ? 1 : 0)) {
+                return "fixed durations gave task " + t + " a criticality index of " + exact.getCriticalityIndex(t);
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(c.START.length * 31L + c.NODE_COUNT);
+        int[] optimistic = new int[c.START.length];
+        int[] pessimistic = new int[c.START.length];
+        for (int t = 0; t < c.START.length; t++) {
+            optimistic[t] = Math.max(0, c.DURATION[t] - random.nextInt(5));
+            pessimistic[t] = c.DURATION[t] + random.nextInt(10);
+        }
+        int shortest = cpLength(c, optimistic);
+        int longest = cpLength(c, pessimistic);
+        for (PertSimulation.Distribution distribution : PertSimulation.Distribution.values()) {
+            PertSimulation simulation = new PertSimulation(s, optimistic, pessimistic);
+            simulation.run(PERT_SAMPLES, 7, distribution);
+            if (simulation.getPercentile(0) < shortest - 1e-9 || simulation.getPercentile(1) > longest + 1e-9) {
+                return distribution + " samples finished between " + simulation.getPercentile(0) + " and " + simulation.getPercentile(1)
+                        + ", outside " + shortest + " to " + longest;
+            }
+            for (int i = 1; i <= 20; i++) {
+                if (simulation.getPercentile(i / 20.0) < simulation.getPercentile((i - 1) / 20.0)) {
+                    return distribution + " percentiles decrease at " + (i * 5) + "%";
+                }
+            }
+            for (int t = 0; t < c.START.length; t++) {
+                if (simulation.getCriticalityIndex(t) < 0 || simulation.getCriticalityIndex(t) > 1) {
+                    return distribution + " gave task " + t + " a criticality index of " + simulation.getCriticalityIndex(t);
+                }
+            }
+            double mean = simulation.getMean();
+            simulation.run(PERT_SAMPLES, 7, distribution);
+            if (simulation.getMean() != mean) {
+                return distribution + " gave a mean of " + mean + " then " + simulation.getMean() + " with the same seed";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to check the sampled durations follow their distributions, using a network of one task
+     * Estimates of 2, 5 and 14 have a mean of (2 + 5 + 14) / 3 = 7 for the triangular distribution,
+     * and (2 + 4 * 5 + 14) / 6 = 6 for the PERT beta distribution, which 200,000 samples must both be within 0.05 of
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkDistributions() {
+        NetworkSnapshot s = new NetworkSnapshot(new Node[2], new Task[1], new int[]{0}, new int[]{1}, new int[]{5}, 0);
+        PertSimulation simulation = new PertSimulation(s, new int[]{2}, new int[]{14});
+        try {
+            simulation.getMean();
+            return "read a result before the simulation was run";
+        }
+        catch (IllegalStateException notRun) {
+            //Expected, as there are no results yet
+        }
+        double[] means = {7, 6};
+        for (PertSimulation.Distribution distribution : PertSimulation.Distribution.values()) {
+            simulation.run(200_000, 3, distribution);
+            double mean = means[distribution.ordinal()];
+            if (Math.abs(simulation.getMean() - mean) > 0.05) {
+                return distribution + " mean is " + simulation.getMean() + ", expected " + mean;
+            }
+            if (simulation.getPercentile(0) < 2 || simulation.getPercentile(1) > 14) {
+                return distribution + " sampled outside the estimates";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to check the CrashOptimiser, by shortening the project by one at a time until it cannot be shortened any more
+     * Before each step every set of tasks is tried, shortening each by one from its current duration,
+     * and the step must cost exactly as much as the cheapest set which shortens the project
+     * After each step the critical path length must be one less, and must be what solving the crashed durations gives
+     * The optimiser must only stop when no set shortens the project
+     * Networks with more than 12 tasks are skipped, as there are too many sets to try
+     * @param c     - The network, which must not be cyclic
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkCrashing(DifferentialHarness.Case c) {
+        int taskCount = c.START.length;
+        if (taskCount == 0 || taskCount > MAX_BRUTE_FORCE_TASKS) {
+            return null;
+        }
+        SplittableRandom random = new SplittableRandom(taskCount * 17L + c.NODE_COUNT);
+        int[] crashDuration = new int[taskCount];
+        int[] crashCost = new int[taskCount];
+        for (int t = 0; t < taskCount; t++) {
+            crashDuration[t] = random.nextInt(4) == 0 ? c.DURATION[t] : Math.max(0, c.DURATION[t] - 1 - random.nextInt(4));
+            crashCost[t] = 1 + random.nextInt(20);
+        }
+        CrashOptimiser optimiser = new CrashOptimiser(snapshot(c), crashDuration, crashCost);
+        if (optimiser.getCpLength() != DifferentialHarness.reference(c)[2][0]) {
+            return "critical path length " + optimiser.getCpLength() + " before crashing, expected " + DifferentialHarness.reference(c)[2][0];
+        }
+        while (true) {
+            int[] before = new int[taskCount];
+            for (int t = 0; t < taskCount; t++) {
+                before[t] = optimiser.getDuration(t);
+            }
+            int cpBefore = optimiser.getCpLength();
+            long costBefore = optimiser.getTotalCost();
+            long cheapest = Long.MAX_VALUE;
+            for (int set = 1; set < 1 << taskCount; set++) {
+                int[] crashed = before.clone();
+                long cost = 0;
+                boolean possible = true;
+                for (int t = 0; t < taskCount && possible; t++) {
+                    if ((set >> t & 1) == 1) {
+                        possible = crashed[t] > crashDuration[t];
+                        crashed[t]--;
+                        cost += crashCost[t];
+                    }
+                }
+                if (possible && cost < cheapest && cpLength(c, crashed) < cpBefore) {
+                    cheapest = cost;
+                }
+            }
+            if (!optimiser.shortenBy(1)) {
+                if (cheapest != Long.MAX_VALUE) {
+                    return "stopped at " + cpBefore + ", but it could be shortened for " + cheapest;
+                }
+                return null;
+            }
+            int[] crashed = new int[taskCount];
+            for (int t = 0; t < taskCount; t++) {
+                crashed[t] = optimiser.getDuration(t);
+            }
+            if (optimiser.getCpLength() != cpBefore - 1 || optimiser.getCpLength() != cpLength(c, crashed)) {
+                return "shortened from " + cpBefore + " to " + optimiser.getCpLength() + ", and the crashed durations solve to "
+                        + cpLength(c, crashed);
+            }
+            if (optimiser.getTotalCost() - costBefore != cheapest) {
+                return "shortening from " + cpBefore + " cost " + (optimiser.getTotalCost() - costBefore) + ", but the cheapest way costs " + cheapest;
+            }
+        }
+    }
+
+    /**
+     * Function to check the SensitivityAnalysis, by changing one task's duration at a time and solving again with the reference solver
+     * A task with float must have a range from 0 to its duration plus its float, within which the critical path length stays the same,
+     * and one more than its highest duration must make the critical path longer
+     * A critical task must have no highest duration, and from its lowest duration up to 5 more than its duration
+     * the critical path length must change by exactly as much as its duration does,
+     * whilst one less than its lowest duration must shorten the critical path by less, as a path avoiding the task is then the longest
+     * @param c     - The network, which must not be cyclic
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkSensitivity(DifferentialHarness.Case c) {
+        if (c.START.length == 0) {
+            return null;
+        }
+        int[][] expected = DifferentialHarness.reference(c);
+        int cp = expected[2][0];
+        SensitivityAnalysis analysis = SensitivityAnalysis.analyse(PathFunctions.solve(snapshot(c)));
+        for (int t = 0; t < c.START.length; t++) {
+            int min = analysis.getMinDuration(t);
+            int max = analysis.getMaxDuration(t);
+            int taskFloat = expected[1][c.END[t]] - expected[0][c.START[t]] - c.DURATION[t];
+            int[] changed = c.DURATION.clone();
+            if (taskFloat > 0) {
+                if (min != 0 || max != c.DURATION[t] + taskFloat) {
+                    return "task " + t + " with float " + taskFloat + " has a range of " + min + " to " + max;
+                }
+                for (int d = 0; d <= max + 1; d++) {
+                    changed[t] = d;
+                    if ((cpLength(c, changed) == cp) != (d <= max)) {
+                        return "task " + t + " with a duration of " + d + " gives a critical path length of " + cpLength(c, changed)
+                                + ", but its range is " + min + " to " + max;
+                    }
+                }
+            }
+            else {
+                if (max != SensitivityAnalysis.UNBOUNDED || min < 0 || min > c.DURATION[t]) {
+                    return "critical task " + t + " has a range of " + min + " to " + max;
+                }
+                for (int d = Math.max(0, min - 1); d <= c.DURATION[t] + 5; d++) {
+                    changed[t] = d;
+                    if ((cpLength(c, changed) == cp + d - c.DURATION[t]) != (d >= min)) {
+                        return "critical task " + t + " with a duration of " + d + " gives a critical path length of "
+                                + cpLength(c, changed) + ", but its lowest duration is " + min;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to check the PathEnumerator, against every path found by a depth first search from each node no task enters
+     * Both must give the same paths, the enumerator's must be longest first,
+     * and the critical paths must be exactly the paths as long as the critical path length
+     * @param c     - The network, which must not be cyclic
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkPaths(DifferentialHarness.Case c) {
+        NetworkSnapshot s = snapshot(c);
+        boolean[] entered = new boolean[c.NODE_COUNT];
+        for (int end : c.END) {
+            entered[end] = true;
+        }
+        List<String> expected = new ArrayList<>();
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            if (!entered[n]) {
+                findPaths(s, n, new ArrayList<>(), 0, expected);
+            }
+        }
+        List<PathEnumerator.Path> paths = PathEnumerator.longestPaths(s).collect(Collectors.toList());
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0 && paths.get(i).getLength() > paths.get(i - 1).getLength()) {
+                return "path " + i + " of length " + paths.get(i).getLength() + " comes after one of length " + paths.get(i - 1).getLength();
+            }
+            found.add(paths.get(i).getLength() + " " + Arrays.toString(paths.get(i).getTasks()));
+        }
+        List<String> sortedExpected = new ArrayList<>(expected);
+        List<String> sortedFound = new ArrayList<>(found);
+        sortedExpected.sort(null);
+        sortedFound.sort(null);
+        if (!sortedFound.equals(sortedExpected)) {
+            return "found paths " + found + ", expected " + expected;
+        }
+        int cp = DifferentialHarness.reference(c)[2][0];
+        long critical = paths.stream().filter(p -> p.getLength() == cp).count();
+        long criticalFound = PathEnumerator.criticalPaths(s).count();
+        if (criticalFound != critical) {
+            return "found " + criticalFound + " critical paths, expected " + critical;
+        }
+        return null;
+    }
+
+    /**
+     * Procedure to find every path on from a node with a depth first search, adding each as its length followed by its tasks
+     * A path only ends at a node no task leaves, and a node with no tasks at all is not a path
+     * @param s         - The network
+     * @param n         - Node the path has reached
+     * @param tasks     - Tasks of the path so far
+     * @param length    - Length of the path so far
+     * @param paths     - List the paths are added to
+     */
+    private static void findPaths(NetworkSnapshot s, int n, List<Integer> tasks, int length, List<String> paths) {
+        if (s.getFirstOutgoing(n) == s.getFirstOutgoing(n + 1)) {
+            if (!tasks.isEmpty()) {
+                paths.add(length + " " + tasks);
+            }
+            return;
+        }
+        for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+            int t = s.getOutgoing(k);
+            tasks.add(t);
+            findPaths(s, s.getTaskEnd(t), tasks, length + s.getDuration(t), paths);
+            tasks.remove(tasks.size() - 1);
+        }
+    }
+
+    /**
+     * Function to check the PathEnumerator only finds the paths it is asked for, using a ladder of 40 diamonds
+     * Each diamond is two tasks of duration 3 between the same pair of nodes, so there are 2^40 critical paths of length 120,
+     * and the first 1000 must all be critical, all different, and found within a few seconds
+     * @return      - Description of what went wrong, or null if nothing did
+     */
+    private static String checkLazyPaths() {
+        int diamonds = 40;
+        int[] start = new int[2 * diamonds];
+        int[] end = new int[2 * diamonds];
+        int[] duration = new int[2 * diamonds];
+        for (int t = 0; t < start.length; t++) {
+            start[t] = t / 2;
+            end[t] = t / 2 + 1;
+            duration[t] = 3;
+        }
+        NetworkSnapshot s = new NetworkSnapshot(new Node[diamonds + 1], new Task[start.length], start, end, duration, 0);
+        long startTime = System.nanoTime();
+        List<PathEnumerator.Path> paths = PathEnumerator.criticalPaths(s).limit(1000).collect(Collectors.toList());
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        if (paths.size() != 1000 || paths.stream().anyMatch(p -> p.getLength() != 3 * diamonds)) {
+            return "found " + paths.size() + " paths, not 1000 of length " + 3 * diamonds;
+        }
+        if (paths.stream().map(p -> Arrays.toString(p.getTasks())).distinct().count() != paths.size()) {
+            return "found the same path more than once";
+        }
+        if (seconds > 5) {
+            return String.format("took %.2fs to find 1000 paths", seconds);
+        }
+        return null;
+    }
+
+    /**
+     * Function to check the PrecedenceConverter on random precedence tables, which are listed out of order
+     * so predecessors are often added after the activities depending on them
+     * Each converted network must have one start event, event 0, and one finish event, with every activity as exactly one arc
+     * of its own duration and every other arc a dummy of duration 0
+     * An activity's end event must reach another activity's start event exactly when the table makes the second depend on the first,
+     * and the critical path length of the network must be the longest path over the activities
+     * A table with a cycle must be rejected
+     * @param tables    - Amount of tables
+     * @param seed      - Seed the tables are made from
+     * @param maxSize   - Largest amount of activities in a table
+     * @return          - Description of the first thing which went wrong, or null if nothing did
+     */
+    private static String checkPrecedence(long tables, long seed, int maxSize) {
+        long startTime = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long number = 0; number < tables; number++) {
+            int size = random.nextInt(maxSize + 1);
+            int[] duration = new int[size];
+            int[][] preds = new int[size][];
+            for (int a = 0; a < size; a++) {
+                duration[a] = random.nextInt(10);
+                preds[a] = a == 0 ? new int[0] : random.ints(random.nextInt(Math.min(a, 4) + 1), 0, a).distinct().toArray();
+            }
+            int[] listed = new int[size];           //Order the activities are added in, shuffled
+            for (int i = 0; i < size; i++) {
+                int j = random.nextInt(i + 1);
+                listed[i] = listed[j];
+                listed[j] = i;
+            }
+            PrecedenceConverter converter = new PrecedenceConverter();
+            for (int a : listed) {
+                String[] labels = new String[preds[a].length];
+                for (int i = 0; i < labels.length; i++) {
+                    labels[i] = "A" + preds[a][i];
+                }
+                converter.addActivity("A" + a, duration[a], labels);
+            }
+            String problem;
+            try {
+                converter.convert();
+                problem = checkConversion(converter, duration, preds);
+            }
+            catch (RuntimeException e) {
+                problem = "threw " + e;
+            }
+            if (problem != null) {
+                return "table " + number + " (seed " + seed + ") of " + size + " activities with predecessors "
+                        + Arrays.deepToString(preds) + ": " + problem;
+            }
+        }
+        PrecedenceConverter cyclic = new PrecedenceConverter();
+        cyclic.addActivity("A", 1, "C");
+        cyclic.addActivity("B", 1, "A");
+        cyclic.addActivity("C", 1, "B");
+        try {
+            cyclic.convert();
+            return "converted a table with a cycle";
+        }
+        catch (RuntimeException expected) {
+            //Expected, as a cycle cannot be converted
+        }
+        System.out.printf("Precedence conversion: %d tables in %.2fs%n", tables, (System.nanoTime() - startTime) / 1e9);
+        return null;
+    }
+
+    /**
+     * Function to check one converted precedence table, see checkPrecedence()
+     * @param converter - The converter, after converting the table
+     * @param duration  - Duration of each activity, activity a having the label "A" followed by a
+     * @param preds     - Predecessors of each activity, all of which come before it
+     * @return          - Description of what went wrong, or null if nothing did
+     */
+    private static String checkConversion(PrecedenceConverter converter, int[] duration, int[][] preds) {
+        int size = duration.length;
+        int events = converter.getEventCount();
+        int arcs = converter.getArcCount();
+        int[] start = new int[arcs];
+        int[] end = new int[arcs];
+        int[] arcDuration = new int[arcs];
+        int[] arcOf = new int[size];
+        Arrays.fill(arcOf, -1);
+        int dummies = 0;
+        for (int k = 0; k < arcs; k++) {
+            start[k] = converter.getArcStart(k);
+            end[k] = converter.getArcEnd(k);
+            arcDuration[k] = converter.getArcDuration(k);
+            String label = converter.getArcLabel(k);
+            if (label == null) {
+                dummies++;
+                if (arcDuration[k] != 0) {
+                    return "dummy " + k + " has a duration of " + arcDuration[k];
+                }
+                continue;
+            }
+            int a = Integer.parseInt(label.substring(1));
+            if (arcOf[a] != -1) {
+                return "activity " + label + " is arcs " + arcOf[a] + " and " + k;
+            }
+            arcOf[a] = k;
+            if (arcDuration[k] != duration[a]) {
+                return "activity " + label + " has a duration of " + arcDuration[k] + ", expected " + duration[a];
+            }
+        }
+        for (int a = 0; a < size; a++) {
+            if (arcOf[a] == -1) {
+                return "activity A" + a + " is not an arc";
+            }
+        }
+        if (dummies != converter.getDummyCount()) {
+            return dummies + " dummies, but getDummyCount() is " + converter.getDummyCount();
+        }
+
+        boolean[] entered = new boolean[events];
+        boolean[] left = new boolean[events];
+        for (int k = 0; k < arcs; k++) {
+            entered[end[k]] = true;
+            left[start[k]] = true;
+        }
+        int finishes = 0;
+        for (int e = 0; e < events; e++) {
+            if (entered[e] == (e == 0)) {
+                return "event " + e + (e == 0 ? " is entered, but is the start" : " is not entered, but is not the start");
+            }
+            if (!left[e]) {
+                finishes++;
+            }
+        }
+        if (size > 0 && finishes != 1) {
+            return finishes + " events are not left";
+        }
+
+        DifferentialHarness.Case network = new DifferentialHarness.Case(events, start, end, arcDuration);
+        int[][] expected = DifferentialHarness.reference(network);
+        if (expected == null) {
+            return "the network is cyclic";
+        }
+        BitSet[] reaches = new BitSet[events];          //Events reachable from each event, including itself
+        NetworkSnapshot s = snapshot(network);
+        int[] order = s.topologicalOrder();
+        for (int i = events - 1; i >= 0; i--) {
+            int e = order[i];
+            reaches[e] = new BitSet(events);
+            reaches[e].set(e);
+            for (int k = s.getFirstOutgoing(e); k < s.getFirstOutgoing(e + 1); k++) {
+                reaches[e].or(reaches[s.getTaskEnd(s.getOutgoing(k))]);
+            }
+        }
+        BitSet[] ancestors = new BitSet[size];
+        int[] finish = new int[size];
+        int longest = 0;
+        for (int b = 0; b < size; b++) {
+            ancestors[b] = new BitSet(size);
+            int earliest = 0;
+            for (int p : preds[b]) {
+                ancestors[b].or(ancestors[p]);
+                ancestors[b].set(p);
+                earliest = Math.max(earliest, finish[p]);
+            }
+            finish[b] = earliest + duration[b];
+            longest = Math.max(longest, finish[b]);
+        }
+        for (int a = 0; a < size; a++) {
+            for (int b = 0; b < size; b++) {
+                boolean depends = ancestors[b].get(a);
+                if (a != b && reaches[end[arcOf[a]]].get(start[arcOf[b]]) != depends) {
+                    return "A" + b + (depends ? " depends on A" + a + ", but the network does not make it"
+                            : " does not depend on A" + a + ", but the network makes it");
+                }
+            }
+        }
+        if (expected[2][0] != longest) {
+            return "critical path length " + expected[2][0] + ", expected " + longest;
+        }
+        return null;
+    }
+
+    /**
+     * Function to find the critical path length of a network with different durations, using the reference solver
+     * @param c         - The network
+     * @param durations - Duration of each task
+     * @return          - The critical path length
+     */
+    private static int cpLength(DifferentialHarness.Case c, int[] durations) {
+        return DifferentialHarness.reference(new DifferentialHarness.Case(c.NODE_COUNT, c.START, c.END, durations))[2][0];
+    }
+}
@@ -0,0 +1,393 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Class which stores a network as parallel arrays of ints on the heap, one array per column, rather than as Node and Task objects
+ * A task takes 28 bytes (start, end, duration, early start, latest start, float and its place in the outgoing list)
+ * and a node 32 bytes, against several hundred bytes for a Node, Task and TaskVisualised, so tens of millions of tasks fit in the heap
+ *
+ * Arrays double in size when they are full
+ * Deleting a task marks its duration as -1, as TaskVisualised does, and deleting a node marks it in a BitSet,
+ * which also deletes its tasks the next time the tasks are indexed
+ * compact() removes everything deleted and renumbers what is left
+ *
+ * Drawables are only made for the part of the network being looked at, by materialise()
+ */
+class ArrayNetworkStore implements NetworkColumns {
+    private int nodeCount, taskCount;
+    private int[] taskStart, taskEnd, duration, earlyStart, latestStart, taskFloat;
+    private int[] nodeX, nodeY, early, late, earlyInput, lateInput, order;
+    private int[] outOffset, outTasks;
+    private final BitSet DELETED_NODES = new BitSet();
+    private boolean indexed;
+
+    /**
+     * Constructor for an empty store
+     * @param nodeCapacity  - Amount of nodes to make space for, more space is made when needed
+     * @param taskCapacity  - Amount of tasks to make space for, more space is made when needed
+     */
+    ArrayNetworkStore(int nodeCapacity, int taskCapacity) {
+        nodeCapacity = Math.max(nodeCapacity, 1);
+        taskCapacity = Math.max(taskCapacity, 1);
+        taskStart = new int[taskCapacity];
+        taskEnd = new int[taskCapacity];
+        duration = new int[taskCapacity];
+        earlyStart = new int[taskCapacity];
+        latestStart = new int[taskCapacity];
+        taskFloat = new int[taskCapacity];
+        nodeX = new int[nodeCapacity];
+        nodeY = new int[nodeCapacity];
+        early = new int[nodeCapacity];
+        late = new int[nodeCapacity];
+        earlyInput = new int[nodeCapacity];
+        lateInput = new int[nodeCapacity];
+        order = new int[nodeCapacity];
+    }
+
+    /**
+     * Function to add a node
+     * @param x     - x coordinate of its centre
+     * @param y     - y coordinate of its centre
+     * @return      - The number of the node
+     */
+    int addNode(int x, int y) {
+        if (nodeCount == nodeX.length) {
+            int size = nodeCount * 2;
+            nodeX = Arrays.copyOf(nodeX, size);
+            nodeY = Arrays.copyOf(nodeY, size);
+            early = Arrays.copyOf(early, size);
+            late = Arrays.copyOf(late, size);
+            earlyInput = Arrays.copyOf(earlyInput, size);
+            lateInput = Arrays.copyOf(lateInput, size);
+            order = Arrays.copyOf(order, size);
+        }
+        nodeX[nodeCount] = x;
+        nodeY[nodeCount] = y;
+        indexed = false;
+        return nodeCount++;
+    }
+
+    /**
+     * Function to add a task
+     * @param start     - Number of the start node
+     * @param end       - Number of the end node
+     * @param d         - Duration (Non negative)
+     * @return          - The number of the task
+     */
+    int addTask(int start, int end, int d) {
+        if (start == end) {
+            throw new IllegalArgumentException("Task cannot start and end at the same node");
+        }
+        if (d < 0) {
+            throw new IllegalArgumentException("Task has a negative duration");
+        }
+        if (taskCount == taskStart.length) {
+            int size = taskCount * 2;
+            taskStart = Arrays.copyOf(taskStart, size);
+            taskEnd = Arrays.copyOf(taskEnd, size);
+            duration = Arrays.copyOf(duration, size);
+            earlyStart = Arrays.copyOf(earlyStart, size);
+            latestStart = Arrays.copyOf(latestStart, size);
+            taskFloat = Arrays.copyOf(taskFloat, size);
+        }
+        taskStart[taskCount] = start;
+        taskEnd[taskCount] = end;
+        duration[taskCount] = d;
+        indexed = false;
+        return taskCount++;
+    }
+
+    /**
+     * Procedure to change the duration of a task, which does not change which tasks leave each node
+     * @param t     - Task number
+     * @param d     - New duration (Non negative)
+     */
+    void setDuration(int t, int d) {
+        if (d < 0) {
+            throw new IllegalArgumentException("Task has a negative duration");
+        }
+        duration[t] = d;
+    }
+
+    /**
+     * Procedure to delete a task, by marking its duration as -1
+     * @param t     - Task number
+     */
+    void deleteTask(int t) {
+        duration[t] = -1;
+        indexed = false;
+    }
+
+    /**
+     * Procedure to delete a node, along with every task which starts or ends at it
+     * @param n     - Node number
+     */
+    void deleteNode(int n) {
+        DELETED_NODES.set(n);
+        indexed = false;
+    }
+
+    /**
+     * Procedure to list the tasks leaving each node together, if tasks have been added or deleted since it was last called
+     * Tasks joined to a deleted node are deleted first
+     * Uses a counting sort, so takes time in proportion to the size of the network
+     */
+    public void index() {
+        if (indexed) {
+            return;
+        }
+        if (outOffset == null || outOffset.length < nodeCount + 1) {
+            outOffset = new int[nodeX.length + 1];
+        }
+        else {
+            Arrays.fill(outOffset, 0, nodeCount + 1, 0);
+        }
+        for (int t = 0; t < taskCount; t++) {
+            if (DELETED_NODES.get(taskStart[t]) || DELETED_NODES.get(taskEnd[t])) {
+                duration[t] = -1;
+            }
+            if (duration[t] != -1) {
+                outOffset[taskStart[t] + 1]++;
+            }
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            outOffset[n + 1] += outOffset[n];
+        }
+        if (outTasks == null || outTasks.length < outOffset[nodeCount]) {
+            outTasks = new int[Math.max(outOffset[nodeCount], taskStart.length)];
+        }
+        for (int t = 0; t < taskCount; t++) {
+            if (duration[t] != -1) {
+                outTasks[outOffset[taskStart[t]]++] = t;
+            }
+        }
+        for (int n = nodeCount; n > 0; n--) {      //Each offset was moved to the start of the next node's list, so move them back
+            outOffset[n] = outOffset[n - 1];
+        }
+        outOffset[0] = 0;
+        indexed = true;
+    }
+
+    /**
+     * Function to remove every deleted node and task, renumbering the rest in the same order
+     * The arrays are shrunk to fit, which gives the memory back
+     * @return      - The new number of each old node, -1 for a deleted node
+     */
+    int[] compact() {
+        int[] nodeMap = new int[nodeCount];
+        int kept = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (DELETED_NODES.get(n)) {
+                nodeMap[n] = -1;
+                continue;
+            }
+            nodeMap[n] = kept;
+            nodeX[kept] = nodeX[n];
+            nodeY[kept] = nodeY[n];
+            early[kept] = early[n];
+            late[kept] = late[n];
+            earlyInput[kept] = earlyInput[n];
+            lateInput[kept] = lateInput[n];
+            kept++;
+        }
+        int keptTasks = 0;
+        for (int t = 0; t < taskCount; t++) {
+            int start = nodeMap[taskStart[t]];
+            int end = nodeMap[taskEnd[t]];
+            if (duration[t] == -1 || start == -1 || end == -1) {
+                continue;
+            }
+            taskStart[keptTasks] = start;
+            taskEnd[keptTasks] = end;
+            duration[keptTasks] = duration[t];
+            earlyStart[keptTasks] = earlyStart[t];
+            latestStart[keptTasks] = latestStart[t];
+            taskFloat[keptTasks] = taskFloat[t];
+            keptTasks++;
+        }
+        nodeCount = kept;
+        taskCount = keptTasks;
+        DELETED_NODES.clear();
+        int nodeSize = Math.max(nodeCount, 1);
+        int taskSize = Math.max(taskCount, 1);
+        nodeX = Arrays.copyOf(nodeX, nodeSize);
+        nodeY = Arrays.copyOf(nodeY, nodeSize);
+        early = Arrays.copyOf(early, nodeSize);
+        late = Arrays.copyOf(late, nodeSize);
+        earlyInput = Arrays.copyOf(earlyInput, nodeSize);
+        lateInput = Arrays.copyOf(lateInput, nodeSize);
+        order = Arrays.copyOf(order, nodeSize);
+        taskStart = Arrays.copyOf(taskStart, taskSize);
+        taskEnd = Arrays.copyOf(taskEnd, taskSize);
+        duration = Arrays.copyOf(duration, taskSize);
+        earlyStart = Arrays.copyOf(earlyStart, taskSize);
+        latestStart = Arrays.copyOf(latestStart, taskSize);
+        taskFloat = Arrays.copyOf(taskFloat, taskSize);
+        outOffset = null;
+        outTasks = null;
+        indexed = false;
+        return nodeMap;
+    }
+
+    /**
+     * Function to make Drawables for the part of the network inside an area, and put them into a component
+     * A Node is made for every node whose centre is inside the area, holding its inputs and calculated times,
+     * and a Task for every task between two of those nodes, which is also added to the tasks being solved
+     * The nodes keep their numbers as their indices, so the component's next index is moved past them
+     * @param x         - x coordinate of the top left of the area
+     * @param y         - y coordinate of the top left of the area
+     * @param width     - Width of the area
+     * @param height    - Height of the area
+     * @param pc        - The component
+     * @param pf        - The PathFunctions holding the component's tasks
+     * @return          - The amount of Drawables made
+     */
+    int materialise(int x, int y, int width, int height, PathComponent pc, PathFunctions pf) {
+        index();
+        Node[] made = new Node[nodeCount];
+        int count = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (!DELETED_NODES.get(n) && nodeX[n] >= x && nodeX[n] < x + width && nodeY[n] >= y && nodeY[n] < y + height) {
+                Node node = new Node(n, new Vector(nodeX[n], nodeY[n]));
+                node.setSelected(false);
+                node.setEarlyStartInput(earlyInput[n]);
+                node.setLatestStartInput(lateInput[n]);
+                node.setCalculatedEarlyStart(early[n]);
+                node.setCalculatedLatestStart(late[n]);
+                pc.insertNode(node);
+                made[n] = node;
+                count++;
+            }
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            if (made[n] == null) {
+                continue;
+            }
+            for (int k = outOffset[n]; k < outOffset[n + 1]; k++) {
+                int t = outTasks[k];
+                if (made[taskEnd[t]] != null) {
+                    TaskVisualised tVis = new TaskVisualised(made[n], made[taskEnd[t]]);
+                    tVis.setSelected(false);
+                    pc.restoreTask(new Task(tVis), duration[t], pf);
+                    count++;
+                }
+            }
+        }
+        pc.setCurrentIndex(Math.max(pc.getCurrentIndex(), nodeCount));
+        return count;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getTaskStart(int t) {
+        return taskStart[t];
+    }
+
+    public int getTaskEnd(int t) {
+        return taskEnd[t];
+    }
+
+    public int getDuration(int t) {
+        return duration[t];
+    }
+
+    public int getFirstOutgoing(int n) {
+        return outOffset[n];
+    }
+
+    public int getOutgoing(int k) {
+        return outTasks[k];
+    }
+
+    public int getX(int n) {
+        return nodeX[n];
+    }
+
+    public int getY(int n) {
+        return nodeY[n];
+    }
+
+    public int getEarly(int n) {
+        return early[n];
+    }
+
+    public void setEarly(int n, int early) {
+        this.early[n] = early;
+    }
+
+    public int getLate(int n) {
+        return late[n];
+    }
+
+    public void setLate(int n, int late) {
+        this.late[n] = late;
+    }
+
+    public int getOrder(int i) {
+        return order[i];
+    }
+
+    public void setOrder(int i, int n) {
+        order[i] = n;
+    }
+
+    public int getEarlyStart(int t) {
+        return earlyStart[t];
+    }
+
+    public int getLatestStart(int t) {
+        return latestStart[t];
+    }
+
+    public int getFloat(int t) {
+        return taskFloat[t];
+    }
+
+    public void setTaskTimes(int t, int earlyStart, int latestStart, int taskFloat) {
+        this.earlyStart[t] = earlyStart;
+        this.latestStart[t] = latestStart;
+        this.taskFloat[t] = taskFloat;
+    }
+
+    /**
+     * Procedure to store the early event time a student entered for a node
+     * @param n         - Node number
+     * @param input     - The input
+     */
+    void setEarlyInput(int n, int input) {
+        earlyInput[n] = input;
+    }
+
+    /**
+     * Function to get the early event time a student entered for a node
+     * @param n     - Node number
+     * @return      - The input
+     */
+    int getEarlyInput(int n) {
+        return earlyInput[n];
+    }
+
+    /**
+     * Procedure to store the late event time a student entered for a node
+     * @param n         - Node number
+     * @param input     - The input
+     */
+    void setLateInput(int n, int input) {
+        lateInput[n] = input;
+    }
+
+    /**
+     * Function to get the late event time a student entered for a node
+     * @param n     - Node number
+     * @return      - The input
+     */
+    int getLateInput(int n) {
+        return lateInput[n];
+    }
+}
@@ -0,0 +1,110 @@
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Class which tells the parts of the program which depend on a network about the changes made to it
+ * Changes are published as they are made, and are handed to every subscriber together once per frame,
+ * so a burst of changes (such as every frame of a drag, or a node being deleted along with its tasks)
+ * only causes each subscriber to do its work once, and each subscriber can see exactly what changed
+ * Subscribers are told in the order they subscribed
+ * A change which is the same object as the last one published is only kept once, so a drag which publishes
+ * the same change on every frame adds one change to the batch rather than one per frame
+ * The two lists batches are gathered in, and the unmodifiable views subscribers are given, are made once and used in turn,
+ * and the subscribers are copied only when one subscribes or unsubscribes, so handing out a batch makes no garbage
+ * Must only be used on the Event Dispatch Thread
+ */
+class ChangeBus {
+    private static final int FRAME_MS = 16;
+    private static final int LARGEST_KEPT_BATCH = 1024;
+    private final Timer FRAME;
+    private List<Consumer<List<NetworkChange>>> subscribers = new ArrayList<>();
+    private ArrayList<NetworkChange> pending = new ArrayList<>();
+    private ArrayList<NetworkChange> spare = new ArrayList<>();
+    private List<NetworkChange> pendingView = Collections.unmodifiableList(pending);
+    private List<NetworkChange> spareView = Collections.unmodifiableList(spare);
+    private boolean flushing;
+
+    /**
+     * Constructor for a bus with no subscribers
+     */
+    ChangeBus() {
+        this.FRAME = new Timer(FRAME_MS, e -> flush());
+        this.FRAME.setRepeats(false);
+    }
+
+    /**
+     * Procedure to add a subscriber, which is given every batch of changes from now on
+     * The list is reused for a later batch, so must not be kept once the subscriber returns
+     * @param subscriber    - The subscriber, given an unmodifiable list of the changes in the order they were made
+     */
+    void subscribe(Consumer<List<NetworkChange>> subscriber) {
+        ArrayList<Consumer<List<NetworkChange>>> copy = new ArrayList<>(subscribers);
+        copy.add(subscriber);
+        subscribers = copy;
+    }
+
+    /**
+     * Procedure to remove a subscriber
+     * @param subscriber    - The subscriber
+     */
+    void unsubscribe(Consumer<List<NetworkChange>> subscriber) {
+        ArrayList<Consumer<List<NetworkChange>>> copy = new ArrayList<>(subscribers);
+        copy.remove(subscriber);
+        subscribers = copy;
+    }
+
+    /**
+     * Procedure to publish a change which has just been made
+     * The first change of a batch starts the frame timer, the batch is handed out when it fires
+     * @param change    - The change
+     */
+    void publish(NetworkChange change) {
+        if (pending.isEmpty() || pending.get(pending.size() - 1) != change) {
+            pending.add(change);
+        }
+        if (!FRAME.isRunning()) {
+            FRAME.start();
+        }
+    }
+
+    /**
+     * Procedure to hand the changes made since the last batch to every subscriber straight away
+     * Changes published by a subscriber whilst the batch is being handed out go into the next batch,
+     * and a flush asked for by a subscriber is left to the frame timer, as the batch being handed out is still in use
+     */
+    void flush() {
+        if (flushing) {
+            return;
+        }
+        FRAME.stop();
+        if (pending.isEmpty()) {
+            return;
+        }
+        ArrayList<NetworkChange> handing = pending;
+        List<NetworkChange> batch = pendingView;
+        pending = spare;
+        pendingView = spareView;
+        spare = handing;
+        spareView = batch;
+        List<Consumer<List<NetworkChange>>> told = subscribers;
+        flushing = true;
+        try {
+            for (int i = 0; i < told.size(); i++) {
+                told.get(i).accept(batch);
+            }
+        }
+        finally {
+            flushing = false;
+            if (handing.size() > LARGEST_KEPT_BATCH) {        //Don't hold on to the space a very large batch (such as a generated network) needed
+                spare = new ArrayList<>();
+                spareView = Collections.unmodifiableList(spare);
+            }
+            else {
+                handing.clear();
+            }
+        }
+    }
+}
@@ -6,6 +6,13 @@ import javax.swing.*;
 class ClickContextMenu extends JPopupMenu{
     private final JMenuItem NEW_TASK;
     private final JMenuItem NEW_NODE;
+    private final JMenuItem GENERATE;
+    private final JMenuItem IMPORT;
+    private final JMenuItem ESTIMATES;
+    private final JMenuItem SIMULATE;
+    private final JMenuItem CRASHING;
+    private final JMenuItem CRASH;
+    private final JMenuItem PATHS;
     /**
      * Constructor for ClickContextMenu
      * Initialises the options and adds them to the menu
@@ -13,9 +20,27 @@ class ClickContextMenu extends JPopupMenu{
     ClickContextMenu(){
         NEW_TASK = new JMenuItem("Add Task");
         NEW_NODE = new JMenuItem("Add/Drag Node");
+        GENERATE = new JMenuItem("Generate Network...");
+        IMPORT = new JMenuItem("Import Precedence Table...");
+        ESTIMATES = new JMenuItem("Set Task Estimates...");
+        SIMULATE = new JMenuItem("PERT Simulation...");
+        CRASHING = new JMenuItem("Set Task Crashing...");
+        CRASH = new JMenuItem("Crash Network...");
+        PATHS = new JMenuItem("Longest Paths...");
 
         add(NEW_TASK);
         add(NEW_NODE);
+        addSeparator();
+        add(GENERATE);
+        add(IMPORT);
+        addSeparator();
+        add(ESTIMATES);
+        add(SIMULATE);
+        addSeparator();
+        add(CRASHING);
+        add(CRASH);
+        addSeparator();
+        add(PATHS);
     }
 
     /**
@@ -33,4 +58,60 @@ class ClickContextMenu extends JPopupMenu{
     public JMenuItem getNEW_TASK() {
         return NEW_TASK;
     }
+
+    /**
+     * Get the generate item
+     * @return      - GENERATE item
+     */
+    public JMenuItem getGENERATE() {
+        return GENERATE;
+    }
+
+    /**
+     * Get the import item
+     * @return      - IMPORT item
+     */
+    public JMenuItem getIMPORT() {
+        return IMPORT;
+    }
+
+    /**
+     * Get the estimates item
+     * @return      - ESTIMATES item
+     */
+    public JMenuItem getESTIMATES() {
+        return ESTIMATES;
+    }
+
+    /**
+     * Get the simulate item
+     * @return      - SIMULATE item
+     */
+    public JMenuItem getSIMULATE() {
+        return SIMULATE;
+    }
+
+    /**
+     * Get the crashing item
+     * @return      - CRASHING item
+     */
+    public JMenuItem getCRASHING() {
+        return CRASHING;
+    }
+
+    /**
+     * Get the crash item
+     * @return      - CRASH item
+     */
+    public JMenuItem getCRASH() {
+        return CRASH;
+    }
+
+    /**
+     * Get the paths item
+     * @return      - PATHS item
+     */
+    public JMenuItem getPATHS() {
+        return PATHS;
+    }
 }
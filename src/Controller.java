@@ -1,59 +1,110 @@
 import javax.swing.*;
 import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.StringJoiner;
+import java.util.function.Function;
 /**
  * Controller class used to process mouse and key inputs
  *
  * Implements action listener to listen to button presses
+ * Every input acts on the document whose tab is selected, and the results of solves are given to the document they were for
+ * Every input can be recorded by an InputRecorder, and replayed through the same handlers by the InputReplay
  */
 class Controller implements ActionListener {
+    static final File JOURNAL_HOME = new File(System.getProperty("user.home"), ".critical-path-tool");
+    private final File JOURNAL_DIRECTORY;
     private final GUIMain VIEW_MAIN;
     private final ClickContextMenu VIEW_CON_MENU;
+    private final KeyAdapter KEY_ADAPTER;
+    private final MouseAdapter MOUSE_ADAPTER;
     private boolean drawing;
     private boolean placingNode;
     private boolean selecting;
     private boolean controlHeld;
-    private final PathFunctions PATH_FUNCTIONS;
+    private int nextDocument = 1;
+    private InputRecorder recorder;
     /**
      * Constructor for controller
-     * Creates a PathFunctions object
-     * Creates a KeyAdapter which listens to 'ctrl' key
+     * Creates a KeyAdapter which listens to 'ctrl' key, and 'ctrl' + 'z' or 'y' to undo or redo, 'F3' to show or hide the performance overlay,
+     * and 'F4' to show or hide the sensitivity overlay of the selected document
      * Creates a MouseAdapter to listen to mouse location and click behaviour
      * Adds itself as an ActionListener to all buttons
-     * @param guiMain   - The main GUI
-     * @param cCMenu    - The context menu
+     * Opens a document for every network saved in the autosave journals, or a single empty document if there are none
+     * @param guiMain           - The main GUI
+     * @param cCMenu            - The context menu
+     * @param journalDirectory  - The directory of the autosave journals, which is JOURNAL_HOME except when replaying input
      */
-    Controller(GUIMain guiMain, ClickContextMenu cCMenu){
+    Controller(GUIMain guiMain, ClickContextMenu cCMenu, File journalDirectory){
+        this.JOURNAL_DIRECTORY = journalDirectory;
         this.VIEW_MAIN = guiMain;
         this.VIEW_CON_MENU = cCMenu;
-        this.PATH_FUNCTIONS = new PathFunctions();
         this.drawing = false;
         this.placingNode = true;
         this.selecting = false;
 
-        KeyAdapter keyAdapter = new KeyAdapter() {
+        KEY_ADAPTER = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
+                if (recorder != null) {
+                    recorder.key(true, e.getKeyCode());
+                }
                 if (e.getKeyCode() == KeyEvent.VK_CONTROL) {
                     controlHeld = true;
                 }
+                else if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    PerformanceHud.setEnabled(!PerformanceHud.enabled);
+                    VIEW_MAIN.getPComponent().repaint();
+                }
+                else if (e.getKeyCode() == KeyEvent.VK_F4) {
+                    NetworkDocument doc = VIEW_MAIN.getDocument();
+                    doc.setShowingSensitivity(!doc.isShowingSensitivity());
+                    doc.getSOLVER().setAnalysingSensitivity(doc.isShowingSensitivity());
+                    if (doc.isShowingSensitivity()) {
+                        doc.getSOLVER().solveNow(result -> showSensitivity(doc, result));
+                    }
+                    else {
+                        doc.getPComponent().getD_LIST().displaySensitivity(false);
+                        doc.getPComponent().repaint();
+                    }
+                }
                 else if (e.getKeyCode() == KeyEvent.VK_DELETE){
                     System.out.println("CTRL");
                     VIEW_MAIN.getPComponent().deleteSelected();
                 }
+                else if (controlHeld && e.getKeyCode() == KeyEvent.VK_Z){
+                    VIEW_MAIN.getPComponent().undo(VIEW_MAIN.getDocument().getPATH_FUNCTIONS());
+                }
+                else if (controlHeld && e.getKeyCode() == KeyEvent.VK_Y){
+                    VIEW_MAIN.getPComponent().redo(VIEW_MAIN.getDocument().getPATH_FUNCTIONS());
+                }
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
+                if (recorder != null) {
+                    recorder.key(false, e.getKeyCode());
+                }
                 if (e.getKeyCode() == KeyEvent.VK_CONTROL) {
                     controlHeld = false;
                 }
             }
         };
-        MouseAdapter mainMouseAdapter = new MouseAdapter()
+        MOUSE_ADAPTER = new MouseAdapter()
         {
             @Override
             public void mousePressed(MouseEvent e)
             {
+                if (recorder != null) {
+                    recorder.mouse('P', e);
+                }
                 if (SwingUtilities.isLeftMouseButton(e)) {
                     System.out.println(e.getX()  + " , " + e.getY());
 
@@ -81,45 +132,304 @@ class Controller implements ActionListener {
                     VIEW_MAIN.getPComponent().selectNull();
                 }
             }
+            private final Vector DRAG_LOCATION = new Vector(0, 0);     //Reused for every drag event, as nothing keeps hold of it
+
             @Override
             public void mouseDragged(MouseEvent e) {
+                if (recorder != null) {
+                    recorder.mouse('D', e);
+                }
                 if(SwingUtilities.isLeftMouseButton(e)) {
-                    VIEW_MAIN.getPComponent().dragSelected(new Vector(e.getX(), e.getY()));
+                    DRAG_LOCATION.set(e.getX(), e.getY());
+                    VIEW_MAIN.getPComponent().dragSelected(DRAG_LOCATION);
                 }
 
             }
             @Override
             public void mouseReleased(MouseEvent e) {
+                if (recorder != null) {
+                    recorder.mouse('R', e);
+                }
                 if (selecting){
                     selecting = false;
                 }
                 else if (drawing) {
                     Task t = VIEW_MAIN.getPComponent().finishDrawing(new Vector(e.getX(), e.getY()));
-                    PATH_FUNCTIONS.addTask(t);
+                    VIEW_MAIN.getDocument().getPATH_FUNCTIONS().addTask(t);
                     drawing = false;
                 }
+                else {
+                    VIEW_MAIN.getPComponent().finishDrag();
+                }
 
             }
 
         };
 
-        VIEW_MAIN.getPComponent().addMouseListener(mainMouseAdapter);
-        VIEW_MAIN.getPComponent().addMouseMotionListener(mainMouseAdapter);
         VIEW_MAIN.getCHECK_BUTTON().addActionListener(this);
         VIEW_MAIN.getCHECK_VALID_BUTTON().addActionListener(this);
         VIEW_MAIN.getCLEAR_BUTTON().addActionListener(this);
-        VIEW_MAIN.getPComponent().setComponentPopupMenu(cCMenu);
-        VIEW_MAIN.getPComponent().addKeyListener(keyAdapter);
+        VIEW_MAIN.getLIVE_BOX().addActionListener(this);
+        VIEW_MAIN.getNEW_TAB_BUTTON().addActionListener(this);
+        VIEW_MAIN.getCLOSE_TAB_BUTTON().addActionListener(this);
         VIEW_CON_MENU.getNEW_TASK().addActionListener(this);
         VIEW_CON_MENU.getNEW_NODE().addActionListener(this);
+        VIEW_CON_MENU.getGENERATE().addActionListener(this);
+        VIEW_CON_MENU.getIMPORT().addActionListener(this);
+        VIEW_CON_MENU.getESTIMATES().addActionListener(this);
+        VIEW_CON_MENU.getSIMULATE().addActionListener(this);
+        VIEW_CON_MENU.getCRASHING().addActionListener(this);
+        VIEW_CON_MENU.getCRASH().addActionListener(this);
+        VIEW_CON_MENU.getPATHS().addActionListener(this);
+
+        openSavedDocuments();
+    }
+
+    /**
+     * Procedure to open a document for every network saved in the autosave journals
+     * The first document keeps its journal in the journal directory itself, as before there were tabs,
+     * and every other document keeps its journal in a 'network-' directory inside it, numbered in the order they were opened
+     * If there are no saved networks, a single empty document is opened
+     */
+    private void openSavedDocuments() {
+        File[] saved = JOURNAL_DIRECTORY.listFiles(f -> f.isDirectory() && documentNumber(f) > 1);
+        if (saved == null) {
+            saved = new File[0];
+        }
+        Arrays.sort(saved, Comparator.comparingInt(Controller::documentNumber));
+        if (saved.length == 0 || new File(JOURNAL_DIRECTORY, "snapshot.txt").exists()) {
+            openDocument(1, false);
+        }
+        for (File f : saved) {
+            openDocument(documentNumber(f), false);
+        }
+    }
+
+    /**
+     * Function to get the number of a document from the directory of its journal
+     * @param directory     - The directory
+     * @return              - The number, or -1 if the directory is not a document's
+     */
+    private static int documentNumber(File directory) {
+        if (!directory.getName().startsWith("network-")) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(directory.getName().substring("network-".length()));
+        }
+        catch (NumberFormatException notDocument) {
+            return -1;
+        }
+    }
+
+    /**
+     * Procedure to open a document in a new tab
+     * Listens to the mouse and keys on its component, and subscribes to its changes,
+     * so its critical path is re-solved once per batch of changes whilst it is in live mode or showing the sensitivity overlay
+     * Rebuilds the network saved in its journal, and journals every edit from then on
+     * @param number    - The number of the document, which decides its title and the directory of its journal
+     * @param select    - True to select the new tab
+     */
+    private void openDocument(int number, boolean select) {
+        File directory = number == 1 ? JOURNAL_DIRECTORY : new File(JOURNAL_DIRECTORY, "network-" + number);
+        NetworkDocument doc = new NetworkDocument(number, directory, VIEW_MAIN);
+        nextDocument = Math.max(nextDocument, number + 1);
+        PathComponent pc = doc.getPComponent();
+        pc.addMouseListener(MOUSE_ADAPTER);
+        pc.addMouseMotionListener(MOUSE_ADAPTER);
+        pc.addKeyListener(KEY_ADAPTER);
+        pc.setComponentPopupMenu(VIEW_CON_MENU);
+        pc.getCHANGES().subscribe(changes -> {
+            if (NetworkChange.anyAffectSolution(changes) && doc.isLive()) {
+                doc.getSOLVER().solveNow(result -> showLive(doc, result));
+            }
+            else if (NetworkChange.anyAffectSolution(changes) && doc.isShowingSensitivity()) {
+                doc.getSOLVER().solveNow(result -> showSensitivity(doc, result));
+            }
+        });
+        doc.getJOURNAL().start(pc, doc.getPATH_FUNCTIONS());
+        pc.getHISTORY().setJournal(doc.getJOURNAL());
+        VIEW_MAIN.addDocument(doc, select);
+    }
+
+    /**
+     * Procedure to close a document
+     * Cancels any solve still running for it, and deletes its journal so it is not opened again
+     * @param doc       - The document
+     */
+    private void closeDocument(NetworkDocument doc) {
+        doc.getSOLVER().cancel();
+        VIEW_MAIN.removeDocument(doc);
+        doc.getJOURNAL().discard();
+    }
+
+    /**
+     * Procedure to start recording every input into a file, for the InputReplay
+     * Records the size of the selected component and the network of every open document first, so the replay starts from the same state,
+     * then every mouse input, key, button, tab selection, the text entered into every dialogue box and every file chosen
+     * @param file      - The file to record into
+     * @throws IOException  - If the file cannot be opened
+     */
+    void startRecording(Path file) throws IOException {
+        InputRecorder r = new InputRecorder(file);
+        r.size(VIEW_MAIN.getPComponent().getWidth(), VIEW_MAIN.getPComponent().getHeight());
+        for (NetworkDocument doc : VIEW_MAIN.getDocuments()) {
+            r.network(doc.getNUMBER(), doc.getPComponent());
+        }
+        Function<String, String> dialog = VIEW_MAIN.getInputDialog();
+        VIEW_MAIN.setInputDialog(message -> {
+            String input = dialog.apply(message);
+            r.input(input);
+            return input;
+        });
+        Function<String, String> fileDialog = VIEW_MAIN.getFileDialog();
+        VIEW_MAIN.setFileDialog(title -> {
+            String chosen = fileDialog.apply(title);
+            r.input(chosen);
+            return chosen;
+        });
+        VIEW_MAIN.getTABS().addChangeListener(e -> r.tab(VIEW_MAIN.getTABS().getSelectedIndex()));
+        this.recorder = r;
+    }
+
+    /**
+     * Procedure to stop recording inputs and write out the recording
+     */
+    void stopRecording() {
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
+    }
+
+    /**
+     * Function to get the name a button or menu item is recorded by
+     * The live check box is recorded with whether it was ticked, as it is ticked before the action is performed
+     * @param source    - The button or menu item
+     * @return          - The name
+     */
+    String actionName(Object source) {
+        if (source == VIEW_CON_MENU.getNEW_TASK()) {
+            return "task";
+        }
+        else if (source == VIEW_CON_MENU.getNEW_NODE()) {
+            return "node";
+        }
+        else if (source == VIEW_CON_MENU.getGENERATE()) {
+            return "generate";
+        }
+        else if (source == VIEW_CON_MENU.getIMPORT()) {
+            return "import";
+        }
+        else if (source == VIEW_CON_MENU.getESTIMATES()) {
+            return "estimates";
+        }
+        else if (source == VIEW_CON_MENU.getSIMULATE()) {
+            return "simulate";
+        }
+        else if (source == VIEW_CON_MENU.getCRASHING()) {
+            return "crashing";
+        }
+        else if (source == VIEW_CON_MENU.getCRASH()) {
+            return "crash";
+        }
+        else if (source == VIEW_CON_MENU.getPATHS()) {
+            return "paths";
+        }
+        else if (source == VIEW_MAIN.getNEW_TAB_BUTTON()) {
+            return "new";
+        }
+        else if (source == VIEW_MAIN.getCLOSE_TAB_BUTTON()) {
+            return "close";
+        }
+        else if (source == VIEW_MAIN.getCHECK_VALID_BUTTON()) {
+            return "valid";
+        }
+        else if (source == VIEW_MAIN.getCHECK_BUTTON()) {
+            return "check";
+        }
+        else if (source == VIEW_MAIN.getLIVE_BOX()) {
+            return VIEW_MAIN.getLIVE_BOX().isSelected() ? "live 1" : "live 0";
+        }
+        else if (source == VIEW_MAIN.getCLEAR_BUTTON()) {
+            return "clear";
+        }
+        return "unknown";
+    }
+
+    /**
+     * Function to find the button or menu item recorded by a name, ticking or unticking the live check box as it was recorded
+     * @param name      - The name, from actionName()
+     * @return          - The button or menu item, or null if the name is not known
+     */
+    Object actionSource(String name) {
+        switch (name) {
+            case "task":
+                return VIEW_CON_MENU.getNEW_TASK();
+            case "node":
+                return VIEW_CON_MENU.getNEW_NODE();
+            case "generate":
+                return VIEW_CON_MENU.getGENERATE();
+            case "import":
+                return VIEW_CON_MENU.getIMPORT();
+            case "estimates":
+                return VIEW_CON_MENU.getESTIMATES();
+            case "simulate":
+                return VIEW_CON_MENU.getSIMULATE();
+            case "crashing":
+                return VIEW_CON_MENU.getCRASHING();
+            case "crash":
+                return VIEW_CON_MENU.getCRASH();
+            case "paths":
+                return VIEW_CON_MENU.getPATHS();
+            case "new":
+                return VIEW_MAIN.getNEW_TAB_BUTTON();
+            case "close":
+                return VIEW_MAIN.getCLOSE_TAB_BUTTON();
+            case "valid":
+                return VIEW_MAIN.getCHECK_VALID_BUTTON();
+            case "check":
+                return VIEW_MAIN.getCHECK_BUTTON();
+            case "live 1":
+            case "live 0":
+                VIEW_MAIN.getLIVE_BOX().setSelected(name.equals("live 1"));
+                return VIEW_MAIN.getLIVE_BOX();
+            case "clear":
+                return VIEW_MAIN.getCLEAR_BUTTON();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Function to get the listener for the keys, which the InputReplay gives recorded keys to
+     * @return      - The key listener
+     */
+    KeyAdapter getKEY_ADAPTER() {
+        return KEY_ADAPTER;
+    }
+
+    /**
+     * Function to get the listener for the mouse, which the InputReplay gives recorded mouse inputs to
+     * @return      - The mouse listener
+     */
+    MouseAdapter getMOUSE_ADAPTER() {
+        return MOUSE_ADAPTER;
     }
 
     /**
      * Processes button clicks for every button and every phase of each button
+     * Checking the validity of the network and checking answers both solve the network in the background,
+     * and update the GUI once the solve has finished
+     * Every button acts on the document whose tab is selected
      * @param ae    - The action to be processed
      */
     public void actionPerformed(ActionEvent ae)
     {
+        if (recorder != null) {
+            recorder.action(actionName(ae.getSource()));
+        }
+        NetworkDocument doc = VIEW_MAIN.getDocument();
         if (ae.getSource() == VIEW_CON_MENU.getNEW_TASK()){
             placingNode = false;
             System.out.println("Task Mode");
@@ -128,79 +438,490 @@ class Controller implements ActionListener {
             placingNode = true;
             System.out.println("Node Mode");
         }
+        else if (ae.getSource() == VIEW_CON_MENU.getGENERATE()){
+            generateNetwork(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getIMPORT()){
+            importPrecedenceTable(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getESTIMATES()){
+            setEstimates(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getSIMULATE()){
+            simulate(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getCRASHING()){
+            setCrashing(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getCRASH()){
+            crashNetwork(doc);
+        }
+        else if (ae.getSource() == VIEW_CON_MENU.getPATHS()){
+            listPaths(doc);
+        }
+        else if (ae.getSource() == VIEW_MAIN.getNEW_TAB_BUTTON()){
+            openDocument(nextDocument, true);
+        }
+        else if (ae.getSource() == VIEW_MAIN.getCLOSE_TAB_BUTTON()){
+            closeDocument(doc);
+        }
 
 
         else if (ae.getSource() == VIEW_MAIN.getCHECK_VALID_BUTTON()){
             switch (VIEW_MAIN.getCHECK_VALID_BUTTON().getText()) {
                 case "Check Validity Of Network":
-                    try {
-                        PATH_FUNCTIONS.criticalPath();
-                        VIEW_MAIN.setCRIT_PATH_LENGTH("Network is valid");
-                    } catch (RuntimeException cyclicDependency) {
-                        System.out.println("Runtime");
-                        VIEW_MAIN.setCRIT_PATH_LENGTH("Network is invalid");
-                    }
+                    VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Checking network...");
+                    doc.getSOLVER().solveNow(result -> {
+                        try {
+                            doc.getPATH_FUNCTIONS().publish(result);
+                            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Network is valid");
+                        } catch (RuntimeException cyclicDependency) {
+                            System.out.println("Runtime");
+                            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Network is invalid");
+                        }
+                    });
                     break;
 
                 case "Show Answers":
-                    VIEW_MAIN.getPComponent().getD_LIST().displayAnswers(true);
-                    VIEW_MAIN.getCHECK_VALID_BUTTON().setText("Stop Showing Answers");
-                    VIEW_MAIN.getPComponent().repaint();
+                    doc.getPComponent().getD_LIST().displayAnswers(true);
+                    VIEW_MAIN.setCheckValidText(doc, "Stop Showing Answers");
+                    doc.getPComponent().repaint();
                     break;
 
                 default:
-                    VIEW_MAIN.getPComponent().getD_LIST().displayAnswers(false);
-                    VIEW_MAIN.getCHECK_VALID_BUTTON().setText("Show Answers");
-                    int nodeMarks = VIEW_MAIN.getPComponent().getN_LIST().checkAnswers();
-                    VIEW_MAIN.getCHECK_BUTTON().setText("Stop Checking Answers");
-                    VIEW_MAIN.getCHECK_VALID_BUTTON().setText("Show Answers");
-                    int taskMarks = VIEW_MAIN.getPComponent().getD_LIST().checkTaskMarks();
-                    int[] markArray = new int[2];
-                    markArray[0] = nodeMarks;
-                    markArray[1] = taskMarks;
-                    VIEW_MAIN.setMarkAmount(markArray);
-                    VIEW_MAIN.getPComponent().repaint();
+                    doc.getPComponent().getD_LIST().displayAnswers(false);
+                    VIEW_MAIN.setCheckValidText(doc, "Show Answers");
+                    VIEW_MAIN.setCheckText(doc, "Stop Checking Answers");
+                    doc.getPComponent().repaint();
+                    //The network may have been edited while the answers were shown, which clears the solved states, so it is solved again before marking
+                    VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Solving...");
+                    doc.getSOLVER().solveNow(result -> showMarks(doc, result));
                     break;
             }
         }
 
         else if (ae.getSource()==VIEW_MAIN.getCHECK_BUTTON()){
             if (VIEW_MAIN.getCHECK_BUTTON().getText().equals("Check Answers")) {
-                try {
-                    System.out.println("Starting algorithm");
-                    VIEW_MAIN.getPComponent().getN_LIST().setCheckAnswersFalse();
-                    PATH_FUNCTIONS.criticalPath();
-                    VIEW_MAIN.setCRIT_PATH_LENGTH("Critical path length: " + PATH_FUNCTIONS.getCpLength());
-                    int nodeMarks = VIEW_MAIN.getPComponent().getN_LIST().checkAnswers();
-                    VIEW_MAIN.getCHECK_BUTTON().setText("Stop Checking Answers");
-                    VIEW_MAIN.getCHECK_VALID_BUTTON().setText("Show Answers");
-                    int taskMarks = VIEW_MAIN.getPComponent().getD_LIST().checkTaskMarks();
-                    int [] markArray = new int[2];
-                    markArray[0] = nodeMarks;
-                    markArray[1] = taskMarks;
-                    VIEW_MAIN.setMarkAmount(markArray);
-                    VIEW_MAIN.getPComponent().repaint();
-                }
-                catch (RuntimeException re){
-                    System.out.println("Runtime");
-                    VIEW_MAIN.setCRIT_PATH_LENGTH("Cyclic dependency in Network");
-                }
+                System.out.println("Starting algorithm");
+                doc.getPComponent().getN_LIST().setCheckAnswersFalse();
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Solving...");
+                doc.getSOLVER().solveNow(result -> showMarks(doc, result));
             }
             else{
-                VIEW_MAIN.getCHECK_BUTTON().setText("Check Answers");
-                VIEW_MAIN.getCHECK_VALID_BUTTON().setText("Check Validity Of Network");
-                VIEW_MAIN.clearMarkLabel();
-                VIEW_MAIN.getPComponent().getN_LIST().setCheckAnswersFalse();
-                VIEW_MAIN.getPComponent().getD_LIST().displayAnswers(false);
-                VIEW_MAIN.setCRIT_PATH_LENGTH("");
-                VIEW_MAIN.getPComponent().repaint();
+                doc.getSOLVER().cancel();
+                VIEW_MAIN.setCheckText(doc, "Check Answers");
+                VIEW_MAIN.setCheckValidText(doc, "Check Validity Of Network");
+                VIEW_MAIN.clearMarkLabel(doc);
+                doc.getPComponent().getN_LIST().setCheckAnswersFalse();
+                doc.getPComponent().getD_LIST().displayAnswers(false);
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "");
+                doc.getPComponent().repaint();
+            }
+        }
+        else if (ae.getSource() == VIEW_MAIN.getLIVE_BOX()){
+            doc.setLive(VIEW_MAIN.getLIVE_BOX().isSelected());
+            if (doc.isLive()) {
+                doc.getSOLVER().solveNow(result -> showLive(doc, result));
+            }
+            else {
+                doc.getSOLVER().cancel();
+                doc.getPComponent().getD_LIST().displayAnswers(false);
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "");
+                doc.getPComponent().repaint();
             }
         }
         else if (ae.getSource() == VIEW_MAIN.getCLEAR_BUTTON()){
-            PATH_FUNCTIONS.deleteAllTasks();
-            VIEW_MAIN.getPComponent().clearComponent();
+            doc.getSOLVER().cancel();
+            doc.getPATH_FUNCTIONS().deleteAllTasks();
+            doc.getPComponent().clearComponent();
             System.out.println("Clear");
         }
         VIEW_MAIN.getPComponent().requestFocusInWindow();
     }
-}
\ No newline at end of file
+
+    /**
+     * Procedure to ask for a shape, an amount of nodes and an amount of tasks, then add a network of that size to a document
+     * The network is added as one edit, so it can be undone, and the seed comes from the answers,
+     * so the same answers always generate the same network, and a recorded session replays the same way
+     * @param doc       - The document to add the network to
+     */
+    private void generateNetwork(NetworkDocument doc) {
+        Function<String, String> dialog = VIEW_MAIN.getInputDialog();
+        String shapeText = dialog.apply("Shape (chain, grid, random or components):");
+        if (shapeText == null) {
+            return;
+        }
+        String nodesText = dialog.apply("Amount of nodes:");
+        if (nodesText == null) {
+            return;
+        }
+        String tasksText = dialog.apply("Amount of tasks:");
+        if (tasksText == null) {
+            return;
+        }
+        try {
+            NetworkGenerator.Shape shape = NetworkGenerator.Shape.valueOf(shapeText.trim().toUpperCase());
+            int nodes = Integer.parseInt(nodesText.trim());
+            int tasks = Integer.parseInt(tasksText.trim());
+            long seed = ((long) shape.ordinal() << 48) ^ ((long) nodes << 24) ^ tasks;
+            PathComponent pc = doc.getPComponent();
+            long started = System.nanoTime();
+            ArrayNetworkStore store = NetworkGenerator.generate(shape, nodes, tasks, seed, pc.getWidth(), pc.getHeight());
+            pc.addNetwork(store, doc.getPATH_FUNCTIONS());
+            System.out.println("Generated " + store.getNodeCount() + " nodes and " + store.getTaskCount() + " tasks in "
+                    + (System.nanoTime() - started) / 1000000 + " ms");
+        }
+        catch (IllegalArgumentException invalid) {
+            System.out.println("Invalid network: " + invalid.getMessage());
+        }
+    }
+
+    /**
+     * Procedure to import a precedence table from a file, converting it into an activity-on-arrow network added to a document
+     * Each line of the file gives an activity's label, its duration, then the labels of the activities it depends on
+     * The network is laid out and fitted to the component like a generated network, and is added as one edit so it can be undone
+     * Shows which task each activity became, and how many nodes and tasks the conversion saved over giving every activity its own events,
+     * in a dialogue box
+     * @param doc   - The document the network is added to
+     */
+    private void importPrecedenceTable(NetworkDocument doc) {
+        String fileText = VIEW_MAIN.getFileDialog().apply("Import Precedence Table");
+        if (fileText == null) {
+            return;
+        }
+        try {
+            PrecedenceConverter converter = PrecedenceConverter.read(Files.readAllLines(Paths.get(fileText.trim()), StandardCharsets.UTF_8));
+            converter.convert();
+            PathComponent pc = doc.getPComponent();
+            int firstIndex = pc.addNetwork(NetworkGenerator.place(converter.toStore(), pc.getWidth(), pc.getHeight()), doc.getPATH_FUNCTIONS());
+            StringBuilder report = new StringBuilder("Each task is given by its start and end node\n");
+            for (int a = 0; a < converter.getArcCount(); a++) {
+                String label = converter.getArcLabel(a);
+                report.append(label == null ? "Dummy" : "Activity " + label).append(" is task ")
+                        .append(firstIndex + converter.getArcStart(a)).append(' ').append(firstIndex + converter.getArcEnd(a)).append('\n');
+            }
+            report.append("Saved ").append(converter.getNodesSaved()).append(" nodes and ").append(converter.getEdgesSaved())
+                    .append(" tasks over giving every activity its own start and end node\n");
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Imported " + converter.getEventCount() + " nodes and " + converter.getArcCount()
+                    + " tasks, " + converter.getDummyCount() + " of them dummies");
+            VIEW_MAIN.getReportDialog().accept("Imported Precedence Table", report.toString());
+        }
+        catch (IOException | InvalidPathException unreadable) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Could not read " + fileText.trim());
+        }
+        catch (RuntimeException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid precedence table: " + invalid.getMessage());
+        }
+    }
+
+    /**
+     * Procedure to ask for the optimistic and pessimistic estimates of the selected task's duration, used by the PERT simulation
+     * An empty answer uses the task's duration for that estimate
+     * The optimistic estimate cannot be more than the duration, and the pessimistic estimate cannot be less than it
+     * The change is recorded, so it can be undone and is kept by the journal
+     * @param doc   - The document whose selected task is given the estimates
+     */
+    private void setEstimates(NetworkDocument doc) {
+        Drawable selected = doc.getPComponent().getSelected();
+        if (selected == null || selected.getObjectPriority() != 1) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Select a task to set its estimates");
+            return;
+        }
+        TaskVisualised tVis = (TaskVisualised) selected;       //Safe to cast because only TaskVisualiseds have a priority of 1
+        Function<String, String> dialog = VIEW_MAIN.getInputDialog();
+        String optimisticText = dialog.apply("Optimistic duration (empty to use " + tVis.getDuration() + "):");
+        if (optimisticText == null) {
+            return;
+        }
+        String pessimisticText = dialog.apply("Pessimistic duration (empty to use " + tVis.getDuration() + "):");
+        if (pessimisticText == null) {
+            return;
+        }
+        try {
+            int optimistic = optimisticText.isBlank() ? -1 : Integer.parseInt(optimisticText.trim());
+            int pessimistic = pessimisticText.isBlank() ? -1 : Integer.parseInt(pessimisticText.trim());
+            if (optimistic < -1 || pessimistic < -1) {
+                throw new NumberFormatException("Estimates cannot be negative");
+            }
+            if (optimistic > tVis.getDuration() || (pessimistic != -1 && pessimistic < tVis.getDuration())) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "The optimistic duration must be at most " + tVis.getDuration()
+                        + " and the pessimistic duration at least " + tVis.getDuration());
+                return;
+            }
+            doc.getPComponent().setTaskEstimates(tVis, optimistic, pessimistic);
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Estimates: " + tVis.getOptimistic() + ", " + tVis.getDuration() + ", " + tVis.getPessimistic());
+        }
+        catch (NumberFormatException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid estimate");
+        }
+    }
+
+    /**
+     * Procedure to run a PERT simulation of a document's network, using the estimates set on its tasks
+     * Asks for the amount of samples, then shows the mean completion time and the times 50%, 80% and 95% of samples finished by,
+     * and shows the criticality index of every task in a dialogue box
+     * The simulation is run straight away, as a few thousand samples of a network drawn by hand take a few milliseconds
+     * @param doc   - The document to simulate
+     */
+    private void simulate(NetworkDocument doc) {
+        String samplesText = VIEW_MAIN.getInputDialog().apply("Amount of samples:");
+        if (samplesText == null) {
+            return;
+        }
+        try {
+            int samples = Integer.parseInt(samplesText.trim());
+            NetworkSnapshot s = doc.getPATH_FUNCTIONS().snapshot();
+            if (s.getTaskCount() == 0) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "There are no tasks to simulate");
+                return;
+            }
+            if (PathFunctions.solve(s).isCyclic()) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Cyclic dependency in Network");
+                return;
+            }
+            PertSimulation simulation = PertSimulation.fromEstimates(s);
+            simulation.run(samples, 1, PertSimulation.Distribution.BETA);       //The same seed each time, so running again gives the same results
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, String.format("PERT: mean %.1f, 50%% by %.1f, 80%% by %.1f, 95%% by %.1f",
+                    simulation.getMean(), simulation.getPercentile(0.5), simulation.getPercentile(0.8), simulation.getPercentile(0.95)));
+            StringBuilder report = new StringBuilder("Fraction of samples each task was critical in, given by its start and end node\n");
+            for (int t = 0; t < s.getTaskCount(); t++) {
+                report.append(String.format("Task %s: %.2f%n", Journal.taskId(s.getTask(t).getTASK_VISUALISED()), simulation.getCriticalityIndex(t)));
+            }
+            VIEW_MAIN.getReportDialog().accept("Criticality Indices", report.toString());
+        }
+        catch (IllegalArgumentException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid amount of samples");
+        }
+    }
+
+    /**
+     * Procedure to ask how far the selected task can be crashed, and what each unit of time it is shortened by costs
+     * An empty answer for the shortest duration means the task cannot be crashed
+     * The change is recorded, so it can be undone and is kept by the journal
+     * @param doc   - The document whose selected task is given the crashing data
+     */
+    private void setCrashing(NetworkDocument doc) {
+        Drawable selected = doc.getPComponent().getSelected();
+        if (selected == null || selected.getObjectPriority() != 1) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Select a task to set how far it can be crashed");
+            return;
+        }
+        TaskVisualised tVis = (TaskVisualised) selected;       //Safe to cast because only TaskVisualiseds have a priority of 1
+        Function<String, String> dialog = VIEW_MAIN.getInputDialog();
+        String durationText = dialog.apply("Shortest duration the task can be crashed to (empty if it cannot be crashed):");
+        if (durationText == null) {
+            return;
+        }
+        String costText = dialog.apply("Cost of shortening the task by one:");
+        if (costText == null) {
+            return;
+        }
+        try {
+            int crashDuration = durationText.isBlank() ? -1 : Integer.parseInt(durationText.trim());
+            int crashCost = Integer.parseInt(costText.trim());
+            if (crashDuration < -1 || crashCost < 0) {
+                throw new NumberFormatException("Crashing data cannot be negative");
+            }
+            doc.getPComponent().setTaskCrashing(tVis, crashDuration, crashCost);
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Can be crashed to " + tVis.getCrashDuration() + " at " + tVis.getCrashCost() + " per unit");
+        }
+        catch (NumberFormatException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid crashing data");
+        }
+    }
+
+    /**
+     * Procedure to shorten a document's project as cheaply as possible by crashing its tasks
+     * Asks how much to shorten the project by, then crashes the tasks with the CrashOptimiser and sets their new durations,
+     * each of which is recorded so the crashing can be undone
+     * Shows the new critical path length and the total cost, or how far the project could be shortened if not by the full amount
+     * @param doc   - The document to crash
+     */
+    private void crashNetwork(NetworkDocument doc) {
+        String daysText = VIEW_MAIN.getInputDialog().apply("Amount to shorten the project by:");
+        if (daysText == null) {
+            return;
+        }
+        try {
+            int days = Integer.parseInt(daysText.trim());
+            NetworkSnapshot s = doc.getPATH_FUNCTIONS().snapshot();
+            if (s.getTaskCount() == 0) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "There are no tasks to crash");
+                return;
+            }
+            if (PathFunctions.solve(s).isCyclic()) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Cyclic dependency in Network");
+                return;
+            }
+            CrashOptimiser optimiser = CrashOptimiser.fromTasks(s);
+            int before = optimiser.getCpLength();
+            boolean reached = optimiser.shortenBy(days);
+            optimiser.apply(doc.getPComponent());
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, (reached ? "Crashed" : "Could only crash") + " from " + before + " to "
+                    + optimiser.getCpLength() + " for a cost of " + optimiser.getTotalCost());
+        }
+        catch (NumberFormatException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid amount");
+        }
+    }
+
+    /**
+     * Procedure to list the longest paths through a document's network
+     * Asks how many paths to list, then shows each with its length and its tasks in order in a dialogue box,
+     * and shows how many critical paths there are under the network, counting no further than the amount asked for
+     * The PathEnumerator only finds as many paths as are listed, so this stays quick however many paths the network has
+     * @param doc   - The document whose paths are listed
+     */
+    private void listPaths(NetworkDocument doc) {
+        String amountText = VIEW_MAIN.getInputDialog().apply("Amount of paths to list:");
+        if (amountText == null) {
+            return;
+        }
+        try {
+            int amount = Integer.parseInt(amountText.trim());
+            if (amount < 1) {
+                throw new NumberFormatException("Must list at least one path");
+            }
+            NetworkSnapshot s = doc.getPATH_FUNCTIONS().snapshot();
+            if (s.getTaskCount() == 0) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "There are no paths to list");
+                return;
+            }
+            if (PathFunctions.solve(s).isCyclic()) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Cyclic dependency in Network");
+                return;
+            }
+            StringBuilder report = new StringBuilder("Each task is given by its start and end node\n");
+            PathEnumerator.longestPaths(s).limit(amount).forEach(path -> {
+                StringJoiner tasks = new StringJoiner(", ");
+                for (int t : path.getTasks()) {
+                    tasks.add(Journal.taskId(s.getTask(t).getTASK_VISUALISED()));
+                }
+                report.append("Length ").append(path.getLength()).append(": ").append(tasks).append('\n');
+            });
+            long critical = PathEnumerator.criticalPaths(s).limit(amount + 1).count();
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, (critical > amount ? "More than " + amount : String.valueOf(critical))
+                    + " critical path" + (critical == 1 ? "" : "s"));
+            VIEW_MAIN.getReportDialog().accept("Longest Paths", report.toString());
+        }
+        catch (NumberFormatException invalid) {
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Invalid amount");
+        }
+    }
+
+    /**
+     * Procedure to show the critical path of a document whilst in live mode, once its network has been solved
+     * Writes the result back into the network, and makes every Drawable display the calculated event times and critical tasks
+     * Ignored if live mode has been turned off for the document since the solve was requested
+     * Also updates the sensitivity overlay if it is showing, as live mode's solves replace the overlay's own
+     * @param doc       - The document which was solved
+     * @param result    - The result of solving the network
+     */
+    private void showLive(NetworkDocument doc, SolveResult result) {
+        if (!doc.isLive()) {
+            return;
+        }
+        try {
+            doc.getPATH_FUNCTIONS().publish(result);
+            doc.getPComponent().getD_LIST().displayAnswers(true);
+            if (result.getSnapshot().getTaskCount() == 0) {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "");
+            }
+            else {
+                VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Critical path length: " + doc.getPATH_FUNCTIONS().getCpLength());
+            }
+        }
+        catch (RuntimeException re){
+            doc.getPComponent().getD_LIST().displayAnswers(false);
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Cyclic dependency in Network");
+        }
+        showSensitivity(doc, result);
+        doc.getPComponent().repaint();
+    }
+
+    /**
+     * Procedure to show how far each task's duration can change before the critical path changes, once a document's network has been solved
+     * Stamps every task with the range of durations found by a SensitivityAnalysis of the result, and shows the ranges under the durations
+     * The analysis is normally made by the solver alongside the result, it is only made here if the solve was requested before the overlay was shown
+     * Ignored if the overlay has been hidden for the document since the solve was requested, and shows nothing if the network is cyclic
+     * @param doc       - The document which was solved
+     * @param result    - The result of solving the network
+     */
+    private void showSensitivity(NetworkDocument doc, SolveResult result) {
+        if (!doc.isShowingSensitivity()) {
+            return;
+        }
+        DrawableList list = doc.getPComponent().getD_LIST();
+        if (result.isCyclic()) {
+            list.displaySensitivity(false);
+        }
+        else {
+            SensitivityAnalysis a = doc.getSOLVER().getSensitivity();
+            if (a == null || a.getResult() != result) {
+                a = SensitivityAnalysis.analyse(result);
+            }
+            NetworkSnapshot s = result.getSnapshot();
+            for (int t = 0; t < s.getTaskCount(); t++) {
+                s.getTask(t).getTASK_VISUALISED().setSensitivity(a.getMinDuration(t), a.getMaxDuration(t));
+            }
+            list.displaySensitivity(true);
+        }
+        doc.getPComponent().repaint();
+    }
+
+    /**
+     * Procedure to mark the user's answers in a document once its network has been solved
+     * Writes the result back into the network, displays the critical path length,
+     * then checks the inputted event times and the tasks marked as critical
+     * @param doc       - The document which was solved
+     * @param result    - The result of solving the network
+     */
+    private void showMarks(NetworkDocument doc, SolveResult result) {
+        try {
+            doc.getPATH_FUNCTIONS().publish(result);
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Critical path length: " + doc.getPATH_FUNCTIONS().getCpLength());
+            VIEW_MAIN.setCheckText(doc, "Stop Checking Answers");
+            VIEW_MAIN.setCheckValidText(doc, "Show Answers");
+            doc.setMarked(result);
+            VIEW_MAIN.setMarkAmount(doc, grade(doc));
+            doc.getPComponent().repaint();
+        }
+        catch (RuntimeException re){
+            System.out.println("Runtime");
+            VIEW_MAIN.setCRIT_PATH_LENGTH(doc, "Cyclic dependency in Network");
+        }
+    }
+
+    /**
+     * Function to mark the user's answers in a document against the result it was last solved with
+     * The answers are read from the nodes and tasks of that result's snapshot and marked by the Grader,
+     * and each node is put into 'checkingAns' mode showing the times it was marked against
+     * Records a Grade event for the flight recorder, with the size of the network which was marked
+     * @param doc   - The document
+     * @return      - The marks for the event times, then the marks for the critical tasks
+     */
+    private int[] grade(NetworkDocument doc) {
+        ProfilingEvents.Grade event = new ProfilingEvents.Grade();
+        SolveResult r = doc.getMarked();
+        NetworkSnapshot s = r.getSnapshot();
+        int[] earlyInput = new int[s.getNodeCount()];
+        int[] lateInput = new int[s.getNodeCount()];
+        for (int n = 0; n < s.getNodeCount(); n++) {
+            Node node = s.getNode(n);
+            earlyInput[n] = node.getEarlyStartInput();
+            lateInput[n] = node.getLatestStartInput();
+            node.setCalculatedEarlyStart(r.getEarly(n));
+            node.setCalculatedLatestStart(r.getLate(n));
+            node.setCheckingAns(true);
+        }
+        boolean[] critSelected = new boolean[s.getTaskCount()];
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            critSelected[t] = s.getTask(t).getTASK_VISUALISED().isCritSelected();
+        }
+        int[] markArray = new int[2];
+        markArray[0] = Grader.nodeMarks(r, earlyInput, lateInput);
+        markArray[1] = Grader.taskMarks(r, critSelected);
+        event.finish(s.getNodeCount(), s.getTaskCount(), markArray[0], markArray[1]);
+        return markArray;
+    }
+}
@@ -0,0 +1,486 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Class to find the cheapest way to shorten a project by crashing tasks (spending more on them so they take less time)
+ * Every task has a duration it can be crashed down to, and a cost for each unit of time it is shortened by
+ *
+ * Each step every critical path must be shortened, so the cheapest set of critical tasks which covers every critical path is crashed
+ * This set is the minimum cut of the network of critical tasks, where each task's capacity is its crash cost,
+ * or infinite if it cannot be crashed any further, which is found with a maximum flow
+ * The cut is crashed for as long as it stays the cheapest, which is until one of its tasks cannot be crashed any further
+ * or a task which was not critical becomes critical
+ *
+ * Rather than solving the whole network again after each step, every node keeps its early event time (the longest path to it)
+ * and its tail (the longest path from it to the end of the project)
+ * Crashing a task can only change the early event times of nodes after it, and the tails of nodes before it,
+ * so only those nodes are updated, in topological order
+ * Crashed tasks are never lengthened again, so a later step cannot undo an earlier choice which turned out to be more expensive
+ *
+ * Used by 'Crash Network...' in the context menu, and checked against a brute force search by AlgorithmChecks
+ * Running it as a program crashes a random network as far as it will go, and compares the time taken
+ * with the time solving the whole network once per step would take on its own:
+ * java -cp "out/production/Critical Path Teaching Tool" CrashOptimiser [nodes] [extra tasks] [seed]
+ */
+class CrashOptimiser {
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+    private final NetworkSnapshot SNAPSHOT;
+    private final int NODE_COUNT, TASK_COUNT;
+    private final int[] START, END;
+    private final int[] CRASH_DURATION, CRASH_COST;
+    private final int[] OUT_OFFSET, OUT_TASKS, IN_OFFSET, IN_TASKS;
+    private final int[] duration, CUT;
+    private final int[] early, tail;
+    private final BitSet DIRTY_EARLY, DIRTY_TAIL;
+    private int cpLength, steps, nodesUpdated;
+    private long totalCost;
+
+    //Flow network, rebuilt for each step, edges are stored in pairs so edge e ^ 1 is the reverse of edge e
+    private final int SOURCE, SINK;
+    private final int[] FLOW_FIRST, FLOW_NEXT, FLOW_TO, FLOW_TASK, LEVEL, QUEUE, ITERATOR, PATH;
+    private final long[] FLOW_CAPACITY;
+    private int flowEdges;
+
+    /**
+     * Constructor for the optimiser
+     * Renumbers the nodes in topological order, builds the lists of tasks entering and leaving each node,
+     * and solves the network once
+     * The arrays of crashing data are indexed by the snapshot's task numbers
+     * @param s             - The network to crash, with its normal durations
+     * @param crashDuration - Shortest each task can be crashed to
+     * @param crashCost     - Cost of shortening each task by one unit of time
+     */
+    CrashOptimiser(NetworkSnapshot s, int[] crashDuration, int[] crashCost) {
+        this.SNAPSHOT = s;
+        this.NODE_COUNT = s.getNodeCount();
+        this.TASK_COUNT = s.getTaskCount();
+        int[] order = s.topologicalOrder();
+        int[] rank = new int[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++) {
+            rank[order[i]] = i;
+        }
+        this.START = new int[TASK_COUNT];
+        this.END = new int[TASK_COUNT];
+        this.duration = new int[TASK_COUNT];
+        this.CUT = new int[TASK_COUNT];
+        this.CRASH_DURATION = new int[TASK_COUNT];
+        this.CRASH_COST = crashCost.clone();
+        this.OUT_OFFSET = new int[NODE_COUNT + 1];
+        this.IN_OFFSET = new int[NODE_COUNT + 1];
+        for (int t = 0; t < TASK_COUNT; t++) {
+            START[t] = rank[s.getTaskStart(t)];
+            END[t] = rank[s.getTaskEnd(t)];
+            duration[t] = s.getDuration(t);
+            CRASH_DURATION[t] = Math.min(crashDuration[t], duration[t]);
+            OUT_OFFSET[START[t] + 1]++;
+            IN_OFFSET[END[t] + 1]++;
+        }
+        for (int n = 0; n < NODE_COUNT; n++) {
+            OUT_OFFSET[n + 1] += OUT_OFFSET[n];
+            IN_OFFSET[n + 1] += IN_OFFSET[n];
+        }
+        this.OUT_TASKS = new int[TASK_COUNT];
+        this.IN_TASKS = new int[TASK_COUNT];
+        int[] nextOut = OUT_OFFSET.clone();
+        int[] nextIn = IN_OFFSET.clone();
+        for (int t = 0; t < TASK_COUNT; t++) {
+            OUT_TASKS[nextOut[START[t]]++] = t;
+            IN_TASKS[nextIn[END[t]]++] = t;
+        }
+        this.early = new int[NODE_COUNT];
+        this.tail = new int[NODE_COUNT];
+        this.DIRTY_EARLY = new BitSet(NODE_COUNT);
+        this.DIRTY_TAIL = new BitSet(NODE_COUNT);
+        DIRTY_EARLY.set(0, NODE_COUNT);
+        DIRTY_TAIL.set(0, NODE_COUNT);
+        update();
+        nodesUpdated = 0;
+
+        this.SOURCE = NODE_COUNT;
+        this.SINK = NODE_COUNT + 1;
+        int maxEdges = 2 * (TASK_COUNT + 2 * NODE_COUNT);
+        this.FLOW_FIRST = new int[NODE_COUNT + 2];
+        this.FLOW_NEXT = new int[maxEdges];
+        this.FLOW_TO = new int[maxEdges];
+        this.FLOW_TASK = new int[maxEdges];
+        this.FLOW_CAPACITY = new long[maxEdges];
+        this.LEVEL = new int[NODE_COUNT + 2];
+        this.QUEUE = new int[NODE_COUNT + 2];
+        this.ITERATOR = new int[NODE_COUNT + 2];
+        this.PATH = new int[NODE_COUNT + 2];
+    }
+
+    /**
+     * Main program to time crashing a random network as far as it will go
+     * The network is a chain through every node, so there is one path through the whole network, with extra tasks each
+     * jumping up to 50 nodes forward, and every task has a random duration, crash limit and crash cost
+     * @param args      - Amount of nodes (default 5000), extra tasks (default 5000) and seed (default 1)
+     */
+    public static void main(String[] args) {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int extra = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        SplittableRandom random = new SplittableRandom(args.length > 2 ? Long.parseLong(args[2]) : 1);
+        int tasks = nodes - 1 + extra;
+        int[] start = new int[tasks], end = new int[tasks], duration = new int[tasks];
+        int[] crashDuration = new int[tasks], crashCost = new int[tasks];
+        for (int t = 0; t < tasks; t++) {
+            start[t] = t < nodes - 1 ? t : random.nextInt(nodes - 1);
+            end[t] = t < nodes - 1 ? t + 1 : start[t] + 1 + random.nextInt(Math.min(50, nodes - 1 - start[t]));
+            duration[t] = 1 + random.nextInt(10);
+            crashDuration[t] = random.nextInt(4) == 0 ? duration[t] : Math.max(0, duration[t] - 1 - random.nextInt(4));
+            crashCost[t] = 1 + random.nextInt(20);
+        }
+        NetworkSnapshot s = new NetworkSnapshot(new Node[nodes], new Task[tasks], start, end, duration, 0);
+        long started = System.nanoTime();
+        CrashOptimiser optimiser = new CrashOptimiser(s, crashDuration, crashCost);
+        int before = optimiser.getCpLength();
+        optimiser.crashTo(0);
+        long crashed = System.nanoTime();
+        for (int i = 0; i < optimiser.getSteps(); i++) {
+            PathFunctions.solve(s);
+        }
+        long solved = System.nanoTime();
+        System.out.printf("%d tasks crashed from %d to %d in %d steps for a cost of %d, in %.0fms%n",
+                tasks, before, optimiser.getCpLength(), optimiser.getSteps(), optimiser.getTotalCost(), (crashed - started) / 1e6);
+        System.out.printf("%.0f of %d nodes updated each step, solving the whole network once per step would take %.0fms on its own%n",
+                optimiser.getNodesUpdated() / (double) Math.max(1, optimiser.getSteps()), nodes, (solved - crashed) / 1e6);
+    }
+
+    /**
+     * Function to make an optimiser from the crashing data set on each TaskVisualised
+     * Must be called on the Event Dispatch Thread, as it reads from the Task objects
+     * @param s     - The network to crash
+     * @return      - The optimiser
+     */
+    static CrashOptimiser fromTasks(NetworkSnapshot s) {
+        int[] crashDuration = new int[s.getTaskCount()];
+        int[] crashCost = new int[s.getTaskCount()];
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            TaskVisualised tVis = s.getTask(t).getTASK_VISUALISED();
+            crashDuration[t] = tVis.getCrashDuration();
+            crashCost[t] = tVis.getCrashCost();
+        }
+        return new CrashOptimiser(s, crashDuration, crashCost);
+    }
+
+    /**
+     * Function to shorten the project by a given amount of time, as cheaply as possible
+     * Stops early if no more crashing is possible
+     * @param days      - Amount of time to shorten the project by
+     * @return          - True if the project was shortened by the full amount
+     */
+    boolean shortenBy(int days) {
+        return crashTo(cpLength - days);
+    }
+
+    /**
+     * Function to crash the project until its critical path length is at most a target
+     * Stops early if no more crashing is possible
+     * @param target    - Target critical path length
+     * @return          - True if the target was reached
+     */
+    boolean crashTo(int target) {
+        while (cpLength > target) {
+            if (!step(target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Function to shorten the project as far as one cut of the critical tasks can take it
+     * Finds the minimum cut of the critical tasks, then crashes every task in it by the same amount
+     * This amount is as large as possible without going past the target, crashing a task past its limit,
+     * or shortening the project by more than the smallest float, since any more could make new tasks critical
+     * Then updates the event times of the nodes the crashed tasks affect
+     * @param target    - Target critical path length
+     * @return          - False if no more crashing is possible, in which case nothing is changed
+     */
+    private boolean step(int target) {
+        if (TASK_COUNT == 0 || cpLength <= 0) {
+            return false;
+        }
+        int amount = Math.min(cpLength - target, buildFlowNetwork());
+        if (maxFlow() >= INFINITE) {
+            return false;
+        }
+        //After the maximum flow, LEVEL holds the nodes still reachable from the source, which is one side of the minimum cut
+        int cutSize = 0;
+        for (int u = 0; u < NODE_COUNT; u++) {
+            if (LEVEL[u] < 0) {
+                continue;
+            }
+            for (int e = FLOW_FIRST[u]; e != -1; e = FLOW_NEXT[e]) {
+                int t = FLOW_TASK[e];
+                if (t >= 0 && (e & 1) == 0 && LEVEL[FLOW_TO[e]] < 0) {
+                    CUT[cutSize++] = t;
+                    amount = Math.min(amount, duration[t] - CRASH_DURATION[t]);
+                }
+            }
+        }
+        for (int i = 0; i < cutSize; i++) {
+            int t = CUT[i];
+            duration[t] -= amount;
+            totalCost += (long) amount * CRASH_COST[t];
+            DIRTY_EARLY.set(END[t]);
+            DIRTY_TAIL.set(START[t]);
+        }
+        update();
+        steps++;
+        return true;
+    }
+
+    /**
+     * Function to build the flow network of the critical tasks
+     * A task's capacity is its crash cost, or infinite if it is already fully crashed
+     * Every critical node with no critical tasks before it is joined to the source, and every one with none after it to the sink
+     * @return      - The smallest float of any task which is not critical, or the critical path length if every task is critical
+     */
+    private int buildFlowNetwork() {
+        Arrays.fill(FLOW_FIRST, -1);
+        flowEdges = 0;
+        for (int n = 0; n < NODE_COUNT; n++) {
+            if (early[n] + tail[n] != cpLength) {
+                continue;
+            }
+            if (early[n] == 0) {
+                addFlowEdge(SOURCE, n, INFINITE, -1);
+            }
+            if (tail[n] == 0) {
+                addFlowEdge(n, SINK, INFINITE, -1);
+            }
+        }
+        int smallestFloat = cpLength;
+        for (int t = 0; t < TASK_COUNT; t++) {
+            int taskFloat = cpLength - early[START[t]] - duration[t] - tail[END[t]];
+            if (taskFloat == 0) {
+                addFlowEdge(START[t], END[t], duration[t] > CRASH_DURATION[t] ? CRASH_COST[t] : INFINITE, t);
+            }
+            else {
+                smallestFloat = Math.min(smallestFloat, taskFloat);
+            }
+        }
+        return smallestFloat;
+    }
+
+    /**
+     * Procedure to add an edge, and its reverse edge with no capacity, to the flow network
+     * @param from      - Node the edge leaves
+     * @param to        - Node the edge enters
+     * @param capacity  - Capacity of the edge
+     * @param task      - Task the edge represents, -1 for the source and sink edges
+     */
+    private void addFlowEdge(int from, int to, long capacity, int task) {
+        FLOW_TO[flowEdges] = to;
+        FLOW_TASK[flowEdges] = task;
+        FLOW_CAPACITY[flowEdges] = capacity;
+        FLOW_NEXT[flowEdges] = FLOW_FIRST[from];
+        FLOW_FIRST[from] = flowEdges++;
+        FLOW_TO[flowEdges] = from;
+        FLOW_TASK[flowEdges] = task;
+        FLOW_CAPACITY[flowEdges] = 0;
+        FLOW_NEXT[flowEdges] = FLOW_FIRST[to];
+        FLOW_FIRST[to] = flowEdges++;
+    }
+
+    /**
+     * Function to find the maximum flow from the source to the sink, using Dinic's algorithm
+     * Repeatedly levels the nodes by their distance from the source, then pushes flow along paths which only go up a level
+     * Leaves LEVEL set for the last search, so nodes with a level of -1 are on the sink's side of the minimum cut
+     * @return      - The maximum flow, at least INFINITE if no finite cut exists
+     */
+    private long maxFlow() {
+        long flow = 0;
+        while (levelNodes()) {
+            System.arraycopy(FLOW_FIRST, 0, ITERATOR, 0, FLOW_FIRST.length);
+            flow += push();
+            if (flow >= INFINITE) {
+                return flow;
+            }
+        }
+        return flow;
+    }
+
+    /**
+     * Function to level every node by its distance from the source, only following edges with capacity left
+     * @return      - True if the sink can be reached
+     */
+    private boolean levelNodes() {
+        Arrays.fill(LEVEL, -1);
+        int head = 0, tail = 0;
+        QUEUE[tail++] = SOURCE;
+        LEVEL[SOURCE] = 0;
+        while (head < tail) {
+            int u = QUEUE[head++];
+            for (int e = FLOW_FIRST[u]; e != -1; e = FLOW_NEXT[e]) {
+                if (FLOW_CAPACITY[e] > 0 && LEVEL[FLOW_TO[e]] < 0) {
+                    LEVEL[FLOW_TO[e]] = LEVEL[u] + 1;
+                    QUEUE[tail++] = FLOW_TO[e];
+                }
+            }
+        }
+        return LEVEL[SINK] >= 0;
+    }
+
+    /**
+     * Function to push as much flow as possible from the source to the sink, along paths of edges which each go up one level
+     * Paths are followed without recursion, since they can be as long as the network
+     * After flow is pushed along a path, the search goes back to just before the first edge which filled up,
+     * rather than starting again from the source
+     * ITERATOR remembers which edge each node got up to, so an edge which is full or leads nowhere is not tried again
+     * @return      - Flow which reached the sink
+     */
+    private long push() {
+        long flow = 0;
+        int depth = 0;
+        int u = SOURCE;
+        while (true) {
+            if (u == SINK) {
+                long pushed = INFINITE;
+                for (int i = 0; i < depth; i++) {
+                    pushed = Math.min(pushed, FLOW_CAPACITY[PATH[i]]);
+                }
+                for (int i = 0; i < depth; i++) {
+                    FLOW_CAPACITY[PATH[i]] -= pushed;
+                    FLOW_CAPACITY[PATH[i] ^ 1] += pushed;
+                }
+                flow += pushed;
+                if (flow >= INFINITE) {
+                    return flow;
+                }
+                depth = 0;
+                while (FLOW_CAPACITY[PATH[depth]] > 0) {
+                    depth++;
+                }
+                u = FLOW_TO[PATH[depth] ^ 1];
+                continue;
+            }
+            while (ITERATOR[u] != -1) {
+                int e = ITERATOR[u];
+                if (FLOW_CAPACITY[e] > 0 && LEVEL[FLOW_TO[e]] == LEVEL[u] + 1) {
+                    break;
+                }
+                ITERATOR[u] = FLOW_NEXT[e];
+            }
+            if (ITERATOR[u] != -1) {
+                PATH[depth++] = ITERATOR[u];
+                u = FLOW_TO[ITERATOR[u]];
+            }
+            else if (u == SOURCE) {
+                return flow;
+            }
+            else {      //Dead end, so go back and skip the edge which led here
+                u = FLOW_TO[PATH[--depth] ^ 1];
+                ITERATOR[u] = FLOW_NEXT[ITERATOR[u]];
+            }
+        }
+    }
+
+    /**
+     * Procedure to update the early event times and tails of the nodes which have been marked as changed
+     * Early event times are updated forwards in topological order, and a node whose time changes marks the nodes after it
+     * Tails are updated backwards in the same way
+     */
+    private void update() {
+        for (int n = DIRTY_EARLY.nextSetBit(0); n >= 0; n = DIRTY_EARLY.nextSetBit(n + 1)) {
+            int time = 0;
+            for (int k = IN_OFFSET[n]; k < IN_OFFSET[n + 1]; k++) {
+                int t = IN_TASKS[k];
+                time = Math.max(time, early[START[t]] + duration[t]);
+            }
+            nodesUpdated++;
+            if (time != early[n]) {
+                early[n] = time;
+                for (int k = OUT_OFFSET[n]; k < OUT_OFFSET[n + 1]; k++) {
+                    DIRTY_EARLY.set(END[OUT_TASKS[k]]);
+                }
+            }
+        }
+        DIRTY_EARLY.clear();
+        for (int n = DIRTY_TAIL.previousSetBit(NODE_COUNT - 1); n >= 0; n = DIRTY_TAIL.previousSetBit(n - 1)) {
+            int time = 0;
+            for (int k = OUT_OFFSET[n]; k < OUT_OFFSET[n + 1]; k++) {
+                int t = OUT_TASKS[k];
+                time = Math.max(time, duration[t] + tail[END[t]]);
+            }
+            nodesUpdated++;
+            if (time != tail[n]) {
+                tail[n] = time;
+                for (int k = IN_OFFSET[n]; k < IN_OFFSET[n + 1]; k++) {
+                    DIRTY_TAIL.set(START[IN_TASKS[k]]);
+                }
+            }
+        }
+        DIRTY_TAIL.clear();
+        cpLength = 0;
+        for (int n = 0; n < NODE_COUNT && IN_OFFSET[n + 1] == 0; n++) {       //Nodes with no tasks entering them come first
+            cpLength = Math.max(cpLength, tail[n]);
+        }
+    }
+
+    /**
+     * Procedure to set the durations of the tasks in the network to their crashed durations
+     * Each change is recorded, so it can be undone
+     * Must be called on the Event Dispatch Thread
+     * @param pc    - The PathComponent holding the network
+     */
+    void apply(PathComponent pc) {
+        for (int t = 0; t < TASK_COUNT; t++) {
+            if (duration[t] != SNAPSHOT.getDuration(t)) {
+                pc.setTaskDuration(SNAPSHOT.getTask(t).getTASK_VISUALISED(), duration[t]);
+            }
+        }
+    }
+
+    /**
+     * Function to get whether a task is critical
+     * @param t     - Task number in the snapshot
+     * @return      - If critical
+     */
+    boolean isCritical(int t) {
+        return early[START[t]] + duration[t] + tail[END[t]] == cpLength;
+    }
+
+    /**
+     * Function to get the crashed duration of a task
+     * @param t     - Task number in the snapshot
+     * @return      - Duration
+     */
+    int getDuration(int t) {
+        return duration[t];
+    }
+
+    /**
+     * Function to get the current critical path length
+     * @return      - Critical path length
+     */
+    int getCpLength() {
+        return cpLength;
+    }
+
+    /**
+     * Function to get the total cost of all the crashing so far
+     * @return      - Total cost
+     */
+    long getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Function to get the amount of steps taken, each of which crashed one cut of the critical tasks
+     * @return      - Steps
+     */
+    int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Function to get the amount of times a node's event times were recalculated since the first solve
+     * @return      - Nodes updated
+     */
+    int getNodesUpdated() {
+        return nodesUpdated;
+    }
+}
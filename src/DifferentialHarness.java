@@ -0,0 +1,510 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Class which checks the solvers against a simple reference solver on millions of random networks
+ * Every network is solved by PathFunctions.solve(NetworkSnapshot), which the app and the SolveService use,
+ * by PathFunctions.solveInPlace() on an ArrayNetworkStore, and by reference(), which relaxes every task again and again
+ * until nothing changes, and so does not depend on putting the nodes in order
+ * Every node's early and late event times, every task's float (and the early and latest starts solveInPlace() stores),
+ * the critical path length, and whether the network is cyclic must all agree
+ * The Grader must also give full marks for the reference solver's answers, so students are marked against the true event times,
+ * and the network must solve the same after being stored with deleted tasks and nodes, compacted and materialised
+ *
+ * The networks are random DAGs whose nodes are numbered in a random order, some with most tasks being dummies,
+ * some made of several separate networks, and a few with a cycle added
+ * A network which the solvers disagree on is shrunk, by removing tasks and nodes and shortening durations for as long as they still disagree,
+ * then written as T records so it can be solved again by hand
+ *
+ * Cases are split into chunks which run in parallel, and each case's network only depends on the seed and the case's number,
+ * so a run can be repeated exactly. Run with:
+ * java -cp "out/production/Critical Path Teaching Tool" DifferentialHarness [cases] [seed] [max nodes]
+ * The program exits with status 1 if any case failed, so it can be run by CI
+ */
+class DifferentialHarness {
+    private static final int CASES_PER_CHUNK = 4096;
+    private static final int FAILURES_SHOWN = 5;
+
+    /**
+     * A network to be solved, as its node count and the start, end and duration of each task
+     */
+    static final class Case {
+        final int NODE_COUNT;
+        final int[] START, END, DURATION;
+
+        Case(int nodeCount, int[] start, int[] end, int[] duration) {
+            this.NODE_COUNT = nodeCount;
+            this.START = start;
+            this.END = end;
+            this.DURATION = duration;
+        }
+
+        /**
+         * Function to write the network as T records, after a comment giving its node count
+         * @return      - The records
+         */
+        public String toString() {
+            StringBuilder s = new StringBuilder("# " + NODE_COUNT + " nodes\n");
+            for (int t = 0; t < START.length; t++) {
+                s.append("T ").append(START[t]).append(' ').append(END[t]).append(' ').append(DURATION[t]).append(" 0\n");
+            }
+            return s.toString();
+        }
+    }
+
+    /**
+     * Function to make the random network for a case
+     * The nodes are given random ranks, and every task goes from a lower rank to a higher one, so the network is acyclic
+     * One in four networks has mostly dummy tasks, one in four is split into up to four separate networks which share no nodes,
+     * and one in twenty has a task added from a higher rank to a lower one, which makes a cycle
+     * Tasks between the same two nodes can appear more than once
+     * @param seed          - Seed for the run
+     * @param number        - Number of the case
+     * @param maxNodes      - Largest amount of nodes
+     * @return              - The network
+     */
+    static Case generate(long seed, long number, int maxNodes) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + number);
+        int nodeCount = random.nextInt(1, maxNodes + 1);
+        int kind = random.nextInt(4);
+        int[] numberOfRank = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            int j = random.nextInt(i + 1);
+            numberOfRank[i] = numberOfRank[j];
+            numberOfRank[j] = i;
+        }
+        int components = kind == 2 ? Math.min(nodeCount, random.nextInt(2, 5)) : 1;
+        int taskCount = random.nextInt(0, 3 * nodeCount + 1);
+        boolean cyclic = nodeCount > 1 && random.nextInt(20) == 0;
+        int[] start = new int[taskCount + (cyclic ? 1 : 0)];
+        int[] end = new int[start.length];
+        int[] duration = new int[start.length];
+        for (int t = 0; t < taskCount; t++) {
+            int c = random.nextInt(components);
+            int from = c * nodeCount / components;
+            int to = (c + 1) * nodeCount / components;
+            if (to - from < 2) {
+                from = 0;
+                to = nodeCount;
+            }
+            if (to - from < 2) {
+                return new Case(nodeCount, new int[0], new int[0], new int[0]);
+            }
+            int a = random.nextInt(from, to - 1);
+            int b = random.nextInt(a + 1, to);
+            start[t] = numberOfRank[a];
+            end[t] = numberOfRank[b];
+            duration[t] = (kind == 1 && random.nextInt(10) < 7) ? 0 : random.nextInt(0, 21);
+        }
+        if (cyclic) {
+            int a = random.nextInt(1, nodeCount);
+            int b = random.nextInt(a);
+            start[taskCount] = numberOfRank[a];
+            end[taskCount] = numberOfRank[b];
+            duration[taskCount] = random.nextInt(0, 21);
+        }
+        return new Case(nodeCount, start, end, duration);
+    }
+
+    /**
+     * Function to solve a network in the simplest way possible, to check the real solvers against
+     * The network is cyclic if relaxing every task with a length of 1 is still making paths longer after as many rounds as there are nodes,
+     * since no path without a cycle can have more tasks than that (durations are not used for this, as a cycle of dummies never changes a time)
+     * The early times start at 0, and every task is relaxed (its end node's early time raised to its finish) until no early time changes
+     * The critical path length is the greatest early time, or -1 if there are no tasks, as in the real solvers
+     * The late times start at the critical path length, and every task is relaxed backwards until no late time changes
+     * @param c     - The network
+     * @return      - The early times, then the late times, then the critical path length in a one element array, null if cyclic
+     */
+    static int[][] reference(Case c) {
+        int[] ones = new int[c.START.length];
+        Arrays.fill(ones, 1);
+        if (!relax(c, ones, new int[c.NODE_COUNT], true)) {
+            return null;
+        }
+        int[] early = new int[c.NODE_COUNT];
+        relax(c, c.DURATION, early, true);
+        int cp = c.START.length == 0 ? -1 : 0;
+        for (int e : early) {
+            cp = Math.max(cp, e);
+        }
+        int[] late = new int[c.NODE_COUNT];
+        Arrays.fill(late, cp);
+        relax(c, c.DURATION, late, false);
+        return new int[][]{early, late, {cp}};
+    }
+
+    /**
+     * Function to relax every task until no time changes
+     * @param c         - The network
+     * @param lengths   - The length of each task
+     * @param times     - The times to relax, set to their starting values
+     * @param forward   - True to raise early times, false to lower late times
+     * @return          - False if the times were still changing after as many rounds as there are nodes
+     */
+    private static boolean relax(Case c, int[] lengths, int[] times, boolean forward) {
+        for (int round = 0; round <= c.NODE_COUNT; round++) {
+            boolean changed = false;
+            for (int t = 0; t < c.START.length; t++) {
+                if (forward && times[c.START[t]] + lengths[t] > times[c.END[t]]) {
+                    times[c.END[t]] = times[c.START[t]] + lengths[t];
+                    changed = true;
+                }
+                else if (!forward && times[c.END[t]] - lengths[t] < times[c.START[t]]) {
+                    times[c.START[t]] = times[c.END[t]] - lengths[t];
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to solve a network with both real solvers and the reference solver, and compare everything they calculate
+     * An exception thrown by a solver (other than the cycle exception from solveInPlace() on a cyclic network) counts as a disagreement
+     * @param c     - The network
+     * @return      - A description of the first disagreement, null if they all agree
+     */
+    static String check(Case c) {
+        int[][] expected = reference(c);
+        try {
+            NetworkSnapshot snapshot = new NetworkSnapshot(new Node[c.NODE_COUNT], new Task[c.START.length], c.START, c.END, c.DURATION, 0);
+            SolveResult r = PathFunctions.solve(snapshot);
+            if (r.isCyclic() != (expected == null)) {
+                return "solve() cyclic " + r.isCyclic() + ", reference cyclic " + (expected == null);
+            }
+            if (expected != null) {
+                String problem = compare("solve()", c, expected, r.getCpLength(), r::getEarly, r::getLate, null);
+                if (problem != null) {
+                    return problem;
+                }
+                problem = checkGrader(c, expected, r);
+                if (problem != null) {
+                    return problem;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            return "solve() threw " + e;
+        }
+
+        ArrayNetworkStore store = new ArrayNetworkStore(c.NODE_COUNT, c.START.length);
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            store.addNode(0, 0);
+        }
+        for (int t = 0; t < c.START.length; t++) {
+            store.addTask(c.START[t], c.END[t], c.DURATION[t]);
+        }
+        int cp;
+        try {
+            cp = PathFunctions.solveInPlace(store);
+        }
+        catch (RuntimeException e) {
+            if (expected == null && "Cycle exists in path".equals(e.getMessage())) {
+                return null;
+            }
+            return "solveInPlace() threw " + e;
+        }
+        if (expected == null) {
+            return "solveInPlace() solved a cyclic network";
+        }
+        String problem = compare("solveInPlace()", c, expected, cp, store::getEarly, store::getLate, store);
+        if (problem != null) {
+            return problem;
+        }
+        return checkColumns(c, expected);
+    }
+
+    /**
+     * Function to check deleting, compacting and materialising an ArrayNetworkStore
+     * The network is stored with a deleted task running backwards before each of its tasks, and an extra node joined both ways
+     * to every node, which is then deleted, so any of them being solved would make a cycle
+     * Solving must ignore them all, after compact() the store must hold exactly the case's network numbered the same way
+     * and solve to the same answers, and materialise() must make a Node for every node holding its solved times
+     * and a Task for every task, which solve to the same answers again (only nodes with tasks are solved in the app)
+     * @param c         - The network
+     * @param expected  - The reference solver's results, which must not be cyclic
+     * @return          - A description of the first disagreement, null if they all agree
+     */
+    private static String checkColumns(Case c, int[][] expected) {
+        ArrayNetworkStore store = new ArrayNetworkStore(1, 1);
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            store.addNode(n, 0);
+        }
+        int extra = store.addNode(c.NODE_COUNT, 0);
+        for (int t = 0; t < c.START.length; t++) {
+            store.deleteTask(store.addTask(c.END[t], c.START[t], c.DURATION[t]));
+            store.addTask(c.START[t], c.END[t], c.DURATION[t]);
+        }
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            store.addTask(n, extra, 0);
+            store.addTask(extra, n, 0);
+        }
+        store.deleteNode(extra);
+        int cp;
+        try {
+            cp = PathFunctions.solveInPlace(store);
+        }
+        catch (RuntimeException e) {
+            return "solveInPlace() with deleted tasks threw " + e;
+        }
+        String problem = compare("solveInPlace() with deleted tasks", c, expected, cp, store::getEarly, store::getLate, null);
+        if (problem != null) {
+            return problem;
+        }
+
+        int[] nodeMap = store.compact();
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            if (nodeMap[n] != n) {
+                return "compact() renumbered node " + n + " as " + nodeMap[n];
+            }
+        }
+        if (nodeMap[extra] != -1 || store.getNodeCount() != c.NODE_COUNT || store.getTaskCount() != c.START.length) {
+            return "compact() kept " + store.getNodeCount() + " nodes and " + store.getTaskCount() + " tasks";
+        }
+        for (int t = 0; t < c.START.length; t++) {
+            if (store.getTaskStart(t) != c.START[t] || store.getTaskEnd(t) != c.END[t] || store.getDuration(t) != c.DURATION[t]) {
+                return "compact() changed task " + t;
+            }
+        }
+        try {
+            cp = PathFunctions.solveInPlace(store);
+        }
+        catch (RuntimeException e) {
+            return "solveInPlace() after compact() threw " + e;
+        }
+        problem = compare("solveInPlace() after compact()", c, expected, cp, store::getEarly, store::getLate, store);
+        if (problem != null) {
+            return problem;
+        }
+
+        PathComponent pc = new PathComponent();
+        PathFunctions pf = new PathFunctions();
+        int made = store.materialise(0, 0, c.NODE_COUNT, 1, pc, pf);
+        if (made != c.NODE_COUNT + c.START.length) {
+            return "materialise() made " + made + " Drawables, expected " + (c.NODE_COUNT + c.START.length);
+        }
+        for (Node node = pc.getN_LIST().getFirst(); node != null; node = node.getNextNode()) {
+            int n = node.getINDEX();
+            if (node.getCalculatedEarlyStart() != expected[0][n] || node.getCalculatedLatestStart() != expected[1][n]) {
+                return "materialise() gave node " + n + " times " + node.getCalculatedEarlyStart() + " and " + node.getCalculatedLatestStart();
+            }
+        }
+        try {
+            SolveResult r = PathFunctions.solve(pf.snapshot());
+            if (c.START.length > 0 && r.getCpLength() != expected[2][0]) {        //Nodes with no tasks are not solved, so are only counted when there are tasks
+                return "materialised network has critical path length " + r.getCpLength() + ", expected " + expected[2][0];
+            }
+            NetworkSnapshot snapshot = r.getSnapshot();
+            for (int i = 0; i < snapshot.getNodeCount(); i++) {
+                int n = snapshot.getNode(i).getINDEX();
+                if (r.getEarly(i) != expected[0][n] || r.getLate(i) != expected[1][n]) {
+                    return "materialised node " + n + " solved to " + r.getEarly(i) + " and " + r.getLate(i);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            return "solving the materialised network threw " + e;
+        }
+        return null;
+    }
+
+    /**
+     * Function to check the Grader, which the app and the SolveService mark students with, against the reference solver
+     * The reference solver's event times, and selecting exactly the tasks with no float, must get full marks,
+     * and event times which are all one too high must get no marks for the times
+     * @param c         - The network
+     * @param expected  - The reference solver's results
+     * @param r         - The result of solve(), which the Grader marks against
+     * @return          - A description of the first disagreement, null if the Grader agrees
+     */
+    private static String checkGrader(Case c, int[][] expected, SolveResult r) {
+        int fullNodeMarks = c.NODE_COUNT == 0 ? 0 : 4;
+        int nodeMarks = Grader.nodeMarks(r, expected[0], expected[1]);
+        if (nodeMarks != fullNodeMarks) {
+            return "Grader gave " + nodeMarks + " node marks for the reference event times, expected " + fullNodeMarks;
+        }
+        int[] earlyWrong = expected[0].clone();
+        int[] lateWrong = expected[1].clone();
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            earlyWrong[n]++;
+            lateWrong[n]++;
+        }
+        nodeMarks = Grader.nodeMarks(r, earlyWrong, lateWrong);
+        if (nodeMarks != 0) {
+            return "Grader gave " + nodeMarks + " node marks for event times which are all wrong";
+        }
+        boolean[] critical = new boolean[c.START.length];
+        boolean anyMarked = false;
+        for (int t = 0; t < c.START.length; t++) {
+            critical[t] = expected[1][c.END[t]] - expected[0][c.START[t]] - c.DURATION[t] == 0;
+            anyMarked |= c.DURATION[t] != 0;
+        }
+        int taskMarks = Grader.taskMarks(r, critical);
+        if (taskMarks != (anyMarked ? 2 : 0)) {
+            return "Grader gave " + taskMarks + " task marks for the reference critical tasks, expected " + (anyMarked ? 2 : 0);
+        }
+        return null;
+    }
+
+    /**
+     * Function to compare a solver's results with the reference solver's
+     * @param solver    - Name of the solver, for the description
+     * @param c         - The network
+     * @param expected  - The reference solver's results
+     * @param cp        - The solver's critical path length
+     * @param early     - The solver's early time for each node
+     * @param late      - The solver's late time for each node
+     * @param store     - The store solveInPlace() wrote its task times into, null for solve()
+     * @return          - A description of the first disagreement, null if they agree
+     */
+    private static String compare(String solver, Case c, int[][] expected, int cp,
+                                  java.util.function.IntUnaryOperator early, java.util.function.IntUnaryOperator late,
+                                  ArrayNetworkStore store) {
+        if (cp != expected[2][0]) {
+            return solver + " critical path length " + cp + ", expected " + expected[2][0];
+        }
+        for (int n = 0; n < c.NODE_COUNT; n++) {
+            if (early.applyAsInt(n) != expected[0][n]) {
+                return solver + " early time of node " + n + " is " + early.applyAsInt(n) + ", expected " + expected[0][n];
+            }
+            if (late.applyAsInt(n) != expected[1][n]) {
+                return solver + " late time of node " + n + " is " + late.applyAsInt(n) + ", expected " + expected[1][n];
+            }
+        }
+        for (int t = 0; t < c.START.length; t++) {
+            int expectedFloat = expected[1][c.END[t]] - expected[0][c.START[t]] - c.DURATION[t];
+            int taskFloat = late.applyAsInt(c.END[t]) - early.applyAsInt(c.START[t]) - c.DURATION[t];
+            if (store != null) {
+                taskFloat = store.getFloat(t);
+                if (store.getEarlyStart(t) != expected[0][c.START[t]]) {
+                    return solver + " early start of task " + t + " is " + store.getEarlyStart(t) + ", expected " + expected[0][c.START[t]];
+                }
+                if (store.getLatestStart(t) != expected[1][c.END[t]] - c.DURATION[t]) {
+                    return solver + " latest start of task " + t + " is " + store.getLatestStart(t) + ", expected " + (expected[1][c.END[t]] - c.DURATION[t]);
+                }
+            }
+            if (taskFloat != expectedFloat) {
+                return solver + " float of task " + t + " is " + taskFloat + ", expected " + expectedFloat;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to shrink a network the solvers disagree on into the smallest one they still disagree on
+     * Repeatedly tries removing each task, removing each node with no tasks (renumbering the nodes after it),
+     * and setting each duration to 0 or halving it, keeping any change after which the solvers still disagree,
+     * until no change can be kept
+     * @param c     - The network
+     * @return      - The shrunk network
+     */
+    static Case shrink(Case c) {
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (int t = c.START.length - 1; t >= 0; t--) {
+                Case smaller = new Case(c.NODE_COUNT, without(c.START, t), without(c.END, t), without(c.DURATION, t));
+                if (check(smaller) != null) {
+                    c = smaller;
+                    shrunk = true;
+                }
+            }
+            for (int n = c.NODE_COUNT - 1; n >= 0 && c.NODE_COUNT > 1; n--) {
+                if (contains(c.START, n) || contains(c.END, n)) {
+                    continue;
+                }
+                Case smaller = new Case(c.NODE_COUNT - 1, renumber(c.START, n), renumber(c.END, n), c.DURATION);
+                if (check(smaller) != null) {
+                    c = smaller;
+                    shrunk = true;
+                }
+            }
+            for (int t = 0; t < c.START.length; t++) {
+                for (int d : new int[]{0, c.DURATION[t] / 2}) {
+                    if (d == c.DURATION[t]) {
+                        continue;
+                    }
+                    int[] durations = c.DURATION.clone();
+                    durations[t] = d;
+                    Case smaller = new Case(c.NODE_COUNT, c.START, c.END, durations);
+                    if (check(smaller) != null) {
+                        c = smaller;
+                        shrunk = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    private static int[] without(int[] a, int i) {
+        int[] b = new int[a.length - 1];
+        System.arraycopy(a, 0, b, 0, i);
+        System.arraycopy(a, i + 1, b, i, a.length - i - 1);
+        return b;
+    }
+
+    private static boolean contains(int[] a, int v) {
+        for (int x : a) {
+            if (x == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] renumber(int[] a, int removed) {
+        int[] b = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = a[i] > removed ? a[i] - 1 : a[i];
+        }
+        return b;
+    }
+
+    /**
+     * Runs the cases in parallel chunks, then shrinks and prints the first few failures
+     * @param args  - Amount of cases (default 1000000), seed (default 1), largest amount of nodes (default 30)
+     */
+    public static void main(String[] args) {
+        long cases = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int maxNodes = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int chunks = (int) ((cases + CASES_PER_CHUNK - 1) / CASES_PER_CHUNK);
+        AtomicLong failed = new AtomicLong();
+        List<Long> failures = Collections.synchronizedList(new ArrayList<>());
+        long startTime = System.nanoTime();
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            long from = (long) chunk * CASES_PER_CHUNK;
+            long to = Math.min(cases, from + CASES_PER_CHUNK);
+            for (long number = from; number < to; number++) {
+                if (check(generate(seed, number, maxNodes)) != null) {
+                    failed.incrementAndGet();
+                    if (failures.size() < FAILURES_SHOWN) {
+                        failures.add(number);
+                    }
+                }
+            }
+        });
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("%d cases in %.2fs (%.0f per second), %d failed%n", cases, seconds, cases / seconds, failed.get());
+        Collections.sort(failures);
+        for (long number : failures) {
+            Case c = shrink(generate(seed, number, maxNodes));
+            System.out.println("Case " + number + " (seed " + seed + "): " + check(c));
+            System.out.print(c);
+        }
+        if (failed.get() > 0) {
+            System.exit(1);
+        }
+    }
+}
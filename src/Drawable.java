@@ -19,6 +19,8 @@ public interface Drawable {
 
     boolean checkIfInside(Vector v);
 
+    boolean isOutside(Rectangle area);
+
     void delete();
 
     void setDisplayingAnswers(boolean b);
@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.util.Set;
 
 /**
  * Linked List class, of Drawable objects
@@ -7,6 +8,7 @@ import java.awt.*;
  */
 class DrawableList {
     private Drawable first = null;
+    private int culled;
 
     /**
      * Constructor of list for 0 items
@@ -33,7 +35,10 @@ class DrawableList {
     void insert (Drawable drawable){
         Drawable current = this.first;
         Drawable previous = this.first;
-        if (this.isEmpty()) this.first = drawable;
+        if (this.isEmpty()) {
+            drawable.setNextDrawable(null);     //A drawable which is put back into the list may still point to its old neighbour
+            this.first = drawable;
+        }
         else if (this.first.priorityGreaterThanOrEqual(drawable))
         {
             drawable.setNextDrawable(this.first);
@@ -87,6 +92,72 @@ class DrawableList {
         first = null;
     }
 
+    /**
+     * Procedure to insert many Drawables at once, in one pass over the list rather than one pass for each Drawable as insert() takes
+     * The tasks are linked in after the last task already in the list, and the nodes after the last node
+     * @param tasks     - The TaskVisualiseds to insert
+     * @param nodes     - The Nodes to insert
+     */
+    void insertAll(Drawable[] tasks, Drawable[] nodes) {
+        Drawable lastTask = null;
+        Drawable last = null;
+        Drawable current = this.first;
+        while (current != null) {
+            if (current.getObjectPriority() == 1) {
+                lastTask = current;
+            }
+            last = current;
+            current = current.getNextDrawable();
+        }
+        if (tasks.length > 0) {
+            for (int i = 0; i + 1 < tasks.length; i++) {
+                tasks[i].setNextDrawable(tasks[i + 1]);
+            }
+            if (lastTask == null) {
+                tasks[tasks.length - 1].setNextDrawable(this.first);
+                this.first = tasks[0];
+            }
+            else {
+                tasks[tasks.length - 1].setNextDrawable(lastTask.getNextDrawable());
+                lastTask.setNextDrawable(tasks[0]);
+            }
+            if (last == lastTask) {         //No nodes in the list, so the new tasks are now at the end
+                last = tasks[tasks.length - 1];
+            }
+        }
+        if (nodes.length > 0) {
+            for (int i = 0; i + 1 < nodes.length; i++) {
+                nodes[i].setNextDrawable(nodes[i + 1]);
+            }
+            nodes[nodes.length - 1].setNextDrawable(null);
+            if (last == null) {
+                this.first = nodes[0];
+            }
+            else {
+                last.setNextDrawable(nodes[0]);
+            }
+        }
+    }
+
+    /**
+     * Procedure to remove many Drawables at once, in one pass over the list rather than one pass for each Drawable as remove() takes
+     * @param removed   - The Drawables to remove
+     */
+    void removeEach(Set<Drawable> removed) {
+        while (this.first != null && removed.contains(this.first)) {
+            this.first = this.first.getNextDrawable();
+        }
+        Drawable current = this.first;
+        while (current != null) {
+            Drawable next = current.getNextDrawable();
+            while (next != null && removed.contains(next)) {
+                next = next.getNextDrawable();
+            }
+            current.setNextDrawable(next);
+            current = next;
+        }
+    }
+
     /**
      * Function to check whether any TaskVisualised has either the same start and end nodes as the inputted TaskVisualised,
      * or if it's end node is the same as another's start, and it's start the same as that tasks end
@@ -141,43 +212,37 @@ class DrawableList {
     /**
      * Procedure used to draw objects on screen
      * Iterates through the list and runs the draw procedure for every item in list
+     * Items which are entirely outside the area being painted are skipped, and counted as culled
      * @param g - Graphics object
+     * @return  - The amount of objects drawn
      */
-    void drawAll(Graphics g){
+    int drawAll(Graphics g){
+        int drawn = 0;
+        int skipped = 0;
+        Rectangle area = g.getClipBounds();
         Drawable current = this.first;
         while (current != null){
-            current.draw(g);
+            if (area != null && current.isOutside(area)) {
+                skipped++;
+            }
+            else {
+                current.draw(g);
+                drawn++;
+            }
             current = current.getNextDrawable();
         }
+        culled = skipped;
+        return drawn;
     }
 
     /**
-     * Function to get the amount of marks awarded for highlighting tasks correctly
-     * Sums the amount of tasks marked correctly
-     * Divides this by the amount of tasks
-     * Multiplies by 2 and rounds down to nearest integer (As tasks are marked out of two)
-     * Note that dummy tasks are ignored by this algorithm
-     * @return      - Rounded mark
+     * Function to get how many objects were skipped by the last drawAll, because they were outside the area being painted
+     * @return  - The amount of objects culled
      */
-    int checkTaskMarks(){
-        int totalMark = 0;
-        int amountOfTasks = 0;
-        if (!this.isEmpty()) {
-            Drawable current = this.first;
-            while ((current != null) && (current.getObjectPriority() == 1)) {
-                TaskVisualised tV = (TaskVisualised) current;
-                if (tV.getDuration() != 0) {
-                    amountOfTasks++;
-                    if (tV.checkMark() == 1){
-                        totalMark++;
-                    }
-                }
-
-                current = current.getNextDrawable();
-            }
-        }
-        return (2 * totalMark) / (amountOfTasks);
+    int getCulled() {
+        return culled;
     }
+
     /**
      * Function to find if a click location is within the area of an object
      * Iterates through the nodes first, running the checkIfInside function for each node
@@ -186,10 +251,14 @@ class DrawableList {
      * @return  - Which drawable contains the vector, returns null if none contain
      */
     Drawable whichDrawableContains(Vector v) {
+        ProfilingEvents.HitTest event = new ProfilingEvents.HitTest("drawables");
+        int candidates = 0;
         Drawable current = this.first;
         while (current != null) {
             if (current.getObjectPriority() == 2) {  //Check nodes first
+                candidates++;
                 if (current.checkIfInside(v)) {
+                    event.finish(candidates, true);
                     return current;
                 }
             }
@@ -197,11 +266,14 @@ class DrawableList {
         }
         current = this.first;
         while (current.getObjectPriority() == 1){
+            candidates++;
             if (current.checkIfInside(v)) {
+                event.finish(candidates, true);
                 return current;
             }
             current = current.getNextDrawable();
         }
+        event.finish(candidates, false);
         return null;
     }
 
@@ -217,6 +289,30 @@ class DrawableList {
         }
     }
 
+    /**
+     * Procedure to show or hide the range of durations found by the last sensitivity analysis on every TaskVisualised
+     * @param b     - True to show the ranges
+     */
+    void displaySensitivity(boolean b){
+        Drawable current = this.first;
+        while ((current != null) && (current.getObjectPriority() == 1)){
+            ((TaskVisualised) current).setDisplayingSensitivity(b);
+            current = current.getNextDrawable();
+        }
+    }
+
+    /**
+     * Procedure to make every TaskVisualised forget the state found by the last solve, used when the network has changed
+     * Until the network is solved again, no task is drawn or marked as critical
+     */
+    void clearStates(){
+        Drawable current = this.first;
+        while ((current != null) && (current.getObjectPriority() == 1)){
+            ((TaskVisualised) current).clearState();
+            current = current.getNextDrawable();
+        }
+    }
+
     /**
      * Function to get the first item in list
      * @return  - First
@@ -224,4 +320,13 @@ class DrawableList {
     Drawable getFirst() {
         return first;
     }
+
+    /**
+     * Procedure to set the first item in the list
+     * Used to bring back a list which has been cleared, since clearing leaves the rest of the items linked together
+     * @param first     - New first item
+     */
+    void setFirst(Drawable first) {
+        this.first = first;
+    }
 }
\ No newline at end of file
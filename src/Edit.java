@@ -0,0 +1,21 @@
+/**
+ * Interface for a single change made to the network, which can be undone and redone
+ * Each Edit only stores the objects it changed, and never a copy of the whole network
+ * The PathFunctions is passed in so that tasks which are brought back can be re-added to the set of tasks being solved
+ * Each Edit can also describe itself, or how it was undone, as records for the Journal,
+ * and as the NetworkChanges which are published on the component's ChangeBus
+ */
+interface Edit {
+    void undo(PathComponent pc, PathFunctions pf);
+
+    void redo(PathComponent pc, PathFunctions pf);
+
+    String toJournal(PathComponent pc, boolean undone);
+
+    /**
+     * Function to describe what the edit, or undoing it, changed
+     * @param undone    - True if the edit has just been undone, false if it has just been made or redone
+     * @return          - The changes, in the order they were made
+     */
+    NetworkChange[] changes(boolean undone);
+}
@@ -0,0 +1,559 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Class which holds the undo and redo stacks for a PathComponent
+ * Every change to the network is recorded as a small Edit, holding only the objects which were changed
+ * This means memory use grows with the amount of edits made, rather than the size of the network,
+ * and undoing an edit only does as much work as the edit itself
+ * Recording a new edit clears the redo stack
+ * If a Journal is set, every edit which is recorded, undone or redone is also added to the journal
+ * The changes made by every edit which is recorded, undone or redone are published on the component's ChangeBus
+ */
+class EditHistory {
+    private final ArrayDeque<Edit> UNDO_STACK = new ArrayDeque<>();
+    private final ArrayDeque<Edit> REDO_STACK = new ArrayDeque<>();
+    private final ChangeBus CHANGES;
+    private Journal journal;
+
+    /**
+     * Constructor for a history with no edits
+     * @param changes   - The bus to publish the changes made by edits on
+     */
+    EditHistory(ChangeBus changes) {
+        this.CHANGES = changes;
+    }
+
+    /**
+     * Procedure to set the journal which edits are added to
+     * @param journal   - The journal, or null to stop journaling
+     */
+    void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Procedure to publish the changes made by an edit
+     * @param e         - The edit
+     * @param undone    - True if the edit has just been undone
+     */
+    private void changed(Edit e, boolean undone) {
+        for (NetworkChange c : e.changes(undone)) {
+            CHANGES.publish(c);
+        }
+    }
+
+    /**
+     * Procedure to record an edit which has just been made
+     * @param e     - The edit
+     * @param pc    - The PathComponent the edit was made on
+     */
+    void record(Edit e, PathComponent pc) {
+        UNDO_STACK.push(e);
+        REDO_STACK.clear();
+        if (journal != null) {
+            journal.append(e.toJournal(pc, false), pc);
+        }
+        changed(e, false);
+    }
+
+    /**
+     * Procedure to undo the most recent edit, moving it onto the redo stack
+     * @param pc    - The PathComponent the edit was made on
+     * @param pf    - The PathFunctions holding the component's tasks
+     * @return      - False if there was nothing to undo
+     */
+    boolean undo(PathComponent pc, PathFunctions pf) {
+        if (UNDO_STACK.isEmpty()) {
+            return false;
+        }
+        Edit e = UNDO_STACK.pop();
+        e.undo(pc, pf);
+        REDO_STACK.push(e);
+        if (journal != null) {
+            journal.append(e.toJournal(pc, true), pc);
+        }
+        changed(e, true);
+        return true;
+    }
+
+    /**
+     * Procedure to redo the most recently undone edit, moving it back onto the undo stack
+     * @param pc    - The PathComponent the edit was made on
+     * @param pf    - The PathFunctions holding the component's tasks
+     * @return      - False if there was nothing to redo
+     */
+    boolean redo(PathComponent pc, PathFunctions pf) {
+        if (REDO_STACK.isEmpty()) {
+            return false;
+        }
+        Edit e = REDO_STACK.pop();
+        e.redo(pc, pf);
+        UNDO_STACK.push(e);
+        if (journal != null) {
+            journal.append(e.toJournal(pc, false), pc);
+        }
+        changed(e, false);
+        return true;
+    }
+
+    /**
+     * Procedure to forget every recorded edit
+     */
+    void clear() {
+        UNDO_STACK.clear();
+        REDO_STACK.clear();
+    }
+
+    /**
+     * Edit for a node being placed
+     */
+    static class AddNode implements Edit {
+        private final Node NODE;
+
+        AddNode(Node n) {
+            this.NODE = n;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            pc.removeNode(NODE);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            pc.insertNode(NODE);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return undone ? "XN " + NODE.getINDEX() + "\n" : Journal.describeNode(NODE);
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.node(undone ? NetworkChange.Kind.NODE_REMOVED : NetworkChange.Kind.NODE_ADDED, NODE)};
+        }
+    }
+
+    /**
+     * Edit for a node being dragged
+     * A whole drag is stored as one edit, holding only where the node started and where it was dropped
+     */
+    static class MoveNode implements Edit {
+        private final Node NODE;
+        private final Vector FROM, TO;
+
+        MoveNode(Node n, Vector from, Vector to) {
+            this.NODE = n;
+            this.FROM = from;
+            this.TO = to;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            NODE.setCentre(FROM);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            NODE.setCentre(TO);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            Vector v = undone ? FROM : TO;
+            return "M " + NODE.getINDEX() + " " + v.getIntX() + " " + v.getIntY() + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.node(NetworkChange.Kind.NODE_MOVED, NODE)};
+        }
+
+    }
+
+    /**
+     * Edit for a task being drawn, along with the node it finishes at if that node was created by the same drag
+     */
+    static class AddTask implements Edit {
+        private final Task TASK;
+        private final Node NEW_END_NODE;
+        private int duration;
+
+        AddTask(Task t, Node newEndNode) {
+            this.TASK = t;
+            this.NEW_END_NODE = newEndNode;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            duration = TASK.getTASK_VISUALISED().getDuration();
+            pc.removeTask(TASK);
+            if (NEW_END_NODE != null) {
+                pc.removeNode(NEW_END_NODE);
+            }
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            if (NEW_END_NODE != null) {
+                pc.insertNode(NEW_END_NODE);
+            }
+            pc.restoreTask(TASK, duration, pf);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            TaskVisualised tVis = TASK.getTASK_VISUALISED();
+            if (undone) {
+                return "XT " + Journal.taskId(tVis) + "\n" + (NEW_END_NODE != null ? "XN " + NEW_END_NODE.getINDEX() + "\n" : "");
+            }
+            return (NEW_END_NODE != null ? Journal.describeNode(NEW_END_NODE) : "") + Journal.describeTask(tVis, tVis.getDuration());
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            NetworkChange task = NetworkChange.task(undone ? NetworkChange.Kind.TASK_REMOVED : NetworkChange.Kind.TASK_ADDED, TASK.getTASK_VISUALISED());
+            if (NEW_END_NODE == null) {
+                return new NetworkChange[]{task};
+            }
+            if (undone) {
+                return new NetworkChange[]{task, NetworkChange.node(NetworkChange.Kind.NODE_REMOVED, NEW_END_NODE)};
+            }
+            return new NetworkChange[]{NetworkChange.node(NetworkChange.Kind.NODE_ADDED, NEW_END_NODE), task};
+        }
+    }
+
+    /**
+     * Edit for the duration of a task being changed
+     */
+    static class SetDuration implements Edit {
+        private final TaskVisualised TASK;
+        private final int OLD_DURATION, NEW_DURATION;
+
+        SetDuration(TaskVisualised tVis, int oldDuration, int newDuration) {
+            this.TASK = tVis;
+            this.OLD_DURATION = oldDuration;
+            this.NEW_DURATION = newDuration;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            TASK.setDuration(OLD_DURATION);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            TASK.setDuration(NEW_DURATION);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return "D " + Journal.taskId(TASK) + " " + (undone ? OLD_DURATION : NEW_DURATION) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.task(NetworkChange.Kind.DURATION_CHANGED, TASK)};
+        }
+    }
+
+    /**
+     * Edit for the optimistic and pessimistic estimates of a task being changed
+     */
+    static class SetEstimates implements Edit {
+        private final TaskVisualised TASK;
+        private final int OLD_OPTIMISTIC, OLD_PESSIMISTIC, NEW_OPTIMISTIC, NEW_PESSIMISTIC;
+
+        SetEstimates(TaskVisualised tVis, int oldOptimistic, int oldPessimistic, int newOptimistic, int newPessimistic) {
+            this.TASK = tVis;
+            this.OLD_OPTIMISTIC = oldOptimistic;
+            this.OLD_PESSIMISTIC = oldPessimistic;
+            this.NEW_OPTIMISTIC = newOptimistic;
+            this.NEW_PESSIMISTIC = newPessimistic;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            TASK.setEstimates(OLD_OPTIMISTIC, OLD_PESSIMISTIC);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            TASK.setEstimates(NEW_OPTIMISTIC, NEW_PESSIMISTIC);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return "E " + Journal.taskId(TASK) + " " + (undone ? OLD_OPTIMISTIC + " " + OLD_PESSIMISTIC : NEW_OPTIMISTIC + " " + NEW_PESSIMISTIC) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.task(NetworkChange.Kind.ESTIMATES_CHANGED, TASK)};
+        }
+    }
+
+    /**
+     * Edit for how far a task can be crashed, and what crashing it costs, being changed
+     */
+    static class SetCrashing implements Edit {
+        private final TaskVisualised TASK;
+        private final int OLD_DURATION, OLD_COST, NEW_DURATION, NEW_COST;
+
+        SetCrashing(TaskVisualised tVis, int oldDuration, int oldCost, int newDuration, int newCost) {
+            this.TASK = tVis;
+            this.OLD_DURATION = oldDuration;
+            this.OLD_COST = oldCost;
+            this.NEW_DURATION = newDuration;
+            this.NEW_COST = newCost;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            TASK.setCrashing(OLD_DURATION, OLD_COST);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            TASK.setCrashing(NEW_DURATION, NEW_COST);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return "K " + Journal.taskId(TASK) + " " + (undone ? OLD_DURATION + " " + OLD_COST : NEW_DURATION + " " + NEW_COST) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.task(NetworkChange.Kind.CRASHING_CHANGED, TASK)};
+        }
+    }
+
+    /**
+     * Edit for an inputted early or late event time being changed
+     */
+    static class SetEventTime implements Edit {
+        private final Node NODE;
+        private final boolean EARLY;
+        private final int OLD_TIME, NEW_TIME;
+
+        SetEventTime(Node n, boolean early, int oldTime, int newTime) {
+            this.NODE = n;
+            this.EARLY = early;
+            this.OLD_TIME = oldTime;
+            this.NEW_TIME = newTime;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            set(OLD_TIME);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            set(NEW_TIME);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return (EARLY ? "ES " : "LS ") + NODE.getINDEX() + " " + (undone ? OLD_TIME : NEW_TIME) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.node(NetworkChange.Kind.EVENT_TIME_CHANGED, NODE)};
+        }
+
+
+        private void set(int time) {
+            if (EARLY) {
+                NODE.setEarlyStartInput(time);
+            }
+            else {
+                NODE.setLatestStartInput(time);
+            }
+        }
+    }
+
+    /**
+     * Edit for a task being marked or unmarked as critical
+     */
+    static class ToggleCritical implements Edit {
+        private final TaskVisualised TASK;
+
+        ToggleCritical(TaskVisualised tVis) {
+            this.TASK = tVis;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            TASK.toggleCritSelected();
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            TASK.toggleCritSelected();
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return "C " + Journal.taskId(TASK) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.task(NetworkChange.Kind.CRITICALITY_TOGGLED, TASK)};
+        }
+
+    }
+
+    /**
+     * Edit for a single task being deleted
+     */
+    static class DeleteTask implements Edit {
+        private final Task TASK;
+        private final int DURATION;
+
+        DeleteTask(Task t) {
+            this.TASK = t;
+            this.DURATION = t.getTASK_VISUALISED().getDuration();
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            pc.restoreTask(TASK, DURATION, pf);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            pc.removeTask(TASK);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            TaskVisualised tVis = TASK.getTASK_VISUALISED();
+            return undone ? Journal.describeTask(tVis, DURATION) : "XT " + Journal.taskId(tVis) + "\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.task(undone ? NetworkChange.Kind.TASK_ADDED : NetworkChange.Kind.TASK_REMOVED, TASK.getTASK_VISUALISED())};
+        }
+    }
+
+    /**
+     * Edit for a node being deleted, along with every task which started or finished at it
+     * Only the node's own task lists and the durations of its tasks are captured
+     */
+    static class DeleteNode implements Edit {
+        private final Node NODE;
+        private final TaskList PRECEDING, SUCCEEDING;
+        private final Task[] TASKS;
+        private final int[] DURATIONS;
+
+        DeleteNode(Node n) {
+            this.NODE = n;
+            this.PRECEDING = n.getPrecedingTasks();
+            this.SUCCEEDING = n.getSucceedingTasks();
+            int count = 0;
+            Task[] tasks = new Task[PRECEDING.size() + SUCCEEDING.size()];
+            for (int i = 0; i < PRECEDING.size(); i++) {
+                Task t = PRECEDING.get(i);
+                if (t.getTASK_VISUALISED().getDuration() != -1) {
+                    tasks[count++] = t;
+                }
+            }
+            for (int i = 0; i < SUCCEEDING.size(); i++) {
+                Task t = SUCCEEDING.get(i);
+                if (t.getTASK_VISUALISED().getDuration() != -1) {
+                    tasks[count++] = t;
+                }
+            }
+            this.TASKS = Arrays.copyOf(tasks, count);
+            this.DURATIONS = new int[count];
+            for (int i = 0; i < count; i++) {
+                DURATIONS[i] = TASKS[i].getTASK_VISUALISED().getDuration();
+            }
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            NODE.restore(PRECEDING, SUCCEEDING);
+            pc.insertNode(NODE);
+            for (int i = 0; i < TASKS.length; i++) {
+                pc.restoreTask(TASKS[i], DURATIONS[i], pf);
+            }
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            for (Task t : TASKS) {
+                pc.removeTask(t);
+            }
+            pc.removeNode(NODE);
+            NODE.delete();
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            if (!undone) {
+                return "XN " + NODE.getINDEX() + "\n";
+            }
+            StringBuilder sb = new StringBuilder(Journal.describeNode(NODE));
+            for (int i = 0; i < TASKS.length; i++) {
+                sb.append(Journal.describeTask(TASKS[i].getTASK_VISUALISED(), DURATIONS[i]));
+            }
+            return sb.toString();
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            NetworkChange[] changes = new NetworkChange[TASKS.length + 1];
+            NetworkChange.Kind taskKind = undone ? NetworkChange.Kind.TASK_ADDED : NetworkChange.Kind.TASK_REMOVED;
+            for (int i = 0; i < TASKS.length; i++) {
+                changes[undone ? i + 1 : i] = NetworkChange.task(taskKind, TASKS[i].getTASK_VISUALISED());
+            }
+            changes[undone ? 0 : TASKS.length] = NetworkChange.node(undone ? NetworkChange.Kind.NODE_ADDED : NetworkChange.Kind.NODE_REMOVED, NODE);
+            return changes;
+        }
+    }
+
+    /**
+     * Edit for a whole network being added at once by the generator
+     * Undoing it takes every node and task out in one pass over the lists, and redoing it puts them back in one pass
+     */
+    static class AddNetwork implements Edit {
+        private final Node[] NODES;
+        private final Task[] TASKS;
+        private final int[] DURATIONS;
+
+        AddNetwork(Node[] nodes, Task[] tasks, int[] durations) {
+            this.NODES = nodes;
+            this.TASKS = tasks;
+            this.DURATIONS = durations;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            pc.removeBatch(NODES, TASKS);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            for (int i = 0; i < TASKS.length; i++) {
+                TASKS[i].getTASK_VISUALISED().restore(DURATIONS[i]);
+            }
+            pc.insertBatch(NODES, TASKS, pf);
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            StringBuilder sb = new StringBuilder();
+            for (Node n : NODES) {
+                sb.append(undone ? "XN " + n.getINDEX() + "\n" : Journal.describeNode(n));
+            }
+            if (!undone) {
+                for (int i = 0; i < TASKS.length; i++) {
+                    sb.append(Journal.describeTask(TASKS[i].getTASK_VISUALISED(), DURATIONS[i]));
+                }
+            }
+            return sb.toString();
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.networkReplaced()};
+        }
+    }
+
+    /**
+     * Edit for the whole network being cleared
+     * Clearing only detaches the heads of the lists, so the edit just keeps hold of the old heads
+     */
+    static class Clear implements Edit {
+        private final Drawable FIRST_DRAWABLE;
+        private final Node FIRST_NODE;
+        private final int CURRENT_INDEX;
+
+        Clear(Drawable firstDrawable, Node firstNode, int currentIndex) {
+            this.FIRST_DRAWABLE = firstDrawable;
+            this.FIRST_NODE = firstNode;
+            this.CURRENT_INDEX = currentIndex;
+        }
+
+        public void undo(PathComponent pc, PathFunctions pf) {
+            pc.restoreCleared(FIRST_DRAWABLE, FIRST_NODE, CURRENT_INDEX, pf);
+        }
+
+        public void redo(PathComponent pc, PathFunctions pf) {
+            pf.deleteAllTasks();
+            pc.clearNetwork();
+        }
+
+        public String toJournal(PathComponent pc, boolean undone) {
+            return undone ? Journal.describeNetwork(pc) : "CLR\n";
+        }
+
+        public NetworkChange[] changes(boolean undone) {
+            return new NetworkChange[]{NetworkChange.networkReplaced()};
+        }
+    }
+}
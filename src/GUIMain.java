@@ -1,43 +1,59 @@
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 /**
- * GUI object, which extends JFrame
- * Holds the Component for the Nodes and Tasks, and all the options
- * Class is initialised by the Main class
+ * GUI object, which extends JPanel
+ * Holds a tab for each open NetworkDocument, each showing the Component for its Nodes and Tasks, and all the options
+ * The buttons and labels are shared by every tab, and show the state of the document whose tab is selected
+ * Class is initialised by the Main class, which shows it in the window,
+ * and can be made without a window when input is replayed headless by the InputReplay
  */
-class GUIMain extends JFrame {
+class GUIMain extends JPanel {
     private final JButton CHECK_BUTTON = new JButton("Check Answers");
     private final JButton CHECK_VALID_BUTTON = new JButton("Check Validity Of Network");
     private final JButton CLEAR_BUTTON = new JButton("Clear all");
-    private final PathComponent P_COMPONENT = new PathComponent();
+    private final JCheckBox LIVE_BOX = new JCheckBox("Live critical path");
+    private final JButton NEW_TAB_BUTTON = new JButton("New network");
+    private final JButton CLOSE_TAB_BUTTON = new JButton("Close network");
+    private final JTabbedPane TABS = new JTabbedPane();
     private final JLabel CRIT_PATH_LENGTH;
     private final JLabel MARK_LABEL;
+    private final JProgressBar SOLVING_BAR;
+    private Function<String, String> inputDialog = JOptionPane::showInputDialog;
+    private BiConsumer<String, String> reportDialog = this::showReport;
+    private Function<String, String> fileDialog = this::chooseFile;
 
     /**
      * Constructor for class
-     * Configures the frame
+     * Configures the panel, with no tabs until the Controller opens the documents
+     * Whenever another tab is selected, the buttons and labels are changed to show the state of its document
      */
     GUIMain(){
-        P_COMPONENT.setPreferredSize(new Dimension(700, 500));
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        TABS.setPreferredSize(new Dimension(700, 530));
+        TABS.addChangeListener(e -> showDocument());
+        setLayout(new BorderLayout());
         JPanel bottomPanel = new JPanel();
         JPanel topPanel = new JPanel();
         CRIT_PATH_LENGTH = new JLabel();
         MARK_LABEL = new JLabel();
+        SOLVING_BAR = new JProgressBar();
+        SOLVING_BAR.setIndeterminate(true);
+        SOLVING_BAR.setVisible(false);
         bottomPanel.add(CLEAR_BUTTON);
         bottomPanel.add(CHECK_VALID_BUTTON);
         bottomPanel.add(CHECK_BUTTON);
+        bottomPanel.add(LIVE_BOX);
         CRIT_PATH_LENGTH.setAlignmentX(Component.RIGHT_ALIGNMENT);
         bottomPanel.add(CRIT_PATH_LENGTH);
+        bottomPanel.add(SOLVING_BAR);
+        topPanel.add(NEW_TAB_BUTTON);
+        topPanel.add(CLOSE_TAB_BUTTON);
         topPanel.add(MARK_LABEL);
-        this.setTitle("Critical Path Algorithm");
-        this.getContentPane().add(topPanel, BorderLayout.NORTH);
-        this.getContentPane().add(P_COMPONENT, BorderLayout.CENTER);
-        this.getContentPane().add(bottomPanel, BorderLayout.SOUTH);
-        this.pack();
-        this.setVisible(true);
-        this.setFocusable(true);
-        this.requestFocus();
+        this.add(topPanel, BorderLayout.NORTH);
+        this.add(TABS, BorderLayout.CENTER);
+        this.add(bottomPanel, BorderLayout.SOUTH);
     }
 
     /**
@@ -48,9 +64,9 @@ class GUIMain extends JFrame {
      * @return  - The start node
      */
     Node startDrawing(Vector v){
-        Node startNode = P_COMPONENT.validTaskStart(v);
+        Node startNode = getPComponent().validTaskStart(v);
         if (!(startNode == null)){
-            this.P_COMPONENT.drawLine(startNode.getCentre());
+            getPComponent().drawLine(startNode.getCentre());
             return startNode;
         }
         System.out.println("Invalid start");
@@ -64,30 +80,32 @@ class GUIMain extends JFrame {
      * Else if a Node is selected, then the selected zone of the node is checked,
      * allowing the correct dialogue box to open to change the correct event time
      * When a dialogue box receives an input, the input is checked and set to the corresponding variable if valid
+     * The dialogue boxes are opened by the input dialog function, which can be replaced to record or replay the inputs
+     * The change is recorded as an edit, which repaints the component
      * If no node is selected then no dialogue box is opened
      */
     void doubleClicked (){
         String input = "null";
-        Drawable selectedDrawable = P_COMPONENT.getSelected();
+        Drawable selectedDrawable = getPComponent().getSelected();
         if (selectedDrawable != null) {
             try {
                 if (selectedDrawable.getObjectPriority() == 1) {
                     TaskVisualised tVis = (TaskVisualised) selectedDrawable; //Safe to cast because selectedDrawable is proven to be a taskVisualised
-                    input = JOptionPane.showInputDialog("New duration for task: ");
+                    input = inputDialog.apply("New duration for task: ");
                     if ((input != null)&&(Integer.parseInt(input)>= 0)) {
-                        tVis.setDuration(Integer.parseInt(input));
+                        getPComponent().setTaskDuration(tVis, Integer.parseInt(input));
                     }
                 } else if (selectedDrawable.getObjectPriority() == 2) {
                     Node n = (Node) selectedDrawable;
                     if (n.getSelectedArea() == 2) {
-                        input = JOptionPane.showInputDialog("Enter early event time: ");
+                        input = inputDialog.apply("Enter early event time: ");
                         if ((input != null)&&(Integer.parseInt(input)>= 0)) {
-                            n.setEarlyStartInput(Integer.parseInt(input));
+                            getPComponent().setEventTime(n, true, Integer.parseInt(input));
                         }
                     } else if (n.getSelectedArea() == 3) {
-                        input = JOptionPane.showInputDialog("Enter late event time: ");
+                        input = inputDialog.apply("Enter late event time: ");
                         if ((input != null)&&(Integer.parseInt(input)>= 0)) {
-                            n.setLatestStartInput(Integer.parseInt(input));
+                            getPComponent().setEventTime(n, false, Integer.parseInt(input));
                         }
 
                     }
@@ -111,15 +129,160 @@ class GUIMain extends JFrame {
                 }
             }
         }
-        P_COMPONENT.repaint();
     }
 
     /**
-     * Function to get the Paint Component
+     * Procedure to add a tab for a document
+     * The close button is only enabled whilst more than one document is open
+     * @param doc       - The document
+     * @param select    - True to select the new tab
+     */
+    void addDocument(NetworkDocument doc, boolean select) {
+        doc.getPComponent().setPreferredSize(new Dimension(700, 500));
+        TABS.addTab(doc.getTITLE(), doc.getPComponent());
+        if (select) {
+            TABS.setSelectedComponent(doc.getPComponent());
+        }
+        CLOSE_TAB_BUTTON.setEnabled(TABS.getTabCount() > 1);
+    }
+
+    /**
+     * Procedure to remove the tab of a document
+     * @param doc       - The document
+     */
+    void removeDocument(NetworkDocument doc) {
+        TABS.remove(doc.getPComponent());
+        CLOSE_TAB_BUTTON.setEnabled(TABS.getTabCount() > 1);
+    }
+
+    /**
+     * Function to get the function which opens the dialogue boxes for a double click
+     * @return  - The function, given the message and returning the input, or null if the dialogue box was cancelled
+     */
+    Function<String, String> getInputDialog() {
+        return inputDialog;
+    }
+
+    /**
+     * Procedure to replace the function which opens the dialogue boxes for a double click
+     * @param inputDialog   - The function, given the message and returning the input, or null if the dialogue box was cancelled
+     */
+    void setInputDialog(Function<String, String> inputDialog) {
+        this.inputDialog = inputDialog;
+    }
+
+    /**
+     * Function to get the function which asks for a file to open
+     * @return  - The function, given the title and returning the path of the file, or null if the dialogue box was cancelled
+     */
+    Function<String, String> getFileDialog() {
+        return fileDialog;
+    }
+
+    /**
+     * Procedure to replace the function which asks for a file to open
+     * @param fileDialog    - The function, given the title and returning the path of the file, or null if the dialogue box was cancelled
+     */
+    void setFileDialog(Function<String, String> fileDialog) {
+        this.fileDialog = fileDialog;
+    }
+
+    /**
+     * Function to ask for a file to open with a file chooser
+     * @param title     - Title of the file chooser
+     * @return          - The path of the chosen file, or null if the file chooser was cancelled
+     */
+    private String chooseFile(String title) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        return chooser.getSelectedFile().getAbsolutePath();
+    }
+
+    /**
+     * Function to get the function which shows a report, such as a list of paths, in a dialogue box
+     * @return  - The function, given the title and the text of the report
+     */
+    BiConsumer<String, String> getReportDialog() {
+        return reportDialog;
+    }
+
+    /**
+     * Procedure to replace the function which shows a report in a dialogue box
+     * @param reportDialog  - The function, given the title and the text of the report
+     */
+    void setReportDialog(BiConsumer<String, String> reportDialog) {
+        this.reportDialog = reportDialog;
+    }
+
+    /**
+     * Procedure to show a report in a dialogue box, with the text in a scrolling area so a long report still fits on screen
+     * @param title     - Title of the dialogue box
+     * @param text      - Text of the report
+     */
+    private void showReport(String title, String text) {
+        JTextArea area = new JTextArea(text);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane scroll = new JScrollPane(area);
+        scroll.setPreferredSize(new Dimension(500, 300));
+        JOptionPane.showMessageDialog(this, scroll, title, JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Function to get the tabs, one for each open document
+     * @return  - The tabs
+     */
+    JTabbedPane getTABS() {
+        return TABS;
+    }
+
+    /**
+     * Function to get the document whose tab is selected
+     * @return  - The document, or null if no tabs are open
+     */
+    NetworkDocument getDocument() {
+        Component selected = TABS.getSelectedComponent();
+        return selected == null ? null : (NetworkDocument) ((PathComponent) selected).getClientProperty(NetworkDocument.class);
+    }
+
+    /**
+     * Function to get every open document, in the order of their tabs
+     * @return  - The documents
+     */
+    ArrayList<NetworkDocument> getDocuments() {
+        ArrayList<NetworkDocument> documents = new ArrayList<>();
+        for (int i = 0; i < TABS.getTabCount(); i++) {
+            documents.add((NetworkDocument) ((PathComponent) TABS.getComponentAt(i)).getClientProperty(NetworkDocument.class));
+        }
+        return documents;
+    }
+
+    /**
+     * Procedure to change the buttons and labels to show the state of the document whose tab is selected
+     */
+    private void showDocument() {
+        NetworkDocument doc = getDocument();
+        if (doc == null) {
+            return;
+        }
+        CHECK_BUTTON.setText(doc.getCheckText());
+        CHECK_VALID_BUTTON.setText(doc.getCheckValidText());
+        LIVE_BOX.setSelected(doc.isLive());
+        CRIT_PATH_LENGTH.setText(doc.getCritPathText());
+        MARK_LABEL.setText(doc.getMarkText());
+        SOLVING_BAR.setVisible(doc.isSolving());
+        doc.getPComponent().requestFocusInWindow();
+    }
+
+    /**
+     * Function to get the Paint Component of the document whose tab is selected
      * @return  - PaintComponent
      */
     PathComponent getPComponent() {
-        return P_COMPONENT;
+        return (PathComponent) TABS.getSelectedComponent();
     }
 
     /**
@@ -145,25 +308,102 @@ class GUIMain extends JFrame {
         return CHECK_VALID_BUTTON;
     }
     /**
-     * Procedure to set the length of the critical path, which is displayed on the bottom panel
+     * Function to get the live critical path check box
+     * @return  - Live check box
+     */
+    JCheckBox getLIVE_BOX() {
+        return LIVE_BOX;
+    }
+
+    /**
+     * Function to get the new network button
+     * @return  - New network button
+     */
+    JButton getNEW_TAB_BUTTON() {
+        return NEW_TAB_BUTTON;
+    }
+
+    /**
+     * Function to get the close network button
+     * @return  - Close network button
+     */
+    JButton getCLOSE_TAB_BUTTON() {
+        return CLOSE_TAB_BUTTON;
+    }
+
+    /**
+     * Procedure to set the text of the check answers button for a document
+     * The button only changes if the document's tab is selected
+     * @param doc       - The document
+     * @param text      - The new text
+     */
+    void setCheckText(NetworkDocument doc, String text) {
+        doc.setCheckText(text);
+        if (doc == getDocument()) {
+            CHECK_BUTTON.setText(text);
+        }
+    }
+
+    /**
+     * Procedure to set the text of the check validity button for a document
+     * The button only changes if the document's tab is selected
+     * @param doc       - The document
+     * @param text      - The new text
+     */
+    void setCheckValidText(NetworkDocument doc, String text) {
+        doc.setCheckValidText(text);
+        if (doc == getDocument()) {
+            CHECK_VALID_BUTTON.setText(text);
+        }
+    }
+
+    /**
+     * Procedure to set the length of the critical path of a document, which is displayed on the bottom panel
+     * The label only changes if the document's tab is selected
+     * @param doc               - The document
      * @param critPathLength    - The new length to be displayed
      */
-    void setCRIT_PATH_LENGTH(String critPathLength) {
-        this.CRIT_PATH_LENGTH.setText(critPathLength);
+    void setCRIT_PATH_LENGTH(NetworkDocument doc, String critPathLength) {
+        doc.setCritPathText(critPathLength);
+        if (doc == getDocument()) {
+            this.CRIT_PATH_LENGTH.setText(critPathLength);
+        }
     }
 
     /**
-     * Sets the GUI to display the total amount of marks achieved
+     * Procedure to show or hide the bar which shows a document's network is being solved
+     * The bar only changes if the document's tab is selected
+     * @param doc       - The document
+     * @param solving   - True whilst a solve is running
+     */
+    void setSolving(NetworkDocument doc, boolean solving) {
+        doc.setSolving(solving);
+        if (doc == getDocument()) {
+            SOLVING_BAR.setVisible(solving);
+        }
+    }
+
+    /**
+     * Sets the GUI to display the total amount of marks achieved in a document
+     * The label only changes if the document's tab is selected
+     * @param doc       - The document
      * @param marks     -  Array of marks for respective sections
      */
-    void setMarkAmount(int[] marks){
-        MARK_LABEL.setText(Integer.toString(marks[0]) + " / 4 For nodes, " + Integer.toString(marks[1]) + " /2 For Tasks, " + Integer.toString(marks[0] + marks[1]) + " /6 Total");
+    void setMarkAmount(NetworkDocument doc, int[] marks){
+        doc.setMarkText(Integer.toString(marks[0]) + " / 4 For nodes, " + Integer.toString(marks[1]) + " /2 For Tasks, " + Integer.toString(marks[0] + marks[1]) + " /6 Total");
+        if (doc == getDocument()) {
+            MARK_LABEL.setText(doc.getMarkText());
+        }
     }
 
     /**
-     * Procedure to clear te text on the mark label
+     * Procedure to clear te text on the mark label for a document
+     * @param doc       - The document
      */
-    void clearMarkLabel(){
-        MARK_LABEL.setText("");
+    void clearMarkLabel(NetworkDocument doc){
+        doc.setMarkText("");
+        if (doc == getDocument()) {
+            MARK_LABEL.setText("");
+        }
     }
 }
@@ -0,0 +1,59 @@
+/**
+ * Class which marks a student's answers against a solved network, without needing any Nodes, Tasks or a window
+ * Used both by the app, which reads the answers out of its nodes and tasks, and by the SolveService
+ */
+class Grader {
+    /**
+     * Function to mark the event times a student has entered
+     * Every node gets a mark for a correct early event time and one for a correct late event time,
+     * then the total is scaled to be out of 4
+     * A node at the end of the network which is not on the critical path is marked against its own early time, which is less than its late time
+     * @param r             - The solved network, which must not be cyclic
+     * @param earlyInput    - Early event time entered for each node
+     * @param lateInput     - Late event time entered for each node
+     * @return              - Marks out of 4, 0 if there are no nodes
+     */
+    static int nodeMarks(SolveResult r, int[] earlyInput, int[] lateInput) {
+        int nodeCount = r.getSnapshot().getNodeCount();
+        if (nodeCount == 0) {
+            return 0;
+        }
+        int marks = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (r.getEarly(n) == earlyInput[n]) {
+                marks++;
+            }
+            if (r.getLate(n) == lateInput[n]) {
+                marks++;
+            }
+        }
+        return (4 * marks) / (2 * nodeCount);
+    }
+
+    /**
+     * Function to mark which tasks a student has said are critical
+     * Tasks with a duration of 0 are not marked
+     * A critical task gets a mark if the student selected it, and a task which is not critical always gets a mark
+     * The total is scaled to be out of 2
+     * @param r             - The solved network, which must not be cyclic
+     * @param critSelected  - Whether the student selected each task as critical
+     * @return              - Marks out of 2, 0 if there are no tasks to mark
+     */
+    static int taskMarks(SolveResult r, boolean[] critSelected) {
+        NetworkSnapshot s = r.getSnapshot();
+        int marks = 0;
+        int amountOfTasks = 0;
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            if (s.getDuration(t) != 0) {
+                amountOfTasks++;
+                if (!r.isCritical(t) || critSelected[t]) {
+                    marks++;
+                }
+            }
+        }
+        if (amountOfTasks == 0) {
+            return 0;
+        }
+        return (2 * marks) / amountOfTasks;
+    }
+}
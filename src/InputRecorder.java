@@ -0,0 +1,147 @@
+import java.awt.event.MouseEvent;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class to record every input given to the Controller, with the time it was given, so the session can be replayed by the InputReplay
+ * The lines are buffered and written on the Event Dispatch Thread, which only costs a few microseconds per input,
+ * and the file is written out when the recording is closed, or when the program stops
+ *
+ * The file starts with the state the session started from, so the replay can start from the same state:
+ * W width height       - Size of the component of the selected tab
+ * J number record      - A journal record of the network of a document, from Journal.describeNetwork()
+ * Then each input is a line starting with the microseconds since the recording started:
+ * time P x y button modifiers clicks   - Mouse pressed, with the button, the extended modifiers and the click count
+ * time D x y button modifiers clicks   - Mouse dragged
+ * time R x y button modifiers clicks   - Mouse released
+ * time K code / time U code            - Key pressed / released
+ * time A name                          - Button or menu item pressed, named by Controller.actionName()
+ * time S index                         - Tab selected
+ * time I text / time N                 - Text entered into a dialogue box / dialogue box cancelled
+ */
+class InputRecorder implements Closeable {
+    private final BufferedWriter OUT;
+    private final long START;
+    private boolean closed;
+
+    /**
+     * Constructor for a recording, which replaces the file if it already exists
+     * @param file      - The file to record into
+     * @throws IOException  - If the file cannot be opened
+     */
+    InputRecorder(Path file) throws IOException {
+        this.OUT = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.START = System.nanoTime();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * Procedure to record the size of the component of the selected tab
+     * @param width     - The width
+     * @param height    - The height
+     */
+    void size(int width, int height) {
+        line("W " + width + " " + height);
+    }
+
+    /**
+     * Procedure to record the network of a document, as it was when the recording started
+     * @param number    - The number of the document
+     * @param pc        - The component holding the network
+     */
+    void network(int number, PathComponent pc) {
+        for (String record : Journal.describeNetwork(pc).split("\n")) {
+            line("J " + number + " " + record);
+        }
+    }
+
+    /**
+     * Procedure to record a mouse input
+     * @param kind      - 'P' for pressed, 'D' for dragged, 'R' for released
+     * @param e         - The input
+     */
+    void mouse(char kind, MouseEvent e) {
+        event(kind + " " + e.getX() + " " + e.getY() + " " + e.getButton() + " " + e.getModifiersEx() + " " + e.getClickCount());
+    }
+
+    /**
+     * Procedure to record a key being pressed or released
+     * @param pressed   - True if the key was pressed, false if it was released
+     * @param keyCode   - The key
+     */
+    void key(boolean pressed, int keyCode) {
+        event((pressed ? "K " : "U ") + keyCode);
+    }
+
+    /**
+     * Procedure to record a button or menu item being pressed
+     * @param name      - The name of the button or menu item
+     */
+    void action(String name) {
+        event("A " + name);
+    }
+
+    /**
+     * Procedure to record a tab being selected
+     * @param index     - The index of the tab
+     */
+    void tab(int index) {
+        event("S " + index);
+    }
+
+    /**
+     * Procedure to record the text entered into a dialogue box
+     * @param text      - The text, or null if the dialogue box was cancelled
+     */
+    void input(String text) {
+        event(text == null ? "N" : "I " + text.replace('\n', ' '));
+    }
+
+    /**
+     * Procedure to record an input, with the time since the recording started
+     * @param text      - The input
+     */
+    private void event(String text) {
+        line((System.nanoTime() - START) / 1000 + " " + text);
+    }
+
+    /**
+     * Procedure to add a line to the file
+     * Once the file cannot be written the recording stops, rather than stopping the program
+     * @param text      - The line
+     */
+    private synchronized void line(String text) {
+        if (closed) {
+            return;
+        }
+        try {
+            OUT.write(text);
+            OUT.newLine();
+        }
+        catch (IOException e) {
+            System.out.println("Input could not be recorded: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Procedure to write out everything recorded and stop recording
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            OUT.close();
+        }
+        catch (IOException e) {
+            System.out.println("Input recording could not be saved: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Class to replay a session recorded by the InputRecorder, as a performance test of the GUI
+ * The networks the session started from are written into a new journal directory, so the replay starts from the same state
+ * without touching the user's autosave, then every input is given to the same handlers of the Controller as when it was recorded
+ * The time taken to handle each input, then to paint the selected component once the input's changes have been published, is measured
+ *
+ * With java.awt.headless=true the GUI is never shown, and the component is painted into an image,
+ * otherwise the GUI is shown in a window and the component is painted onto the screen
+ * Solves run in the background as they do when the program is used, so they are not part of the time taken to handle an input
+ * Run from the command line:
+ * java -Djava.awt.headless=true -cp "out/production/Critical Path Teaching Tool" InputReplay session.txt [report.csv] [--realtime]
+ * With --realtime the inputs are given at the pace they were recorded, otherwise as fast as they can be handled
+ */
+class InputReplay {
+    private final List<String[]> EVENTS = new ArrayList<>();
+    private final Map<Integer, StringBuilder> NETWORKS = new LinkedHashMap<>();
+    private final ArrayDeque<String> INPUTS = new ArrayDeque<>();
+    private int width = 700, height = 500;
+    private GUIMain view;
+    private Controller controller;
+    private BufferedImage canvas;
+
+    /**
+     * Constructor for a replay, which reads the whole recording
+     * @param file      - The recording
+     * @throws IOException  - If the recording cannot be read
+     */
+    InputReplay(Path file) throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.startsWith("W ")) {
+                String[] r = line.split(" ");
+                width = Integer.parseInt(r[1]);
+                height = Integer.parseInt(r[2]);
+            }
+            else if (line.startsWith("J ")) {
+                int space = line.indexOf(' ', 2);
+                NETWORKS.computeIfAbsent(Integer.parseInt(line.substring(2, space)), n -> new StringBuilder())
+                        .append(line.substring(space + 1)).append('\n');
+            }
+            else if (!line.isEmpty()) {
+                EVENTS.add(line.split(" ", 3));
+            }
+        }
+    }
+
+    /**
+     * Procedure to write the networks the session started from as snapshots in a journal directory,
+     * the first document in the directory itself and every other document in its own 'network-' directory, as the Controller expects
+     * @param directory     - The journal directory
+     * @throws IOException  - If a snapshot cannot be written
+     */
+    private void writeNetworks(Path directory) throws IOException {
+        for (Map.Entry<Integer, StringBuilder> network : NETWORKS.entrySet()) {
+            Path folder = network.getKey() == 1 ? directory : directory.resolve("network-" + network.getKey());
+            Files.createDirectories(folder);
+            Files.writeString(folder.resolve("snapshot.txt"), network.getValue(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Procedure to make the GUI and the Controller, on the Event Dispatch Thread
+     * Dialogue boxes and file choosers are answered with the text recorded for them instead of being opened, and reports are printed instead of shown
+     * @param directory     - The journal directory the networks were written into
+     * @param headless      - True to lay the GUI out without a window, false to show it in a window
+     */
+    private void open(File directory, boolean headless) {
+        view = new GUIMain();
+        controller = new Controller(view, new ClickContextMenu(), directory);
+        view.setInputDialog(message -> INPUTS.poll());
+        view.setFileDialog(title -> INPUTS.poll());
+        view.setReportDialog((title, text) -> System.out.print(text));
+        if (headless) {
+            view.setSize(view.getPreferredSize());
+            view.doLayout();
+        }
+        else {
+            JFrame frame = new JFrame("Critical Path Algorithm - Replay");
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            frame.getContentPane().add(view);
+            frame.pack();
+            frame.setVisible(true);
+        }
+        canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Procedure to give an input to the handler it was recorded from, on the Event Dispatch Thread
+     * The selected component is given the size it had when the session was recorded first, as where a node can be placed depends on it
+     * @param event     - The time, kind and values of the input
+     * @return          - False if the input is not known, so was skipped
+     */
+    private boolean handle(String[] event) {
+        PathComponent pc = view.getPComponent();
+        if (pc != null && (pc.getWidth() != width || pc.getHeight() != height)) {
+            pc.setSize(width, height);
+        }
+        long when = System.currentTimeMillis();
+        String[] v = event.length > 2 ? event[2].split(" ") : new String[0];
+        switch (event[1]) {
+            case "P":
+            case "D":
+            case "R":
+                int id = event[1].equals("P") ? MouseEvent.MOUSE_PRESSED : event[1].equals("D") ? MouseEvent.MOUSE_DRAGGED : MouseEvent.MOUSE_RELEASED;
+                MouseEvent m = new MouseEvent(pc, id, when, Integer.parseInt(v[3]), Integer.parseInt(v[0]), Integer.parseInt(v[1]),
+                        Integer.parseInt(v[4]), false, Integer.parseInt(v[2]));
+                if (id == MouseEvent.MOUSE_PRESSED) {
+                    controller.getMOUSE_ADAPTER().mousePressed(m);
+                }
+                else if (id == MouseEvent.MOUSE_DRAGGED) {
+                    controller.getMOUSE_ADAPTER().mouseDragged(m);
+                }
+                else {
+                    controller.getMOUSE_ADAPTER().mouseReleased(m);
+                }
+                return true;
+            case "K":
+            case "U":
+                boolean pressed = event[1].equals("K");
+                KeyEvent k = new KeyEvent(pc, pressed ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED, when, 0,
+                        Integer.parseInt(v[0]), KeyEvent.CHAR_UNDEFINED);
+                if (pressed) {
+                    controller.getKEY_ADAPTER().keyPressed(k);
+                }
+                else {
+                    controller.getKEY_ADAPTER().keyReleased(k);
+                }
+                return true;
+            case "A":
+                Object source = controller.actionSource(event[2]);
+                if (source == null) {
+                    return false;
+                }
+                controller.actionPerformed(new ActionEvent(source, ActionEvent.ACTION_PERFORMED, event[2]));
+                return true;
+            case "S":
+                int index = Integer.parseInt(v[0]);
+                if (index >= 0 && index < view.getTABS().getTabCount()) {
+                    view.getTABS().setSelectedIndex(index);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Function to publish the changes made by the last input and paint the selected component, on the Event Dispatch Thread
+     * Headless, the component is painted into an image the size it was recorded at, otherwise it is painted onto the screen straight away
+     * @param headless  - True if the GUI is not shown
+     * @return          - The nanoseconds taken to paint
+     */
+    private long paint(boolean headless) {
+        PathComponent pc = view.getPComponent();
+        if (pc == null) {
+            return 0;
+        }
+        pc.getCHANGES().flush();
+        long start = System.nanoTime();
+        if (headless) {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                pc.paint(g);
+            }
+            finally {
+                g.dispose();
+            }
+        }
+        else {
+            pc.paintImmediately(0, 0, pc.getWidth(), pc.getHeight());
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Procedure to replay every input, measuring the time taken to handle it and to paint afterwards
+     * Text recorded for a dialogue box is queued before the input which opened it is handled
+     * @param headless  - True to replay without a window
+     * @param realtime  - True to give the inputs at the pace they were recorded
+     * @param report    - Where to write a line for every input, or null
+     * @throws Exception    - If the Event Dispatch Thread is interrupted or a handler throws
+     */
+    void replay(boolean headless, boolean realtime, PrintWriter report) throws Exception {
+        Path directory = Files.createTempDirectory("critical-path-replay");
+        try {
+            writeNetworks(directory);
+            SwingUtilities.invokeAndWait(() -> open(directory.toFile(), headless));
+            Map<String, ArrayList<long[]>> byKind = new LinkedHashMap<>();
+            long[] timing = new long[2];
+            long start = System.nanoTime();
+            int skipped = 0;
+            if (report != null) {
+                report.println("index,time_ms,kind,handle_us,paint_us");
+            }
+            for (int i = 0; i < EVENTS.size(); i++) {
+                String[] event = EVENTS.get(i);
+                if (event[1].equals("I") || event[1].equals("N")) {
+                    continue;               //Queued before the input which opened the dialogue box
+                }
+                for (int j = i + 1; j < EVENTS.size() && (EVENTS.get(j)[1].equals("I") || EVENTS.get(j)[1].equals("N")); j++) {
+                    INPUTS.add(EVENTS.get(j)[1].equals("N") ? null : (EVENTS.get(j).length > 2 ? EVENTS.get(j)[2] : ""));
+                }
+                long at = Long.parseLong(event[0]);
+                if (realtime) {
+                    long wait = at / 1000 - (System.nanoTime() - start) / 1_000_000;
+                    if (wait > 0) {
+                        Thread.sleep(wait);
+                    }
+                }
+                boolean[] known = new boolean[1];
+                SwingUtilities.invokeAndWait(() -> {
+                    long handleStart = System.nanoTime();
+                    known[0] = handle(event);
+                    timing[0] = System.nanoTime() - handleStart;
+                    timing[1] = paint(headless);
+                });
+                INPUTS.clear();
+                if (!known[0]) {
+                    skipped++;
+                    continue;
+                }
+                String kind = event[1].equals("A") ? "A " + event[2] : event[1];
+                byKind.computeIfAbsent(kind, x -> new ArrayList<>()).add(new long[]{timing[0], timing[1]});
+                if (report != null) {
+                    report.printf("%d,%.3f,%s,%.1f,%.1f%n", i, at / 1000.0, kind, timing[0] / 1000.0, timing[1] / 1000.0);
+                }
+            }
+            printSummary(byKind, (System.nanoTime() - start) / 1e9, skipped);
+            SwingUtilities.invokeAndWait(() -> {
+                for (NetworkDocument doc : view.getDocuments()) {
+                    doc.getSOLVER().cancel();
+                    doc.getJOURNAL().close();
+                }
+            });
+        }
+        finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Procedure to print the time taken to handle and paint each kind of input
+     * @param byKind    - The nanoseconds taken to handle and to paint every input, by the kind of input
+     * @param seconds   - The seconds the whole replay took
+     * @param skipped   - The amount of inputs which were not known
+     */
+    private static void printSummary(Map<String, ArrayList<long[]>> byKind, double seconds, int skipped) {
+        System.out.printf("%-12s %7s %10s %10s %10s %10s %10s %10s%n", "input", "count",
+                "handle avg", "p95", "max", "paint avg", "p95", "max");
+        int total = 0;
+        for (Map.Entry<String, ArrayList<long[]>> kind : byKind.entrySet()) {
+            int count = kind.getValue().size();
+            long[] handle = new long[count], paint = new long[count];
+            for (int i = 0; i < count; i++) {
+                handle[i] = kind.getValue().get(i)[0];
+                paint[i] = kind.getValue().get(i)[1];
+            }
+            Arrays.sort(handle);
+            Arrays.sort(paint);
+            System.out.printf("%-12s %7d %8.1fus %8.1fus %8.1fus %8.1fus %8.1fus %8.1fus%n", kind.getKey(), count,
+                    Arrays.stream(handle).average().orElse(0) / 1000, handle[(count - 1) * 95 / 100] / 1000.0, handle[count - 1] / 1000.0,
+                    Arrays.stream(paint).average().orElse(0) / 1000, paint[(count - 1) * 95 / 100] / 1000.0, paint[count - 1] / 1000.0);
+            total += count;
+        }
+        System.out.printf("%d inputs replayed in %.2fs, %d skipped%n", total, seconds, skipped);
+    }
+
+    /**
+     * Replays a recorded session, printing the time taken to handle and paint each kind of input
+     * @param args  - The recording, then optionally a CSV file to write a line for every input into, and '--realtime'
+     * @throws Exception    - If the recording cannot be read or replayed
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: InputReplay <recording> [report.csv] [--realtime]");
+            return;
+        }
+        boolean realtime = Arrays.asList(args).contains("--realtime");
+        String reportFile = null;
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].equals("--realtime")) {
+                reportFile = args[i];
+            }
+        }
+        InputReplay replay = new InputReplay(Paths.get(args[0]));
+        boolean headless = GraphicsEnvironment.isHeadless();
+        if (reportFile == null) {
+            replay.replay(headless, realtime, null);
+        }
+        else {
+            try (PrintWriter report = new PrintWriter(Files.newBufferedWriter(Paths.get(reportFile), StandardCharsets.UTF_8))) {
+                replay.replay(headless, realtime, report);
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.Arrays;
+
+/**
+ * Class for a list of ints which grows as items are added, used where a HashSet or ArrayList of objects would be too large
+ * Items are stored in one int array, so there is one small object and one array per list, and nothing is boxed
+ * Iterating is done by index, so no Iterator is made
+ */
+class IntList {
+    private int[] items;
+    private int size;
+
+    /**
+     * Constructor for an empty list
+     * No array is made until the first item is added
+     */
+    IntList() {
+        this.items = null;
+        this.size = 0;
+    }
+
+    /**
+     * Constructor for a copy of another list
+     * @param other     - The list to copy
+     */
+    IntList(IntList other) {
+        this.items = other.size == 0 ? null : Arrays.copyOf(other.items, other.size);
+        this.size = other.size;
+    }
+
+    /**
+     * Procedure to add an item to the end of the list
+     * The array starts with space for 2 items, and doubles in size when it is full
+     * @param item      - The item
+     */
+    void add(int item) {
+        if (items == null) {
+            items = new int[2];
+        }
+        else if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = item;
+    }
+
+    /**
+     * Function to add an item if it is not already in the list
+     * @param item      - The item
+     * @return          - True if the item was added
+     */
+    boolean addIfAbsent(int item) {
+        if (contains(item)) {
+            return false;
+        }
+        add(item);
+        return true;
+    }
+
+    /**
+     * Function to remove an item from the list
+     * The last item is moved into its place, so the order of the list is not kept
+     * @param item      - The item
+     * @return          - True if the item was in the list
+     */
+    boolean remove(int item) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                items[i] = items[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to check whether an item is in the list
+     * @param item      - The item
+     * @return          - True if the item is in the list
+     */
+    boolean contains(int item) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to get an item
+     * @param i     - Position of the item, from 0 to size() - 1
+     * @return      - The item
+     */
+    int get(int i) {
+        return items[i];
+    }
+
+    /**
+     * Function to get the amount of items in the list
+     * @return      - Amount of items
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Function to check whether the list is empty
+     * @return      - True if there are no items
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
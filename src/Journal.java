@@ -0,0 +1,476 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class for the autosave journal
+ * Every edit made to the network is appended to a journal file as one or more lines of text
+ * The lines are written by a background thread, which writes them in batches and forces them to disk at a set interval,
+ * so the Event Dispatch Thread only ever adds lines to a queue and never waits for the disk
+ * After a set amount of records, the whole network is written to a snapshot file and the journal is started again,
+ * so replaying the journal when the program starts never takes longer than loading the snapshot and a short journal
+ *
+ * Nodes are referred to by their index, and tasks by the indices of their start and end nodes
+ * The records are:
+ * N index x y          - Node placed
+ * M index x y          - Node moved
+ * T start end d c      - Task added with duration d, c is 1 if marked as critical
+ * D start end d        - Duration changed
+ * ES index t / LS index t  - Inputted early / late event time changed
+ * C start end          - Task toggled as critical
+ * E start end o p      - Optimistic and pessimistic estimates changed, -1 to use the duration
+ * K start end d c      - Shortest crashed duration and cost of crashing changed, d is -1 if the task cannot be crashed
+ * XT start end         - Task deleted
+ * XN index             - Node deleted, along with its tasks
+ * CLR                  - Network cleared
+ * I index              - Index of the next node to be placed
+ * The first line of both files is 'G generation', which is used to ignore a journal which is older than the snapshot
+ */
+class Journal {
+    private static final int COMPACT_AFTER = 2000;
+    private static final long FORCE_INTERVAL_MS = 1000;
+    private final Path JOURNAL_FILE, SNAPSHOT_FILE;
+    private final LinkedBlockingQueue<String[]> QUEUE = new LinkedBlockingQueue<>();
+    private final Thread WRITER, SHUTDOWN_HOOK;
+    private volatile boolean running;
+    private int recordsSinceSnapshot;
+    private long generation;
+
+    /**
+     * Constructor for the journal
+     * Creates the directory for the journal if it does not already exist
+     * @param directory     - The directory to keep the journal and snapshot in
+     */
+    Journal(File directory) {
+        directory.mkdirs();
+        this.JOURNAL_FILE = new File(directory, "journal.txt").toPath();
+        this.SNAPSHOT_FILE = new File(directory, "snapshot.txt").toPath();
+        this.WRITER = new Thread(this::writeLoop, "Journal writer");
+        this.WRITER.setDaemon(true);
+        this.SHUTDOWN_HOOK = new Thread(this::close, "Journal shutdown");
+    }
+
+    /**
+     * Procedure to rebuild the network from the snapshot and journal, then start writing new records
+     * The rebuilt network is compacted into a new snapshot straight away
+     * A shutdown hook writes any queued records if the program exits without the journal being closed, and is removed by close()
+     * Any line which cannot be understood is skipped
+     * @param pc    - The PathComponent to rebuild the network in
+     * @param pf    - The PathFunctions to add the rebuilt tasks to
+     */
+    void start(PathComponent pc, PathFunctions pf) {
+        HashMap<Integer, Node> nodes = new HashMap<>();
+        HashMap<Long, Task> tasks = new HashMap<>();
+        int[] nextIndex = {0};
+        long snapshotGeneration = replayFile(SNAPSHOT_FILE, Long.MIN_VALUE, pc, pf, nodes, tasks, nextIndex);
+        long journalGeneration = replayFile(JOURNAL_FILE, snapshotGeneration, pc, pf, nodes, tasks, nextIndex);
+        pc.setCurrentIndex(nextIndex[0]);
+        generation = Math.max(snapshotGeneration, journalGeneration);
+        running = true;
+        WRITER.start();
+        compact(pc);
+        Runtime.getRuntime().addShutdownHook(SHUTDOWN_HOOK);
+    }
+
+    /**
+     * Procedure to add a record to the journal
+     * Only adds the record to the queue, the background thread writes it to the file
+     * If enough records have been added since the last snapshot, a new snapshot is taken
+     * @param record    - The record, which may be multiple lines
+     * @param pc        - The PathComponent which the record is for
+     */
+    void append(String record, PathComponent pc) {
+        if (!running || record.isEmpty()) {
+            return;
+        }
+        QUEUE.add(new String[]{record});
+        recordsSinceSnapshot++;
+        if (recordsSinceSnapshot >= COMPACT_AFTER) {
+            compact(pc);
+        }
+    }
+
+    /**
+     * Procedure to take a snapshot of the network
+     * The description of the network is built on the calling thread, so that it matches the network exactly,
+     * but it is written to disk by the background thread
+     * @param pc    - The PathComponent to take a snapshot of
+     */
+    void compact(PathComponent pc) {
+        if (!running) {
+            return;
+        }
+        QUEUE.add(new String[]{null, describeNetwork(pc)});
+        recordsSinceSnapshot = 0;
+    }
+
+    /**
+     * Procedure to stop the background thread, writing any records which are still queued
+     * The shutdown hook is removed, so a closed journal and its network are not kept until the program exits
+     */
+    void close() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(SHUTDOWN_HOOK);
+        }
+        catch (IllegalStateException shuttingDown) {
+            //Being closed by the shutdown hook itself
+        }
+        running = false;
+        QUEUE.add(new String[]{""});      //Wakes the background thread without interrupting a write
+        try {
+            WRITER.join(2000);
+        }
+        catch (InterruptedException ignored) {
+            //Closing anyway
+        }
+    }
+
+    /**
+     * Procedure to stop the background thread and delete the journal and snapshot, so the network is not rebuilt again
+     * The directory is deleted too if nothing else is left in it
+     */
+    void discard() {
+        close();
+        try {
+            Files.deleteIfExists(JOURNAL_FILE);
+            Files.deleteIfExists(SNAPSHOT_FILE);
+            Files.deleteIfExists(SNAPSHOT_FILE.resolveSibling("snapshot.tmp"));
+            Files.deleteIfExists(JOURNAL_FILE.getParent());
+        }
+        catch (IOException e) {
+            //Directory still holds other journals, so is kept
+        }
+    }
+
+    /**
+     * Function to describe a whole network as journal records
+     * Used for snapshots, and when a clear is undone
+     * @param pc    - The PathComponent holding the network
+     * @return      - The records
+     */
+    static String describeNetwork(PathComponent pc) {
+        StringBuilder sb = new StringBuilder();
+        Node current = pc.getN_LIST().getFirst();
+        while (current != null) {
+            sb.append(describeNode(current));
+            current = current.getNextNode();
+        }
+        current = pc.getN_LIST().getFirst();
+        while (current != null) {
+            for (int i = 0; i < current.getSucceedingCount(); i++) {
+                Task t = current.getSucceeding(i);
+                if (t.getTASK_VISUALISED().getDuration() != -1) {
+                    sb.append(describeTask(t.getTASK_VISUALISED(), t.getTASK_VISUALISED().getDuration()));
+                }
+            }
+            current = current.getNextNode();
+        }
+        sb.append("I ").append(pc.getCurrentIndex()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Function to describe a node as the records needed to place it with its current inputs
+     * @param n     - The node
+     * @return      - The records
+     */
+    static String describeNode(Node n) {
+        return "N " + n.getINDEX() + " " + n.getCentre().getIntX() + " " + n.getCentre().getIntY() + "\n"
+                + "ES " + n.getINDEX() + " " + n.getEarlyStartInput() + "\n"
+                + "LS " + n.getINDEX() + " " + n.getLatestStartInput() + "\n";
+    }
+
+    /**
+     * Function to describe a task as the records needed to add it, followed by its estimates and crashing data if they have been set
+     * @param tVis      - The task
+     * @param duration  - The duration to record
+     * @return          - The records
+     */
+    static String describeTask(TaskVisualised tVis, int duration) {
+        String record = "T " + taskId(tVis) + " " + duration + " " + (tVis.isCritSelected() ? 1 : 0) + "\n";
+        if (tVis.getOptimisticInput() != -1 || tVis.getPessimisticInput() != -1) {
+            record += "E " + taskId(tVis) + " " + tVis.getOptimisticInput() + " " + tVis.getPessimisticInput() + "\n";
+        }
+        if (tVis.getCrashDurationInput() != -1 || tVis.getCrashCost() != 0) {
+            record += "K " + taskId(tVis) + " " + tVis.getCrashDurationInput() + " " + tVis.getCrashCost() + "\n";
+        }
+        return record;
+    }
+
+    /**
+     * Function to get the identifier of a task used in records, which is the indices of its start and end nodes
+     * @param tVis      - The task
+     * @return          - The identifier
+     */
+    static String taskId(TaskVisualised tVis) {
+        return tVis.getSTART_NODE().getINDEX() + " " + tVis.getEND_NODE().getINDEX();
+    }
+
+    /**
+     * Procedure run by the background thread
+     * Waits for records, then takes every record in the queue and writes them as one batch
+     * The file is forced to disk once the interval has passed since it was last forced
+     * Snapshots are written to a temporary file which then replaces the old snapshot, before the journal is started again
+     */
+    private void writeLoop() {
+        FileChannel channel = null;
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+        ArrayList<String[]> batch = new ArrayList<>();
+        try {
+            channel = FileChannel.open(JOURNAL_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            while (running || !QUEUE.isEmpty()) {
+                String[] first = null;
+                try {
+                    first = QUEUE.poll(FORCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException stopping) {
+                    running = false;        //Loop ends once the queue is empty
+                }
+                if (first != null) {
+                    batch.add(first);
+                }
+                QUEUE.drainTo(batch);
+                StringBuilder sb = new StringBuilder();
+                for (String[] entry : batch) {
+                    if (entry[0] != null) {
+                        sb.append(entry[0]);
+                    }
+                    else {
+                        channel = writeSnapshot(channel, sb, entry[1]);
+                        sb.setLength(0);
+                        dirty = false;
+                    }
+                }
+                batch.clear();
+                if (sb.length() > 0) {
+                    write(channel, sb.toString());
+                    dirty = true;
+                }
+                if (dirty && (System.currentTimeMillis() - lastForce >= FORCE_INTERVAL_MS || !running)) {
+                    channel.force(false);
+                    lastForce = System.currentTimeMillis();
+                    dirty = false;
+                }
+            }
+        }
+        catch (IOException e) {
+            System.out.println("Journal could not be written: " + e.getMessage());
+            running = false;
+        }
+        finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                }
+                catch (IOException ignored) {
+                    //Already stopping
+                }
+            }
+        }
+    }
+
+    /**
+     * Function to write a snapshot and start a new journal
+     * Any records batched before the snapshot are written to the old journal first
+     * The snapshot is given the next generation, and the new journal is started with the same generation
+     * If the program stops after the snapshot is moved but before the journal is restarted,
+     * the old journal has an older generation so is ignored when replaying
+     * @param channel       - The current journal channel
+     * @param pending       - Records batched before the snapshot
+     * @param network       - The description of the network
+     * @return              - The channel for the new journal
+     */
+    private FileChannel writeSnapshot(FileChannel channel, StringBuilder pending, String network) throws IOException {
+        if (pending.length() > 0) {
+            write(channel, pending.toString());
+        }
+        channel.force(false);
+        generation++;
+        Path tmp = SNAPSHOT_FILE.resolveSibling("snapshot.tmp");
+        try (FileChannel snapshot = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(snapshot, "G " + generation + "\n" + network);
+            snapshot.force(true);
+        }
+        Files.move(tmp, SNAPSHOT_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        FileChannel fresh = FileChannel.open(JOURNAL_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        write(fresh, "G " + generation + "\n");
+        fresh.force(true);
+        return fresh;
+    }
+
+    /**
+     * Procedure to write text to a channel
+     * @param channel   - The channel
+     * @param text      - The text
+     */
+    private static void write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Function to replay every record in a file
+     * If the generation of the file is older than the minimum generation, none of its records are replayed
+     * @param file          - The file to replay
+     * @param minGeneration - The oldest generation which should be replayed
+     * @param pc            - The PathComponent to rebuild the network in
+     * @param pf            - The PathFunctions to add the rebuilt tasks to
+     * @param nodes         - Map of indices to the nodes rebuilt so far
+     * @param tasks         - Map of identifiers to the tasks rebuilt so far
+     * @param nextIndex     - Single element array holding the index of the next node
+     * @return              - The generation of the file, or minGeneration if the file does not exist
+     */
+    private static long replayFile(Path file, long minGeneration, PathComponent pc, PathFunctions pf,
+                                   HashMap<Integer, Node> nodes, HashMap<Long, Task> tasks, int[] nextIndex) {
+        if (!Files.exists(file)) {
+            return Math.max(minGeneration, 0);
+        }
+        long fileGeneration = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith("G ")) {
+                fileGeneration = Long.parseLong(line.substring(2).trim());
+                line = reader.readLine();
+            }
+            if (fileGeneration < minGeneration) {
+                return minGeneration;
+            }
+            while (line != null) {
+                try {
+                    apply(line.trim().split(" "), pc, pf, nodes, tasks, nextIndex);
+                }
+                catch (RuntimeException badLine) {
+                    System.out.println("Skipping journal record: " + line);
+                }
+                line = reader.readLine();
+            }
+        }
+        catch (IOException | NumberFormatException e) {
+            System.out.println("Journal could not be read: " + e.getMessage());
+        }
+        return fileGeneration;
+    }
+
+    /**
+     * Procedure to apply a single record to the network
+     * @param r             - The record, split into its parts
+     * @param pc            - The PathComponent to rebuild the network in
+     * @param pf            - The PathFunctions to add the rebuilt tasks to
+     * @param nodes         - Map of indices to the nodes rebuilt so far
+     * @param tasks         - Map of identifiers to the tasks rebuilt so far
+     * @param nextIndex     - Single element array holding the index of the next node
+     */
+    private static void apply(String[] r, PathComponent pc, PathFunctions pf,
+                              HashMap<Integer, Node> nodes, HashMap<Long, Task> tasks, int[] nextIndex) {
+        switch (r[0]) {
+            case "N": {
+                int index = Integer.parseInt(r[1]);
+                Node n = new Node(index, new Vector(Integer.parseInt(r[2]), Integer.parseInt(r[3])));
+                n.setSelected(false);
+                pc.insertNode(n);
+                nodes.put(index, n);
+                nextIndex[0] = Math.max(nextIndex[0], index + 1);
+                break;
+            }
+            case "M":
+                nodes.get(Integer.parseInt(r[1])).setCentre(new Vector(Integer.parseInt(r[2]), Integer.parseInt(r[3])));
+                break;
+            case "T": {
+                TaskVisualised tVis = new TaskVisualised(nodes.get(Integer.parseInt(r[1])), nodes.get(Integer.parseInt(r[2])));
+                tVis.setSelected(false);
+                Task t = new Task(tVis);
+                pc.restoreTask(t, Integer.parseInt(r[3]), pf);
+                if (r[4].equals("1")) {
+                    tVis.toggleCritSelected();
+                }
+                tasks.put(key(r), t);
+                break;
+            }
+            case "D":
+                tasks.get(key(r)).getTASK_VISUALISED().setDuration(Integer.parseInt(r[3]));
+                break;
+            case "ES":
+                nodes.get(Integer.parseInt(r[1])).setEarlyStartInput(Integer.parseInt(r[2]));
+                break;
+            case "LS":
+                nodes.get(Integer.parseInt(r[1])).setLatestStartInput(Integer.parseInt(r[2]));
+                break;
+            case "C":
+                tasks.get(key(r)).getTASK_VISUALISED().toggleCritSelected();
+                break;
+            case "E":
+                tasks.get(key(r)).getTASK_VISUALISED().setEstimates(Integer.parseInt(r[3]), Integer.parseInt(r[4]));
+                break;
+            case "K":
+                tasks.get(key(r)).getTASK_VISUALISED().setCrashing(Integer.parseInt(r[3]), Integer.parseInt(r[4]));
+                break;
+            case "XT":
+                pc.removeTask(tasks.remove(key(r)));
+                break;
+            case "XN": {
+                Node n = nodes.remove(Integer.parseInt(r[1]));
+                ArrayList<Task> connected = new ArrayList<>();
+                for (int i = 0; i < n.getPrecedingCount(); i++) {
+                    connected.add(n.getPreceding(i));
+                }
+                for (int i = 0; i < n.getSucceedingCount(); i++) {
+                    connected.add(n.getSucceeding(i));
+                }
+                for (Task t : connected) {
+                    if (t.getTASK_VISUALISED().getDuration() != -1) {
+                        tasks.remove(key(t));
+                        pc.removeTask(t);
+                    }
+                }
+                pc.removeNode(n);
+                n.delete();
+                break;
+            }
+            case "CLR":
+                pf.deleteAllTasks();
+                pc.clearNetwork();
+                nodes.clear();
+                tasks.clear();
+                nextIndex[0] = 0;
+                break;
+            case "I":
+                nextIndex[0] = Integer.parseInt(r[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record");
+        }
+    }
+
+    /**
+     * Function to get the map key for the task in a record
+     * @param r     - The record, split into its parts
+     * @return      - The key
+     */
+    private static long key(String[] r) {
+        return ((long) Integer.parseInt(r[1]) << 32) | (Integer.parseInt(r[2]) & 0xffffffffL);
+    }
+
+    /**
+     * Function to get the map key for a task
+     * @param t     - The task
+     * @return      - The key
+     */
+    private static long key(Task t) {
+        return ((long) t.getTASK_VISUALISED().getSTART_NODE().getINDEX() << 32) | (t.getTASK_VISUALISED().getEND_NODE().getINDEX() & 0xffffffffL);
+    }
+}
@@ -0,0 +1,458 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Class which gives the nodes of a network positions on the component, for networks which were not drawn by hand
+ * such as ones converted from a precedence table or made by a generator
+ *
+ * Follows the layered (Sugiyama) method:
+ * Nodes are put into columns (layers) by their early event time, so the diagram reads left to right in time order,
+ * a node whose early event time equals the node before it (after a dummy) is pushed one column further right
+ * The order of the nodes in each column is improved by barycentre sweeps, which move each node towards the average position
+ * of its neighbours in the column before (or after), which removes most task crossings
+ * Rows are then given to the nodes in each column in that order, as close to their neighbours' rows as possible
+ * Long tasks are not split into virtual nodes, so each sweep takes time in proportion to the size of the network
+ *
+ * Once laid out, tasks can be added one at a time: a new node is put in the nearest free space next to the node it joins,
+ * and only nodes which would now be left of a node they follow are moved, so the rest of the diagram stays where it is
+ */
+class LayeredLayout {
+    static final int LAYER_SPACING = 120;
+    static final int ROW_SPACING = 90;
+    static final int MARGIN_X = 60;
+    static final int MARGIN_Y = 100;
+    private static final int SWEEPS = 4;
+    private IntList[] succeeding, preceding, durations;
+    private int nodeCount;
+    private int[] layer, row;
+    private boolean laidOut;
+    private final HashMap<Long, Integer> CELLS = new HashMap<>();
+
+    /**
+     * Constructor for an empty layout
+     */
+    LayeredLayout() {
+        this.succeeding = new IntList[16];
+        this.preceding = new IntList[16];
+        this.durations = new IntList[16];
+        this.layer = new int[16];
+        this.row = new int[16];
+    }
+
+    /**
+     * Function to make a layout holding the nodes and tasks of a network stored in columns, numbered in the same way
+     * Deleted tasks are left out
+     * @param c     - The network
+     * @return      - The layout, which still needs laying out
+     */
+    static LayeredLayout of(NetworkColumns c) {
+        LayeredLayout l = new LayeredLayout();
+        for (int n = 0; n < c.getNodeCount(); n++) {
+            l.addNode();
+        }
+        for (int t = 0; t < c.getTaskCount(); t++) {
+            if (c.getDuration(t) != -1) {
+                l.addTask(c.getTaskStart(t), c.getTaskEnd(t), c.getDuration(t));
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Function to add a node, which is not given a position until a task joins it or the network is laid out
+     * @return      - The number of the node
+     */
+    int addNode() {
+        if (nodeCount == layer.length) {
+            int size = nodeCount * 2;
+            succeeding = Arrays.copyOf(succeeding, size);
+            preceding = Arrays.copyOf(preceding, size);
+            durations = Arrays.copyOf(durations, size);
+            layer = Arrays.copyOf(layer, size);
+            row = Arrays.copyOf(row, size);
+        }
+        succeeding[nodeCount] = new IntList();
+        preceding[nodeCount] = new IntList();
+        durations[nodeCount] = new IntList();
+        layer[nodeCount] = -1;          //Not placed
+        return nodeCount++;
+    }
+
+    /**
+     * Procedure to add a task between two nodes
+     * If the network has already been laid out, the task is placed without laying out the whole network again:
+     * A node which has no position yet is put in the nearest free row to the node at the other end of the task
+     * If the end node is now not right of the start node, it is moved right, along with any nodes after it which then need to move
+     * Throws an exception if the task would make a cycle in a laid out network, before the task is added,
+     * so the layout is left as it was
+     * @param start     - Number of the start node
+     * @param end       - Number of the end node
+     * @param duration  - Duration of the task
+     */
+    void addTask(int start, int end, int duration) {
+        if (start == end) {
+            throw new IllegalArgumentException("Task cannot start and end at the same node");
+        }
+        //Placed nodes are always right of the nodes before them, so only a task going left can make a cycle
+        if (laidOut && layer[start] != -1 && layer[end] != -1 && layer[end] <= layer[start] && reaches(end, start)) {
+            throw new RuntimeException("Cycle exists in path");
+        }
+        succeeding[start].add(end);
+        durations[start].add(duration);
+        preceding[end].add(start);
+        if (!laidOut) {
+            return;
+        }
+        if (layer[start] == -1) {
+            if (layer[end] == -1) {
+                place(start, 0, 0);
+            }
+            else {
+                place(start, Math.max(0, layer[end] - 1), row[end]);
+            }
+        }
+        if (layer[end] == -1) {
+            place(end, layer[start] + 1, row[start]);
+        }
+        else if (layer[end] <= layer[start]) {
+            pushRight(end);
+        }
+    }
+
+    /**
+     * Procedure to lay out the whole network
+     * Follows this procedure:
+     * Sorts the nodes topologically and calculates their early event times, throwing an exception if there is a cycle
+     * Gives each distinct early event time its own column, in order, pushing a node right if a task joins it to a node in the same column
+     * Orders each column by the order the nodes were found in the sort, then improves the order with barycentre sweeps,
+     * alternating between sweeping down the columns using preceding nodes and back up using succeeding nodes
+     * Gives each node a row, as close to the average row of its preceding nodes as the nodes above it in the column allow
+     */
+    void layout() {
+        int[] order = topologicalOrder();
+        int[] early = new int[nodeCount];
+        for (int n : order) {
+            for (int k = 0; k < succeeding[n].size(); k++) {
+                int m = succeeding[n].get(k);
+                early[m] = Math.max(early[m], early[n] + durations[n].get(k));
+            }
+        }
+
+        int[] times = early.clone();
+        Arrays.sort(times);
+        int distinct = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (i == 0 || times[i] != times[i - 1]) {
+                times[distinct++] = times[i];
+            }
+        }
+        int layerCount = 0;
+        for (int n : order) {
+            layer[n] = Arrays.binarySearch(times, 0, distinct, early[n]);
+            for (int k = 0; k < preceding[n].size(); k++) {
+                layer[n] = Math.max(layer[n], layer[preceding[n].get(k)] + 1);
+            }
+            layerCount = Math.max(layerCount, layer[n] + 1);
+        }
+
+        int[] layerStart = new int[layerCount + 1];
+        for (int n = 0; n < nodeCount; n++) {
+            layerStart[layer[n] + 1]++;
+        }
+        for (int l = 0; l < layerCount; l++) {
+            layerStart[l + 1] += layerStart[l];
+        }
+        int[] members = new int[nodeCount];
+        int[] filled = Arrays.copyOf(layerStart, layerCount);
+        for (int n : order) {
+            members[filled[layer[n]]++] = n;
+        }
+        int[] position = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            position[members[i]] = i - layerStart[layer[members[i]]];
+        }
+
+        int[] columnSize = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            columnSize[n] = layerStart[layer[n] + 1] - layerStart[layer[n]];
+        }
+        long[] keys = new long[nodeCount];
+        for (int sweep = 0; sweep < SWEEPS; sweep++) {
+            boolean down = sweep % 2 == 0;
+            IntList[] neighbours = down ? preceding : succeeding;
+            for (int i = 0; i < layerCount; i++) {
+                int l = down ? i : layerCount - 1 - i;
+                sortByBarycentre(members, layerStart[l], layerStart[l + 1], neighbours, position, columnSize, keys);
+            }
+        }
+        if (SWEEPS % 2 == 0) {      //Finish with a sweep down, as rows are given down the columns
+            for (int l = 0; l < layerCount; l++) {
+                sortByBarycentre(members, layerStart[l], layerStart[l + 1], preceding, position, columnSize, keys);
+            }
+        }
+
+        CELLS.clear();
+        double[] wanted = new double[nodeCount];
+        for (int l = 0; l < layerCount; l++) {
+            for (int i = layerStart[l]; i < layerStart[l + 1]; i++) {
+                int n = members[i];
+                wanted[i] = i - layerStart[l];
+                if (!preceding[n].isEmpty()) {
+                    long sum = 0;
+                    for (int k = 0; k < preceding[n].size(); k++) {
+                        sum += row[preceding[n].get(k)];
+                    }
+                    wanted[i] = sum / (double) preceding[n].size();
+                }
+            }
+            assignRows(members, layerStart[l], layerStart[l + 1], wanted);
+            for (int i = layerStart[l]; i < layerStart[l + 1]; i++) {
+                CELLS.put(cell(l, row[members[i]]), members[i]);
+            }
+        }
+        laidOut = true;
+    }
+
+    /**
+     * Procedure to sort the nodes in one column by the average position of their neighbours
+     * Positions are measured as a fraction of the way down each neighbour's column, since a long task can join columns of very different sizes
+     * Nodes with no neighbours keep their own position as their key, so they stay roughly where they were
+     * Keys are packed with the node's position into longs, so the sort makes no objects
+     * @param members       - The nodes of every column, column by column
+     * @param from          - Index of the first node in the column
+     * @param to            - Index after the last node in the column
+     * @param neighbours    - The lists of neighbours to use
+     * @param position      - Position of each node in its column, updated after sorting
+     * @param columnSize    - Amount of nodes in each node's column
+     * @param keys          - Space for the keys
+     */
+    private static void sortByBarycentre(int[] members, int from, int to, IntList[] neighbours, int[] position, int[] columnSize,
+                                         long[] keys) {
+        for (int i = from; i < to; i++) {
+            int n = members[i];
+            double barycentre = (position[n] + 0.5) / (to - from);
+            if (!neighbours[n].isEmpty()) {
+                double sum = 0;
+                for (int k = 0; k < neighbours[n].size(); k++) {
+                    int m = neighbours[n].get(k);
+                    sum += (position[m] + 0.5) / columnSize[m];
+                }
+                barycentre = sum / neighbours[n].size();
+            }
+            keys[i] = ((long) (barycentre * (1 << 30)) << 32) | (i - from);
+        }
+        Arrays.sort(keys, from, to);
+        int[] column = Arrays.copyOfRange(members, from, to);
+        for (int i = from; i < to; i++) {
+            int n = column[(int) keys[i]];
+            members[i] = n;
+            position[n] = i - from;
+        }
+    }
+
+    /**
+     * Procedure to give the nodes in one column their rows, keeping their order and leaving no two nodes in the same row
+     * Rows are chosen to be as close as possible to the rows wanted, in the least squares sense
+     * Taking away each node's position in the column turns this into fitting a non-decreasing sequence to the wanted rows,
+     * which is solved by pooling adjacent blocks which are out of order into their average, in one pass
+     * Without this, pushing each node below the one above it would make rows drift further down each column
+     * @param members   - The nodes of every column, column by column
+     * @param from      - Index of the first node in the column
+     * @param to        - Index after the last node in the column
+     * @param wanted    - The row wanted by each node, by index in members
+     */
+    private void assignRows(int[] members, int from, int to, double[] wanted) {
+        int count = to - from;
+        double[] blockSum = new double[count];
+        int[] blockSize = new int[count];
+        int blocks = 0;
+        for (int i = 0; i < count; i++) {
+            blockSum[blocks] = wanted[from + i] - i;
+            blockSize[blocks] = 1;
+            blocks++;
+            while (blocks > 1 && blockSum[blocks - 2] / blockSize[blocks - 2] > blockSum[blocks - 1] / blockSize[blocks - 1]) {
+                blockSum[blocks - 2] += blockSum[blocks - 1];
+                blockSize[blocks - 2] += blockSize[blocks - 1];
+                blocks--;
+            }
+        }
+        int i = 0;
+        for (int b = 0; b < blocks; b++) {
+            long offset = Math.max(0, Math.round(blockSum[b] / blockSize[b]));
+            for (int k = 0; k < blockSize[b]; k++, i++) {
+                row[members[from + i]] = (int) offset + i;
+            }
+        }
+    }
+
+    /**
+     * Function to sort the nodes so every node comes after all of the nodes with tasks leading to it
+     * Uses Kahn's algorithm, in the same way as NetworkSnapshot.topologicalOrder()
+     * @return      - The node numbers in topological order
+     */
+    private int[] topologicalOrder() {
+        int[] remaining = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            remaining[n] = preceding[n].size();
+        }
+        int[] order = new int[nodeCount];
+        int head = 0, tail = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (remaining[n] == 0) {
+                order[tail++] = n;
+            }
+        }
+        while (head < tail) {
+            int n = order[head++];
+            for (int k = 0; k < succeeding[n].size(); k++) {
+                int m = succeeding[n].get(k);
+                if (--remaining[m] == 0) {
+                    order[tail++] = m;
+                }
+            }
+        }
+        if (tail != nodeCount) {
+            throw new RuntimeException("Cycle exists in path");
+        }
+        return order;
+    }
+
+    /**
+     * Function to check whether there is a path from one node to another, following tasks forwards
+     * Only called before nodes are pushed right, which visits the same nodes anyway
+     * @param from      - The first node
+     * @param to        - The node to look for
+     * @return          - True if the path exists
+     */
+    private boolean reaches(int from, int to) {
+        BitSet seen = new BitSet(nodeCount);
+        IntList queue = new IntList();
+        queue.add(from);
+        seen.set(from);
+        for (int i = 0; i < queue.size(); i++) {
+            int n = queue.get(i);
+            if (n == to) {
+                return true;
+            }
+            for (int k = 0; k < succeeding[n].size(); k++) {
+                int m = succeeding[n].get(k);
+                if (!seen.get(m)) {
+                    seen.set(m);
+                    queue.add(m);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Procedure to move a node right until it is right of every node before it, then do the same for the nodes after it
+     * Nodes are only moved if they have to be, and keep as close to their row as they can
+     * @param n     - The node
+     */
+    private void pushRight(int n) {
+        IntList queue = new IntList();
+        queue.add(n);
+        for (int i = 0; i < queue.size(); i++) {
+            int m = queue.get(i);
+            int needed = layer[m];
+            for (int k = 0; k < preceding[m].size(); k++) {
+                needed = Math.max(needed, layer[preceding[m].get(k)] + 1);
+            }
+            if (needed > layer[m]) {
+                CELLS.remove(cell(layer[m], row[m]));
+                place(m, needed, row[m]);
+                for (int k = 0; k < succeeding[m].size(); k++) {
+                    queue.add(succeeding[m].get(k));
+                }
+            }
+        }
+    }
+
+    /**
+     * Procedure to put a node in a column, in the free row nearest to the one wanted
+     * @param n         - The node
+     * @param l         - The column
+     * @param wanted    - The row wanted
+     */
+    private void place(int n, int l, int wanted) {
+        int r = wanted;
+        for (int d = 1; CELLS.containsKey(cell(l, r)); d++) {     //Try the rows below and above in turn
+            if (!CELLS.containsKey(cell(l, wanted + d))) {
+                r = wanted + d;
+            }
+            else if (wanted - d >= 0 && !CELLS.containsKey(cell(l, wanted - d))) {
+                r = wanted - d;
+            }
+        }
+        layer[n] = l;
+        row[n] = r;
+        CELLS.put(cell(l, r), n);
+    }
+
+    /**
+     * Function to combine a column and row into a single key
+     * @param l     - Column
+     * @param r     - Row
+     * @return      - Key for the cell
+     */
+    private static long cell(int l, int r) {
+        return ((long) l << 32) | (r & 0xffffffffL);
+    }
+
+    /**
+     * Procedure to move the nodes of a snapshot to their places in the layout
+     * The layout must have been made from the same snapshot
+     * @param s     - The snapshot
+     */
+    void applyTo(NetworkSnapshot s) {
+        for (int n = 0; n < s.getNodeCount(); n++) {
+            s.getNode(n).setCentre(new Vector(getX(n), getY(n)));
+        }
+    }
+
+    /**
+     * Function to get the amount of nodes
+     * @return      - Node count
+     */
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Function to get the column a node is in
+     * @param n     - Node number
+     * @return      - Column, -1 if the node has not been placed
+     */
+    int getLayer(int n) {
+        return layer[n];
+    }
+
+    /**
+     * Function to get the row a node is in
+     * @param n     - Node number
+     * @return      - Row, counting down from 0
+     */
+    int getRow(int n) {
+        return row[n];
+    }
+
+    /**
+     * Function to get the x coordinate of a node's centre
+     * @param n     - Node number
+     * @return      - x coordinate
+     */
+    int getX(int n) {
+        return MARGIN_X + layer[n] * LAYER_SPACING;
+    }
+
+    /**
+     * Function to get the y coordinate of a node's centre
+     * @param n     - Node number
+     * @return      - y coordinate
+     */
+    int getY(int n) {
+        return MARGIN_Y + row[n] * ROW_SPACING;
+    }
+}
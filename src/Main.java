@@ -1,12 +1,15 @@
 import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Main class, simply creates the objects needed for the program to run
  */
 class Main {
     /**
-     * Main method where Look and feel of GUI, the GUI, the Controller,
+     * Main method where Look and feel of GUI, the GUI, the window it is shown in, the Controller,
      * and the context menu are created
+     * If the 'recordInput' system property names a file, every input is recorded to it for the InputReplay
      * @param args      - Array of arguments
      */
     public static void main (String[]args){
@@ -17,7 +20,22 @@ class Main {
             System.out.print("No Layout Manager");
         }
         GUIMain mainGui = new GUIMain();
+        JFrame frame = new JFrame("Critical Path Algorithm");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.getContentPane().add(mainGui);
+        frame.pack();
+        frame.setVisible(true);
+        frame.setFocusable(true);
+        frame.requestFocus();
         ClickContextMenu cCMenu = new ClickContextMenu();
-        new Controller(mainGui, cCMenu);
+        Controller controller = new Controller(mainGui, cCMenu, Controller.JOURNAL_HOME);
+        if (System.getProperty("recordInput") != null) {
+            try {
+                controller.startRecording(Paths.get(System.getProperty("recordInput")));
+            }
+            catch (IOException e) {
+                System.out.println("Input could not be recorded: " + e.getMessage());
+            }
+        }
     }
 }
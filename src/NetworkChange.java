@@ -0,0 +1,112 @@
+import java.util.List;
+
+/**
+ * Immutable description of one change made to a network, published on the network's ChangeBus
+ * Holds the kind of change, and the node or TaskVisualised which was changed
+ */
+final class NetworkChange {
+    /**
+     * The kinds of change which can be made to a network
+     */
+    enum Kind {
+        NODE_ADDED, NODE_MOVED, NODE_REMOVED,
+        TASK_ADDED, TASK_REMOVED, DURATION_CHANGED, CRITICALITY_TOGGLED, ESTIMATES_CHANGED, CRASHING_CHANGED,
+        EVENT_TIME_CHANGED,
+        /**
+         * The whole network was cleared, or a clear was undone, so every node and task may have changed
+         */
+        NETWORK_REPLACED
+    }
+
+    private final Kind KIND;
+    private final Node NODE;
+    private final TaskVisualised TASK;
+
+    /**
+     * Constructor for a change
+     * @param kind      - The kind of change
+     * @param node      - The node changed, null if the change is to a task or the whole network
+     * @param task      - The task changed, null if the change is to a node or the whole network
+     */
+    private NetworkChange(Kind kind, Node node, TaskVisualised task) {
+        this.KIND = kind;
+        this.NODE = node;
+        this.TASK = task;
+    }
+
+    /**
+     * Function to make a change to a node
+     * @param kind      - NODE_ADDED, NODE_MOVED, NODE_REMOVED or EVENT_TIME_CHANGED
+     * @param n         - The node
+     * @return          - The change
+     */
+    static NetworkChange node(Kind kind, Node n) {
+        return new NetworkChange(kind, n, null);
+    }
+
+    /**
+     * Function to make a change to a task
+     * @param kind      - TASK_ADDED, TASK_REMOVED, DURATION_CHANGED, CRITICALITY_TOGGLED, ESTIMATES_CHANGED or CRASHING_CHANGED
+     * @param tVis      - The task
+     * @return          - The change
+     */
+    static NetworkChange task(Kind kind, TaskVisualised tVis) {
+        return new NetworkChange(kind, null, tVis);
+    }
+
+    /**
+     * Function to make a change to the whole network
+     * @return          - The change
+     */
+    static NetworkChange networkReplaced() {
+        return new NetworkChange(Kind.NETWORK_REPLACED, null, null);
+    }
+
+    /**
+     * Function to get the kind of change
+     * @return      - The kind
+     */
+    Kind getKind() {
+        return KIND;
+    }
+
+    /**
+     * Function to get the node which was changed
+     * @return      - The node, null if the change is to a task or the whole network
+     */
+    Node getNode() {
+        return NODE;
+    }
+
+    /**
+     * Function to get the task which was changed
+     * @return      - The TaskVisualised, null if the change is to a node or the whole network
+     */
+    TaskVisualised getTask() {
+        return TASK;
+    }
+
+    /**
+     * Function to get whether the change can alter the calculated event times or critical path
+     * Only adding or removing tasks, changing durations, or replacing the network can
+     * (A node with no tasks is not part of the solved network, and a node's tasks are removed along with it)
+     * @return      - If the solution can change
+     */
+    boolean affectsSolution() {
+        return KIND == Kind.TASK_ADDED || KIND == Kind.TASK_REMOVED || KIND == Kind.DURATION_CHANGED || KIND == Kind.NETWORK_REPLACED;
+    }
+
+    /**
+     * Function to get whether any change in a batch can alter the calculated event times or critical path
+     * @param changes   - The batch
+     * @return          - If the solution can change
+     */
+    static boolean anyAffectSolution(List<NetworkChange> changes) {
+        for (NetworkChange c : changes) {
+            if (c.affectsSolution()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Interface for a network stored as columns of ints rather than as Node and Task objects
+ * Nodes are numbered 0 to getNodeCount() - 1 and tasks 0 to getTaskCount() - 1, and every value is read and written by number
+ * Nothing is allocated per node or task, so a network can hold tens of millions of tasks,
+ * and PathFunctions.solveInPlace(NetworkColumns) solves it in place without allocating anything at all
+ *
+ * The tasks leaving each node are listed together by index(), in the same way as in a NetworkSnapshot,
+ * and the order column is space the solver uses for the nodes' topological order
+ */
+interface NetworkColumns {
+    int getNodeCount();
+
+    int getTaskCount();
+
+    int getTaskStart(int t);
+
+    int getTaskEnd(int t);
+
+    /**
+     * Function to get the duration of a task
+     * @param t     - Task number
+     * @return      - Duration, -1 if the task has been deleted
+     */
+    int getDuration(int t);
+
+    /**
+     * Procedure to list the tasks leaving each node together, if tasks have been added or deleted since it was last called
+     * Must be called before getFirstOutgoing() and getOutgoing() are used
+     */
+    void index();
+
+    int getFirstOutgoing(int n);
+
+    int getOutgoing(int k);
+
+    int getX(int n);
+
+    int getY(int n);
+
+    int getEarly(int n);
+
+    void setEarly(int n, int early);
+
+    int getLate(int n);
+
+    void setLate(int n, int late);
+
+    int getOrder(int i);
+
+    void setOrder(int i, int n);
+
+    int getEarlyStart(int t);
+
+    int getLatestStart(int t);
+
+    int getFloat(int t);
+
+    /**
+     * Procedure to store the calculated times of a task
+     * @param t             - Task number
+     * @param earlyStart    - Early start time
+     * @param latestStart   - Latest start time
+     * @param taskFloat     - Total float
+     */
+    void setTaskTimes(int t, int earlyStart, int latestStart, int taskFloat);
+}
@@ -0,0 +1,222 @@
+import java.io.File;
+
+/**
+ * Class for a network open in its own tab of the main GUI
+ * Each document owns its component, which holds the network, its change bus and its edit history,
+ * its PathFunctions, its SolveScheduler and its autosave journal, so documents never share any part of their model
+ * The SolveSchedulers share one pool of worker threads, so the networks in different tabs can be solved at the same time
+ *
+ * Also keeps the text of the buttons and labels which describe the document, so they can be put back when its tab is selected again
+ * Nothing else is kept for an idle document, as the component only draws whilst its tab is showing
+ */
+class NetworkDocument {
+    private final int NUMBER;
+    private final String TITLE;
+    private final PathComponent P_COMPONENT;
+    private final PathFunctions PATH_FUNCTIONS;
+    private final SolveScheduler SOLVER;
+    private final Journal JOURNAL;
+    private SolveResult marked;
+    private boolean live;
+    private boolean showingSensitivity;
+    private boolean solving;
+    private String checkText = "Check Answers";
+    private String checkValidText = "Check Validity Of Network";
+    private String critPathText = "";
+    private String markText = "";
+
+    /**
+     * Constructor for a document with an empty network
+     * The journal is not started, so nothing is rebuilt or written until the Controller starts it
+     * The component keeps a reference to the document, so the GUI can find the document of the selected tab
+     * @param number            - The number of the document, which is shown in the title of its tab
+     * @param journalDirectory  - The directory of the document's autosave journal
+     * @param view              - The main GUI, told when a solve starts and finishes, and shown the error if a solve fails
+     */
+    NetworkDocument(int number, File journalDirectory, GUIMain view) {
+        this.NUMBER = number;
+        this.TITLE = "Network " + number;
+        this.P_COMPONENT = new PathComponent();
+        this.P_COMPONENT.putClientProperty(NetworkDocument.class, this);      //Lets the GUI find the document from its tab
+        this.PATH_FUNCTIONS = new PathFunctions();
+        this.SOLVER = new SolveScheduler(PATH_FUNCTIONS, busy -> view.setSolving(this, busy),
+                failed -> view.setCRIT_PATH_LENGTH(this, "Could not solve the network: " + failed.getMessage()));
+        this.JOURNAL = new Journal(journalDirectory);
+    }
+
+    /**
+     * Function to get the number of the document
+     * @return      - The number
+     */
+    int getNUMBER() {
+        return NUMBER;
+    }
+
+    /**
+     * Function to get the title of the document's tab
+     * @return      - The title
+     */
+    String getTITLE() {
+        return TITLE;
+    }
+
+    /**
+     * Function to get the component holding the document's network
+     * @return      - The component
+     */
+    PathComponent getPComponent() {
+        return P_COMPONENT;
+    }
+
+    /**
+     * Function to get the document's PathFunctions
+     * @return      - The PathFunctions
+     */
+    PathFunctions getPATH_FUNCTIONS() {
+        return PATH_FUNCTIONS;
+    }
+
+    /**
+     * Function to get the scheduler which solves the document's network
+     * @return      - The scheduler
+     */
+    SolveScheduler getSOLVER() {
+        return SOLVER;
+    }
+
+    /**
+     * Function to get the document's autosave journal
+     * @return      - The journal
+     */
+    Journal getJOURNAL() {
+        return JOURNAL;
+    }
+
+    /**
+     * Function to get the result of the solve the network was last marked against
+     * @return      - The result, or null if the document has not been marked
+     */
+    SolveResult getMarked() {
+        return marked;
+    }
+
+    /**
+     * Procedure to set the result of the solve the network is marked against
+     * @param marked    - The result
+     */
+    void setMarked(SolveResult marked) {
+        this.marked = marked;
+    }
+
+    /**
+     * Function to check if the document is in live mode
+     * @return      - True if the critical path is re-solved after every change
+     */
+    boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Procedure to turn live mode on or off
+     * @param live      - True if the critical path should be re-solved after every change
+     */
+    void setLive(boolean live) {
+        this.live = live;
+    }
+
+    /**
+     * Function to check if the sensitivity overlay is showing
+     * @return      - True if every task shows the range of durations it can take before the critical path changes
+     */
+    boolean isShowingSensitivity() {
+        return showingSensitivity;
+    }
+
+    /**
+     * Procedure to show or hide the sensitivity overlay
+     * @param showing   - True if every task should show the range of durations it can take before the critical path changes
+     */
+    void setShowingSensitivity(boolean showing) {
+        this.showingSensitivity = showing;
+    }
+
+    /**
+     * Function to check if a solve of the document's network is running
+     * @return      - True whilst a solve is running
+     */
+    boolean isSolving() {
+        return solving;
+    }
+
+    /**
+     * Procedure to set whether a solve of the document's network is running
+     * @param solving   - True whilst a solve is running
+     */
+    void setSolving(boolean solving) {
+        this.solving = solving;
+    }
+
+    /**
+     * Function to get the text of the check answers button for this document
+     * @return      - The text
+     */
+    String getCheckText() {
+        return checkText;
+    }
+
+    /**
+     * Procedure to set the text of the check answers button for this document
+     * @param checkText     - The text
+     */
+    void setCheckText(String checkText) {
+        this.checkText = checkText;
+    }
+
+    /**
+     * Function to get the text of the check validity button for this document
+     * @return      - The text
+     */
+    String getCheckValidText() {
+        return checkValidText;
+    }
+
+    /**
+     * Procedure to set the text of the check validity button for this document
+     * @param checkValidText    - The text
+     */
+    void setCheckValidText(String checkValidText) {
+        this.checkValidText = checkValidText;
+    }
+
+    /**
+     * Function to get the text of the critical path label for this document
+     * @return      - The text
+     */
+    String getCritPathText() {
+        return critPathText;
+    }
+
+    /**
+     * Procedure to set the text of the critical path label for this document
+     * @param critPathText  - The text
+     */
+    void setCritPathText(String critPathText) {
+        this.critPathText = critPathText;
+    }
+
+    /**
+     * Function to get the text of the mark label for this document
+     * @return      - The text
+     */
+    String getMarkText() {
+        return markText;
+    }
+
+    /**
+     * Procedure to set the text of the mark label for this document
+     * @param markText  - The text
+     */
+    void setMarkText(String markText) {
+        this.markText = markText;
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Class which generates large networks of a chosen shape, to show how the drawing, hit testing and solving cope as a network grows
+ * The network is built in an ArrayNetworkStore, laid out by a LayeredLayout, and then squeezed to fit the component if it is larger,
+ * so every node can be seen and clicked, even if they overlap
+ * The same shape, size and seed always give the same network, so a recorded session which generates a network replays the same way
+ */
+class NetworkGenerator {
+    static final int MAX_NODES = 100000;
+    static final int MAX_TASKS = 500000;
+
+    /**
+     * The shapes a network can be generated in
+     * CHAIN        - Each node joined to the next, with any further tasks skipping a few nodes ahead
+     * GRID         - Nodes in a square grid, joined to the node to their right and the node below
+     * RANDOM       - A random network, each task joining a node to one of the nodes shortly after it
+     * COMPONENTS   - Many separate random networks, which share no nodes
+     */
+    enum Shape {
+        CHAIN, GRID, RANDOM, COMPONENTS
+    }
+
+    private final ArrayNetworkStore STORE;
+    private final HashSet<Long> JOINED = new HashSet<>();
+    private final Random RANDOM;
+
+    /**
+     * Constructor for a generator, which makes the nodes straight away
+     * @param nodes     - Amount of nodes
+     * @param seed      - Seed for the random durations and tasks
+     */
+    private NetworkGenerator(int nodes, long seed) {
+        this.STORE = new ArrayNetworkStore(nodes, nodes * 2);
+        this.RANDOM = new Random(seed);
+        for (int n = 0; n < nodes; n++) {
+            STORE.addNode(0, 0);
+        }
+    }
+
+    /**
+     * Function to generate a network
+     * Throws an IllegalArgumentException if the amount of nodes or tasks is negative or more than the maximum
+     * @param shape     - The shape of the network
+     * @param nodes     - Amount of nodes
+     * @param tasks     - Amount of tasks wanted, fewer are made if the shape cannot fit that many between the nodes
+     * @param seed      - Seed for the random durations and tasks
+     * @param width     - Width of the component the network is for
+     * @param height    - Height of the component the network is for
+     * @return          - The network, with every node placed inside the component
+     */
+    static ArrayNetworkStore generate(Shape shape, int nodes, int tasks, long seed, int width, int height) {
+        if (nodes < 0 || nodes > MAX_NODES || tasks < 0 || tasks > MAX_TASKS) {
+            throw new IllegalArgumentException("Networks can have up to " + MAX_NODES + " nodes and " + MAX_TASKS + " tasks");
+        }
+        NetworkGenerator g = new NetworkGenerator(nodes, seed);
+        switch (shape) {
+            case CHAIN:
+                g.chain(nodes, tasks);
+                break;
+            case GRID:
+                g.grid(nodes, tasks);
+                break;
+            case RANDOM:
+                g.random(0, nodes, tasks);
+                break;
+            default:
+                int components = Math.max(2, nodes / 25);
+                for (int c = 0; c < components; c++) {
+                    int from = (int) ((long) nodes * c / components);
+                    int to = (int) ((long) nodes * (c + 1) / components);
+                    g.random(from, to, (int) ((long) tasks * (c + 1) / components - (long) tasks * c / components));
+                }
+                break;
+        }
+        return place(g.STORE, width, height);
+    }
+
+    /**
+     * Procedure to join each node to the next, then add tasks which skip between two and five nodes ahead
+     * @param nodes     - Amount of nodes
+     * @param tasks     - Amount of tasks wanted
+     */
+    private void chain(int nodes, int tasks) {
+        for (int n = 0; n + 1 < nodes && STORE.getTaskCount() < tasks; n++) {
+            join(n, n + 1);
+        }
+        int attempts = tasks * 4;
+        while (STORE.getTaskCount() < tasks && attempts-- > 0 && nodes > 2) {
+            int start = RANDOM.nextInt(nodes - 2);
+            join(start, Math.min(nodes - 1, start + 2 + RANDOM.nextInt(4)));
+        }
+    }
+
+    /**
+     * Procedure to join the nodes of a square grid to the node on their right and the node below, in a random order,
+     * then to the node diagonally below and right once those are used up
+     * @param nodes     - Amount of nodes
+     * @param tasks     - Amount of tasks wanted
+     */
+    private void grid(int nodes, int tasks) {
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(nodes)));
+        int[] offsets = {1, columns, columns + 1};
+        for (int pass = 0; pass < offsets.length; pass++) {
+            int[] starts = new int[nodes];
+            for (int n = 0; n < nodes; n++) {
+                starts[n] = n;
+            }
+            for (int i = nodes - 1; i > 0; i--) {
+                int j = RANDOM.nextInt(i + 1);
+                int swap = starts[i];
+                starts[i] = starts[j];
+                starts[j] = swap;
+            }
+            for (int n : starts) {
+                if (STORE.getTaskCount() == tasks) {
+                    return;
+                }
+                int end = n + offsets[pass];
+                boolean wraps = pass != 1 && n % columns == columns - 1;        //Right hand column has nothing to its right
+                if (end < nodes && !wraps) {
+                    join(n, end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Procedure to make a random network from a range of nodes
+     * Every node after the first is joined from one of the few nodes before it, so the network is connected,
+     * then the rest of the tasks join random nodes to nodes shortly after them
+     * Tasks only go forwards through the range, so there is never a cycle
+     * @param from      - First node of the range
+     * @param to        - One after the last node of the range
+     * @param tasks     - Amount of tasks wanted in the range
+     */
+    private void random(int from, int to, int tasks) {
+        int nodes = to - from;
+        if (nodes < 2) {
+            return;
+        }
+        int window = Math.max(2, Math.min(nodes - 1, 2 * tasks / nodes + 4));
+        int made = 0;
+        for (int n = from + 1; n < to && made < tasks; n++) {
+            if (join(Math.max(from, n - 1 - RANDOM.nextInt(window)), n)) {
+                made++;
+            }
+        }
+        int attempts = tasks * 4;
+        while (made < tasks && attempts-- > 0) {
+            int start = from + RANDOM.nextInt(nodes - 1);
+            if (join(start, Math.min(to - 1, start + 1 + RANDOM.nextInt(window)))) {
+                made++;
+            }
+        }
+    }
+
+    /**
+     * Function to add a task with a random duration between two nodes, unless they are already joined
+     * @param start     - Start node
+     * @param end       - End node
+     * @return          - True if the task was added
+     */
+    private boolean join(int start, int end) {
+        if (start == end || !JOINED.add(((long) start << 32) | end)) {
+            return false;
+        }
+        STORE.addTask(start, end, 1 + RANDOM.nextInt(9));
+        return true;
+    }
+
+    /**
+     * Function to lay out a network and fit it inside the component, used for generated networks and imported precedence tables
+     * The nodes are kept inside the same bounds which placing a node by clicking keeps them in,
+     * and if the layout is larger than that it is scaled down to fit
+     * @param network   - The network, which must have no deleted tasks
+     * @param width     - Width of the component
+     * @param height    - Height of the component
+     * @return          - A new store holding the network, with its nodes placed
+     */
+    static ArrayNetworkStore place(NetworkColumns network, int width, int height) {
+        LayeredLayout layout = LayeredLayout.of(network);
+        layout.layout();
+        int maxX = 0, maxY = 0;
+        for (int n = 0; n < network.getNodeCount(); n++) {
+            maxX = Math.max(maxX, layout.getX(n));
+            maxY = Math.max(maxY, layout.getY(n));
+        }
+        int left = 31, top = 51;
+        int spanX = Math.max(1, width - 31 - left), spanY = Math.max(1, height - 21 - top);
+        double scaleX = Math.min(1, (double) spanX / Math.max(1, maxX - LayeredLayout.MARGIN_X));
+        double scaleY = Math.min(1, (double) spanY / Math.max(1, maxY - LayeredLayout.MARGIN_Y));
+        ArrayNetworkStore placed = new ArrayNetworkStore(network.getNodeCount(), network.getTaskCount());
+        for (int n = 0; n < network.getNodeCount(); n++) {
+            placed.addNode(left + (int) ((layout.getX(n) - LayeredLayout.MARGIN_X) * scaleX),
+                    top + (int) ((layout.getY(n) - LayeredLayout.MARGIN_Y) * scaleY));
+        }
+        for (int t = 0; t < network.getTaskCount(); t++) {
+            placed.addTask(network.getTaskStart(t), network.getTaskEnd(t), network.getDuration(t));
+        }
+        return placed;
+    }
+}
@@ -0,0 +1,272 @@
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class to draw networks into image files without opening a window, for printing worksheets and answer sheets
+ * The network is drawn by the same Node.draw() and TaskVisualised.draw() as the PathComponent uses,
+ * onto the Graphics2D of a BufferedImage for a PNG, or onto an SvgGraphics for an SVG
+ * The question version leaves the event time boxes empty, the answer version displays the calculated event times
+ * and the critical tasks in blue, as when the user chooses to display the answers
+ *
+ * The Nodes and TaskVisualiseds are made for the renderer alone, and no Tasks are made,
+ * so any amount of renderers can draw on different threads at once
+ * Run from the command line, every network file given is drawn in parallel:
+ * java -Djava.awt.headless=true -cp "out/production/Critical Path Teaching Tool" NetworkRenderer png sheets network1.txt network2.txt
+ */
+class NetworkRenderer {
+    private static final int MARGIN = 60;
+    private final Node[] NODES;
+    private final TaskVisualised[] TASKS;
+    private final int ORIGIN_X, ORIGIN_Y, WIDTH, HEIGHT;
+
+    /**
+     * Constructor for a renderer of a network
+     * Solves the network, then makes a Node for every node and a TaskVisualised for every task which has not been deleted,
+     * stamped with the state the solve found for it
+     * The size of the picture is the area the nodes cover, with a margin around it which fits the event time boxes
+     * @param s         - The network, with the centre of every node set
+     * @param labels    - The index written in each node, by node number
+     */
+    NetworkRenderer(ArrayNetworkStore s, int[] labels) {
+        PathFunctions.solveInPlace(s);
+        int nodeCount = s.getNodeCount();
+        NODES = new Node[nodeCount];
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int n = 0; n < nodeCount; n++) {
+            Node node = new Node(labels[n], new Vector(s.getX(n), s.getY(n)));
+            node.setSelected(false);
+            node.setCalculatedEarlyStart(s.getEarly(n));
+            node.setCalculatedLatestStart(s.getLate(n));
+            NODES[n] = node;
+            minX = Math.min(minX, s.getX(n));
+            minY = Math.min(minY, s.getY(n));
+            maxX = Math.max(maxX, s.getX(n));
+            maxY = Math.max(maxY, s.getY(n));
+        }
+        TaskVisualised[] tasks = new TaskVisualised[s.getTaskCount()];
+        int taskCount = 0;
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            if (s.getDuration(t) >= 0) {
+                TaskVisualised tVis = new TaskVisualised(NODES[s.getTaskStart(t)], NODES[s.getTaskEnd(t)]);
+                tVis.setSelected(false);
+                tVis.setDuration(s.getDuration(t));
+                if (s.getDuration(t) == 0) {
+                    tVis.setState(TaskState.DUMMY);
+                }
+                else {
+                    tVis.setState(s.getFloat(t) == 0 ? TaskState.CRITICAL : TaskState.NON_CRITICAL);
+                }
+                tasks[taskCount++] = tVis;
+            }
+        }
+        TASKS = Arrays.copyOf(tasks, taskCount);
+        if (nodeCount == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        ORIGIN_X = MARGIN - minX;
+        ORIGIN_Y = MARGIN - minY;
+        WIDTH = maxX - minX + 2 * MARGIN;
+        HEIGHT = maxY - minY + 2 * MARGIN;
+    }
+
+    /**
+     * Function to read a network from a file
+     * The file is either a snapshot written by the Journal, or a list of 'T start end duration' records
+     * If the file places its nodes with N records they are drawn where they were placed,
+     * otherwise the nodes are numbered by the T records and laid out by a LayeredLayout
+     * Any other records are ignored
+     * @param file      - The file
+     * @return          - The renderer for the network
+     * @throws IOException  - If the file cannot be read
+     */
+    static NetworkRenderer read(Path file) throws IOException {
+        ArrayNetworkStore s = new ArrayNetworkStore(16, 16);
+        HashMap<Integer, Integer> placed = new HashMap<>();
+        int[] labels = new int[16];
+        boolean anyPlaced = false;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] r = line.trim().split("\\s+");
+                if (r[0].equals("N")) {
+                    int index = Integer.parseInt(r[1]);
+                    int n = s.addNode(Integer.parseInt(r[2]), Integer.parseInt(r[3]));
+                    placed.put(index, n);
+                    if (n == labels.length) {
+                        labels = Arrays.copyOf(labels, n * 2);
+                    }
+                    labels[n] = index;
+                    anyPlaced = true;
+                }
+                else if (r[0].equals("T")) {
+                    int start = Integer.parseInt(r[1]);
+                    int end = Integer.parseInt(r[2]);
+                    if (anyPlaced) {
+                        if (!placed.containsKey(start) || !placed.containsKey(end)) {
+                            throw new IllegalArgumentException("Task " + start + " " + end + " joins a node which has not been placed");
+                        }
+                        start = placed.get(start);
+                        end = placed.get(end);
+                    }
+                    else {
+                        while (s.getNodeCount() <= Math.max(start, end)) {
+                            int n = s.addNode(0, 0);
+                            if (n == labels.length) {
+                                labels = Arrays.copyOf(labels, n * 2);
+                            }
+                            labels[n] = n;
+                        }
+                    }
+                    s.addTask(start, end, Integer.parseInt(r[3]));
+                }
+            }
+        }
+        if (!anyPlaced) {
+            s = layOut(s);
+        }
+        return new NetworkRenderer(s, labels);
+    }
+
+    /**
+     * Function to lay out a network which has no positions, by copying it into a new store with the positions from a LayeredLayout
+     * @param s     - The network
+     * @return      - The network with its nodes placed
+     */
+    private static ArrayNetworkStore layOut(ArrayNetworkStore s) {
+        LayeredLayout layout = LayeredLayout.of(s);
+        layout.layout();
+        ArrayNetworkStore placed = new ArrayNetworkStore(s.getNodeCount(), s.getTaskCount());
+        for (int n = 0; n < s.getNodeCount(); n++) {
+            placed.addNode(layout.getX(n), layout.getY(n));
+        }
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            placed.addTask(s.getTaskStart(t), s.getTaskEnd(t), s.getDuration(t));
+        }
+        return placed;
+    }
+
+    /**
+     * Procedure to draw the network
+     * The background is filled with the panel colour, which is the colour Node.draw() fills the nodes with,
+     * then the tasks are drawn, then the nodes on top of them to hide the ends of the tasks, as in the PathComponent
+     * @param g         - Graphics to draw onto
+     * @param answers   - True for the answer version, false for the question version
+     */
+    private void draw(Graphics2D g, boolean answers) {
+        g.setColor(UIManager.getColor("Panel.background"));
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        Font font = UIManager.getFont("Panel.font");
+        if (font != null) {
+            g.setFont(font);
+        }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.translate(ORIGIN_X, ORIGIN_Y);
+        for (TaskVisualised tVis : TASKS) {
+            tVis.setDisplayingAnswers(answers);
+            tVis.draw(g);
+        }
+        for (Node node : NODES) {
+            node.setDisplayingAnswers(answers);
+            node.setBlankInputs(!answers);
+            node.draw(g);
+        }
+    }
+
+    /**
+     * Function to draw the network into an image
+     * @param answers   - True for the answer version, false for the question version
+     * @return          - The image
+     */
+    BufferedImage renderImage(boolean answers) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            draw(g, answers);
+        }
+        finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Function to draw the network as an SVG document
+     * @param answers   - True for the answer version, false for the question version
+     * @return          - The document
+     */
+    String renderSvg(boolean answers) {
+        SvgGraphics g = new SvgGraphics(WIDTH, HEIGHT);
+        draw(g, answers);
+        return g.toSvg();
+    }
+
+    /**
+     * Procedure to write the question and answer versions of the network into a folder,
+     * named after the network's file with '-question' and '-answer' added
+     * @param folder    - Folder to write into
+     * @param name      - Name of the network's file, without its extension
+     * @param svg       - True to write SVG files, false to write PNG files
+     * @throws IOException  - If a file cannot be written
+     */
+    void write(Path folder, String name, boolean svg) throws IOException {
+        for (boolean answers : new boolean[]{false, true}) {
+            String file = name + (answers ? "-answer" : "-question");
+            if (svg) {
+                Files.writeString(folder.resolve(file + ".svg"), renderSvg(answers), StandardCharsets.UTF_8);
+            }
+            else {
+                ImageIO.write(renderImage(answers), "png", folder.resolve(file + ".png").toFile());
+            }
+        }
+    }
+
+    /**
+     * Draws every network file given into a folder, in parallel
+     * A file which cannot be read or drawn is reported, and the rest are still drawn
+     * @param args  - 'png' or 'svg', the folder to write into, then the network files
+     * @throws IOException  - If the folder cannot be made
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || !(args[0].equals("png") || args[0].equals("svg"))) {
+            System.out.println("Usage: NetworkRenderer png|svg <output folder> <network files...>");
+            return;
+        }
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        boolean svg = args[0].equals("svg");
+        Path folder = Paths.get(args[1]);
+        Files.createDirectories(folder);
+        UIManager.getColor("Panel.background");        //Loads the look and feel once, before the threads use it
+        AtomicInteger drawn = new AtomicInteger();
+        long start = System.nanoTime();
+        Arrays.stream(args, 2, args.length).parallel().forEach(arg -> {
+            Path file = Paths.get(arg);
+            String name = file.getFileName().toString();
+            if (name.lastIndexOf('.') > 0) {
+                name = name.substring(0, name.lastIndexOf('.'));
+            }
+            try {
+                read(file).write(folder, name, svg);
+                drawn.incrementAndGet();
+            }
+            catch (IOException | RuntimeException e) {
+                System.out.println(arg + ": " + e.getMessage());
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d networks drawn in %.2fs (%.0f per minute)%n", drawn.get(), seconds, drawn.get() * 60 / seconds);
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Immutable copy of a network, taken on the Event Dispatch Thread so it can be solved on any thread
+ * Nodes are numbered 0 to getNodeCount() - 1 and tasks 0 to getTaskCount() - 1, in the order they were found
+ * The tasks leaving each node are stored together, so the solver can follow the network without any HashSets
+ *
+ * The topology (which tasks join which nodes) is kept separately from the durations,
+ * so a snapshot taken after only durations have changed shares the topology of the previous snapshot
+ * The Node and Task objects are only kept so a result can be published back to them, and are never read by the solver
+ */
+final class NetworkSnapshot {
+    private final Node[] NODES;
+    private final Task[] TASKS;
+    private final int[] TASK_START, TASK_END;
+    private final int[] OUT_OFFSET, OUT_TASKS;
+    private final int[] DURATIONS;
+    private final long VERSION;
+
+    /**
+     * Constructor for a snapshot with a new topology
+     * Builds the lists of tasks leaving each node
+     * The arrays passed in must not be changed afterwards
+     * @param nodes         - The nodes in the network
+     * @param tasks         - The tasks in the network
+     * @param taskStart     - The number of the start node of each task
+     * @param taskEnd       - The number of the end node of each task
+     * @param durations     - The duration of each task
+     * @param version       - The version of the network this snapshot was taken from
+     */
+    NetworkSnapshot(Node[] nodes, Task[] tasks, int[] taskStart, int[] taskEnd, int[] durations, long version) {
+        this.NODES = nodes;
+        this.TASKS = tasks;
+        this.TASK_START = taskStart;
+        this.TASK_END = taskEnd;
+        this.DURATIONS = durations;
+        this.VERSION = version;
+        this.OUT_OFFSET = new int[nodes.length + 1];
+        this.OUT_TASKS = new int[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            OUT_OFFSET[taskStart[t] + 1]++;
+        }
+        for (int n = 0; n < nodes.length; n++) {
+            OUT_OFFSET[n + 1] += OUT_OFFSET[n];
+        }
+        int[] next = new int[nodes.length];
+        for (int t = 0; t < tasks.length; t++) {
+            int s = taskStart[t];
+            OUT_TASKS[OUT_OFFSET[s] + next[s]++] = t;
+        }
+    }
+
+    /**
+     * Constructor for a snapshot which shares the topology of another snapshot, but has different durations
+     * @param shared        - The snapshot whose topology is shared
+     * @param durations     - The new durations
+     * @param version       - The version of the network this snapshot was taken from
+     */
+    private NetworkSnapshot(NetworkSnapshot shared, int[] durations, long version) {
+        this.NODES = shared.NODES;
+        this.TASKS = shared.TASKS;
+        this.TASK_START = shared.TASK_START;
+        this.TASK_END = shared.TASK_END;
+        this.OUT_OFFSET = shared.OUT_OFFSET;
+        this.OUT_TASKS = shared.OUT_TASKS;
+        this.DURATIONS = durations;
+        this.VERSION = version;
+    }
+
+    /**
+     * Function to get a snapshot with the same topology but different durations
+     * @param durations     - The new durations, which must not be changed afterwards
+     * @param version       - The version of the network the durations were taken from
+     * @return              - The new snapshot
+     */
+    NetworkSnapshot withDurations(int[] durations, long version) {
+        return new NetworkSnapshot(this, durations, version);
+    }
+
+    /**
+     * Function to check whether another snapshot has exactly the same tasks, in the same order
+     * @param other     - The other snapshot
+     * @return          - True if the topologies are shared
+     */
+    boolean sharesTopology(NetworkSnapshot other) {
+        return other != null && other.TASKS == TASKS;
+    }
+
+    /**
+     * Function to get the amount of nodes
+     * @return      - Node count
+     */
+    int getNodeCount() {
+        return NODES.length;
+    }
+
+    /**
+     * Function to get the amount of tasks
+     * @return      - Task count
+     */
+    int getTaskCount() {
+        return TASKS.length;
+    }
+
+    /**
+     * Function to get the number of the node a task starts at
+     * @param t     - Task number
+     * @return      - Start node number
+     */
+    int getTaskStart(int t) {
+        return TASK_START[t];
+    }
+
+    /**
+     * Function to get the number of the node a task ends at
+     * @param t     - Task number
+     * @return      - End node number
+     */
+    int getTaskEnd(int t) {
+        return TASK_END[t];
+    }
+
+    /**
+     * Function to get the duration of a task
+     * @param t     - Task number
+     * @return      - Duration
+     */
+    int getDuration(int t) {
+        return DURATIONS[t];
+    }
+
+    /**
+     * Function to get where the tasks leaving a node begin in the outgoing task list
+     * The tasks leaving node n are getOutgoing(k) for getFirstOutgoing(n) <= k < getFirstOutgoing(n + 1)
+     * @param n     - Node number
+     * @return      - Position in the outgoing task list
+     */
+    int getFirstOutgoing(int n) {
+        return OUT_OFFSET[n];
+    }
+
+    /**
+     * Function to get a task from the outgoing task list
+     * @param k     - Position in the outgoing task list
+     * @return      - Task number
+     */
+    int getOutgoing(int k) {
+        return OUT_TASKS[k];
+    }
+
+    /**
+     * Function to order the nodes so every task starts earlier in the order than it ends
+     * @return      - The node numbers in order
+     */
+    int[] topologicalOrder() {
+        int[] remainingIn = new int[getNodeCount()];
+        for (int t = 0; t < getTaskCount(); t++) {
+            remainingIn[getTaskEnd(t)]++;
+        }
+        int[] order = new int[getNodeCount()];
+        int head = 0, tail = 0;
+        for (int n = 0; n < getNodeCount(); n++) {
+            if (remainingIn[n] == 0) {
+                order[tail++] = n;
+            }
+        }
+        while (head < tail) {
+            int n = order[head++];
+            for (int k = getFirstOutgoing(n); k < getFirstOutgoing(n + 1); k++) {
+                int end = getTaskEnd(getOutgoing(k));
+                if (--remainingIn[end] == 0) {
+                    order[tail++] = end;
+                }
+            }
+        }
+        if (tail != getNodeCount()) {
+            throw new RuntimeException("Cycle exists in path");
+        }
+        return order;
+    }
+
+    /**
+     * Function to get the Node object a node number was taken from
+     * Should only be used on the Event Dispatch Thread
+     * @param n     - Node number
+     * @return      - The Node
+     */
+    Node getNode(int n) {
+        return NODES[n];
+    }
+
+    /**
+     * Function to get the Task object a task number was taken from
+     * Should only be used on the Event Dispatch Thread
+     * @param t     - Task number
+     * @return      - The Task
+     */
+    Task getTask(int t) {
+        return TASKS[t];
+    }
+
+    /**
+     * Function to get the version of the network the snapshot was taken from
+     * @return      - Version
+     */
+    long getVersion() {
+        return VERSION;
+    }
+}
@@ -1,6 +1,5 @@
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashSet;
 
 
 /**
@@ -8,7 +7,9 @@ import java.util.HashSet;
  * ImplementsA the Drawable interface, since it is a drawable object
  * The node object displays to the user their inputted early and late event times
  * It also links Tasks together
- * Each node has a unique index and HashSets of preceding and succeeding tasks
+ * Each node has a unique index and lists of its preceding and succeeding tasks
+ * The tasks are kept in TaskLists rather than HashSets of Tasks,
+ * since a HashSet and its entries take many times the memory of an array
  */
 public class Node implements Drawable {
     private final int INDEX;
@@ -17,24 +18,25 @@ public class Node implements Drawable {
     private Vector centre;
     private Drawable nextDraw;
     private Node nextNode;
-    private HashSet<Task> succeedingTasks;
-    private HashSet<Task> precedingTasks;
+    private TaskList succeedingTasks;
+    private TaskList precedingTasks;
     private int selectedArea;
-    private boolean checkingAns, displayingAnswers;
+    private boolean checkingAns, displayingAnswers, blankInputs;
 
     /**
      * Constructor for the node class
      * Sets the centre location and the index of the node
-     * Initialises the Task HashSets
+     * The centre is copied, so the node owns its centre Vector and can move it without making a new one
+     * Initialises the task lists
      * Sets the node as selected
      * @param index     - The unique identifier for the node
      * @param centre    - The Vector location of the centre of the node
      */
     Node(int index, Vector centre){
         this.INDEX = index;
-        this.centre = centre;
-        precedingTasks = new HashSet<>();
-        succeedingTasks = new HashSet<>();
+        this.centre = new Vector(centre.getX(), centre.getY());
+        precedingTasks = new TaskList();
+        succeedingTasks = new TaskList();
         this.selected = true;
         checkingAns = false;
     }
@@ -47,6 +49,16 @@ public class Node implements Drawable {
         succeedingTasks = null;
         precedingTasks = null;
     }
+
+    /**
+     * Procedure to bring back a deleted node, used when a deletion is undone
+     * @param preceding     - The preceding task list the node had before it was deleted
+     * @param succeeding    - The succeeding task list the node had before it was deleted
+     */
+    void restore(TaskList preceding, TaskList succeeding){
+        precedingTasks = preceding;
+        succeedingTasks = succeeding;
+    }
     /**
      * Procedure to display the node and all its information onto a path component
      * Implementation of the abstract function in the Drawable interface
@@ -64,6 +76,7 @@ public class Node implements Drawable {
      * The event times displayed in the boxes are always in the centre of the boxes,
      * this is done by calculating the centre of the text based on how many characters it is#
      * If displaying calculated event times, the event times are written in blue
+     * If the inputs are blank, as on a printed worksheet, nothing is written in the boxes unless answers are displayed
      * @param g - Graphics object
      */
     public void draw(Graphics g){
@@ -108,19 +121,32 @@ public class Node implements Drawable {
             g.drawString(Integer.toString(calculatedEarlyStart), (centre.getIntX() - 15) - ((Integer.toString(calculatedEarlyStart).length())*g.getFont().getSize()/3), (centre.getIntY() - 37) + g.getFont().getSize()/3);
             g.drawString(Integer.toString(calculatedLatestStart), (centre.getIntX() + 15) - ((Integer.toString(calculatedLatestStart).length())*g.getFont().getSize()/3), (centre.getIntY() - 37) + g.getFont().getSize()/3);
         }
-        else {
+        else if (!blankInputs) {
             g.drawString(Integer.toString(earlyStartInput), (centre.getIntX() - 15) - ((Integer.toString(earlyStartInput).length()) * g.getFont().getSize() / 3), (centre.getIntY() - 37) + g.getFont().getSize() / 3);
             g.drawString(Integer.toString(latestStartInput), (centre.getIntX() + 15) - ((Integer.toString(latestStartInput).length()) * g.getFont().getSize() / 3), (centre.getIntY() - 37) + g.getFont().getSize() / 3);
         }
 
     }
 
+    /**
+     * Function to check if nothing of the node would be drawn inside an area, so drawing it can be skipped
+     * Implementation of the abstract function in the Drawable interface
+     * The node is drawn within 30 either side of its centre, from the top of its event time boxes 50 above to the bottom of its circle 20 below,
+     * and a pixel is added on each side for the outlines
+     * @param area  - The area
+     * @return      - True if the node is entirely outside the area
+     */
+    public boolean isOutside(Rectangle area) {
+        int x = centre.getIntX(), y = centre.getIntY();
+        return x + 31 < area.x || x - 31 > area.x + area.width || y + 21 < area.y || y - 51 > area.y + area.height;
+    }
+
     /**
      * Function to check if a click location is within the node
      * Implementation of the abstract function in the Drawable interface
      *
-     * Uses vector mathematics to find the vector from the centre of the node to the click
-     * Checks if the magnitude of this vector is shorter or equal to the length of the radius
+     * Uses vector mathematics to find the distance from the centre of the node to the click
+     * Checks if the squared distance is shorter or equal to the radius squared, so no sqrt() or new Vector is needed
      * If this is true then the click is within the circle, so returns true and sets selected area to the main circle
      * Else, checks if the click is within one of the event time boxes
      * Returns true and sets the selected area to the corresponding box if this is true
@@ -129,8 +155,7 @@ public class Node implements Drawable {
      * @return      - If the node is inside the vector
      */
     public boolean checkIfInside(Vector v){
-        Vector cToT = v.subtract(centre);
-        if (cToT.getMagnitude()<= 20){  //If vector from centre to mouse click has magnitude <= 20
+        if (Vector.distanceSquared(v.getX(), v.getY(), centre.getX(), centre.getY()) <= 400){  //If vector from centre to mouse click has magnitude <= 20
             selectedArea = 1;
             return true;
         }
@@ -151,14 +176,17 @@ public class Node implements Drawable {
      * Procedure to move a node to a colliding node at the closest point to the mouse
      * Finds the joining unit vector between the click and colliding node
      * Multiplies this vector by the diameter to find the new node centre location which would place the node at the edge of the colliding node
+     * The location is written into a Vector given by the caller, so dragging a node makes no new Vectors
      * @param v     - Mouse location
      * @param collidingNode     - Node which the mouse is inside
+     * @param result    - Vector to write the new centre location into
      */
-    Vector moveToNode(Vector v,Node collidingNode){
+    void moveToNode(Vector v, Node collidingNode, Vector result){
         Vector v2 = collidingNode.getCentre();
-        Vector vToV2 = v2.subtract(v);
-        vToV2 = (vToV2.getUnitVector()).multiply(40);
-        return v2.subtract(vToV2);
+        double dx = v2.getX() - v.getX();
+        double dy = v2.getY() - v.getY();
+        double scale = 40 / Math.sqrt((dx*dx) + (dy*dy));
+        result.set(v2.getX() - dx * scale, v2.getY() - dy * scale);
     }
 
     /**
@@ -214,34 +242,84 @@ public class Node implements Drawable {
     }
 
     /**
-     * Procedure to add a Task to the HashSet of preceding tasks
+     * Procedure to add a Task to the list of preceding tasks, if it is not already there
      * @param t     - New Task
      */
     void addToPreceding (Task t){
-        precedingTasks.add(t);
+        precedingTasks.addIfAbsent(t);
+    }
+
+    /**
+     * Procedure to remove a Task from the list of preceding tasks
+     * @param t     - The Task
+     */
+    void removePreceding(Task t){
+        precedingTasks.remove(t);
     }
 
     /**
-     * Function to get the Preceding task HashSet
-     * @return      - Preceding task HashSet
+     * Function to get the amount of preceding tasks
+     * @return      - Amount of preceding tasks
      */
-    HashSet<Task> getPrecedingTasks() {
+    int getPrecedingCount() {
+        return precedingTasks.size();
+    }
+
+    /**
+     * Function to get one of the preceding tasks
+     * @param i     - Position in the list, from 0 to getPrecedingCount() - 1
+     * @return      - The Task
+     */
+    Task getPreceding(int i) {
+        return precedingTasks.get(i);
+    }
+
+    /**
+     * Function to get the list of preceding tasks
+     * @return      - Preceding task list
+     */
+    TaskList getPrecedingTasks() {
         return precedingTasks;
     }
 
     /**
-     * Procedure to add a Task to the HashSet of succeeding tasks
+     * Procedure to add a Task to the list of succeeding tasks, if it is not already there
      * @param t     - New Task
      */
     void addToSucceeding(Task t){
-        succeedingTasks.add(t);
+        succeedingTasks.addIfAbsent(t);
+    }
+
+    /**
+     * Procedure to remove a Task from the list of succeeding tasks
+     * @param t     - The Task
+     */
+    void removeSucceeding(Task t){
+        succeedingTasks.remove(t);
     }
 
     /**
-     * Function to get the Succeeding task HashSet
-     * @return      - Succeeding task HashSet
+     * Function to get the amount of succeeding tasks
+     * @return      - Amount of succeeding tasks
      */
-    HashSet<Task> getSucceedingTasks() {
+    int getSucceedingCount() {
+        return succeedingTasks.size();
+    }
+
+    /**
+     * Function to get one of the succeeding tasks
+     * @param i     - Position in the list, from 0 to getSucceedingCount() - 1
+     * @return      - The Task
+     */
+    Task getSucceeding(int i) {
+        return succeedingTasks.get(i);
+    }
+
+    /**
+     * Function to get the list of succeeding tasks
+     * @return      - Succeeding task list
+     */
+    TaskList getSucceedingTasks() {
         return succeedingTasks;
     }
 
@@ -255,10 +333,11 @@ public class Node implements Drawable {
 
     /**
      * Function to set the Vector location of the centre of the node
+     * The location is copied into the node's own centre Vector, so the Vector passed in can be reused
      * @param v     - new location for centre
      */
     void setCentre(Vector v){
-        centre = v;
+        centre.set(v.getX(), v.getY());
     }
 
     /**
@@ -291,21 +370,6 @@ public class Node implements Drawable {
         }
     }
 
-    /**
-     * Returns integer representing amount of correct inputs
-     * @return      - Correct input amount (0 - 2)
-     */
-    int getMarksForNode(){
-        int marks = 0;
-        if (calculatedEarlyStart == earlyStartInput){
-            marks++;
-        }
-        if (calculatedLatestStart == latestStartInput){
-            marks++;
-        }
-        return marks;
-    }
-
     /**
      * Function to get which area of the node is selected
      * @return      - The selected area (-1 if node is not selected)
@@ -322,6 +386,22 @@ public class Node implements Drawable {
         this.earlyStartInput = earlyStartInput;
     }
 
+    /**
+     * Function to get the input value for the early start time of the node
+     * @return      - The input
+     */
+    int getEarlyStartInput() {
+        return earlyStartInput;
+    }
+
+    /**
+     * Function to get the input value for the latest start time of the node
+     * @return      - The input
+     */
+    int getLatestStartInput() {
+        return latestStartInput;
+    }
+
     /**
      * Procedure to set the input value for the latest start time of the node
      * @param latestStartInput       - The input
@@ -385,4 +465,13 @@ public class Node implements Drawable {
     void setCheckingAns(boolean checkingAns) {
         this.checkingAns = checkingAns;
     }
-}
\ No newline at end of file
+
+    /**
+     * Procedure to set whether the event time boxes are left empty rather than showing the inputted times
+     * Used by the NetworkRenderer for the question version of a worksheet
+     * @param blankInputs       - Boolean to say whether to leave the boxes empty
+     */
+    void setBlankInputs(boolean blankInputs) {
+        this.blankInputs = blankInputs;
+    }
+}
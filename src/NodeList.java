@@ -1,4 +1,4 @@
-import java.util.Iterator;
+import java.util.Set;
 
 /**
  * Linked List class, of Nodes
@@ -31,17 +31,23 @@ class NodeList {
      * @return      - The intersecting node
      */
     Node circleIntersectCheck(Vector v2, int exclude) {
+        ProfilingEvents.HitTest event = new ProfilingEvents.HitTest("node overlap");
+        int candidates = 0;
         Node current = this.first;
         while (current != null) {
             if (current.getINDEX() != exclude) {
-                double magSquared = current.getCentre().getJoiningVectorMagnitudeSquared(v2);
+                candidates++;
+                Vector centre = current.getCentre();
+                double magSquared = Vector.distanceSquared(centre.getX(), centre.getY(), v2.getX(), v2.getY());
                 if (magSquared <= 1600) {     // (R0 - R1)^2 <= (x0 - x1)^2 + (y0 - y1)^2 <= (R0 + R1)^2     Equation squared to avoid sqrt() function for efficiency
                     // System.out.println(magSquared);
+                    event.finish(candidates, true);
                     return current;
                 }
             }
             current = current.getNextNode();
         }
+        event.finish(candidates, false);
         return null;
     }
 
@@ -80,6 +86,49 @@ class NodeList {
         first = null;
     }
 
+    /**
+     * Procedure to add many nodes to the end of the list at once, in one pass over the list rather than one pass for each node as insert() takes
+     * @param items     - The nodes
+     */
+    void insertAll(Node[] items) {
+        if (items.length == 0) {
+            return;
+        }
+        for (int i = 0; i + 1 < items.length; i++) {
+            items[i].setNextNode(items[i + 1]);
+        }
+        items[items.length - 1].setNextNode(null);
+        if (this.isEmpty()) {
+            this.first = items[0];
+        }
+        else {
+            Node last = this.first;
+            while (last.getNextNode() != null) {
+                last = last.getNextNode();
+            }
+            last.setNextNode(items[0]);
+        }
+    }
+
+    /**
+     * Procedure to remove many nodes at once, in one pass over the list rather than one pass for each node as remove() takes
+     * @param removed   - The nodes to remove
+     */
+    void removeEach(Set<Drawable> removed) {
+        while (this.first != null && removed.contains(this.first)) {
+            this.first = this.first.getNextNode();
+        }
+        Node current = this.first;
+        while (current != null) {
+            Node next = current.getNextNode();
+            while (next != null && removed.contains(next)) {
+                next = next.getNextNode();
+            }
+            current.setNextNode(next);
+            current = next;
+        }
+    }
+
     /**
      * Function to return which node contains a vector location
      * Iterates through the list until a node is found to contain the click location
@@ -88,13 +137,18 @@ class NodeList {
      * @return      - The intersecting node
      */
     Node whichNodeContains(Vector vT) {
+        ProfilingEvents.HitTest event = new ProfilingEvents.HitTest("nodes");
+        int candidates = 0;
         Node current = this.first;
         while (current != null) {
+            candidates++;
             if (current.checkIfInside(vT)) {
+                event.finish(candidates, true);
                 return current;
             }
             current = current.getNextNode();
         }
+        event.finish(candidates, false);
         return null;
     }
 
@@ -102,11 +156,13 @@ class NodeList {
      * Procedure to insert a node into the list
      * Iterates through list to find the last node in the list
      * Sets the last nodes 'next' to the new node
+     * The new node's 'next' is cleared, as a node which is put back into the list may still point to its old neighbour
      * @param item      - New Node to be added
      */
     void insert(Node item) {
         Node current = this.first;
         Node previous = this.first;
+        item.setNextNode(null);
         if (this.isEmpty()) this.first = item;
         else {
             while (current != null) {
@@ -118,41 +174,20 @@ class NodeList {
     }
 
     /**
-     * Procedure to check the inputted answers for every node
-     * Iterates through each node, setting the node into 'checkingAns' mode
-     * If a node is at the end of the network, its times are evaluated
-     *
-     * nodeCount = amount of nodes in the path, used to get fraction of inputs which are correct,
-     * This fraction is multiplied by 4 and rounded down to get total marks for nodes
+     * Function to get the first node in the list
+     * @return      - First
      */
-    int checkAnswers(){
-        Node current = this.first;
-        int nodeCount = 0;
-        int marks = 0;
-        while (current != null){
-            if (current.isConnected()) {
-                if (current.getSucceedingTasks().isEmpty()) {
-                    Iterator<Task> it = current.getPrecedingTasks().iterator();
-                    Task t = it.next();
-                    current.setCalculatedEarlyStart(t.getLatestStart() + t.getDuration());
-                    current.setCalculatedLatestStart(t.getLatestStart() + t.getDuration());
-                }
-                System.out.println(current.getINDEX() + "Is connected");
-                current.setCheckingAns(true);
-                marks += current.getMarksForNode();
-                nodeCount++;
-            }
-            current = current.getNextNode();
-        }
-        int totalMarks;
-        try {
-            totalMarks = (4 * marks) / (2 * nodeCount);
-        }
-        catch (Exception zeroNodes){        //If there is no nodes, the above expression = n/0, which is undefined for all values of n
-            totalMarks = 0;
-        }
-        System.out.println(totalMarks);
-        return totalMarks;
+    Node getFirst() {
+        return first;
+    }
+
+    /**
+     * Procedure to set the first node in the list
+     * Used to bring back a list which has been cleared, since clearing leaves the rest of the nodes linked together
+     * @param first     - New first node
+     */
+    void setFirst(Node first) {
+        this.first = first;
     }
 
     /**
@@ -0,0 +1,421 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Class which stores a network as columns of ints outside the Java heap, for networks too large to fit in it
+ * Each column is either a direct buffer, or a memory-mapped file in a folder, in which case the operating system
+ * pages the columns in and out of memory and the network can even be larger than the computer's memory
+ * Either way the garbage collector never scans or copies the columns, so solving a huge network causes no full collections
+ * Direct buffers count against -XX:MaxDirectMemorySize, which is the same as -Xmx unless it is set, mapped files do not
+ * The only thing kept on the heap is one bit per node to mark deleted nodes
+ *
+ * Implements the same NetworkColumns interface as ArrayNetworkStore, so PathFunctions.solveInPlace() reads and writes it directly
+ * Columns double in size when they are full: a direct column is copied into a larger one, a mapped file is mapped again at its new size
+ * A column can hold at most Integer.MAX_VALUE / 4 ints, which limits a store to about 536 million nodes or tasks
+ * (one node fewer than that, as the offsets of the tasks leaving each node need one more int than there are nodes)
+ * Unlike ArrayNetworkStore there is no compaction or materialising, as this store is only meant for the headless solver
+ *
+ * Running it as a program solves a file of "T start end duration" records, the same records the journal and SolveService use,
+ * where the nodes must be numbered from 0:
+ * java -Xmx64m -cp "out/production/Critical Path Teaching Tool" OffHeapNetworkStore network.txt [folder for mapped columns]
+ * Records which only place nodes or hold a student's inputs are skipped, as they do not change the solution,
+ * but the journal's records for editing a network (D, XT, XN and CLR) are turned away, so a journal must be snapshotted first
+ */
+class OffHeapNetworkStore implements NetworkColumns {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / 4;
+    private static final int MAX_NODES = MAX_CAPACITY - 1;        //outOffset holds one more int than there are nodes
+    private final Path FOLDER;
+    private final HashMap<String, FileChannel> CHANNELS = new HashMap<>();
+    private int nodeCount, taskCount, nodeCapacity, taskCapacity;
+    private IntBuffer taskStart, taskEnd, duration, earlyStart, latestStart, taskFloat, outTasks;
+    private IntBuffer nodeX, nodeY, early, late, earlyInput, lateInput, order, outOffset;
+    private final BitSet DELETED_NODES = new BitSet();
+    private boolean indexed;
+
+    /**
+     * Constructor for an empty store
+     * @param nodeCapacity  - Amount of nodes to make space for, more space is made when needed
+     * @param taskCapacity  - Amount of tasks to make space for, more space is made when needed
+     * @param folder        - Folder to keep the column files in, or null to keep the columns in direct buffers
+     * @throws IOException  - If a column file cannot be made
+     */
+    OffHeapNetworkStore(int nodeCapacity, int taskCapacity, Path folder) throws IOException {
+        this.FOLDER = folder;
+        if (folder != null) {
+            Files.createDirectories(folder);
+        }
+        this.nodeCapacity = Math.min(Math.max(nodeCapacity, 1), MAX_NODES);
+        this.taskCapacity = Math.min(Math.max(taskCapacity, 1), MAX_CAPACITY);
+        makeNodeColumns(0);
+        makeTaskColumns(0);
+    }
+
+    /**
+     * Main program to solve a network from a file without the window, using as little heap as possible
+     * @param args      - The file of records, and optionally a folder to map the columns into
+     * @throws IOException  - If the file cannot be read or a column file cannot be made
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: OffHeapNetworkStore <network file> [folder for mapped columns]");
+            return;
+        }
+        Path folder = args.length > 1 ? Paths.get(args[1]) : null;
+        long start = System.nanoTime();
+        OffHeapNetworkStore s = new OffHeapNetworkStore(1 << 16, 1 << 16, folder);
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String[] r = line.trim().split("\\s+");
+                if (r[0].equals("D") || r[0].equals("XT") || r[0].equals("XN") || r[0].equals("CLR")) {
+                    System.out.println("Line " + lineNumber + " (" + r[0] + ") is an edit to the network: "
+                            + "give a snapshot of the network instead of a journal");
+                    s.close();
+                    System.exit(1);
+                }
+                if (r[0].equals("T")) {
+                    int from = Integer.parseInt(r[1]);
+                    int to = Integer.parseInt(r[2]);
+                    while (s.getNodeCount() <= Math.max(from, to)) {
+                        s.addNode(0, 0);
+                    }
+                    s.addTask(from, to, Integer.parseInt(r[3]));
+                }
+            }
+        }
+        long read = System.nanoTime();
+        int cp = PathFunctions.solveInPlace(s);
+        long solved = System.nanoTime();
+        System.out.printf("%d nodes, %d tasks read in %.0fms, solved in %.0fms%n",
+                s.getNodeCount(), s.getTaskCount(), (read - start) / 1e6, (solved - read) / 1e6);
+        System.out.println("Critical path length: " + cp);
+        s.close();
+    }
+
+    /**
+     * Function to make a column, or make an existing column larger
+     * A direct column is copied into a new buffer, a mapped column is mapped again at the larger size, which keeps its contents
+     * @param name      - Name of the column, used for its file
+     * @param old       - The existing column, null if there is none
+     * @param used      - Amount of ints in use in the existing column
+     * @param capacity  - Amount of ints the column must hold
+     * @return          - The column
+     * @throws IOException  - If the column's file cannot be mapped
+     */
+    private IntBuffer column(String name, IntBuffer old, int used, int capacity) throws IOException {
+        long bytes = (long) capacity * Integer.BYTES;
+        if (FOLDER == null) {
+            IntBuffer column = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+            if (old != null) {
+                column.put(0, old, 0, used);
+            }
+            return column;
+        }
+        FileChannel channel = CHANNELS.get(name);
+        if (channel == null) {
+            channel = FileChannel.open(FOLDER.resolve(name + ".col"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.truncate(0);        //A column left from an earlier run must not be read as this network
+            CHANNELS.put(name, channel);
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Procedure to make the node columns, or make them larger to hold nodeCapacity nodes
+     * @param used      - Amount of nodes in the existing columns
+     * @throws IOException  - If a column's file cannot be mapped
+     */
+    private void makeNodeColumns(int used) throws IOException {
+        nodeX = column("nodeX", nodeX, used, nodeCapacity);
+        nodeY = column("nodeY", nodeY, used, nodeCapacity);
+        early = column("early", early, used, nodeCapacity);
+        late = column("late", late, used, nodeCapacity);
+        earlyInput = column("earlyInput", earlyInput, used, nodeCapacity);
+        lateInput = column("lateInput", lateInput, used, nodeCapacity);
+        order = column("order", order, used, nodeCapacity);
+        outOffset = column("outOffset", outOffset, 0, nodeCapacity + 1);
+    }
+
+    /**
+     * Procedure to make the task columns, or make them larger to hold taskCapacity tasks
+     * @param used      - Amount of tasks in the existing columns
+     * @throws IOException  - If a column's file cannot be mapped
+     */
+    private void makeTaskColumns(int used) throws IOException {
+        taskStart = column("taskStart", taskStart, used, taskCapacity);
+        taskEnd = column("taskEnd", taskEnd, used, taskCapacity);
+        duration = column("duration", duration, used, taskCapacity);
+        earlyStart = column("earlyStart", earlyStart, used, taskCapacity);
+        latestStart = column("latestStart", latestStart, used, taskCapacity);
+        taskFloat = column("taskFloat", taskFloat, used, taskCapacity);
+        outTasks = column("outTasks", outTasks, 0, taskCapacity);
+    }
+
+    /**
+     * Function to get the capacity a full column should grow to
+     * @param capacity  - The current capacity
+     * @param max       - The most items the columns can hold
+     * @return          - Double the capacity, up to the most items
+     */
+    private static int grownCapacity(int capacity, int max) {
+        if (capacity == max) {
+            throw new IllegalStateException("Store cannot hold more than " + max + " items");
+        }
+        return (int) Math.min(max, capacity * 2L);
+    }
+
+    /**
+     * Function to add a node
+     * @param x     - x coordinate of its centre
+     * @param y     - y coordinate of its centre
+     * @return      - The number of the node
+     * @throws IOException  - If the columns needed to grow and could not be mapped
+     */
+    int addNode(int x, int y) throws IOException {
+        if (nodeCount == nodeCapacity) {
+            nodeCapacity = grownCapacity(nodeCapacity, MAX_NODES);
+            makeNodeColumns(nodeCount);
+        }
+        nodeX.put(nodeCount, x);
+        nodeY.put(nodeCount, y);
+        earlyInput.put(nodeCount, 0);
+        lateInput.put(nodeCount, 0);
+        indexed = false;
+        return nodeCount++;
+    }
+
+    /**
+     * Function to add a task
+     * @param start     - Number of the start node
+     * @param end       - Number of the end node
+     * @param d         - Duration (Non negative)
+     * @return          - The number of the task
+     * @throws IOException  - If the columns needed to grow and could not be mapped
+     */
+    int addTask(int start, int end, int d) throws IOException {
+        if (start == end) {
+            throw new IllegalArgumentException("Task cannot start and end at the same node");
+        }
+        if (d < 0) {
+            throw new IllegalArgumentException("Task has a negative duration");
+        }
+        if (taskCount == taskCapacity) {
+            taskCapacity = grownCapacity(taskCapacity, MAX_CAPACITY);
+            makeTaskColumns(taskCount);
+        }
+        taskStart.put(taskCount, start);
+        taskEnd.put(taskCount, end);
+        duration.put(taskCount, d);
+        indexed = false;
+        return taskCount++;
+    }
+
+    /**
+     * Procedure to change the duration of a task, which does not change which tasks leave each node
+     * @param t     - Task number
+     * @param d     - New duration (Non negative)
+     */
+    void setDuration(int t, int d) {
+        if (d < 0) {
+            throw new IllegalArgumentException("Task has a negative duration");
+        }
+        duration.put(t, d);
+    }
+
+    /**
+     * Procedure to delete a task, by marking its duration as -1
+     * @param t     - Task number
+     */
+    void deleteTask(int t) {
+        duration.put(t, -1);
+        indexed = false;
+    }
+
+    /**
+     * Procedure to delete a node, along with every task which starts or ends at it
+     * @param n     - Node number
+     */
+    void deleteNode(int n) {
+        DELETED_NODES.set(n);
+        indexed = false;
+    }
+
+    /**
+     * Procedure to list the tasks leaving each node together, if tasks have been added or deleted since it was last called
+     * Tasks joined to a deleted node are deleted first
+     * Uses a counting sort in the same way as ArrayNetworkStore.index()
+     */
+    public void index() {
+        if (indexed) {
+            return;
+        }
+        for (int n = 0; n <= nodeCount; n++) {
+            outOffset.put(n, 0);
+        }
+        for (int t = 0; t < taskCount; t++) {
+            int start = taskStart.get(t);
+            if (DELETED_NODES.get(start) || DELETED_NODES.get(taskEnd.get(t))) {
+                duration.put(t, -1);
+            }
+            if (duration.get(t) != -1) {
+                outOffset.put(start + 1, outOffset.get(start + 1) + 1);
+            }
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            outOffset.put(n + 1, outOffset.get(n + 1) + outOffset.get(n));
+        }
+        for (int t = 0; t < taskCount; t++) {
+            if (duration.get(t) != -1) {
+                int start = taskStart.get(t);
+                int k = outOffset.get(start);
+                outTasks.put(k, t);
+                outOffset.put(start, k + 1);
+            }
+        }
+        for (int n = nodeCount; n > 0; n--) {      //Each offset was moved to the start of the next node's list, so move them back
+            outOffset.put(n, outOffset.get(n - 1));
+        }
+        outOffset.put(0, 0);
+        indexed = true;
+    }
+
+    /**
+     * Procedure to close the store
+     * Mapped columns are written out to their files, and the files closed
+     * Direct columns are freed when the store is no longer referenced
+     * @throws IOException  - If a column file could not be closed
+     */
+    void close() throws IOException {
+        for (FileChannel channel : CHANNELS.values()) {
+            channel.close();
+        }
+        CHANNELS.clear();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getTaskStart(int t) {
+        return taskStart.get(t);
+    }
+
+    public int getTaskEnd(int t) {
+        return taskEnd.get(t);
+    }
+
+    public int getDuration(int t) {
+        return duration.get(t);
+    }
+
+    public int getFirstOutgoing(int n) {
+        return outOffset.get(n);
+    }
+
+    public int getOutgoing(int k) {
+        return outTasks.get(k);
+    }
+
+    public int getX(int n) {
+        return nodeX.get(n);
+    }
+
+    public int getY(int n) {
+        return nodeY.get(n);
+    }
+
+    public int getEarly(int n) {
+        return early.get(n);
+    }
+
+    public void setEarly(int n, int early) {
+        this.early.put(n, early);
+    }
+
+    public int getLate(int n) {
+        return late.get(n);
+    }
+
+    public void setLate(int n, int late) {
+        this.late.put(n, late);
+    }
+
+    public int getOrder(int i) {
+        return order.get(i);
+    }
+
+    public void setOrder(int i, int n) {
+        order.put(i, n);
+    }
+
+    public int getEarlyStart(int t) {
+        return earlyStart.get(t);
+    }
+
+    public int getLatestStart(int t) {
+        return latestStart.get(t);
+    }
+
+    public int getFloat(int t) {
+        return taskFloat.get(t);
+    }
+
+    public void setTaskTimes(int t, int earlyStart, int latestStart, int taskFloat) {
+        this.earlyStart.put(t, earlyStart);
+        this.latestStart.put(t, latestStart);
+        this.taskFloat.put(t, taskFloat);
+    }
+
+    /**
+     * Procedure to store the early event time a student entered for a node
+     * @param n         - Node number
+     * @param input     - The input
+     */
+    void setEarlyInput(int n, int input) {
+        earlyInput.put(n, input);
+    }
+
+    /**
+     * Function to get the early event time a student entered for a node
+     * @param n     - Node number
+     * @return      - The input
+     */
+    int getEarlyInput(int n) {
+        return earlyInput.get(n);
+    }
+
+    /**
+     * Procedure to store the late event time a student entered for a node
+     * @param n         - Node number
+     * @param input     - The input
+     */
+    void setLateInput(int n, int input) {
+        lateInput.put(n, input);
+    }
+
+    /**
+     * Function to get the late event time a student entered for a node
+     * @param n     - Node number
+     * @return      - The input
+     */
+    int getLateInput(int n) {
+        return lateInput.get(n);
+    }
+}
@@ -1,5 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Class for the PathComponent object
@@ -14,29 +17,50 @@ class PathComponent extends JComponent {
     private final NodeList N_LIST;
     private Node currentStartNode;
     private Drawable selectedDrawable;
+    private final EditHistory HISTORY;
+    private final ChangeBus CHANGES;
+    private Vector dragStart;
+    private NetworkChange dragMove;
+    private final Vector POTENTIAL_CENTRE = new Vector(0, 0);
 
     /**
      * Constructor for object
-     * Initialises the custom linked lists
-     * Sets up custom key bindings for holding control and pressing delete
+     * Initialises the custom linked lists, the change bus and the edit history
+     * Subscribes to its own changes, so it is repainted once for each batch of changes,
+     * and the tasks forget their solved states whenever the solution could have changed
      */
     PathComponent() {
         setFocusable(true);
         this.drawing = false;
         this.D_LIST = new DrawableList();
         this.N_LIST = new NodeList();
+        this.CHANGES = new ChangeBus();
+        this.HISTORY = new EditHistory(CHANGES);
+        CHANGES.subscribe(changes -> {
+            if (NetworkChange.anyAffectSolution(changes)) {
+                D_LIST.clearStates();
+            }
+            repaint();
+        });
     }
 
     /**
      * Override of the JComponent's paintComponent method
      * Simply draws the object by calling the drawObjects procedure
+     * Records a Paint event for the flight recorder
+     * Draws the performance overlay on top if it is showing
      *
      * @param g - Graphics object
      */
     @Override
     public void paintComponent(Graphics g) {
+        ProfilingEvents.Paint event = new ProfilingEvents.Paint();
         super.paintComponent(g);
-        drawObjects(g);
+        int drawn = drawObjects(g);
+        event.finish(drawn, D_LIST.getCulled(), getWidth(), getHeight());
+        if (PerformanceHud.enabled) {
+            PerformanceHud.draw(g);
+        }
     }
 
     /**
@@ -47,8 +71,9 @@ class PathComponent extends JComponent {
      * Draws the selection box if multiple things are being selected
      *
      * @param g - The Graphics object passed in
+     * @return  - The amount of Drawables drawn
      */
-    private void drawObjects(Graphics g) {
+    private int drawObjects(Graphics g) {
         if (drawing) {
             g.setColor(new Color(0, 0, 0));
             g.drawLine(x1, y1, x2, y2);
@@ -56,7 +81,7 @@ class PathComponent extends JComponent {
             g2d.draw(new Vector(x1, y1).getIntersectingLine(new Vector(x2, y2), 0.7, 20, 30));      //Draws arrow
             g2d.draw(new Vector(x1, y1).getIntersectingLine(new Vector(x2, y2), 0.7, 20, -30));
         }
-        D_LIST.drawAll(g);
+        return D_LIST.drawAll(g);
     }
 
     /**
@@ -121,7 +146,10 @@ class PathComponent extends JComponent {
      * Else, if the selected Drawable is a node, the new position is checked to ensure a node isn't being dragged into another node,
      * or through the edge of the component
      * If it is not, then the selected nodes location is set to the new location
-     * The component is then repainted
+     * The location of the node before the drag began is remembered, so the whole drag can be undone in one go
+     * The move is published as a change, which repaints the component, whilst a line being drawn is repainted straight away
+     * The change is also made once per drag and published again on every frame, which the ChangeBus only keeps once per batch
+     * Apart from that copy and that change, and the flight recorder event, dragging makes no objects
      *
      * @param v - The location to drag the drawable to
      */
@@ -130,6 +158,7 @@ class PathComponent extends JComponent {
         if (drawing) {
             x2 = v.getIntX();
             y2 = v.getIntY();
+            repaint();
         } else {
             if (v.getIntX() >= componentSize.getWidth() - 31) {
                 v.setX(componentSize.getWidth() - 31);
@@ -147,11 +176,17 @@ class PathComponent extends JComponent {
             if (!(selectedDrawable == null)) {
                 if (selectedDrawable.getObjectPriority() == 2) {
                     Node selected = (Node) selectedDrawable; //Safe to cast because selectedDrawable is proven to be a node
+                    ProfilingEvents.NodeDrag event = new ProfilingEvents.NodeDrag();
+                    if (dragStart == null) {
+                        dragStart = new Vector(selected.getCentre().getX(), selected.getCentre().getY());
+                        dragMove = NetworkChange.node(NetworkChange.Kind.NODE_MOVED, selected);
+                    }
                     Node collidingNode = N_LIST.circleIntersectCheck(v, selected.getINDEX());
                     if (collidingNode == null) {
                         selected.setCentre(v);
                     } else {
-                        Vector potentialCentre = selected.moveToNode(v, collidingNode); //Tries to make new centre which doesn't intersect node
+                        Vector potentialCentre = POTENTIAL_CENTRE;
+                        selected.moveToNode(v, collidingNode, potentialCentre); //Tries to make new centre which doesn't intersect node
                         if (N_LIST.circleIntersectCheck(potentialCentre, selected.getINDEX()) == null) {
                             if ((potentialCentre.getIntX() < componentSize.getWidth() - 31) && (potentialCentre.getIntX() > 30)) {   //Boundary checks
                                 if ((potentialCentre.getIntY() < componentSize.getWidth() - 21) && (potentialCentre.getIntY() > 50)) {
@@ -160,10 +195,28 @@ class PathComponent extends JComponent {
                             }
                         }
                     }
+                    CHANGES.publish(dragMove);
+                    event.finish(selected.getINDEX(), selected.getPrecedingCount() + selected.getSucceedingCount(),
+                            collidingNode != null);
                 }
             }
         }
-        repaint();
+    }
+
+    /**
+     * Procedure to finish dragging a node
+     * If the dragged node has moved, the drag is recorded as a single edit
+     */
+    void finishDrag() {
+        if (dragStart != null && selectedDrawable != null && selectedDrawable.getObjectPriority() == 2) {
+            Node selected = (Node) selectedDrawable;
+            Vector centre = selected.getCentre();
+            if (centre.getX() != dragStart.getX() || centre.getY() != dragStart.getY()) {
+                HISTORY.record(new EditHistory.MoveNode(selected, dragStart, new Vector(centre.getX(), centre.getY())), this);
+            }
+        }
+        dragStart = null;
+        dragMove = null;
     }
 
     /**
@@ -173,15 +226,17 @@ class PathComponent extends JComponent {
      * Else, creates a TaskVisualised to represent the Task
      * Inserts the task into the DrawableList
      * Creates a new Task using this task visualised
-     * Adds the task into the HashSets for the nodes it starts and ends at
+     * Adds the task into the task lists for the nodes it starts and ends at
      * Sets the TaskVisualised to selected
-     * Repaints the component and returns the created task
+     * Records the new task, and the new finish node if one was made, as a single edit, which repaints the component
+     * Returns the created task
      *
      * @param v - The vector for the end of the task
      * @return - The new task
      */
     Task finishDrawing(Vector v) {
         Node nFinish = N_LIST.whichNodeContains(v);
+        Node newEndNode = null;
         drawing = false;
         if (nFinish == null) {
             if (N_LIST.circleIntersectCheck(v, -1) == null) { //Exclude no nodes
@@ -190,6 +245,7 @@ class PathComponent extends JComponent {
                 N_LIST.insert(nFinish);
                 currentIndex++;
                 nFinish.setSelected(false);
+                newEndNode = nFinish;
             } else {
                 System.out.println("Invalid end");
                 repaint();
@@ -203,6 +259,9 @@ class PathComponent extends JComponent {
         }
         TaskVisualised tVis = new TaskVisualised(currentStartNode, nFinish);
         if (D_LIST.containsTask(tVis)) {
+            if (newEndNode != null) {
+                HISTORY.record(new EditHistory.AddNode(newEndNode), this);
+            }
             System.out.println("Task already found between these nodes");
             repaint();
             return null;
@@ -213,12 +272,12 @@ class PathComponent extends JComponent {
         Task t = new Task(tVis);
         tVis.getSTART_NODE().addToSucceeding(t);
         tVis.getEND_NODE().addToPreceding(t);
+        HISTORY.record(new EditHistory.AddTask(t, newEndNode), this);
         if (selectedDrawable != null) {
             selectedDrawable.setSelected(false);
             selectedDrawable = null;
         }
         selectedDrawable = tVis;
-        repaint();
         return t;
     }
 
@@ -253,7 +312,7 @@ class PathComponent extends JComponent {
                 N_LIST.insert(n);
                 currentIndex++;
                 selectedDrawable = n;
-                repaint();
+                HISTORY.record(new EditHistory.AddNode(n), this);
             } else {
                 System.out.println("Potential node location intersects node");
             }
@@ -273,18 +332,29 @@ class PathComponent extends JComponent {
      * Procedure to delete the selected Drawable from the network
      * Removes the Drawable from the DrawableList
      * If the Drawable is a node, it is removed from the NodeList, and the directly connected Tasks are also removed
+     * The deletion is recorded before it happens, so the node's tasks can still be found, and recording it repaints the component
      */
     void deleteSelected() {
         if (selectedDrawable != null) {
             if (selectedDrawable.getObjectPriority() == 2) {
+                HISTORY.record(new EditHistory.DeleteNode((Node) selectedDrawable), this);
                 N_LIST.remove((Node) selectedDrawable);
                 D_LIST.deleteConnected((Node) selectedDrawable);
             }
+            else {
+                Task t = findTask((TaskVisualised) selectedDrawable);
+                if (t != null) {
+                    HISTORY.record(new EditHistory.DeleteTask(t), this);
+                }
+                else {
+                    repaint();
+                }
+            }
             D_LIST.remove(selectedDrawable);
             selectedDrawable.delete();
+            selectedDrawable = null;
         }
         System.out.println("Selected Deleted");
-        repaint();
     }
 
     /**
@@ -313,6 +383,7 @@ class PathComponent extends JComponent {
                 if (selectedDrawable.getObjectPriority() == 1) {    //Safe to cast because selectedDrawable is proven to be a TaskVisualised
                     TaskVisualised tVis = (TaskVisualised) selectedDrawable;
                     tVis.toggleCritSelected();
+                    HISTORY.record(new EditHistory.ToggleCritical(tVis), this);
                 }
             }
         }
@@ -322,12 +393,313 @@ class PathComponent extends JComponent {
 
     /**
      * Procedure to reset the Component
+     * The clear is recorded so it can be undone
      */
     void clearComponent() {
+        HISTORY.record(new EditHistory.Clear(D_LIST.getFirst(), N_LIST.getFirst(), currentIndex), this);
+        clearNetwork();
+    }
+
+    /**
+     * Procedure to remove every Drawable from the component without recording an edit
+     */
+    void clearNetwork() {
+        selectNull();
+        selectedDrawable = null;
         D_LIST.removeAll();
         N_LIST.removeAll();
         currentIndex = 0;
-        repaint();
+        repaint();      //Also called whilst the journal is replayed, when no changes are published
+    }
+
+    /**
+     * Procedure to set the duration of a task, recording the change so it can be undone
+     * @param tVis      - The task
+     * @param d         - New duration
+     */
+    void setTaskDuration(TaskVisualised tVis, int d) {
+        int oldDuration = tVis.getDuration();
+        tVis.setDuration(d);
+        if (tVis.getDuration() != oldDuration) {
+            HISTORY.record(new EditHistory.SetDuration(tVis, oldDuration, d), this);
+        }
+    }
+
+    /**
+     * Procedure to set the optimistic and pessimistic estimates of a task, recording the change so it can be undone
+     * @param tVis          - The task
+     * @param optimistic    - New optimistic estimate, -1 to use the duration
+     * @param pessimistic   - New pessimistic estimate, -1 to use the duration
+     */
+    void setTaskEstimates(TaskVisualised tVis, int optimistic, int pessimistic) {
+        int oldOptimistic = tVis.getOptimisticInput();
+        int oldPessimistic = tVis.getPessimisticInput();
+        tVis.setEstimates(optimistic, pessimistic);
+        if (optimistic != oldOptimistic || pessimistic != oldPessimistic) {
+            HISTORY.record(new EditHistory.SetEstimates(tVis, oldOptimistic, oldPessimistic, optimistic, pessimistic), this);
+        }
+    }
+
+    /**
+     * Procedure to set how far a task can be crashed and what crashing it costs, recording the change so it can be undone
+     * @param tVis          - The task
+     * @param crashDuration - New shortest duration, -1 if the task cannot be crashed
+     * @param crashCost     - New cost of shortening the task by one unit of time
+     */
+    void setTaskCrashing(TaskVisualised tVis, int crashDuration, int crashCost) {
+        int oldDuration = tVis.getCrashDurationInput();
+        int oldCost = tVis.getCrashCost();
+        tVis.setCrashing(crashDuration, crashCost);
+        if (crashDuration != oldDuration || crashCost != oldCost) {
+            HISTORY.record(new EditHistory.SetCrashing(tVis, oldDuration, oldCost, crashDuration, crashCost), this);
+        }
+    }
+
+    /**
+     * Procedure to set an inputted event time of a node, recording the change so it can be undone
+     * @param n         - The node
+     * @param early     - True for the early event time, false for the late event time
+     * @param time      - New event time
+     */
+    void setEventTime(Node n, boolean early, int time) {
+        int oldTime = early ? n.getEarlyStartInput() : n.getLatestStartInput();
+        if (early) {
+            n.setEarlyStartInput(time);
+        }
+        else {
+            n.setLatestStartInput(time);
+        }
+        if (time != oldTime) {
+            HISTORY.record(new EditHistory.SetEventTime(n, early, oldTime, time), this);
+        }
+    }
+
+    /**
+     * Procedure to undo the most recent edit
+     * Nothing is undone whilst a task is being drawn
+     * @param pf        - The PathFunctions holding the component's tasks
+     */
+    void undo(PathFunctions pf) {
+        if (!drawing) {
+            HISTORY.undo(this, pf);
+        }
+    }
+
+    /**
+     * Procedure to redo the most recently undone edit
+     * Nothing is redone whilst a task is being drawn
+     * @param pf        - The PathFunctions holding the component's tasks
+     */
+    void redo(PathFunctions pf) {
+        if (!drawing) {
+            HISTORY.redo(this, pf);
+        }
+    }
+
+    /**
+     * Procedure to put a node back into the network, used by edits
+     * @param n     - The node
+     */
+    void insertNode(Node n) {
+        D_LIST.insert(n);
+        N_LIST.insert(n);
+    }
+
+    /**
+     * Procedure to add a generated network to the component, recording it as one edit so it can be undone
+     * Every node is given the next free index, and the whole network is put into the lists at once by insertBatch(),
+     * so only one batch of changes is published and the component is repainted once
+     * @param s     - The network, with every node placed
+     * @param pf    - The PathFunctions holding the component's tasks
+     * @return      - Index given to the network's first node, the rest following on from it in order
+     */
+    int addNetwork(ArrayNetworkStore s, PathFunctions pf) {
+        Node[] nodes = new Node[s.getNodeCount()];
+        for (int n = 0; n < nodes.length; n++) {
+            nodes[n] = new Node(currentIndex + n, new Vector(s.getX(n), s.getY(n)));
+            nodes[n].setSelected(false);
+        }
+        Task[] tasks = new Task[s.getTaskCount()];
+        int[] durations = new int[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            TaskVisualised tVis = new TaskVisualised(nodes[s.getTaskStart(t)], nodes[s.getTaskEnd(t)]);
+            tVis.setSelected(false);
+            tVis.setDuration(s.getDuration(t));
+            tasks[t] = new Task(tVis);
+            durations[t] = s.getDuration(t);
+        }
+        int firstIndex = currentIndex;
+        currentIndex += nodes.length;
+        insertBatch(nodes, tasks, pf);
+        HISTORY.record(new EditHistory.AddNetwork(nodes, tasks, durations), this);
+        return firstIndex;
+    }
+
+    /**
+     * Procedure to put many nodes and tasks into the network at once, used by edits and by materialising a stored network
+     * Connects every task to its nodes and adds it to the tasks being solved,
+     * then links them all into the lists in one pass over each list, rather than the pass for each one which insertNode() and restoreTask() take
+     * @param nodes     - The nodes
+     * @param tasks     - The tasks, which only join nodes in the network or in nodes
+     * @param pf        - The PathFunctions holding the component's tasks
+     */
+    void insertBatch(Node[] nodes, Task[] tasks, PathFunctions pf) {
+        TaskVisualised[] taskVisualiseds = new TaskVisualised[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            taskVisualiseds[t] = tasks[t].getTASK_VISUALISED();
+            taskVisualiseds[t].getSTART_NODE().addToSucceeding(tasks[t]);
+            taskVisualiseds[t].getEND_NODE().addToPreceding(tasks[t]);
+            pf.addTask(tasks[t]);
+        }
+        D_LIST.insertAll(taskVisualiseds, nodes);
+        N_LIST.insertAll(nodes);
+    }
+
+    /**
+     * Procedure to take many nodes and tasks out of the network at once, deleting the tasks, used by edits
+     * The nodes keep their lists of tasks, so insertBatch() can put them back
+     * @param nodes     - The nodes
+     * @param tasks     - The tasks, which only join nodes in nodes
+     */
+    void removeBatch(Node[] nodes, Task[] tasks) {
+        Set<Drawable> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(removed, nodes);
+        for (Task t : tasks) {
+            removed.add(t.getTASK_VISUALISED());
+            t.getTASK_VISUALISED().delete();
+        }
+        if (selectedDrawable != null && removed.contains(selectedDrawable)) {
+            deselect(selectedDrawable);
+        }
+        D_LIST.removeEach(removed);
+        N_LIST.removeEach(removed);
+    }
+
+    /**
+     * Procedure to take a node out of the network without deleting its tasks, used by edits
+     * @param n     - The node
+     */
+    void removeNode(Node n) {
+        deselect(n);
+        N_LIST.remove(n);
+        D_LIST.remove(n);
+    }
+
+    /**
+     * Procedure to bring back a deleted task, used by edits
+     * Reconnects the task to its nodes and adds it back to the tasks being solved
+     * @param t         - The task
+     * @param duration  - The duration the task had before it was deleted
+     * @param pf        - The PathFunctions holding the component's tasks
+     */
+    void restoreTask(Task t, int duration, PathFunctions pf) {
+        TaskVisualised tVis = t.getTASK_VISUALISED();
+        tVis.restore(duration);
+        tVis.getSTART_NODE().addToSucceeding(t);
+        tVis.getEND_NODE().addToPreceding(t);
+        D_LIST.insert(tVis);
+        pf.addTask(t);
+    }
+
+    /**
+     * Procedure to delete a task, used by edits
+     * The task is removed from the nodes the next time the critical path is calculated
+     * @param t     - The task
+     */
+    void removeTask(Task t) {
+        deselect(t.getTASK_VISUALISED());
+        D_LIST.remove(t.getTASK_VISUALISED());
+        t.getTASK_VISUALISED().delete();
+    }
+
+    /**
+     * Procedure to bring back a cleared network, used by edits
+     * Every task still connected to a node is added back to the tasks being solved
+     * @param firstDrawable     - The first Drawable before the network was cleared
+     * @param firstNode         - The first Node before the network was cleared
+     * @param index             - The next node index before the network was cleared
+     * @param pf                - The PathFunctions holding the component's tasks
+     */
+    void restoreCleared(Drawable firstDrawable, Node firstNode, int index, PathFunctions pf) {
+        D_LIST.setFirst(firstDrawable);
+        N_LIST.setFirst(firstNode);
+        currentIndex = index;
+        Node current = firstNode;
+        while (current != null) {
+            for (int i = 0; i < current.getSucceedingCount(); i++) {
+                Task t = current.getSucceeding(i);
+                if (t.getTASK_VISUALISED().getDuration() != -1) {
+                    pf.addTask(t);
+                }
+            }
+            current = current.getNextNode();
+        }
+    }
+
+    /**
+     * Procedure to un-select a Drawable if it is the selected Drawable
+     * @param d     - The Drawable
+     */
+    private void deselect(Drawable d) {
+        if (selectedDrawable == d) {
+            d.setSelected(false);
+            selectedDrawable = null;
+        }
+    }
+
+    /**
+     * Function to find the Task which a TaskVisualised represents
+     * Searches the tasks leaving the TaskVisualised's start node
+     * @param tVis      - The TaskVisualised
+     * @return          - The Task, or null if it could not be found
+     */
+    private Task findTask(TaskVisualised tVis) {
+        TaskList tasks = tVis.getSTART_NODE().getSucceedingTasks();
+        if (tasks != null) {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task t = tasks.get(i);
+                if (t.getTASK_VISUALISED() == tVis) {
+                    return t;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to get the edit history
+     *
+     * @return - The EditHistory
+     */
+    EditHistory getHISTORY() {
+        return HISTORY;
+    }
+
+    /**
+     * Function to get the bus which the changes made to the network are published on
+     *
+     * @return - The ChangeBus
+     */
+    ChangeBus getCHANGES() {
+        return CHANGES;
+    }
+
+    /**
+     * Function to get the index which will be given to the next node
+     *
+     * @return - The next index
+     */
+    int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * Procedure to set the index which will be given to the next node, used when a network is rebuilt
+     *
+     * @param index - The next index
+     */
+    void setCurrentIndex(int index) {
+        currentIndex = index;
     }
 
     /**
@@ -0,0 +1,268 @@
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class which lists the paths through a network from longest to shortest, one at a time, only as they are asked for
+ * A path runs from a node with no tasks entering it to a node with no tasks leaving it
+ *
+ * Every node is given its tail, the length of the longest path from it to the end of the network
+ * Leaving a node by a task which is not on its longest path (a sidetrack) makes a path shorter by a known amount,
+ * so the tasks leaving each node are sorted by how long the longest path through them is
+ * A priority queue holds partial paths, ordered by the length of the longest complete path they could become
+ * A partial path taken from the queue is carried on by the best task at each node, queueing the next best task at each step instead
+ * So a path is found after as many steps as it has tasks, and the first few paths can be taken without listing the rest
+ * This follows the sidetrack ordering used by Eppstein's algorithm, without its persistent heaps
+ */
+class PathEnumerator implements Iterator<PathEnumerator.Path> {
+    private final NetworkSnapshot SNAPSHOT;
+    private final int[] TAIL;
+    private final int[] SORTED_OUT, STARTS;
+    private final PriorityQueue<Entry> QUEUE;
+    private Path next;
+
+    /**
+     * A complete path through the network
+     */
+    static final class Path {
+        private final int[] TASKS;
+        private final int LENGTH;
+
+        /**
+         * Constructor for a path
+         * @param tasks     - Task numbers in the snapshot, in order from the start of the network
+         * @param length    - Total duration of the tasks
+         */
+        Path(int[] tasks, int length) {
+            this.TASKS = tasks;
+            this.LENGTH = length;
+        }
+
+        /**
+         * Function to get the tasks along the path
+         * @return      - Task numbers in the snapshot, in order
+         */
+        int[] getTasks() {
+            return TASKS.clone();
+        }
+
+        /**
+         * Function to get the length of the path
+         * @return      - Total duration of the tasks
+         */
+        int getLength() {
+            return LENGTH;
+        }
+    }
+
+    /**
+     * A partial path in the queue, stored as the last task taken and the partial path before it
+     * Partial paths which start the same way share their entries
+     */
+    private static final class Entry {
+        private final Entry PARENT;
+        private final int NODE, TASK, RANK, LENGTH, BOUND;
+
+        /**
+         * Constructor for an entry
+         * @param parent    - Partial path before the last task, null if this path has no tasks yet
+         * @param node      - Node the partial path ends at
+         * @param task      - Last task taken, -1 if there is none
+         * @param rank      - Position of the task in its start node's sorted tasks, or of the node in the sorted start nodes
+         * @param length    - Length of the partial path
+         * @param bound     - Length of the longest complete path this partial path could become
+         */
+        private Entry(Entry parent, int node, int task, int rank, int length, int bound) {
+            this.PARENT = parent;
+            this.NODE = node;
+            this.TASK = task;
+            this.RANK = rank;
+            this.LENGTH = length;
+            this.BOUND = bound;
+        }
+    }
+
+    /**
+     * Constructor for the enumerator
+     * Works out every node's tail, then sorts the tasks leaving each node, and the start nodes, longest path first
+     * @param s     - The network
+     */
+    PathEnumerator(NetworkSnapshot s) {
+        this.SNAPSHOT = s;
+        int nodes = s.getNodeCount();
+        int[] order = s.topologicalOrder();
+        this.TAIL = new int[nodes];
+        for (int i = nodes - 1; i >= 0; i--) {
+            int n = order[i];
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                TAIL[n] = Math.max(TAIL[n], s.getDuration(t) + TAIL[s.getTaskEnd(t)]);
+            }
+        }
+        this.SORTED_OUT = new int[s.getTaskCount()];
+        long[] keys = new long[s.getTaskCount()];
+        for (int k = 0; k < keys.length; k++) {
+            int t = s.getOutgoing(k);
+            keys[k] = sortKey(s.getDuration(t) + TAIL[s.getTaskEnd(t)], t);
+        }
+        for (int n = 0; n < nodes; n++) {
+            Arrays.sort(keys, s.getFirstOutgoing(n), s.getFirstOutgoing(n + 1));
+        }
+        for (int k = 0; k < keys.length; k++) {
+            SORTED_OUT[k] = (int) keys[k];
+        }
+        boolean[] hasIncoming = new boolean[nodes];
+        int startCount = 0;
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            hasIncoming[s.getTaskEnd(t)] = true;
+        }
+        long[] startKeys = new long[nodes];
+        for (int n = 0; n < nodes; n++) {
+            if (!hasIncoming[n] && s.getFirstOutgoing(n) < s.getFirstOutgoing(n + 1)) {
+                startKeys[startCount++] = sortKey(TAIL[n], n);
+            }
+        }
+        Arrays.sort(startKeys, 0, startCount);
+        this.STARTS = new int[startCount];
+        for (int i = 0; i < startCount; i++) {
+            STARTS[i] = (int) startKeys[i];
+        }
+        this.QUEUE = new PriorityQueue<>((a, b) -> Integer.compare(b.BOUND, a.BOUND));
+        if (startCount > 0) {
+            QUEUE.add(new Entry(null, STARTS[0], -1, 0, 0, TAIL[STARTS[0]]));
+        }
+    }
+
+    /**
+     * Function to pack a length and a number into one long, so that sorting the longs puts the longest first
+     * @param length    - The length, which must not be negative
+     * @param number    - The task or node number
+     * @return          - The key, whose lower half is the number
+     */
+    private static long sortKey(int length, int number) {
+        return ((long) (Integer.MAX_VALUE - length) << 32) | number;
+    }
+
+    /**
+     * Function to make a stream of every path through a network, longest first
+     * Paths are only found as the stream asks for them, so stream.limit(k) gives the k longest paths cheaply
+     * @param s     - The network
+     * @return      - The stream of paths
+     */
+    static Stream<Path> longestPaths(NetworkSnapshot s) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PathEnumerator(s),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Function to make a stream of every critical path through a network
+     * A critical path is one whose length is the critical path length, so the stream stops at the first shorter path
+     * @param s     - The network
+     * @return      - The stream of critical paths
+     */
+    static Stream<Path> criticalPaths(NetworkSnapshot s) {
+        PathEnumerator paths = new PathEnumerator(s);
+        int cpLength = paths.STARTS.length == 0 ? 0 : paths.TAIL[paths.STARTS[0]];
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(paths,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).takeWhile(p -> p.getLength() == cpLength);
+    }
+
+    /**
+     * Function to check if there is another path
+     * @return      - True if there is another path
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = findNext();
+        }
+        return next != null;
+    }
+
+    /**
+     * Function to get the next longest path
+     * @return      - The path
+     */
+    @Override
+    public Path next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Path p = next;
+        next = null;
+        return p;
+    }
+
+    /**
+     * Function to find the next longest path
+     * Takes the partial path which could become the longest path from the queue, then carries it on by the best task
+     * until it reaches a node with no tasks leaving it
+     * The best task never makes the path shorter, so there is no need to put the partial path back in the queue between tasks
+     * At each step, the same partial path with its last choice swapped for the next best one is queued
+     * @return      - The path, or null if every path has been found
+     */
+    private Path findNext() {
+        if (QUEUE.isEmpty()) {
+            return null;
+        }
+        Entry e = QUEUE.poll();
+        while (true) {
+            queueSibling(e);
+            int first = SNAPSHOT.getFirstOutgoing(e.NODE);
+            if (first == SNAPSHOT.getFirstOutgoing(e.NODE + 1)) {
+                return toPath(e);
+            }
+            e = child(e, first, 0);
+        }
+    }
+
+    /**
+     * Procedure to queue the partial path made by swapping an entry's last choice for the next best one
+     * @param e     - The entry
+     */
+    private void queueSibling(Entry e) {
+        int rank = e.RANK + 1;
+        if (e.PARENT == null) {
+            if (rank < STARTS.length) {
+                QUEUE.add(new Entry(null, STARTS[rank], -1, rank, 0, TAIL[STARTS[rank]]));
+            }
+        }
+        else {
+            int first = SNAPSHOT.getFirstOutgoing(e.PARENT.NODE);
+            if (first + rank < SNAPSHOT.getFirstOutgoing(e.PARENT.NODE + 1)) {
+                QUEUE.add(child(e.PARENT, first + rank, rank));
+            }
+        }
+    }
+
+    /**
+     * Function to make the entry for a partial path carried on by one of the tasks leaving its last node
+     * @param parent    - The partial path
+     * @param k         - Position of the task in the sorted outgoing task list
+     * @param rank      - Position of the task amongst the tasks leaving the node
+     * @return          - The new entry
+     */
+    private Entry child(Entry parent, int k, int rank) {
+        int t = SORTED_OUT[k];
+        int end = SNAPSHOT.getTaskEnd(t);
+        int length = parent.LENGTH + SNAPSHOT.getDuration(t);
+        return new Entry(parent, end, t, rank, length, length + TAIL[end]);
+    }
+
+    /**
+     * Function to turn a complete partial path into a Path, by following its parents back to the start
+     * @param e     - The entry at the end of the path
+     * @return      - The path
+     */
+    private Path toPath(Entry e) {
+        int count = 0;
+        for (Entry p = e; p.TASK >= 0; p = p.PARENT) {
+            count++;
+        }
+        int[] tasks = new int[count];
+        for (Entry p = e; p.TASK >= 0; p = p.PARENT) {
+            tasks[--count] = p.TASK;
+        }
+        return new Path(tasks, e.LENGTH);
+    }
+}
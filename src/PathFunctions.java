@@ -1,13 +1,24 @@
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * Class with methods to perform algorithms to calculate late event times, early event times, and critical information about tasks
+ *
+ * The network is solved in three steps:
+ * snapshot() copies the network into an immutable NetworkSnapshot on the Event Dispatch Thread,
+ * solve() calculates a SolveResult from the snapshot on any thread,
+ * and publish() writes the result back into the Nodes and Tasks on the Event Dispatch Thread
+ * Since the snapshot and result are never changed, a solve can never race with edits made after the snapshot was taken
  */
 class PathFunctions {
     private final HashSet<Task> TASKS = new HashSet<>();
     private int cpLength;
+    private long topologyVersion, snapshotVersion;
+    private long lastSnapshotTopology = -1;
+    private NetworkSnapshot lastSnapshot;
 
     /**
      * Procedure to add a task to the set of tasks which are part of the network
@@ -15,8 +26,8 @@ class PathFunctions {
      * @param t        - The task to be added
      */
     void addTask(Task t){
-        if (t != null) {
-            TASKS.add(t);
+        if (t != null && TASKS.add(t)) {
+            topologyVersion++;
         }
     }
 
@@ -25,169 +36,278 @@ class PathFunctions {
      */
     void deleteAllTasks(){
         TASKS.clear();
+        topologyVersion++;
     }
+
     /**
-     * Procedure used to calculate all the information needed about a set of tasks
-     * Updates all the Task's durations, if a Task has a duration of -1, it has been removed from the network,
-     * so needs to be removed from the HashSet
-     * Also sets all the values to be calculated back to 0, ensuring previous calculations do not interfere with the algorithm
-     * The algorithm starts by creating the ‘completed’ set, which holds the tasks whose critical costs have been calculated
-     * In addition to the ‘remaining’ set, this holds the rest of the tasks.
-     * Initially, ‘remaining’ holds all the tasks
-     * The first ‘for’ and ‘while’ loops iterate through every task still in ‘remaining’, until ‘remaining’ is empty
-     * On each iteration, the code within the loop tries to calculate the criticalCost for the current task
-     * To calculate the criticalCost, every task which the current task is dependent on needs to have a calculated criticalCost
-     * To verify this, an ‘if’ statement checks if all the dependencies are in the completed set
-     * If they are not, the loop re-iterates with the next task
-     * However, if the statement returns true, the ‘critical’ variable is set to the largest criticalCost of all the dependencies
-     * Then the criticalCost of the current task is calculated, and the task can now be marked as completed
-     * So it is added to the set called 'completed', and removed from 'remaining'
-     * Progress is marked as true if this happens
-     * If no progress is made over the whole of the ‘for’ loop, then the path must contain a cycle, which means there is no path from start to finish.
-     * On this occasion, the user will be notified that the path they have created is cyclic
-     * Then uses methods to calculate the max cost and early start and finishes of the task
+     * Function to get the critical path
+     * @return      - Critical path length
      */
+    int getCpLength() {
+        return cpLength;
+    }
 
-    void criticalPath(){
-        Task[] markedToDelete = new Task[TASKS.size()];
-        int markedToDeleteIndex = 0;
-        for (Task current: TASKS){
-            current.updateDuration();
-            current.setEarlyStart(0);
-            current.setEarlyFinish(0);
-            current.setCriticalCost(0);
-            current.setLatestStart(0);
-            if (current.getDuration() == -1){
-                markedToDelete[markedToDeleteIndex] = current;      //Need to add to array and delete after, to avoid concurrent modification exception
-                markedToDeleteIndex++;
-                System.out.print("DEL");
+    /**
+     * Function to take an immutable snapshot of the network, must be called on the Event Dispatch Thread
+     * Updates all the Task's durations, and removes deleted tasks, which are disconnected from their nodes
+     * If no tasks have been added or removed since the last snapshot, the topology of the last snapshot is shared,
+     * and if no durations have changed either, the last snapshot is returned
+     * Otherwise, every node at the start or end of a task is given a number, and the tasks are copied into arrays
+     * @return      - The snapshot
+     */
+    NetworkSnapshot snapshot() {
+        ProfilingEvents.Solve phase = new ProfilingEvents.Solve("snapshot", -1, TASKS.size());
+        boolean removed = false;
+        for (Iterator<Task> it = TASKS.iterator(); it.hasNext();) {
+            Task t = it.next();
+            t.updateDuration();
+            if (t.getDuration() == -1) {
+                it.remove();
+                removed = true;
             }
         }
-        for (Task t : markedToDelete){
-            TASKS.remove(t);            //Now the deleted tasks can be safely removed from the HashSet
-        }
-        HashSet<Task> completed = new HashSet<>();
-        HashSet<Task> remaining = new HashSet<>(TASKS);
-        while (!remaining.isEmpty()) {
-            boolean progress = false;
-            for (Iterator<Task> it = remaining.iterator(); it.hasNext();) {
-                Task task = it.next();
-                System.out.println(task.getTASK_VISUALISED().getSTART_NODE().getINDEX());
-                if (completed.containsAll(task.getTASK_VISUALISED().getEND_NODE().getSucceedingTasks())) {    // all the tasks dependencies have calculated costs
-                    int critical = 0;
-                    for (Task t : task.getTASK_VISUALISED().getEND_NODE().getSucceedingTasks()) {     // Find the greatest critical cost preceding the current task
-                        if (t.getCriticalCost() > critical) {
-                            critical = t.getCriticalCost();
-                        }
-                    }
-                    task.setCriticalCost(critical + task.getDuration());
-                    completed.add(task);        // task now has the greatest value of critical cost it can have
-                    it.remove();
-                    progress = true;
-                }
+        if (removed) {
+            topologyVersion++;
+        }
+
+        if (lastSnapshot != null && lastSnapshotTopology == topologyVersion) {
+            int[] durations = new int[lastSnapshot.getTaskCount()];
+            boolean changed = false;
+            for (int t = 0; t < durations.length; t++) {
+                durations[t] = lastSnapshot.getTask(t).getDuration();
+                changed |= durations[t] != lastSnapshot.getDuration(t);
             }
-            if (!progress) {      // Cycle exists if no progress
-                throw new RuntimeException("Cycle exists in path");
+            if (changed) {
+                lastSnapshot = lastSnapshot.withDurations(durations, ++snapshotVersion);
             }
+            phase.finish();
+            return lastSnapshot;
         }
-        cpLength();     // calculate cost and early starts
-        HashSet<Task> initialTasks = initials(TASKS);
-        calculateEarly(initialTasks);
-    }
 
-    /**
-     * Procedure to set the calculate the early event times for initial tasks to 0, and then start setting the following tasks' event times
-     * @param initials      - The initial tasks in the network
-     */
-    private void calculateEarly(HashSet<Task> initials) {
-        for (Task initial : initials) {
-            initial.setEarlyStart(0);
-            initial.getTASK_VISUALISED().getSTART_NODE().setCalculatedEarlyStart(0);
-            System.out.println("Setting initial     " + initial.getDuration());
-            initial.setEarlyFinish(initial.getDuration());
-            setEarly(initial);
+        IdentityHashMap<Node, Integer> numbers = new IdentityHashMap<>();
+        Task[] tasks = TASKS.toArray(new Task[0]);
+        int[] starts = new int[tasks.length];
+        int[] ends = new int[tasks.length];
+        int[] durations = new int[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            starts[t] = numbers.computeIfAbsent(tasks[t].getTASK_VISUALISED().getSTART_NODE(), n -> numbers.size());
+            ends[t] = numbers.computeIfAbsent(tasks[t].getTASK_VISUALISED().getEND_NODE(), n -> numbers.size());
+            durations[t] = tasks[t].getDuration();
+        }
+        Node[] nodes = new Node[numbers.size()];
+        for (Map.Entry<Node, Integer> e : numbers.entrySet()) {
+            nodes[e.getValue()] = e.getKey();
         }
+        lastSnapshot = new NetworkSnapshot(nodes, tasks, starts, ends, durations, ++snapshotVersion);
+        lastSnapshotTopology = topologyVersion;
+        phase.finish();
+        return lastSnapshot;
     }
 
     /**
-     * Function to identify the initial tasks in the network
-     * Creates a HashSet of all the tasks
-     * Iterates through every task, removing tasks which are dependent on the current task from the HashSet
-     * The tasks remaining in the HashSet are dependent on nothing, so must be at the start of the network
-     * @param tasks     - Every task
-     * @return      - The HashSet of initial tasks
+     * Function to solve a snapshot, which can be called on any thread
+     * Follows the standard critical path method:
+     * Orders the nodes so that every task starts at a node earlier in the order than the node it ends at,
+     * repeatedly taking nodes which have no unprocessed tasks arriving at them
+     * If not every node can be ordered, the network contains a cycle
+     * The forward pass goes through the nodes in order, setting each node's early time to the latest finish of the tasks arriving at it
+     * The critical path length is the greatest early time
+     * The backward pass goes through the nodes in reverse, setting each node's late time to the earliest latest start of the tasks leaving it
+     * Nodes with no tasks leaving them have a late time equal to the critical path length
+     * The passes check every few thousand nodes whether the thread has been interrupted, so a cancelled solve stops early
+     * @param s     - The snapshot
+     * @return      - The result
      */
-    private HashSet<Task> initials(Set<Task> tasks) {
-        HashSet<Task> remaining = new HashSet<>(tasks);
-        for (Task t : tasks) {
-            for (Task td : t.getTASK_VISUALISED().getEND_NODE().getSucceedingTasks()) {
-                remaining.remove(td);
+    static SolveResult solve(NetworkSnapshot s) {
+        int nodeCount = s.getNodeCount();
+        ProfilingEvents.Solve phase = new ProfilingEvents.Solve("order", nodeCount, s.getTaskCount());
+        int[] remainingIn = new int[nodeCount];
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            remainingIn[s.getTaskEnd(t)]++;
+        }
+        int[] order = new int[nodeCount];
+        int head = 0, tail = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (remainingIn[n] == 0) {
+                order[tail++] = n;
+            }
+        }
+        while (head < tail) {
+            int n = order[head++];
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int end = s.getTaskEnd(s.getOutgoing(k));
+                if (--remainingIn[end] == 0) {
+                    order[tail++] = end;
+                }
+            }
+        }
+        phase.finish();
+        if (tail != nodeCount) {
+            return new SolveResult(s, null, null, -1, true);
+        }
+
+        phase = new ProfilingEvents.Solve("forward pass", nodeCount, s.getTaskCount());
+        int[] early = new int[nodeCount];
+        int cp = s.getTaskCount() == 0 ? -1 : 0;
+        for (int i = 0; i < nodeCount; i++) {
+            checkCancelled(i);
+            int n = order[i];
+            cp = Math.max(cp, early[n]);
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                int finish = early[n] + s.getDuration(t);
+                if (finish > early[s.getTaskEnd(t)]) {
+                    early[s.getTaskEnd(t)] = finish;
+                }
             }
         }
-        return remaining;
+
+        phase.finish();
+
+        phase = new ProfilingEvents.Solve("backward pass", nodeCount, s.getTaskCount());
+        int[] late = new int[nodeCount];
+        for (int i = nodeCount - 1; i >= 0; i--) {
+            checkCancelled(i);
+            int n = order[i];
+            int latest = cp;
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                latest = Math.min(latest, late[s.getTaskEnd(t)] - s.getDuration(t));
+            }
+            late[n] = latest;
+        }
+        phase.finish();
+        return new SolveResult(s, early, late, cp, false);
     }
 
     /**
-     * Recursive procedure to set the early start and early finish times of all the non-initial tasks
-     * Iterates through the tasks which are directly dependent on the task passed into the procedure
-     * Checks if the task has already had its early start time calculated, and that this early start time needs to be changed
-     * If not, then uses the task passed in to find the current task's early start and early finish times
-     * Uses a recursive call with the current task as a parameter, to calculate the early times for the task which immediately follows the current task
-     * This ensures every unique path on the network is followed, and every task gets calculated
-     * Note the recursive call doesn't occur if a task already had calculated event times, this stops the procedure from following paths which have already been traversed
-     *
-     * This algorithm works because, when it is ran, every initial task has their event times calculated,
-     * and the first call of the procedure is always using an initial task
-     * @param t1        - The task with known early event times, used to calculate following tasks
+     * Function to solve a network stored as columns, writing the results straight back into its columns
+     * Follows the same three passes as solve(NetworkSnapshot), but allocates nothing, so it can solve networks of any size the store can hold:
+     * The late event time column counts each node's unprocessed incoming tasks while the nodes are put in topological order,
+     * the order column holds the order, then the forward and backward passes fill in the early and late event times
+     * Finally every task's early start, latest start and float are stored
+     * May be called on any thread, as long as nothing else changes the store at the same time
+     * @param s     - The network
+     * @return      - Critical path length, -1 if there are no tasks
      */
-    private void setEarly(Task t1) {
-        int completionTime = t1.getEarlyFinish();
-        for (Task t2 : t1.getTASK_VISUALISED().getEND_NODE().getSucceedingTasks()) {
-            if (completionTime >= t2.getEarlyStart()) {
-                System.out.println("Setting early start and finish     " + t1.getDuration());
-                t2.setEarlyStart(completionTime);
-                t2.setEarlyFinish(completionTime + t2.getDuration());
-                setEarly(t2);
+    static int solveInPlace(NetworkColumns s) {
+        s.index();
+        int nodeCount = s.getNodeCount();
+        int liveTasks = s.getFirstOutgoing(nodeCount);
+        ProfilingEvents.Solve phase = new ProfilingEvents.Solve("order", nodeCount, liveTasks);
+        for (int n = 0; n < nodeCount; n++) {
+            s.setLate(n, 0);
+        }
+        for (int k = 0; k < liveTasks; k++) {
+            int end = s.getTaskEnd(s.getOutgoing(k));
+            s.setLate(end, s.getLate(end) + 1);
+        }
+        int head = 0, tail = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (s.getLate(n) == 0) {
+                s.setOrder(tail++, n);
             }
-
-            if (t2.getTASK_VISUALISED().getSTART_NODE().getCalculatedLatestStart() == 0) {
-                t2.getTASK_VISUALISED().getSTART_NODE().setCalculatedLatestStart(t2.getLatestStart());
+        }
+        while (head < tail) {
+            checkCancelled(head);
+            int n = s.getOrder(head++);
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int end = s.getTaskEnd(s.getOutgoing(k));
+                s.setLate(end, s.getLate(end) - 1);
+                if (s.getLate(end) == 0) {
+                    s.setOrder(tail++, end);
+                }
             }
+        }
+        phase.finish();
+        if (tail != nodeCount) {
+            throw new RuntimeException("Cycle exists in path");
+        }
 
-            else if (t2.getTASK_VISUALISED().getSTART_NODE().getCalculatedLatestStart() > t2.getLatestStart()) {
-                t2.getTASK_VISUALISED().getSTART_NODE().setCalculatedLatestStart(t2.getLatestStart());
+        phase = new ProfilingEvents.Solve("forward pass", nodeCount, liveTasks);
+        for (int n = 0; n < nodeCount; n++) {
+            s.setEarly(n, 0);
+        }
+        int cp = liveTasks == 0 ? -1 : 0;
+        for (int i = 0; i < nodeCount; i++) {
+            checkCancelled(i);
+            int n = s.getOrder(i);
+            int early = s.getEarly(n);
+            cp = Math.max(cp, early);
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                int finish = early + s.getDuration(t);
+                if (finish > s.getEarly(s.getTaskEnd(t))) {
+                    s.setEarly(s.getTaskEnd(t), finish);
+                }
             }
+        }
+        phase.finish();
 
-            if (t2.getTASK_VISUALISED().getSTART_NODE().getCalculatedEarlyStart() < t2.getEarlyStart()) {
-                t2.getTASK_VISUALISED().getSTART_NODE().setCalculatedEarlyStart(t2.getEarlyStart());
+        phase = new ProfilingEvents.Solve("backward pass", nodeCount, liveTasks);
+        for (int i = nodeCount - 1; i >= 0; i--) {
+            checkCancelled(i);
+            int n = s.getOrder(i);
+            int latest = cp;
+            int early = s.getEarly(n);
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                int latestStart = s.getLate(s.getTaskEnd(t)) - s.getDuration(t);
+                s.setTaskTimes(t, early, latestStart, latestStart - early);
+                latest = Math.min(latest, latestStart);
             }
+            s.setLate(n, latest);
         }
+        phase.finish();
+        return cp;
     }
 
     /**
-     * Procedure to calculate the length of the critical path
-     * Iterates through the complete list of tasks and finds which task has the greatest criticalCost
-     * The greatest critical cost is equal to the critical path length
+     * Procedure to stop a solve if the thread running it has been interrupted
+     * Only checks once every 4096 steps, as checking is not free
+     * @param step      - How far through the pass the solve is
      */
-    private void cpLength() {
-        int max = -1;
-        for (Task t : TASKS) {
-            if (t.getCriticalCost() > max)
-                max = t.getCriticalCost();
-        }
-        cpLength = max;
-        System.out.println("Critical path length (cost): " + cpLength);
-        for (Task t : TASKS) {
-            System.out.println("Setting max cost    " + t.getDuration());
-            t.setLatestStart(cpLength);
+    private static void checkCancelled(int step) {
+        if ((step & 0xfff) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Solve cancelled");
         }
     }
 
     /**
-     * Function to get the critical path
-     * @return      - Critical path length
+     * Procedure to write a result back into the Nodes and Tasks it was solved from, must be called on the Event Dispatch Thread
+     * Since this happens in one go on the Event Dispatch Thread, the component is never painted with a mix of old and new times
+     * Every TaskVisualised is stamped with its state (critical, non-critical or dummy), so drawing only has to look the state up
+     * Throws a RuntimeException if the network contains a cycle
+     * @param r     - The result
      */
-    int getCpLength() {
-        return cpLength;
+    void publish(SolveResult r) {
+        if (r.isCyclic()) {
+            throw new RuntimeException("Cycle exists in path");
+        }
+        NetworkSnapshot s = r.getSnapshot();
+        cpLength = r.getCpLength();
+        for (int n = 0; n < s.getNodeCount(); n++) {
+            s.getNode(n).setCalculatedEarlyStart(r.getEarly(n));
+            s.getNode(n).setCalculatedLatestStart(r.getLate(n));
+        }
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            Task task = s.getTask(t);
+            int start = r.getEarly(s.getTaskStart(t));
+            task.setEarlyStart(start);
+            task.setEarlyFinish(start + s.getDuration(t));
+            task.setCriticalCost(s.getDuration(t) + cpLength - r.getLate(s.getTaskEnd(t)));
+            task.setLatestStart(cpLength);
+            TaskState state;
+            if (s.getDuration(t) == 0) {
+                state = TaskState.DUMMY;
+            }
+            else if (r.getLate(s.getTaskEnd(t)) - start - s.getDuration(t) == 0) {
+                state = TaskState.CRITICAL;
+            }
+            else {
+                state = TaskState.NON_CRITICAL;
+            }
+            task.getTASK_VISUALISED().setState(state);
+        }
     }
 }
\ No newline at end of file
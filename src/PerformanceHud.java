@@ -0,0 +1,164 @@
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class for the performance overlay drawn in the corner of the PathComponent, toggled with F3
+ * Shows the frames painted per second, the time taken by the last paint, how many Drawables it drew and culled,
+ * the time taken by the last hit test, the time taken by the last solve and each of its phases, and how much of the heap is used
+ *
+ * The counters are filled in by the ProfilingEvents as they finish, so they are measured in the same places as the flight recorder measures.
+ * Every counter is a single field written with one store, or a slot of an AtomicLongArray, so no locks are taken;
+ * the paint and hit test counters are only written on the Event Dispatch Thread, the solve counters are also written by the solver threads
+ * Whilst the overlay is hidden the events only read the enabled flag, so nothing is timed or stored
+ */
+class PerformanceHud {
+    private static final String[] PHASES = {"snapshot", "order", "forward pass", "backward pass"};
+    private static final int FRAMES_KEPT = 128;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    static volatile boolean enabled;
+    private static final long[] FRAME_TIMES = new long[FRAMES_KEPT];
+    private static int frameCount;
+    private static volatile long paintNanos;
+    private static volatile int drawn, culled;
+    private static volatile long hitNanos;
+    private static volatile int hitCandidates;
+    private static volatile String hitSearch = "";
+    private static volatile long solveNanos;
+    private static final AtomicLongArray PHASE_NANOS = new AtomicLongArray(PHASES.length);
+
+    /**
+     * Procedure to show or hide the overlay
+     * The counters are cleared when it is shown, so it never shows times from before it was last shown
+     * @param show  - True to show the overlay
+     */
+    static void setEnabled(boolean show) {
+        if (show && !enabled) {
+            frameCount = 0;
+            paintNanos = hitNanos = solveNanos = 0;
+            drawn = culled = hitCandidates = 0;
+            hitSearch = "";
+            for (int i = 0; i < PHASES.length; i++) {
+                PHASE_NANOS.set(i, 0);
+            }
+        }
+        enabled = show;
+    }
+
+    /**
+     * Function to get the time now, if the overlay is showing
+     * Used by the events to start timing, so they do not read the clock whilst it is hidden
+     * @return      - The time in nanoseconds, or 0 if the overlay is hidden
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Procedure to record a paint of the component, on the Event Dispatch Thread
+     * @param started   - The time the paint started, from start()
+     * @param drawnNow  - Amount of Drawables drawn
+     * @param culledNow - Amount of Drawables skipped because they were outside the area being painted
+     */
+    static void painted(long started, int drawnNow, int culledNow) {
+        long now = System.nanoTime();
+        paintNanos = now - started;
+        drawn = drawnNow;
+        culled = culledNow;
+        FRAME_TIMES[frameCount % FRAMES_KEPT] = now;
+        frameCount++;
+    }
+
+    /**
+     * Procedure to record a hit test, on the Event Dispatch Thread
+     * @param started       - The time the hit test started, from start()
+     * @param search        - Name of the search
+     * @param candidates    - Amount of Drawables checked
+     */
+    static void hitTested(long started, String search, int candidates) {
+        hitNanos = System.nanoTime() - started;
+        hitSearch = search;
+        hitCandidates = candidates;
+    }
+
+    /**
+     * Procedure to record a phase of a solve, on any thread
+     * Phases which are not shown by the overlay are ignored
+     * @param started   - The time the phase started, from start()
+     * @param phase     - Name of the phase
+     */
+    static void solvePhase(long started, String phase) {
+        for (int i = 0; i < PHASES.length; i++) {
+            if (PHASES[i].equals(phase)) {
+                PHASE_NANOS.set(i, System.nanoTime() - started);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Procedure to record a whole solve, from when it was requested to when its result was given back to the Event Dispatch Thread
+     * @param started   - The time the solve was requested, from start()
+     */
+    static void solved(long started) {
+        solveNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Function to get the frames painted in the last second
+     * @return      - The frames per second
+     */
+    private static int framesPerSecond() {
+        long oneSecondAgo = System.nanoTime() - 1_000_000_000L;
+        int frames = 0;
+        for (int i = frameCount - 1; i >= Math.max(0, frameCount - FRAMES_KEPT); i--) {
+            if (FRAME_TIMES[i % FRAMES_KEPT] < oneSecondAgo) {
+                break;
+            }
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * Procedure to draw the overlay in the top left corner, on the Event Dispatch Thread
+     * Drawn after the paint has been recorded, so drawing the overlay is not part of the paint time it shows
+     * @param g     - Graphics to draw onto
+     */
+    static void draw(Graphics g) {
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        StringBuilder phases = new StringBuilder();
+        for (int i = 0; i < PHASES.length; i++) {
+            phases.append(i == 0 ? "" : ", ").append(PHASES[i]).append(' ').append(millis(PHASE_NANOS.get(i)));
+        }
+        String[] lines = {
+                framesPerSecond() + " fps, paint " + millis(paintNanos) + " ms",
+                "drawn " + drawn + ", culled " + culled,
+                "hit test " + millis(hitNanos) + " ms (" + hitSearch + ", " + hitCandidates + " checked)",
+                "solve " + millis(solveNanos) + " ms",
+                "  " + phases,
+                "heap " + usedMb + " / " + (runtime.maxMemory() >> 20) + " MB"
+        };
+        FontMetrics metrics = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line));
+        }
+        int lineHeight = metrics.getHeight();
+        g.setColor(BACKGROUND);
+        g.fillRect(4, 4, width + 12, lineHeight * lines.length + 8);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], 10, 8 + metrics.getAscent() + i * lineHeight);
+        }
+    }
+
+    /**
+     * Function to write nanoseconds as milliseconds to two decimal places
+     * @param nanos     - The nanoseconds
+     * @return          - The milliseconds
+     */
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Class to run a Monte Carlo PERT simulation of a network
+ * Every task has a three point estimate of its duration (optimistic, most likely and pessimistic)
+ * Each sample picks a random duration for every task, then runs the forward and backward passes of the critical path method
+ * After all the samples, the completion times give the chance of the project finishing by a given time,
+ * and the amount of samples each task was critical in gives its criticality index
+ *
+ * The network is copied into primitive arrays, with the tasks sorted so that a single sweep forwards over them is the forward pass
+ * Samples are split into chunks which run in parallel, each chunk has its own random number generator split from one seed,
+ * so the results only depend on the seed, and its own buffers, so no memory is allocated for each sample
+ *
+ * Run from the context menu, which simulates the selected document's network using the estimates set on its tasks
+ */
+class PertSimulation {
+    /**
+     * The distributions which a task's duration can be sampled from
+     */
+    enum Distribution {
+        TRIANGULAR, BETA
+    }
+
+    private static final int SAMPLES_PER_CHUNK = 1024;
+    private final int NODE_COUNT, TASK_COUNT;
+    private final int[] START, END, SNAPSHOT_TASK;
+    private final double[] OPTIMISTIC, MOST_LIKELY, PESSIMISTIC;
+    private final double[] ALPHA, BETA;
+    private double[] completionTimes;
+    private double[] criticality;
+
+    /**
+     * Constructor for the simulation
+     * Orders the nodes topologically, then sorts the tasks by the position of their start node in that order
+     * The arrays of estimates are indexed by the snapshot's task numbers
+     * @param s             - The network to simulate
+     * @param optimistic    - Optimistic duration of each task
+     * @param pessimistic   - Pessimistic duration of each task (The snapshot's durations are used as the most likely)
+     */
+    PertSimulation(NetworkSnapshot s, int[] optimistic, int[] pessimistic) {
+        this.NODE_COUNT = s.getNodeCount();
+        this.TASK_COUNT = s.getTaskCount();
+        int[] order = s.topologicalOrder();
+        this.START = new int[TASK_COUNT];
+        this.END = new int[TASK_COUNT];
+        this.SNAPSHOT_TASK = new int[TASK_COUNT];
+        this.OPTIMISTIC = new double[TASK_COUNT];
+        this.MOST_LIKELY = new double[TASK_COUNT];
+        this.PESSIMISTIC = new double[TASK_COUNT];
+        this.ALPHA = new double[TASK_COUNT];
+        this.BETA = new double[TASK_COUNT];
+        int[] rank = new int[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++) {
+            rank[order[i]] = i;
+        }
+        int i = 0;
+        for (int n : order) {
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                START[i] = rank[n];
+                END[i] = rank[s.getTaskEnd(t)];
+                SNAPSHOT_TASK[i] = t;
+                double m = s.getDuration(t);
+                double a = Math.min(optimistic[t], m);
+                double b = Math.max(pessimistic[t], m);
+                OPTIMISTIC[i] = a;
+                MOST_LIKELY[i] = m;
+                PESSIMISTIC[i] = b;
+                if (b > a) {        //PERT beta shape parameters, giving a mean of (a + 4m + b) / 6
+                    ALPHA[i] = 1 + 4 * (m - a) / (b - a);
+                    BETA[i] = 1 + 4 * (b - m) / (b - a);
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Function to make a simulation from the three point estimates set on each TaskVisualised
+     * Must be called on the Event Dispatch Thread, as it reads from the Task objects
+     * @param s     - The network to simulate
+     * @return      - The simulation
+     */
+    static PertSimulation fromEstimates(NetworkSnapshot s) {
+        int[] optimistic = new int[s.getTaskCount()];
+        int[] pessimistic = new int[s.getTaskCount()];
+        for (int t = 0; t < s.getTaskCount(); t++) {
+            TaskVisualised tVis = s.getTask(t).getTASK_VISUALISED();
+            optimistic[t] = tVis.getOptimistic();
+            pessimistic[t] = tVis.getPessimistic();
+        }
+        return new PertSimulation(s, optimistic, pessimistic);
+    }
+
+    /**
+     * Procedure to run the simulation
+     * The samples are split into chunks of 1024, which are run in parallel
+     * Each chunk is given a random number generator split from one made with the seed, before any chunk runs,
+     * so running again with the same seed gives the same results
+     * Throws an IllegalArgumentException if there are no samples
+     * @param samples       - Amount of samples
+     * @param seed          - Seed for the random number generators
+     * @param distribution  - The distribution to sample durations from
+     */
+    void run(int samples, long seed, Distribution distribution) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("A simulation needs at least one sample");
+        }
+        int chunks = (samples + SAMPLES_PER_CHUNK - 1) / SAMPLES_PER_CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+        double[] times = new double[samples];
+        long[][] criticalCounts = new long[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * SAMPLES_PER_CHUNK;
+            int to = Math.min(samples, from + SAMPLES_PER_CHUNK);
+            criticalCounts[c] = runChunk(from, to, randoms[c], distribution, times);
+        });
+        Arrays.sort(times);
+        completionTimes = times;
+        criticality = new double[TASK_COUNT];
+        for (long[] counts : criticalCounts) {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                criticality[SNAPSHOT_TASK[i]] += counts[i];
+            }
+        }
+        for (int t = 0; t < TASK_COUNT; t++) {
+            criticality[t] /= samples;
+        }
+    }
+
+    /**
+     * Function to run one chunk of samples
+     * The buffers are made once for the chunk and reused for every sample
+     * For each sample:
+     * A duration is picked for every task
+     * The forward pass sweeps over the tasks, making each end node's early time the latest finish of the tasks arriving at it
+     * The completion time is the greatest early time
+     * The backward pass sweeps over the tasks in reverse, making each start node's late time the earliest latest start of the tasks leaving it
+     * Every task with no float is counted as critical
+     * @param from          - First sample
+     * @param to            - One after the last sample
+     * @param random        - The chunk's random number generator
+     * @param distribution  - The distribution to sample durations from
+     * @param times         - Array to write each sample's completion time into
+     * @return              - The amount of samples each task was critical in, in sorted task order
+     */
+    private long[] runChunk(int from, int to, SplittableRandom random, Distribution distribution, double[] times) {
+        double[] duration = new double[TASK_COUNT];
+        double[] early = new double[NODE_COUNT];
+        double[] late = new double[NODE_COUNT];
+        long[] critical = new long[TASK_COUNT];
+        for (int sample = from; sample < to; sample++) {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                duration[i] = sampleDuration(i, random, distribution);
+            }
+            Arrays.fill(early, 0);
+            double completion = 0;
+            for (int i = 0; i < TASK_COUNT; i++) {
+                double finish = early[START[i]] + duration[i];
+                if (finish > early[END[i]]) {
+                    early[END[i]] = finish;
+                }
+            }
+            for (int n = 0; n < NODE_COUNT; n++) {
+                completion = Math.max(completion, early[n]);
+            }
+            Arrays.fill(late, completion);
+            for (int i = TASK_COUNT - 1; i >= 0; i--) {
+                double latest = late[END[i]] - duration[i];
+                if (latest < late[START[i]]) {
+                    late[START[i]] = latest;
+                }
+            }
+            for (int i = 0; i < TASK_COUNT; i++) {
+                if (late[END[i]] - early[START[i]] - duration[i] <= 1e-9) {
+                    critical[i]++;
+                }
+            }
+            times[sample] = completion;
+        }
+        return critical;
+    }
+
+    /**
+     * Function to pick a random duration for a task
+     * Triangular durations use the inverse of the triangular distribution's cumulative distribution function
+     * Beta durations use two gamma samples, as X / (X + Y) is beta distributed when X and Y are gamma distributed
+     * @param i             - Task, in sorted order
+     * @param random        - Random number generator
+     * @param distribution  - The distribution to sample from
+     * @return              - The duration
+     */
+    private double sampleDuration(int i, SplittableRandom random, Distribution distribution) {
+        double a = OPTIMISTIC[i], m = MOST_LIKELY[i], b = PESSIMISTIC[i];
+        if (b <= a) {
+            return m;
+        }
+        if (distribution == Distribution.TRIANGULAR) {
+            double u = random.nextDouble();
+            double split = (m - a) / (b - a);
+            if (u < split) {
+                return a + Math.sqrt(u * (b - a) * (m - a));
+            }
+            return b - Math.sqrt((1 - u) * (b - a) * (b - m));
+        }
+        double x = sampleGamma(ALPHA[i], random);
+        double y = sampleGamma(BETA[i], random);
+        return a + (b - a) * x / (x + y);
+    }
+
+    /**
+     * Function to sample from a gamma distribution with a scale of 1, using the Marsaglia and Tsang method
+     * A cheap squeeze test accepts most samples before the exact test is needed
+     * The shape is always at least 1 for PERT estimates, which is what the method needs
+     * @param shape     - Shape of the distribution
+     * @param random    - Random number generator
+     * @return          - The sample
+     */
+    private static double sampleGamma(double shape, SplittableRandom random) {
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        while (true) {
+            double x = random.nextGaussian();
+            double v = 1 + c * x;
+            if (v > 0) {
+                v = v * v * v;
+                double u = random.nextDouble();
+                double x2 = x * x;
+                if (u < 1 - 0.0331 * x2 * x2) {        //Quick acceptance test, which avoids the logarithms most of the time
+                    return d * v;
+                }
+                if (Math.log(u) < 0.5 * x2 + d * (1 - v + Math.log(v))) {
+                    return d * v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Procedure to throw an IllegalStateException if the simulation has not been run, as there are no results to read yet
+     */
+    private void checkRun() {
+        if (completionTimes == null) {
+            throw new IllegalStateException("The simulation has not been run");
+        }
+    }
+
+    /**
+     * Function to get the completion time which a given fraction of samples finished by
+     * @param p     - The fraction, between 0 and 1 (0.5 gives the median)
+     * @return      - The completion time
+     */
+    double getPercentile(double p) {
+        checkRun();
+        int index = (int) Math.ceil(p * completionTimes.length) - 1;
+        return completionTimes[Math.max(0, Math.min(completionTimes.length - 1, index))];
+    }
+
+    /**
+     * Function to get the mean completion time
+     * @return      - Mean completion time
+     */
+    double getMean() {
+        checkRun();
+        double sum = 0;
+        for (double t : completionTimes) {
+            sum += t;
+        }
+        return sum / completionTimes.length;
+    }
+
+    /**
+     * Function to get the fraction of samples in which a task was critical
+     * @param t     - Task number in the snapshot
+     * @return      - Criticality index, between 0 and 1
+     */
+    double getCriticalityIndex(int t) {
+        checkRun();
+        return criticality[t];
+    }
+}
@@ -0,0 +1,426 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Class to convert a precedence table (activities and the activities they depend on) into an activity-on-arrow network
+ * The network is made of events (nodes) joined by arcs (tasks), with arcs of zero duration being dummies
+ *
+ * A naive conversion gives every activity its own start and end event, and joins them with a dummy for every dependency
+ * This class instead uses the following heuristic, which gives the minimum amount of dummies for most textbook networks:
+ * Redundant dependencies are removed (If C depends on A and B, and B depends on A, then C only needs to depend on B)
+ * Activities with identical sets of predecessors share a start event
+ * Activities with identical sets of successors share an end event
+ * If every successor of a group of activities has the same set of predecessors, the group ends directly at that set's start event
+ * A dummy is only added when a group of activities is needed by more than one set of predecessors,
+ * or when two activities would otherwise have the same start and end event
+ *
+ * Event 0 is always the start of the network
+ *
+ * A precedence table can be read from lines of text, one activity to a line, giving its label, its duration, then the labels it depends on:
+ * C 4 A B
+ * Blank lines and lines starting with # are ignored
+ */
+class PrecedenceConverter {
+    private final ArrayList<String> LABELS = new ArrayList<>();
+    private final ArrayList<Integer> DURATIONS = new ArrayList<>();
+    private final ArrayList<String[]> PREDECESSORS = new ArrayList<>();
+    private int eventCount, arcCount, dummyCount, dependencyCount;
+    private int[] arcStart, arcEnd, arcDuration, arcActivity;
+
+    /**
+     * Empty constructor for a converter with zero activities
+     */
+    PrecedenceConverter() {
+    }
+
+    /**
+     * Function to read a precedence table from lines of text, one activity to a line
+     * Throws an IllegalArgumentException naming the line if a line has no duration or its duration is not a non negative number
+     * @param lines     - The lines of the table
+     * @return          - A converter holding the activities, which has not been converted yet
+     */
+    static PrecedenceConverter read(List<String> lines) {
+        PrecedenceConverter converter = new PrecedenceConverter();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " has no duration");
+            }
+            int duration;
+            try {
+                duration = Integer.parseInt(parts[1]);
+            }
+            catch (NumberFormatException notNumber) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " has a duration which is not a number");
+            }
+            converter.addActivity(parts[0], duration, Arrays.copyOfRange(parts, 2, parts.length));
+        }
+        return converter;
+    }
+
+    /**
+     * Procedure to add an activity to the precedence table
+     * Predecessors are referred to by their labels, and may be added after the activity which depends on them
+     * @param label         - Unique label of the activity
+     * @param duration      - Duration of the activity (Non negative)
+     * @param predecessors  - Labels of the activities which must finish before this activity can start
+     */
+    void addActivity(String label, int duration, String... predecessors) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Activity " + label + " has a negative duration");
+        }
+        LABELS.add(label);
+        DURATIONS.add(duration);
+        PREDECESSORS.add(predecessors);
+    }
+
+    /**
+     * Procedure to build the activity-on-arrow network from the precedence table
+     * Follows this procedure:
+     * Resolves the labels of the predecessors into activity indices
+     * Sorts the activities topologically, throwing an exception if the table contains a cycle
+     * Finds the ancestors of every activity, and uses these to remove redundant dependencies
+     * Groups activities by their predecessor sets (start events) and successor sets (end events)
+     * Joins each end event to the start events it is needed by, merging the two where possible and adding dummies otherwise
+     * Separates any activities which share both a start and an end event using an extra event and a dummy
+     */
+    void convert() {
+        int n = LABELS.size();
+        int[][] preds = resolvePredecessors();
+        int[] order = topologicalOrder(preds);
+
+        BitSet[] ancestors = new BitSet[n];
+        for (int b : order) {
+            ancestors[b] = new BitSet(n);
+            for (int p : preds[b]) {
+                ancestors[b].or(ancestors[p]);
+                ancestors[b].set(p);
+            }
+        }
+
+        BitSet[] reduced = new BitSet[n];
+        BitSet[] successors = new BitSet[n];
+        for (int a = 0; a < n; a++) {
+            successors[a] = new BitSet(n);
+        }
+        for (int b = 0; b < n; b++) {
+            reduced[b] = new BitSet(n);
+            for (int p : preds[b]) {
+                boolean redundant = false;
+                for (int q : preds[b]) {
+                    if (q != p && ancestors[q].get(p)) {      //p is already implied by q
+                        redundant = true;
+                        break;
+                    }
+                }
+                if (!redundant) {
+                    reduced[b].set(p);
+                    successors[p].set(b);
+                }
+            }
+        }
+
+        HashMap<BitSet, Integer> startEvents = new HashMap<>();
+        eventCount = 1;         //Event 0 is the start of the network
+        startEvents.put(new BitSet(n), 0);
+
+        HashMap<BitSet, BitSet> groupMembers = new HashMap<>();
+        for (int a = 0; a < n; a++) {
+            if (!successors[a].isEmpty()) {
+                groupMembers.computeIfAbsent(successors[a], k -> new BitSet(n)).set(a);
+            }
+        }
+
+        int[] endEvent = new int[n];
+        ArrayList<int[]> dummies = new ArrayList<>();
+        for (BitSet succ : groupMembers.keySet()) {
+            BitSet members = groupMembers.get(succ);
+            HashSet<BitSet> neededBy = new HashSet<>();
+            for (int b = succ.nextSetBit(0); b >= 0; b = succ.nextSetBit(b + 1)) {
+                neededBy.add(reduced[b]);
+            }
+            int event;
+            if (neededBy.size() == 1 || neededBy.contains(members)) {
+                BitSet merged = neededBy.size() == 1 ? neededBy.iterator().next() : members;
+                event = startEvent(startEvents, merged);
+            }
+            else {
+                event = eventCount++;
+            }
+            for (BitSet s : neededBy) {
+                int target = startEvent(startEvents, s);
+                if (target != event) {
+                    dummies.add(new int[]{event, target});
+                }
+            }
+            for (int a = members.nextSetBit(0); a >= 0; a = members.nextSetBit(a + 1)) {
+                endEvent[a] = event;
+            }
+        }
+
+        int sink = -1;
+        for (int a = 0; a < n; a++) {
+            if (successors[a].isEmpty()) {
+                if (sink == -1) {
+                    sink = eventCount++;
+                }
+                endEvent[a] = sink;
+            }
+        }
+
+        int maxArcs = 2 * n + dummies.size();
+        arcStart = new int[maxArcs];
+        arcEnd = new int[maxArcs];
+        arcDuration = new int[maxArcs];
+        arcActivity = new int[maxArcs];
+        arcCount = 0;
+        dummyCount = 0;
+        HashSet<Long> usedPairs = new HashSet<>();
+        for (int a : order) {
+            int start = startEvent(startEvents, reduced[a]);
+            int end = endEvent[a];
+            if (!usedPairs.add(pairKey(start, end))) {      //Another activity already joins these events
+                int extra = eventCount++;
+                addArc(extra, end, 0, -1);
+                dummyCount++;
+                end = extra;
+                usedPairs.add(pairKey(start, end));
+            }
+            addArc(start, end, DURATIONS.get(a), a);
+        }
+        for (int[] d : dummies) {
+            if (usedPairs.add(pairKey(d[0], d[1]))) {
+                addArc(d[0], d[1], 0, -1);
+                dummyCount++;
+            }
+        }
+
+        dependencyCount = 0;
+        for (int[] p : preds) {
+            dependencyCount += p.length;
+        }
+    }
+
+    /**
+     * Function to get the start event for a set of predecessors, creating a new event if the set has not been seen before
+     * @param startEvents       - Map of predecessor sets to their start events
+     * @param predecessorSet    - The set of predecessors
+     * @return                  - The start event
+     */
+    private int startEvent(HashMap<BitSet, Integer> startEvents, BitSet predecessorSet) {
+        Integer event = startEvents.get(predecessorSet);
+        if (event == null) {
+            event = eventCount++;
+            startEvents.put(predecessorSet, event);
+        }
+        return event;
+    }
+
+    /**
+     * Procedure to add an arc to the network
+     * @param start     - Start event
+     * @param end       - End event
+     * @param duration  - Duration of the arc
+     * @param activity  - Index of the activity, -1 for a dummy
+     */
+    private void addArc(int start, int end, int duration, int activity) {
+        arcStart[arcCount] = start;
+        arcEnd[arcCount] = end;
+        arcDuration[arcCount] = duration;
+        arcActivity[arcCount] = activity;
+        arcCount++;
+    }
+
+    /**
+     * Function to combine a start and an end event into a single key
+     * @param start     - Start event
+     * @param end       - End event
+     * @return          - Key for the pair
+     */
+    private static long pairKey(int start, int end) {
+        return ((long) start << 32) | (end & 0xffffffffL);
+    }
+
+    /**
+     * Function to turn the predecessor labels of every activity into activity indices
+     * Duplicate predecessors of the same activity are ignored
+     * @return      - Array of predecessor indices for each activity
+     */
+    private int[][] resolvePredecessors() {
+        HashMap<String, Integer> indexOf = new HashMap<>();
+        for (int a = 0; a < LABELS.size(); a++) {
+            if (indexOf.put(LABELS.get(a), a) != null) {
+                throw new IllegalArgumentException("Activity " + LABELS.get(a) + " is defined twice");
+            }
+        }
+        int[][] preds = new int[LABELS.size()][];
+        for (int a = 0; a < LABELS.size(); a++) {
+            String[] labels = PREDECESSORS.get(a);
+            BitSet seen = new BitSet();
+            int[] resolved = new int[labels.length];
+            int count = 0;
+            for (String label : labels) {
+                Integer p = indexOf.get(label);
+                if (p == null) {
+                    throw new IllegalArgumentException("Activity " + LABELS.get(a) + " depends on unknown activity " + label);
+                }
+                if (!seen.get(p)) {
+                    seen.set(p);
+                    resolved[count++] = p;
+                }
+            }
+            preds[a] = Arrays.copyOf(resolved, count);
+        }
+        return preds;
+    }
+
+    /**
+     * Function to sort the activities so that every activity comes after all of its predecessors
+     * Uses Kahn's algorithm, repeatedly taking activities with no unprocessed predecessors
+     * If some activities are never processed the table must contain a cycle
+     * @param preds     - Predecessor indices for each activity
+     * @return          - The activity indices in topological order
+     */
+    private static int[] topologicalOrder(int[][] preds) {
+        int n = preds.length;
+        int[] remainingPreds = new int[n];
+        int[][] succs = new int[n][];
+        int[] succCount = new int[n];
+        for (int b = 0; b < n; b++) {
+            remainingPreds[b] = preds[b].length;
+            for (int p : preds[b]) {
+                succCount[p]++;
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            succs[a] = new int[succCount[a]];
+            succCount[a] = 0;
+        }
+        for (int b = 0; b < n; b++) {
+            for (int p : preds[b]) {
+                succs[p][succCount[p]++] = b;
+            }
+        }
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int a = 0; a < n; a++) {
+            if (remainingPreds[a] == 0) {
+                order[tail++] = a;
+            }
+        }
+        while (head < tail) {
+            int a = order[head++];
+            for (int b : succs[a]) {
+                if (--remainingPreds[b] == 0) {
+                    order[tail++] = b;
+                }
+            }
+        }
+        if (tail != n) {
+            throw new RuntimeException("Cycle exists in precedence list");
+        }
+        return order;
+    }
+
+    /**
+     * Function to get the amount of events in the converted network
+     * @return      - Event count
+     */
+    int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Function to get the amount of arcs (activities and dummies) in the converted network
+     * @return      - Arc count
+     */
+    int getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * Function to get the amount of dummies in the converted network
+     * @return      - Dummy count
+     */
+    int getDummyCount() {
+        return dummyCount;
+    }
+
+    /**
+     * Function to get the start event of an arc
+     * @param arc       - Arc index
+     * @return          - Start event
+     */
+    int getArcStart(int arc) {
+        return arcStart[arc];
+    }
+
+    /**
+     * Function to get the end event of an arc
+     * @param arc       - Arc index
+     * @return          - End event
+     */
+    int getArcEnd(int arc) {
+        return arcEnd[arc];
+    }
+
+    /**
+     * Function to get the duration of an arc, dummies have a duration of 0
+     * @param arc       - Arc index
+     * @return          - Duration
+     */
+    int getArcDuration(int arc) {
+        return arcDuration[arc];
+    }
+
+    /**
+     * Function to get the label of the activity an arc represents
+     * @param arc       - Arc index
+     * @return          - Activity label, null for a dummy
+     */
+    String getArcLabel(int arc) {
+        return arcActivity[arc] == -1 ? null : LABELS.get(arcActivity[arc]);
+    }
+
+    /**
+     * Function to put the converted network into a store, with event i as node i and arc i as task i
+     * Every node is at (0, 0), so the store should be laid out before it is drawn
+     * @return      - The store
+     */
+    ArrayNetworkStore toStore() {
+        ArrayNetworkStore store = new ArrayNetworkStore(eventCount, arcCount);
+        for (int e = 0; e < eventCount; e++) {
+            store.addNode(0, 0);
+        }
+        for (int a = 0; a < arcCount; a++) {
+            store.addTask(arcStart[a], arcEnd[a], arcDuration[a]);
+        }
+        return store;
+    }
+
+    /**
+     * Function to get how many events were saved compared to the naive conversion,
+     * which gives every activity its own start and end event
+     * @return      - Events saved
+     */
+    int getNodesSaved() {
+        return 2 * LABELS.size() - eventCount;
+    }
+
+    /**
+     * Function to get how many arcs were saved compared to the naive conversion,
+     * which adds a dummy for every dependency in the table
+     * @return      - Arcs saved
+     */
+    int getEdgesSaved() {
+        return LABELS.size() + dependencyCount - arcCount;
+    }
+}
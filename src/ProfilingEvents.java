@@ -0,0 +1,234 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class holding the JDK Flight Recorder events which the tool records, so a recording of a slow session shows which part was slow
+ * Each event is timed from when it is made to when finish() is called, and is only written if the recording has it enabled
+ * critical-path.jfc in the project folder enables all of them, along with the usual garbage collection and sampling events:
+ * java -XX:StartFlightRecording=settings=critical-path.jfc,filename=session.jfr -cp "out/production/Critical Path Teaching Tool" Main
+ * When no recording is running, making and finishing an event costs almost nothing
+ * The paint, hit test and solve events also give their times to the PerformanceHud whilst it is showing,
+ * timed separately in transient fields, which the flight recorder does not write
+ */
+class ProfilingEvents {
+    /**
+     * One phase of solving the network by PathFunctions.snapshot(), PathFunctions.solve() or PathFunctions.solveInPlace()
+     */
+    @Name("criticalpath.Solve")
+    @Label("Solve Phase")
+    @Category({"Critical Path Tool", "Solver"})
+    @Description("One phase of solving the network")
+    static class Solve extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Nodes")
+        int nodes;
+        @Label("Tasks")
+        int tasks;
+        private transient long hudStart;
+
+        /**
+         * Constructor for the event, which starts timing straight away
+         * @param phase     - Name of the phase
+         * @param nodes     - Amount of nodes in the network, -1 if the phase does not count them
+         * @param tasks     - Amount of tasks in the network
+         */
+        Solve(String phase, int nodes, int tasks) {
+            this.phase = phase;
+            this.nodes = nodes;
+            this.tasks = tasks;
+            this.hudStart = PerformanceHud.start();
+            begin();
+        }
+
+        /**
+         * Procedure to stop timing the event, and write it if it is enabled
+         */
+        void finish() {
+            end();
+            if (hudStart != 0) {
+                PerformanceHud.solvePhase(hudStart, phase);
+            }
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Marking a student's answers
+     */
+    @Name("criticalpath.Grade")
+    @Label("Grade")
+    @Category({"Critical Path Tool", "Solver"})
+    @Description("Marking the event times and critical tasks a student entered")
+    static class Grade extends Event {
+        @Label("Nodes Marked")
+        int nodes;
+        @Label("Tasks Marked")
+        int tasks;
+        @Label("Node Marks")
+        int nodeMarks;
+        @Label("Task Marks")
+        int taskMarks;
+
+        /**
+         * Constructor for the event, which starts timing straight away
+         */
+        Grade() {
+            begin();
+        }
+
+        /**
+         * Procedure to stop timing the event, and write it if it is enabled
+         * @param nodes         - Amount of nodes marked
+         * @param tasks         - Amount of tasks marked
+         * @param nodeMarks     - Marks given for the event times
+         * @param taskMarks     - Marks given for the critical tasks
+         */
+        void finish(int nodes, int tasks, int nodeMarks, int taskMarks) {
+            end();
+            if (shouldCommit()) {
+                this.nodes = nodes;
+                this.tasks = tasks;
+                this.nodeMarks = nodeMarks;
+                this.taskMarks = taskMarks;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One call of PathComponent.paintComponent()
+     */
+    @Name("criticalpath.Paint")
+    @Label("Paint")
+    @Category({"Critical Path Tool", "Rendering"})
+    @Description("Painting the network onto the component")
+    static class Paint extends Event {
+        @Label("Drawables Drawn")
+        int drawables;
+        @Label("Drawables Culled")
+        int culled;
+        @Label("Width")
+        int width;
+        @Label("Height")
+        int height;
+        private transient long hudStart;
+
+        /**
+         * Constructor for the event, which starts timing straight away
+         */
+        Paint() {
+            this.hudStart = PerformanceHud.start();
+            begin();
+        }
+
+        /**
+         * Procedure to stop timing the event, and write it if it is enabled
+         * @param drawables     - Amount of Drawables drawn
+         * @param culled        - Amount of Drawables skipped because they were outside the area being painted
+         * @param width         - Width of the component
+         * @param height        - Height of the component
+         */
+        void finish(int drawables, int culled, int width, int height) {
+            end();
+            if (hudStart != 0) {
+                PerformanceHud.painted(hudStart, drawables, culled);
+            }
+            if (shouldCommit()) {
+                this.drawables = drawables;
+                this.culled = culled;
+                this.width = width;
+                this.height = height;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One search for what is under a point, or for a node which a dragged node would overlap
+     */
+    @Name("criticalpath.HitTest")
+    @Label("Hit Test")
+    @Category({"Critical Path Tool", "Input"})
+    @Description("Searching the lists for what contains a point")
+    static class HitTest extends Event {
+        @Label("Search")
+        String search;
+        @Label("Candidates Examined")
+        int candidates;
+        @Label("Found")
+        boolean found;
+        private transient long hudStart;
+
+        /**
+         * Constructor for the event, which starts timing straight away
+         * @param search    - Name of the search
+         */
+        HitTest(String search) {
+            this.search = search;
+            this.hudStart = PerformanceHud.start();
+            begin();
+        }
+
+        /**
+         * Procedure to stop timing the event, and write it if it is enabled
+         * @param candidates    - Amount of Drawables checked
+         * @param found         - Whether anything was found
+         */
+        void finish(int candidates, boolean found) {
+            end();
+            if (hudStart != 0) {
+                PerformanceHud.hitTested(hudStart, search, candidates);
+            }
+            if (shouldCommit()) {
+                this.candidates = candidates;
+                this.found = found;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One frame of dragging a node
+     */
+    @Name("criticalpath.NodeDrag")
+    @Label("Node Drag Frame")
+    @Category({"Critical Path Tool", "Input"})
+    @Description("Moving a node to follow the mouse for one drag event")
+    static class NodeDrag extends Event {
+        @Label("Node")
+        int node;
+        @Label("Connected Tasks")
+        int tasks;
+        @Label("Collided")
+        boolean collided;
+
+        /**
+         * Constructor for the event, which starts timing straight away
+         */
+        NodeDrag() {
+            begin();
+        }
+
+        /**
+         * Procedure to stop timing the event, and write it if it is enabled
+         * @param node      - Index of the node being dragged
+         * @param tasks     - Amount of tasks joined to the node, which all move with it
+         * @param collided  - Whether the node would have overlapped another node
+         */
+        void finish(int node, int tasks, boolean collided) {
+            end();
+            if (shouldCommit()) {
+                this.node = node;
+                this.tasks = tasks;
+                this.collided = collided;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Immutable result of a sensitivity analysis of a solved network
+ * For every task, holds the range of durations it can take, with every other duration unchanged, before the critical path changes:
+ * A non-critical task can take any duration from 0 up to its duration plus its float, and the critical path length stays the same
+ * A critical task can take any duration from its lowest duration upwards, and the critical path length changes by exactly as much as its duration does,
+ * below its lowest duration a path which avoids the task becomes the longest
+ * A critical task which shares the critical path length with a path avoiding it has a lowest duration equal to its duration
+ *
+ * Everything is worked out from the early and late event times the solve has already found, rather than solving again for each task:
+ * The longest path through a task is the early time of its start node, plus its duration,
+ * plus the longest path on from its end node, which is the critical path length minus the late time of its end node
+ * For the longest path avoiding a task, the nodes are put in topological order and the gap just after the task's start node is looked at
+ * Every path either ends before the gap, starts after it, or crosses it using exactly one task,
+ * and as a path visits the nodes in increasing order, a path which does any of those without using the task cannot use the task at all
+ * So the longest path avoiding a task is the greatest of: the greatest early time before the gap,
+ * the greatest longest path on from a node after the gap, and the longest path through any other task crossing the gap
+ * One pass backwards and one pass forwards over the nodes find all of these, keeping the tasks crossing the current gap in a heap
+ * ordered by the longest path through them, so the analysis takes O(V + E log E) rather than a solve for every task
+ */
+final class SensitivityAnalysis {
+    static final int UNBOUNDED = Integer.MAX_VALUE;
+    private final SolveResult RESULT;
+    private final int[] MIN, MAX;
+
+    /**
+     * Constructor for the analysis
+     * The arrays passed in must not be changed afterwards
+     * @param result    - The result which was analysed
+     * @param min       - Lowest duration of each task
+     * @param max       - Highest duration of each task, UNBOUNDED for critical tasks
+     */
+    private SensitivityAnalysis(SolveResult result, int[] min, int[] max) {
+        this.RESULT = result;
+        this.MIN = min;
+        this.MAX = max;
+    }
+
+    /**
+     * Function to analyse a solved network, which can be called on any thread
+     * Throws an IllegalArgumentException if the network is cyclic, since it has no event times to analyse
+     * @param r     - The result of solving the network
+     * @return      - The analysis
+     */
+    static SensitivityAnalysis analyse(SolveResult r) {
+        if (r.isCyclic()) {
+            throw new IllegalArgumentException("Cycle exists in path");
+        }
+        NetworkSnapshot s = r.getSnapshot();
+        ProfilingEvents.Solve phase = new ProfilingEvents.Solve("sensitivity", s.getNodeCount(), s.getTaskCount());
+        int nodeCount = s.getNodeCount();
+        int cp = r.getCpLength();
+        int[] min = new int[s.getTaskCount()];
+        int[] max = new int[s.getTaskCount()];
+        int[] order = s.topologicalOrder();
+        int[] position = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            position[order[i]] = i;
+        }
+        int[] through = new int[s.getTaskCount()];
+        for (int t = 0; t < through.length; t++) {
+            through[t] = r.getEarly(s.getTaskStart(t)) + s.getDuration(t) + cp - r.getLate(s.getTaskEnd(t));
+        }
+
+        int[] tailAfter = new int[nodeCount + 1];       //Greatest longest path on from any node at or after each position
+        for (int i = nodeCount - 1; i >= 0; i--) {
+            tailAfter[i] = Math.max(tailAfter[i + 1], cp - r.getLate(order[i]));
+        }
+
+        int[] heap = new int[s.getTaskCount()];
+        int size = 0;
+        int earlyBefore = 0;                            //Greatest early time of any node at or before the current position
+        for (int i = 0; i < nodeCount; i++) {
+            int n = order[i];
+            earlyBefore = Math.max(earlyBefore, r.getEarly(n));
+            boolean anyCritical = false;
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                size = push(heap, size, t, through);
+                if (through[t] == cp) {
+                    anyCritical = true;
+                }
+                else {
+                    min[t] = 0;
+                    max[t] = s.getDuration(t) + cp - through[t];
+                }
+            }
+            if (!anyCritical) {
+                continue;
+            }
+            size = dropEnded(heap, size, i, through, position, s);
+            int first = heap[0];
+            size = pop(heap, size, through);
+            size = dropEnded(heap, size, i, through, position, s);
+            int second = size > 0 ? through[heap[0]] : 0;
+            size = push(heap, size, first, through);
+            int outside = Math.max(earlyBefore, tailAfter[i + 1]);
+            for (int k = s.getFirstOutgoing(n); k < s.getFirstOutgoing(n + 1); k++) {
+                int t = s.getOutgoing(k);
+                if (through[t] == cp) {
+                    int avoiding = Math.max(outside, t == first ? second : through[first]);
+                    min[t] = Math.max(0, s.getDuration(t) - (cp - avoiding));
+                    max[t] = UNBOUNDED;
+                }
+            }
+        }
+        phase.finish();
+        return new SensitivityAnalysis(r, min, max);
+    }
+
+    /**
+     * Function to take the tasks which end at or before a position off the top of the heap, as they no longer cross the gap after it
+     * Tasks which have ended but are not at the top are left until they reach the top
+     * @param heap      - The heap of task numbers
+     * @param size      - Amount of tasks in the heap
+     * @param gap       - Position of the node before the gap
+     * @param through   - Longest path through each task
+     * @param position  - Position of each node in the topological order
+     * @param s         - The snapshot
+     * @return          - New amount of tasks in the heap
+     */
+    private static int dropEnded(int[] heap, int size, int gap, int[] through, int[] position, NetworkSnapshot s) {
+        while (size > 0 && position[s.getTaskEnd(heap[0])] <= gap) {
+            size = pop(heap, size, through);
+        }
+        return size;
+    }
+
+    /**
+     * Function to add a task to the heap, keeping the task with the longest path through it at the top
+     * @param heap      - The heap of task numbers
+     * @param size      - Amount of tasks in the heap
+     * @param t         - Task number
+     * @param through   - Longest path through each task
+     * @return          - New amount of tasks in the heap
+     */
+    private static int push(int[] heap, int size, int t, int[] through) {
+        int i = size;
+        while (i > 0 && through[heap[(i - 1) / 2]] < through[t]) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = t;
+        return size + 1;
+    }
+
+    /**
+     * Function to take the top task off the heap
+     * @param heap      - The heap of task numbers
+     * @param size      - Amount of tasks in the heap
+     * @param through   - Longest path through each task
+     * @return          - New amount of tasks in the heap
+     */
+    private static int pop(int[] heap, int size, int[] through) {
+        int last = heap[--size];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && through[heap[child + 1]] > through[heap[child]]) {
+                child++;
+            }
+            if (through[heap[child]] <= through[last]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+
+    /**
+     * Function to get the result which was analysed
+     * @return      - The result
+     */
+    SolveResult getResult() {
+        return RESULT;
+    }
+
+    /**
+     * Function to get the lowest duration a task can take before the critical path changes
+     * @param t     - Task number
+     * @return      - Lowest duration
+     */
+    int getMinDuration(int t) {
+        return MIN[t];
+    }
+
+    /**
+     * Function to get the highest duration a task can take before the critical path changes
+     * @param t     - Task number
+     * @return      - Highest duration, UNBOUNDED if the task is critical
+     */
+    int getMaxDuration(int t) {
+        return MAX[t];
+    }
+}
@@ -0,0 +1,134 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class for a program which puts load on a SolveService and measures how it copes
+ * Several threads each send the same random network over and over for a set time, timing every request
+ * Reports the requests per second, the median and 99th percentile latency, and how many requests were turned away
+ * If no address is given, a SolveService is started in the same program on a free port
+ */
+class SolveLoadClient {
+    /**
+     * Main program for the load test
+     * @param args      - Threads, seconds, nodes, tasks, networks per request, and optionally the address of the service
+     * @throws Exception    - If the service cannot be started or a thread is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int nodes = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int tasks = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int batch = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        SolveService local = null;
+        String address;
+        if (args.length > 5) {
+            address = args[5];
+        }
+        else {
+            local = new SolveService(0, Runtime.getRuntime().availableProcessors());
+            local.start();
+            address = "http://localhost:" + local.getPort() + "/solve";
+        }
+
+        StringBuilder body = new StringBuilder();
+        String network = randomNetwork(nodes, tasks, new Random(1));
+        for (int i = 0; i < batch; i++) {
+            if (i > 0) {
+                body.append("---\n");
+            }
+            body.append(network);
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(address))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+
+        long[][] latencies = new long[threads][];
+        int[] counts = new int[threads];
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int id = i;
+            latencies[id] = new long[1024];
+            workers[i] = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                    }
+                    catch (Exception e) {
+                        failed.incrementAndGet();
+                        continue;
+                    }
+                    if (counts[id] == latencies[id].length) {
+                        latencies[id] = Arrays.copyOf(latencies[id], counts[id] * 2);
+                    }
+                    latencies[id][counts[id]++] = System.nanoTime() - start;
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        if (local != null) {
+            local.stop();
+        }
+
+        int total = 0;
+        for (int c : counts) {
+            total += c;
+        }
+        long[] all = new long[total];
+        int filled = 0;
+        for (int i = 0; i < threads; i++) {
+            System.arraycopy(latencies[i], 0, all, filled, counts[i]);
+            filled += counts[i];
+        }
+        Arrays.sort(all);
+        System.out.printf("%d requests (%d networks each, %d tasks) in %ds: %.0f requests/s, %.0f networks/s%n",
+                total, batch, tasks, seconds, total / (double) seconds, total * batch / (double) seconds);
+        if (total > 0) {
+            System.out.printf("Latency p50 %.2fms, p99 %.2fms, max %.2fms%n",
+                    all[total / 2] / 1e6, all[(int) Math.min(total - 1, Math.ceil(total * 0.99) - 1)] / 1e6, all[total - 1] / 1e6);
+        }
+        System.out.println("Turned away (503): " + rejected.get() + ", failed: " + failed.get());
+    }
+
+    /**
+     * Function to make the records for a random network, which is a chain of nodes with extra tasks jumping forwards,
+     * so it never contains a cycle
+     * @param nodes     - Amount of nodes, at least 2
+     * @param tasks     - Amount of tasks, at least nodes - 1
+     * @param random    - Random number generator
+     * @return          - The records
+     */
+    static String randomNetwork(int nodes, int tasks, Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tasks; i++) {
+            int start = i < nodes - 1 ? i : random.nextInt(nodes - 1);
+            int end = i < nodes - 1 ? i + 1 : start + 1 + random.nextInt(nodes - 1 - start);
+            sb.append("T ").append(start).append(' ').append(end).append(' ').append(1 + random.nextInt(9))
+                    .append(' ').append(random.nextInt(2)).append('\n');
+        }
+        for (int n = 0; n < nodes; n++) {
+            sb.append("ES ").append(n).append(' ').append(random.nextInt(20)).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Immutable result of solving a NetworkSnapshot
+ * Holds the early and late event time of every node in the snapshot, and the critical path length
+ * Since every field is final, a result made on a background thread can safely be read on the Event Dispatch Thread
+ */
+final class SolveResult {
+    private final NetworkSnapshot SNAPSHOT;
+    private final int[] EARLY, LATE;
+    private final int CP_LENGTH;
+    private final boolean CYCLIC;
+
+    /**
+     * Constructor for the result
+     * The arrays passed in must not be changed afterwards
+     * @param snapshot      - The snapshot which was solved
+     * @param early         - Early event time of each node, null if the network is cyclic
+     * @param late          - Late event time of each node, null if the network is cyclic
+     * @param cpLength      - Critical path length, -1 if there are no tasks
+     * @param cyclic        - Whether the network contains a cycle
+     */
+    SolveResult(NetworkSnapshot snapshot, int[] early, int[] late, int cpLength, boolean cyclic) {
+        this.SNAPSHOT = snapshot;
+        this.EARLY = early;
+        this.LATE = late;
+        this.CP_LENGTH = cpLength;
+        this.CYCLIC = cyclic;
+    }
+
+    /**
+     * Function to get the snapshot which was solved
+     * @return      - The snapshot
+     */
+    NetworkSnapshot getSnapshot() {
+        return SNAPSHOT;
+    }
+
+    /**
+     * Function to get whether the network contains a cycle, in which case there are no event times
+     * @return      - If cyclic
+     */
+    boolean isCyclic() {
+        return CYCLIC;
+    }
+
+    /**
+     * Function to get the critical path length
+     * @return      - Critical path length
+     */
+    int getCpLength() {
+        return CP_LENGTH;
+    }
+
+    /**
+     * Function to get the early event time of a node
+     * @param n     - Node number
+     * @return      - Early event time
+     */
+    int getEarly(int n) {
+        return EARLY[n];
+    }
+
+    /**
+     * Function to get the late event time of a node
+     * @param n     - Node number
+     * @return      - Late event time
+     */
+    int getLate(int n) {
+        return LATE[n];
+    }
+
+    /**
+     * Function to get the total float of a task
+     * This is the late time of its end node, minus the early time of its start node, minus its duration
+     * @param t     - Task number
+     * @return      - Float
+     */
+    int getFloat(int t) {
+        return LATE[SNAPSHOT.getTaskEnd(t)] - EARLY[SNAPSHOT.getTaskStart(t)] - SNAPSHOT.getDuration(t);
+    }
+
+    /**
+     * Function to get whether a task is critical (has zero float)
+     * @param t     - Task number
+     * @return      - If critical
+     */
+    boolean isCritical(int t) {
+        return getFloat(t) == 0;
+    }
+}
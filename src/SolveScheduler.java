@@ -0,0 +1,117 @@
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Class which runs solves of the network on a background thread, so the window never freezes whilst the network is solved
+ * A snapshot of the network is taken on the Event Dispatch Thread, solved on a shared pool of worker threads,
+ * and the result is passed back to the Event Dispatch Thread
+ * Only the newest request is ever completed, a new request cancels any solve which is still running
+ * Edits are handed out by the component's ChangeBus once per frame, so a burst of edits causes at most one request a frame
+ * Whilst the sensitivity overlay is showing, each result is also given a SensitivityAnalysis on the worker thread,
+ * so large networks are analysed without freezing the window
+ */
+class SolveScheduler {
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                Thread t = new Thread(r, "Solver");
+                t.setDaemon(true);
+                return t;
+            });
+    private final PathFunctions PATH_FUNCTIONS;
+    private final Consumer<Boolean> BUSY_LISTENER;
+    private final Consumer<RuntimeException> FAILURE_LISTENER;
+    private Future<?> inFlight;
+    private long generation;
+    private boolean analysingSensitivity;
+    private SensitivityAnalysis sensitivity;
+
+    /**
+     * Constructor for the scheduler
+     * @param pf            - The PathFunctions whose network is solved
+     * @param busyListener      - Told true when a solve starts and false when there is no solve running, on the Event Dispatch Thread
+     * @param failureListener   - Told about any exception thrown by the newest solve, instead of its callback being run, on the Event Dispatch Thread
+     */
+    SolveScheduler(PathFunctions pf, Consumer<Boolean> busyListener, Consumer<RuntimeException> failureListener) {
+        this.PATH_FUNCTIONS = pf;
+        this.BUSY_LISTENER = busyListener;
+        this.FAILURE_LISTENER = failureListener;
+    }
+
+    /**
+     * Procedure to solve the network as soon as possible, must be called on the Event Dispatch Thread
+     * Takes a snapshot straight away, cancels any solve still running, and submits the new solve to the pool
+     * The callback is only run if no newer request has been made by the time the solve finishes
+     * If the solve throws an exception, the failure listener is told instead, so the busy bar is always cleared
+     * @param onResult      - Run on the Event Dispatch Thread with the result
+     */
+    void solveNow(Consumer<SolveResult> onResult) {
+        cancel();
+        long requestGeneration = ++generation;
+        long hudStart = PerformanceHud.start();
+        boolean analyse = analysingSensitivity;
+        NetworkSnapshot snapshot = PATH_FUNCTIONS.snapshot();
+        BUSY_LISTENER.accept(true);
+        inFlight = POOL.submit(() -> {
+            try {
+                SolveResult result = PathFunctions.solve(snapshot);
+                SensitivityAnalysis analysis = analyse && !result.isCyclic() ? SensitivityAnalysis.analyse(result) : null;
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        inFlight = null;
+                        sensitivity = analysis;
+                        BUSY_LISTENER.accept(false);
+                        if (hudStart != 0) {
+                            PerformanceHud.solved(hudStart);
+                        }
+                        onResult.accept(result);
+                    }
+                });
+            }
+            catch (CancellationException cancelled) {
+                //A newer request has replaced this one
+            }
+            catch (RuntimeException failed) {
+                System.out.println("Solve failed: " + failed);
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        inFlight = null;
+                        BUSY_LISTENER.accept(false);
+                        FAILURE_LISTENER.accept(failed);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Procedure to cancel any solve which is still running
+     */
+    void cancel() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+            BUSY_LISTENER.accept(false);
+        }
+    }
+
+    /**
+     * Procedure to choose whether each solve is also given a sensitivity analysis
+     * @param analysing     - True to analyse every result from the next request onwards
+     */
+    void setAnalysingSensitivity(boolean analysing) {
+        this.analysingSensitivity = analysing;
+    }
+
+    /**
+     * Function to get the sensitivity analysis of the last result given to a callback, on the Event Dispatch Thread
+     * @return      - The analysis, null if the last result was not analysed
+     */
+    SensitivityAnalysis getSensitivity() {
+        return sensitivity;
+    }
+}
@@ -0,0 +1,299 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class for a small HTTP server, only reachable from the same computer, which solves and marks networks without the window
+ * Networks are POSTed to /solve as text, in the same records the journal uses:
+ * "T start end duration critical" for each task, where critical is 1 if the student selected it as critical (and can be left out),
+ * and "ES node time" or "LS node time" for the event times a student entered
+ * Any other record (such as node positions) is ignored, so a journal snapshot can be sent as it is
+ * Several networks can be sent in one request, separated by lines of "---", and are answered in the same order
+ * The answer is JSON, giving every node's event times, every task's float, the critical path length and the marks
+ *
+ * Requests are read and solved on a fixed pool of worker threads with a bounded queue
+ * When the queue is full the request is turned away straight away with 503, rather than queueing without limit
+ * A record which cannot be read is answered with 400, and any other failure while solving with 500, so a worker never dies without answering
+ */
+class SolveService {
+    private static final int DEFAULT_PORT = 8765;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+    private final HttpServer SERVER;
+    private final ThreadPoolExecutor WORKERS;
+
+    /**
+     * Constructor for the service, which binds to the loopback address but does not start it
+     * @param port      - Port to listen on, 0 for any free port
+     * @param workers   - Amount of worker threads
+     * @throws IOException  - If the port cannot be bound
+     */
+    SolveService(int port, int workers) throws IOException {
+        this.SERVER = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.WORKERS = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "Solve service");
+                    t.setDaemon(true);
+                    return t;
+                });
+        SERVER.createContext("/solve", this::accept);
+    }
+
+    /**
+     * Main program for running the service on its own
+     * @param args      - The port to listen on, and optionally the amount of worker threads
+     * @throws IOException  - If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SolveService service = new SolveService(port, workers);
+        service.start();
+        System.out.println("Solve service listening on http://localhost:" + service.getPort() + "/solve");
+    }
+
+    /**
+     * Procedure to start accepting requests
+     */
+    void start() {
+        SERVER.start();
+    }
+
+    /**
+     * Procedure to stop accepting requests, and stop the worker threads
+     */
+    void stop() {
+        SERVER.stop(0);
+        WORKERS.shutdownNow();
+    }
+
+    /**
+     * Function to get the port the service is listening on
+     * @return      - The port
+     */
+    int getPort() {
+        return SERVER.getAddress().getPort();
+    }
+
+    /**
+     * Procedure run on the server's own thread for each request
+     * Hands the request to the worker threads, or turns it away if the queue is full
+     * @param exchange  - The request
+     */
+    private void accept(HttpExchange exchange) {
+        try {
+            WORKERS.execute(() -> handle(exchange));
+        }
+        catch (RejectedExecutionException full) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "{\"error\":\"Too many requests waiting\"}");
+        }
+    }
+
+    /**
+     * Procedure run on a worker thread to read, solve and answer a request
+     * @param exchange  - The request
+     */
+    private void handle(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, 405, "{\"error\":\"Networks must be sent with POST\"}");
+            return;
+        }
+        String body;
+        try {
+            body = readBody(exchange.getRequestBody());
+        }
+        catch (IOException tooLarge) {
+            respond(exchange, 413, "{\"error\":\"" + escape(tooLarge.getMessage()) + "\"}");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("{\"results\":[");
+        try {
+            String[] networks = body.split("\n---[^\n]*(\n|$)");
+            for (int i = 0; i < networks.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                solveAndMark(networks[i], sb);
+            }
+        }
+        catch (IllegalArgumentException badRecord) {
+            respond(exchange, 400, "{\"error\":\"" + escape(badRecord.getMessage()) + "\"}");
+            return;
+        }
+        catch (RuntimeException failed) {
+            System.out.println("Request failed: " + failed);
+            respond(exchange, 500, "{\"error\":\"Could not solve the network\"}");
+            return;
+        }
+        sb.append("]}");
+        respond(exchange, 200, sb.toString());
+    }
+
+    /**
+     * Function to read the body of a request, up to the largest body allowed
+     * @param in    - The body
+     * @return      - The body as text
+     * @throws IOException  - If the body could not be read, or is too large
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            if (out.size() > MAX_BODY_BYTES) {
+                throw new IOException("Request is larger than " + MAX_BODY_BYTES + " bytes");
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Procedure to solve and mark one network, writing its result as a JSON object
+     * Nodes are given numbers in the order they are first used by a task, and are named in the result by the number they were sent with
+     * Nodes with no tasks are left out, as they are when the app checks answers
+     * @param text  - The network's records
+     * @param sb    - Where the JSON is written
+     */
+    static void solveAndMark(String text, StringBuilder sb) {
+        HashMap<String, Integer> numbers = new HashMap<>();
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<int[]> tasks = new ArrayList<>();
+        HashMap<String, Integer> earlyInputs = new HashMap<>();
+        HashMap<String, Integer> lateInputs = new HashMap<>();
+        for (String line : text.split("\n")) {
+            String[] r = line.trim().split("\\s+");
+            try {
+                switch (r[0]) {
+                    case "T":
+                        int start = numbers.computeIfAbsent(r[1], n -> {
+                            names.add(n);
+                            return names.size() - 1;
+                        });
+                        int end = numbers.computeIfAbsent(r[2], n -> {
+                            names.add(n);
+                            return names.size() - 1;
+                        });
+                        int duration = Integer.parseInt(r[3]);
+                        if (duration < 0) {
+                            throw new IllegalArgumentException("Negative duration: " + line.trim());
+                        }
+                        tasks.add(new int[]{start, end, duration, r.length > 4 ? Integer.parseInt(r[4]) : 0});
+                        break;
+                    case "ES":
+                        earlyInputs.put(r[1], Integer.parseInt(r[2]));
+                        break;
+                    case "LS":
+                        lateInputs.put(r[1], Integer.parseInt(r[2]));
+                        break;
+                    default:
+                        break;      //Records which do not affect the answers
+                }
+            }
+            catch (ArrayIndexOutOfBoundsException | NumberFormatException badRecord) {
+                throw new IllegalArgumentException("Could not read record: " + line.trim());
+            }
+        }
+
+        int[] starts = new int[tasks.size()];
+        int[] ends = new int[tasks.size()];
+        int[] durations = new int[tasks.size()];
+        boolean[] critSelected = new boolean[tasks.size()];
+        for (int t = 0; t < tasks.size(); t++) {
+            starts[t] = tasks.get(t)[0];
+            ends[t] = tasks.get(t)[1];
+            durations[t] = tasks.get(t)[2];
+            critSelected[t] = tasks.get(t)[3] == 1;
+        }
+        NetworkSnapshot s = new NetworkSnapshot(new Node[names.size()], new Task[tasks.size()], starts, ends, durations, 0);
+        SolveResult r = PathFunctions.solve(s);
+        if (r.isCyclic()) {
+            sb.append("{\"cyclic\":true}");
+            return;
+        }
+        int[] earlyInput = new int[names.size()];
+        int[] lateInput = new int[names.size()];
+        for (int n = 0; n < names.size(); n++) {
+            earlyInput[n] = earlyInputs.getOrDefault(names.get(n), 0);
+            lateInput[n] = lateInputs.getOrDefault(names.get(n), 0);
+        }
+
+        sb.append("{\"cyclic\":false,\"cpLength\":").append(r.getCpLength());
+        sb.append(",\"nodeMarks\":").append(Grader.nodeMarks(r, earlyInput, lateInput));
+        sb.append(",\"taskMarks\":").append(Grader.taskMarks(r, critSelected));
+        sb.append(",\"nodes\":[");
+        for (int n = 0; n < names.size(); n++) {
+            if (n > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":\"").append(escape(names.get(n))).append("\",\"early\":").append(r.getEarly(n))
+                    .append(",\"late\":").append(r.getLate(n)).append('}');
+        }
+        sb.append("],\"tasks\":[");
+        for (int t = 0; t < tasks.size(); t++) {
+            if (t > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"start\":\"").append(escape(names.get(starts[t]))).append("\",\"end\":\"").append(escape(names.get(ends[t])))
+                    .append("\",\"duration\":").append(durations[t]).append(",\"float\":").append(r.getFloat(t))
+                    .append(",\"critical\":").append(r.isCritical(t)).append('}');
+        }
+        sb.append("]}");
+    }
+
+    /**
+     * Function to escape text so it can be put inside a JSON string
+     * @param text  - The text
+     * @return      - The escaped text
+     */
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Procedure to send the answer to a request, and close it
+     * @param exchange  - The request
+     * @param status    - HTTP status code
+     * @param json      - The body
+     */
+    private static void respond(HttpExchange exchange, int status, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        }
+        catch (IOException clientGone) {
+            //The client stopped waiting for the answer
+        }
+        finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,554 @@
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class for a Graphics2D which writes what is drawn on it as SVG elements rather than as pixels
+ * Used by the NetworkRenderer, so Node.draw() and TaskVisualised.draw() can be written to an SVG file without being changed
+ * Lines, rectangles, ovals and text are written as the matching SVG elements, any other shape is written as a path
+ * The colour, stroke (width and dashes) and font in use are written on each element,
+ * and the transform is written on each element if it is not the identity
+ *
+ * Fonts are measured with the Graphics2D of a one pixel image, so text is laid out as it would be on screen
+ * The clip is kept so it can be read back, but is not applied to what is written, and images cannot be drawn
+ * Graphics made by create() write into the same document
+ */
+class SvgGraphics extends Graphics2D {
+    private final StringBuilder OUT;
+    private final Graphics2D MEASURE;
+    private final int WIDTH, HEIGHT;
+    private Color color = Color.BLACK;
+    private Color background = Color.WHITE;
+    private Paint paint = Color.BLACK;
+    private Font font;
+    private Stroke stroke = new BasicStroke(1);
+    private Composite composite = AlphaComposite.SrcOver;
+    private AffineTransform transform = new AffineTransform();
+    private Shape clip;
+    private final RenderingHints HINTS = new RenderingHints(null);
+
+    /**
+     * Constructor for an empty document
+     * @param width     - Width of the document in pixels
+     * @param height    - Height of the document in pixels
+     */
+    SvgGraphics(int width, int height) {
+        this(new StringBuilder(), new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics(), width, height);
+    }
+
+    /**
+     * Constructor for a Graphics which writes into an existing document, used by create()
+     * @param out       - The document's elements
+     * @param measure   - Graphics used to measure fonts
+     * @param width     - Width of the document in pixels
+     * @param height    - Height of the document in pixels
+     */
+    private SvgGraphics(StringBuilder out, Graphics2D measure, int width, int height) {
+        this.OUT = out;
+        this.MEASURE = measure;
+        this.WIDTH = width;
+        this.HEIGHT = height;
+        this.font = measure.getFont();
+    }
+
+    /**
+     * Function to get the whole SVG document, made of everything drawn so far
+     * @return      - The document
+     */
+    String toSvg() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + WIDTH + "\" height=\"" + HEIGHT
+                + "\" viewBox=\"0 0 " + WIDTH + " " + HEIGHT + "\">\n" + OUT + "</svg>\n";
+    }
+
+    /**
+     * Function to write a number without a trailing '.0', and always with a '.' as the decimal point
+     * @param d     - Number
+     * @return      - Number as text
+     */
+    private static String num(double d) {
+        if (d == Math.rint(d) && Math.abs(d) < 1e9) {
+            return Long.toString((long) d);
+        }
+        return String.format(Locale.ROOT, "%.3f", d);
+    }
+
+    /**
+     * Function to write a colour as an SVG colour, with its opacity if it is not opaque
+     * @param attribute     - 'fill' or 'stroke'
+     * @return              - The attributes
+     */
+    private String colour(String attribute) {
+        String s = String.format(" %s=\"#%06x\"", attribute, color.getRGB() & 0xFFFFFF);
+        if (color.getAlpha() != 255) {
+            s += " " + attribute + "-opacity=\"" + num(color.getAlpha() / 255.0) + "\"";
+        }
+        return s;
+    }
+
+    /**
+     * Function to get the attributes for an outline, drawn with the current colour and stroke
+     * @return      - The attributes
+     */
+    private String strokeAttributes() {
+        StringBuilder s = new StringBuilder(" fill=\"none\"").append(colour("stroke"));
+        if (stroke instanceof BasicStroke) {
+            BasicStroke b = (BasicStroke) stroke;
+            if (b.getLineWidth() != 1) {
+                s.append(" stroke-width=\"").append(num(b.getLineWidth())).append('"');
+            }
+            float[] dashes = b.getDashArray();
+            if (dashes != null) {
+                s.append(" stroke-dasharray=\"");
+                for (int i = 0; i < dashes.length; i++) {
+                    s.append(i == 0 ? "" : ",").append(num(dashes[i]));
+                }
+                s.append('"');
+                if (b.getDashPhase() != 0) {
+                    s.append(" stroke-dashoffset=\"").append(num(b.getDashPhase())).append('"');
+                }
+            }
+        }
+        return s.append(transformAttribute()).toString();
+    }
+
+    /**
+     * Function to get the attributes for a filled shape, filled with the current colour
+     * @return      - The attributes
+     */
+    private String fillAttributes() {
+        return colour("fill") + transformAttribute();
+    }
+
+    /**
+     * Function to get the transform attribute, which is left out if the transform is the identity
+     * @return      - The attribute
+     */
+    private String transformAttribute() {
+        if (transform.isIdentity()) {
+            return "";
+        }
+        return " transform=\"matrix(" + num(transform.getScaleX()) + " " + num(transform.getShearY()) + " "
+                + num(transform.getShearX()) + " " + num(transform.getScaleY()) + " "
+                + num(transform.getTranslateX()) + " " + num(transform.getTranslateY()) + ")\"";
+    }
+
+    /**
+     * Function to replace the characters which cannot be written as themselves in XML
+     * @param s     - Text
+     * @return      - Escaped text
+     */
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Function to write a shape as the points of an SVG path
+     * @param s     - Shape
+     * @return      - Path data
+     */
+    private static String pathData(Shape s) {
+        StringBuilder d = new StringBuilder();
+        double[] c = new double[6];
+        for (PathIterator it = s.getPathIterator(null); !it.isDone(); it.next()) {
+            switch (it.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:
+                    d.append('M').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_LINETO:
+                    d.append('L').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    d.append('Q').append(num(c[0])).append(' ').append(num(c[1])).append(' ')
+                            .append(num(c[2])).append(' ').append(num(c[3]));
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    d.append('C').append(num(c[0])).append(' ').append(num(c[1])).append(' ')
+                            .append(num(c[2])).append(' ').append(num(c[3])).append(' ')
+                            .append(num(c[4])).append(' ').append(num(c[5]));
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    d.append('Z');
+                    break;
+            }
+        }
+        return d.toString();
+    }
+
+    /**
+     * Procedure to write a shape, as a matching element if there is one, or as a path
+     * @param s             - Shape
+     * @param attributes    - Attributes for how it is drawn
+     */
+    private void shape(Shape s, String attributes) {
+        if (s instanceof Line2D) {
+            Line2D l = (Line2D) s;
+            OUT.append("<line x1=\"").append(num(l.getX1())).append("\" y1=\"").append(num(l.getY1()))
+                    .append("\" x2=\"").append(num(l.getX2())).append("\" y2=\"").append(num(l.getY2())).append('"');
+        }
+        else if (s instanceof Rectangle2D) {
+            Rectangle2D r = (Rectangle2D) s;
+            OUT.append("<rect x=\"").append(num(r.getX())).append("\" y=\"").append(num(r.getY()))
+                    .append("\" width=\"").append(num(r.getWidth())).append("\" height=\"").append(num(r.getHeight())).append('"');
+        }
+        else if (s instanceof Ellipse2D) {
+            Ellipse2D e = (Ellipse2D) s;
+            OUT.append("<ellipse cx=\"").append(num(e.getCenterX())).append("\" cy=\"").append(num(e.getCenterY()))
+                    .append("\" rx=\"").append(num(e.getWidth() / 2)).append("\" ry=\"").append(num(e.getHeight() / 2)).append('"');
+        }
+        else {
+            OUT.append("<path d=\"").append(pathData(s)).append('"');
+        }
+        OUT.append(attributes).append("/>\n");
+    }
+
+    public void draw(Shape s) {
+        shape(s, strokeAttributes());
+    }
+
+    public void fill(Shape s) {
+        shape(s, fillAttributes());
+    }
+
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Float(x1, y1, x2, y2));
+    }
+
+    public void drawRect(int x, int y, int width, int height) {
+        draw(new Rectangle(x, y, width, height));
+    }
+
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    public void clearRect(int x, int y, int width, int height) {
+        Color c = color;
+        color = background;
+        fillRect(x, y, width, height);
+        color = c;
+    }
+
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        draw(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN));
+    }
+
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        fill(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE));
+    }
+
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints < 2) {
+            return;
+        }
+        Path2D.Float p = new Path2D.Float();
+        p.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < nPoints; i++) {
+            p.lineTo(xPoints[i], yPoints[i]);
+        }
+        draw(p);
+    }
+
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        draw(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        fill(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    public void drawString(String str, int x, int y) {
+        drawString(str, (float) x, (float) y);
+    }
+
+    public void drawString(String str, float x, float y) {
+        OUT.append("<text x=\"").append(num(x)).append("\" y=\"").append(num(y))
+                .append("\" font-family=\"").append(escape(font.getFamily())).append("\" font-size=\"").append(font.getSize2D()).append('"');
+        if (font.isBold()) {
+            OUT.append(" font-weight=\"bold\"");
+        }
+        if (font.isItalic()) {
+            OUT.append(" font-style=\"italic\"");
+        }
+        OUT.append(fillAttributes()).append(" xml:space=\"preserve\">").append(escape(str)).append("</text>\n");
+    }
+
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        StringBuilder s = new StringBuilder();
+        for (char c = iterator.first(); c != AttributedCharacterIterator.DONE; c = iterator.next()) {
+            s.append(c);
+        }
+        drawString(s.toString(), x, y);
+    }
+
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        fill(g.getOutline(x, y));
+    }
+
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, Color bgcolor, ImageObserver observer) {
+        throw new UnsupportedOperationException("Images cannot be written to SVG");
+    }
+
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        throw new UnsupportedOperationException("Areas cannot be copied in SVG");
+    }
+
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        if (onStroke) {
+            s = stroke.createStrokedShape(s);
+        }
+        return transform.createTransformedShape(s).intersects(rect);
+    }
+
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return MEASURE.getDeviceConfiguration();
+    }
+
+    public Graphics create() {
+        SvgGraphics g = new SvgGraphics(OUT, MEASURE, WIDTH, HEIGHT);
+        g.color = color;
+        g.background = background;
+        g.paint = paint;
+        g.font = font;
+        g.stroke = stroke;
+        g.composite = composite;
+        g.transform = new AffineTransform(transform);
+        g.clip = clip;
+        g.HINTS.putAll(HINTS);
+        return g;
+    }
+
+    public void dispose() {
+    }
+
+    public void setComposite(Composite comp) {
+        composite = comp;
+    }
+
+    public Composite getComposite() {
+        return composite;
+    }
+
+    public void setPaint(Paint paint) {
+        this.paint = paint;
+        if (paint instanceof Color) {
+            color = (Color) paint;
+        }
+    }
+
+    public Paint getPaint() {
+        return paint;
+    }
+
+    public void setColor(Color c) {
+        if (c != null) {
+            color = c;
+            paint = c;
+        }
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setPaintMode() {
+    }
+
+    public void setXORMode(Color c1) {
+    }
+
+    public void setBackground(Color color) {
+        background = color;
+    }
+
+    public Color getBackground() {
+        return background;
+    }
+
+    public void setStroke(Stroke s) {
+        stroke = s;
+    }
+
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    public void setFont(Font font) {
+        if (font != null) {
+            this.font = font;
+        }
+    }
+
+    public FontMetrics getFontMetrics(Font f) {
+        return MEASURE.getFontMetrics(f);
+    }
+
+    public FontRenderContext getFontRenderContext() {
+        return MEASURE.getFontRenderContext();
+    }
+
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        HINTS.put(hintKey, hintValue);
+    }
+
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return HINTS.get(hintKey);
+    }
+
+    public void setRenderingHints(Map<?, ?> hints) {
+        HINTS.clear();
+        HINTS.putAll(hints);
+    }
+
+    public void addRenderingHints(Map<?, ?> hints) {
+        HINTS.putAll(hints);
+    }
+
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) HINTS.clone();
+    }
+
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    public void translate(double tx, double ty) {
+        transform.translate(tx, ty);
+    }
+
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    public void transform(AffineTransform tx) {
+        transform.concatenate(tx);
+    }
+
+    public void setTransform(AffineTransform tx) {
+        transform = new AffineTransform(tx);
+    }
+
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    public Shape getClip() {
+        return clip;
+    }
+
+    public Rectangle getClipBounds() {
+        return clip == null ? null : clip.getBounds();
+    }
+
+    public void clip(Shape s) {
+        if (clip == null) {
+            clip = s;
+        }
+        else {
+            Area a = new Area(clip);
+            a.intersect(new Area(s));
+            clip = a;
+        }
+    }
+
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    public void setClip(int x, int y, int width, int height) {
+        clip = new Rectangle(x, y, width, height);
+    }
+
+    public void setClip(Shape clip) {
+        this.clip = clip;
+    }
+}
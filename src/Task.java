@@ -36,13 +36,13 @@ class Task {
         this.duration = TASK_VISUALISED.getDuration();
         if (duration == -1){
             try {
-                TASK_VISUALISED.getSTART_NODE().getSucceedingTasks().remove(this);
+                TASK_VISUALISED.getSTART_NODE().removeSucceeding(this);
             }
             catch (Exception startNodeDeleted){
                 //Start node is deleted, no action needed
             }
             try {
-                TASK_VISUALISED.getEND_NODE().getPrecedingTasks().remove(this);
+                TASK_VISUALISED.getEND_NODE().removePreceding(this);
             }
             catch (Exception endNodeDeleted){
                 //End node is deleted, no action needed
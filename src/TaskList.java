@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+/**
+ * Class for a node's list of tasks, which grows as tasks are added
+ * Tasks are stored in one array, so there is one small object and one array per list, rather than a HashSet and an entry object per task
+ * The list holds the Tasks themselves, so a task which is no longer in any list (or in the edit history) can be garbage collected,
+ * and the tasks of different networks never share anything
+ * Tasks are compared by identity, and iterating is done by index, so no Iterator is made
+ */
+class TaskList {
+    private Task[] items;
+    private int size;
+
+    /**
+     * Constructor for an empty list
+     * No array is made until the first task is added
+     */
+    TaskList() {
+        this.items = null;
+        this.size = 0;
+    }
+
+    /**
+     * Procedure to add a task to the end of the list
+     * The array starts with space for 2 tasks, and doubles in size when it is full
+     * @param t     - The task
+     */
+    void add(Task t) {
+        if (items == null) {
+            items = new Task[2];
+        }
+        else if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = t;
+    }
+
+    /**
+     * Function to add a task if it is not already in the list
+     * @param t     - The task
+     * @return      - True if the task was added
+     */
+    boolean addIfAbsent(Task t) {
+        if (contains(t)) {
+            return false;
+        }
+        add(t);
+        return true;
+    }
+
+    /**
+     * Function to remove a task from the list
+     * The last task is moved into its place, so the order of the list is not kept
+     * @param t     - The task
+     * @return      - True if the task was in the list
+     */
+    boolean remove(Task t) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == t) {
+                items[i] = items[--size];
+                items[size] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to check whether a task is in the list
+     * @param t     - The task
+     * @return      - True if the task is in the list
+     */
+    boolean contains(Task t) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == t) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to get a task
+     * @param i     - Position of the task, from 0 to size() - 1
+     * @return      - The task
+     */
+    Task get(int i) {
+        return items[i];
+    }
+
+    /**
+     * Function to get the amount of tasks in the list
+     * @return      - Amount of tasks
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Function to check whether the list is empty
+     * @return      - True if there are no tasks
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
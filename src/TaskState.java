@@ -0,0 +1,23 @@
+/**
+ * The state of a task, as found by the last solve of its network
+ * Stamped onto every TaskVisualised by PathFunctions.publish(), so drawing and marking a task only has to look its state up,
+ * rather than working it out from the event times of its nodes
+ */
+enum TaskState {
+    /**
+     * The task has not been solved, or it or its network has been changed since it was
+     */
+    NOT_SOLVED,
+    /**
+     * The task has no float
+     */
+    CRITICAL,
+    /**
+     * The task has some float
+     */
+    NON_CRITICAL,
+    /**
+     * The task has a duration of 0, so is never critical or marked
+     */
+    DUMMY
+}
@@ -11,15 +11,18 @@ import static java.awt.Color.BLUE;
  * (In comments, 'the Task' refers to the Task which this object represents)
  */
 public class TaskVisualised implements Drawable{
-    private int duration;
+    private int duration, optimistic, pessimistic, crashDuration, crashCost;
     private final Node START_NODE, END_NODE;
     private Drawable nextDraw;
-    private boolean selected, critSelected, displayingAnswers;
+    private boolean selected, critSelected, displayingAnswers, displayingSensitivity;
+    private int minDuration, maxDuration;
+    private TaskState state;
+    private static final Color WRONG = new Color(165, 5, 15);
 
     /**
      * Constructor for TaskVisualised object
      * Defined in terms of a start and end node to help with linking the network
-     * Duration of task is set to 1 as default
+     * Duration of task is set to 1 as default, with no optimistic or pessimistic estimates, and it cannot be crashed
      * The TaskVisualised is set as selected
      * @param nStart        - Node where the Task begins
      * @param nFinish       - Node where the Task finishes
@@ -28,8 +31,14 @@ public class TaskVisualised implements Drawable{
         this.START_NODE = nStart;
         this.END_NODE = nFinish;
         this.duration = 1;
+        this.optimistic = -1;
+        this.pessimistic = -1;
+        this.crashDuration = -1;
+        this.crashCost = 0;
         this.selected = true;
         displayingAnswers = false;
+        state = TaskState.NOT_SOLVED;
+        minDuration = -1;
         nextDraw = null;
     }
 
@@ -40,6 +49,7 @@ public class TaskVisualised implements Drawable{
      */
     public void delete(){
         duration = -1;
+        state = TaskState.NOT_SOLVED;
     }
 
     /**
@@ -51,7 +61,9 @@ public class TaskVisualised implements Drawable{
      * or not been marked as critical when it should have been. In both scenarios the user must have selected to check answers
      * If the task is blue, it has been marked as critical,
      * if the user has chosen to check answers, a blue task shows a task which has been correctly marked as critical
+     * Whether the task is critical is read from the state the last solve gave it, a task which has not been solved is never critical
      * A dummy task (task with zero duration), will be drawn as a dashed line
+     * If the sensitivity overlay is showing, the range of durations found by the last sensitivity analysis is drawn in grey under the duration
      * @param g     - Graphics object
      */
     public void draw (Graphics g){
@@ -64,30 +76,13 @@ public class TaskVisualised implements Drawable{
             g.setColor(BLACK);
         }
         else if (displayingAnswers){
-            if (((END_NODE.getCalculatedLatestStart() - START_NODE.getCalculatedEarlyStart()) - duration) == 0){
-                g.setColor(BLUE);
-            }
-            else{
-                g.setColor(BLACK);
-            }
+            g.setColor(state == TaskState.CRITICAL ? BLUE : BLACK);
         }
         else if (critSelected){
-            g.setColor(BLUE);
-            if (END_NODE.isCheckingAns()){
-                if (((END_NODE.getCalculatedLatestStart() - START_NODE.getCalculatedEarlyStart()) - duration) != 0) {     //Not critical but marked as critical
-                    g.setColor(new Color(165, 5, 15));
-                }
-            }
+            g.setColor(END_NODE.isCheckingAns() && state == TaskState.NON_CRITICAL ? WRONG : BLUE);     //Not critical but marked as critical
         }
-        else if (END_NODE.isCheckingAns()) {
-            if (((END_NODE.getCalculatedLatestStart() - START_NODE.getCalculatedEarlyStart()) - duration) == 0) {         //Critical but not marked as critical
-                g.setColor(new Color(165, 5, 15));
-            } else {
-                g.setColor(Color.BLACK);
-            }
-        }
-        else{
-            g.setColor(Color.BLACK);
+        else {
+            g.setColor(END_NODE.isCheckingAns() && state == TaskState.CRITICAL ? WRONG : BLACK);        //Critical but not marked as critical
         }
         g2d.draw(START_NODE.getCentre().getIntersectingLine(END_NODE.getCentre(), 0.7, 20, 30));          //Draws arrow
         g2d.draw(START_NODE.getCentre().getIntersectingLine(END_NODE.getCentre(), 0.7, 20, -30));
@@ -99,18 +94,42 @@ public class TaskVisualised implements Drawable{
         else{
             g2d.drawString("" + this.duration, textLocation.getIntX(), textLocation.getIntY());
         }
+        if (displayingSensitivity && minDuration != -1){
+            Color colour = g.getColor();
+            g.setColor(Color.GRAY);
+            g2d.drawString("[" + minDuration + ", " + (maxDuration == SensitivityAnalysis.UNBOUNDED ? "\u221e)" : maxDuration + "]"),
+                    textLocation.getIntX(), textLocation.getIntY() + 12);
+            g.setColor(colour);
+        }
         g2d.drawLine((START_NODE.getCentre()).getIntX(), (START_NODE.getCentre()).getIntY(), (END_NODE.getCentre()).getIntX(), (END_NODE.getCentre()).getIntY());
         g2d.setStroke(defaultStroke);
     }
 
+    /**
+     * Function to check if nothing of the task would be drawn inside an area, so drawing it can be skipped
+     * Implementation of the abstract function in the Drawable interface
+     * Everything the task draws, its line, its arrow and its duration, is within 45 of the box around its start and end nodes' centres
+     * @param area  - The area
+     * @return      - True if the task is entirely outside the area
+     */
+    public boolean isOutside(Rectangle area) {
+        Vector start = START_NODE.getCentre();
+        Vector end = END_NODE.getCentre();
+        return Math.max(start.getIntX(), end.getIntX()) + 45 < area.x || Math.min(start.getIntX(), end.getIntX()) - 45 > area.x + area.width
+                || Math.max(start.getIntY(), end.getIntY()) + 45 < area.y || Math.min(start.getIntY(), end.getIntY()) - 45 > area.y + area.height;
+    }
+
     /**
      * Function to check if a vector is close enough to a task to be considered 'colliding'
      * Implementation of the abstract function in the Drawable interface
+     * Compares the squared distance to the task with 6 squared, to avoid the sqrt() function and making any Vectors
      * @param v     - Vector to be compared
      * @return      - If the vector is colliding
      */
     public boolean checkIfInside(Vector v){
-        return v.perpendicularDistanceToLineSeg(this.START_NODE.getCentre(), this.END_NODE.getCentre()) < 6;
+        Vector start = START_NODE.getCentre();
+        Vector end = END_NODE.getCentre();
+        return Vector.segmentDistanceSquared(v.getX(), v.getY(), start.getX(), start.getY(), end.getX(), end.getY()) < 36;
     }
 
     /**
@@ -139,6 +158,85 @@ public class TaskVisualised implements Drawable{
         return duration;
     }
 
+    /**
+     * Procedure to set the optimistic and pessimistic estimates of the task's duration, used for PERT simulations
+     * Does not record the change, PathComponent.setTaskEstimates() should be used for changes made by the user
+     * The duration is used as the most likely estimate
+     * @param optimistic    - Shortest the task could take, -1 to use the duration
+     * @param pessimistic   - Longest the task could take, -1 to use the duration
+     */
+    void setEstimates (int optimistic, int pessimistic){
+        this.optimistic = optimistic;
+        this.pessimistic = pessimistic;
+    }
+
+    /**
+     * Function to get the optimistic estimate exactly as it was set, used to record it
+     * @return      - Optimistic estimate, -1 if the duration is used
+     */
+    int getOptimisticInput() {
+        return optimistic;
+    }
+
+    /**
+     * Function to get the pessimistic estimate exactly as it was set, used to record it
+     * @return      - Pessimistic estimate, -1 if the duration is used
+     */
+    int getPessimisticInput() {
+        return pessimistic;
+    }
+
+    /**
+     * Function to get the optimistic estimate of the task's duration
+     * @return      - Optimistic estimate, or the duration if none has been set
+     */
+    int getOptimistic() {
+        return optimistic < 0 ? duration : optimistic;
+    }
+
+    /**
+     * Function to get the pessimistic estimate of the task's duration
+     * @return      - Pessimistic estimate, or the duration if none has been set
+     */
+    int getPessimistic() {
+        return pessimistic < 0 ? duration : pessimistic;
+    }
+
+    /**
+     * Procedure to set how far the task can be crashed (shortened by spending more on it), used by the CrashOptimiser
+     * Does not record the change, PathComponent.setTaskCrashing() should be used for changes made by the user
+     * @param crashDuration - Shortest the task can be made, -1 if it cannot be crashed
+     * @param crashCost     - Cost of shortening the task by one unit of time
+     */
+    void setCrashing (int crashDuration, int crashCost){
+        this.crashDuration = crashDuration;
+        this.crashCost = crashCost;
+    }
+
+    /**
+     * Function to get the shortest duration exactly as it was set, used to record it
+     * @return      - Crash duration, -1 if the task cannot be crashed
+     */
+    int getCrashDurationInput() {
+        return crashDuration;
+    }
+
+    /**
+     * Function to get the shortest the task can be crashed to
+     * @return      - Crash duration, or the duration if it cannot be crashed
+     */
+    int getCrashDuration() {
+        return crashDuration < 0 ? duration : Math.min(crashDuration, duration);
+    }
+
+    /**
+     * Function to get the cost of shortening the task by one unit of time
+     * @return      - Cost per unit of time
+     */
+    int getCrashCost() {
+        return crashCost;
+    }
+
     /**
      * Function to get the node which is at the start of the TaskVisualised
      * @return      - The starting node
@@ -171,12 +269,23 @@ public class TaskVisualised implements Drawable{
     void setDuration (int d){
         if (duration >= 0) {
             this.duration = d;
+            state = TaskState.NOT_SOLVED;
         }
         else{
             System.out.print("Invalid time");                         //Change to something on gui
         }
     }
 
+    /**
+     * Procedure to bring back a deleted TaskVisualised, used when a deletion is undone
+     * The duration is set directly, since setDuration will not change the duration of a deleted task
+     * @param d     - The duration the task had before it was deleted
+     */
+    void restore (int d){
+        this.duration = d;
+        state = TaskState.NOT_SOLVED;
+    }
+
     /**
      * Procedure to set whether or not the node is displaying the calculated answers
      * @param b     - new value for displayingAnswers
@@ -186,18 +295,47 @@ public class TaskVisualised implements Drawable{
     }
 
     /**
-     * Returns 1 if a task is marked correctly
-     * 0 Otherwise
-     * @return      - Amount of marks
+     * Procedure to stamp the task with the state found by a solve
+     * The state is cleared by clearState() whenever a change could alter the solution, so it is never older than the network
+     * @param state         - The state of the task
      */
-    int checkMark(){
-        if (critSelected && (((END_NODE.getCalculatedLatestStart() - START_NODE.getCalculatedEarlyStart()) - duration) == 0)){
-            return 1;
-        }
-        else if (((END_NODE.getCalculatedLatestStart() - START_NODE.getCalculatedEarlyStart()) - duration) != 0){
-            return 1;
-        }
-        return 0;
+    void setState(TaskState state){
+        this.state = state;
+    }
+
+    /**
+     * Procedure to forget the state found by the last solve, used when the task or its network has changed
+     */
+    void clearState(){
+        state = TaskState.NOT_SOLVED;
+        minDuration = -1;
+    }
+
+    /**
+     * Procedure to stamp the task with the range of durations found by a sensitivity analysis
+     * Forgotten along with the state, so a range is never shown for a network which has changed since it was analysed
+     * @param min       - Lowest duration before the critical path changes
+     * @param max       - Highest duration before the critical path changes, SensitivityAnalysis.UNBOUNDED if there is none
+     */
+    void setSensitivity(int min, int max){
+        this.minDuration = min;
+        this.maxDuration = max;
+    }
+
+    /**
+     * Procedure to set whether or not the task is displaying the range of durations found by the last sensitivity analysis
+     * @param b     - new value for displayingSensitivity
+     */
+    void setDisplayingSensitivity(boolean b){
+        displayingSensitivity = b;
+    }
+
+    /**
+     * Function to get whether the Task has been marked as critical by the user
+     * @return      - If marked as critical
+     */
+    boolean isCritSelected(){
+        return critSelected;
     }
 
     /**
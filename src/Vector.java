@@ -5,6 +5,9 @@ import java.awt.geom.Line2D;
  * a 'Vector', is a 2 dimensional object, consisting of two doubles
  * Each double represents a component of x or y, for example a Vector (4, 3) would mean 4 in the x direction, and 3 in the y direction
  * Any location on a 2d plane can be represented using a Vector
+ *
+ * The methods which return a Vector make a new one each time, so code which runs on every mouse event
+ * uses the static helpers instead, which work on the components directly and make no objects
  */
 class Vector {
     private double x, y;
@@ -46,15 +49,6 @@ class Vector {
         return (Math.sqrt((x*x) + (y*y)));
     }
 
-    /**
-     * Function to get the squared magnitude of the Vector
-     * Used to avoid 'slow' Math.sqrt() function
-     * @return      - Magnitude Squared
-     */
-    private double getMagnitudeSquared(){
-        return (x*x) + (y*y);
-    }
-
     /**
      * Function to get the shortest distance between a point and a line segment
      * The closest distance between a point and a line is always equal to the normal from the line which intersects the point
@@ -69,22 +63,69 @@ class Vector {
      * Subtracts this vector from the vector from the origin to the point, giving the shortest vector from the point to line
      * Returns the magnitude of this vector
      * Note, the point is the Vector referenced by 'this'
+     * The working is done by segmentDistanceSquared() on the components, so no Vectors are made
      * @param start     - Start of segment
      * @param end       - End of segment
      * @return          - Magnitude of joining Vector
      */
     double perpendicularDistanceToLineSeg(Vector start, Vector end){
-        Vector startToPoint = this.subtract(start);
-        Vector line = end.subtract(start);
-        double p = -1;
-        if (line.getMagnitudeSquared() != 0){
-            p = startToPoint.getDotProduct(line) / line.getMagnitudeSquared();
+        return Math.sqrt(segmentDistanceSquared(x, y, start.x, start.y, end.x, end.y));
+    }
+
+    /**
+     * Function to get the squared distance between two points, given as components
+     * @param x1    - x component of the first point
+     * @param y1    - y component of the first point
+     * @param x2    - x component of the second point
+     * @param y2    - y component of the second point
+     * @return      - Distance squared
+     */
+    static double distanceSquared(double x1, double y1, double x2, double y2){
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return (dx*dx) + (dy*dy);
+    }
+
+    /**
+     * Function to get how far along a line segment the closest point on its line to a point is
+     * Finds the dot product of the segment and the vector from the start of the segment to the point,
+     * divided by the segment's magnitude squared
+     * @param px    - x component of the point
+     * @param py    - y component of the point
+     * @param sx    - x component of the start of the segment
+     * @param sy    - y component of the start of the segment
+     * @param ex    - x component of the end of the segment
+     * @param ey    - y component of the end of the segment
+     * @return      - The fraction of the way along the segment, between 0 and 1 if the closest point is on the segment,
+     *                or -1 if the segment has a length of 0
+     */
+    static double projection(double px, double py, double sx, double sy, double ex, double ey){
+        double lx = ex - sx;
+        double ly = ey - sy;
+        double lengthSquared = (lx*lx) + (ly*ly);
+        if (lengthSquared == 0){
+            return -1;
         }
+        return (((px - sx) * lx) + ((py - sy) * ly)) / lengthSquared;
+    }
+
+    /**
+     * Function to get the squared shortest distance between a point and a line segment, given as components
+     * Uses the same procedure as perpendicularDistanceToLineSeg(), without making any Vectors
+     * @param px    - x component of the point
+     * @param py    - y component of the point
+     * @param sx    - x component of the start of the segment
+     * @param sy    - y component of the start of the segment
+     * @param ex    - x component of the end of the segment
+     * @param ey    - y component of the end of the segment
+     * @return      - Distance squared, or 4000 squared if the normal from the point does not meet the segment
+     */
+    static double segmentDistanceSquared(double px, double py, double sx, double sy, double ex, double ey){
+        double p = projection(px, py, sx, sy, ex, ey);
         if ((p >= 0) && (p <= 1)) {
-            Vector d = this.subtract(start.add(line.multiply(p)));
-            return d.getMagnitude();
+            return distanceSquared(px, py, sx + (ex - sx) * p, sy + (ey - sy) * p);
         }
-        return 4000;        //Return large number if p not in range
+        return 4000 * 4000;        //Return large number if p not in range
     }
 
     /**
@@ -141,8 +182,7 @@ class Vector {
      * @return          - Joining magnitude squared
      */
     double getJoiningVectorMagnitudeSquared (Vector v2){
-        Vector vJoining = v2.subtract(this);
-        return (vJoining.getX() * vJoining.getX()) + (vJoining.getY() * vJoining.getY());
+        return distanceSquared(x, y, v2.x, v2.y);
     }
 
     /**
@@ -164,21 +204,11 @@ class Vector {
         return new Vector(x * n, y * n);
     }
 
-    /**
-     * Function to get the dot product of two vectors
-     * The dot product is equal to the sum of the components of the two vectors multiplied together
-     * @param v     - The second Vector
-     * @return      - Dot product of the Vector
-     */
-    private double getDotProduct (Vector v){
-        return (x*v.getX()) + (y*v.getY());
-    }
-
     /**
      * Function to get the x component of the Vector
      * @return      - x component
      */
-    private double getX() {
+    double getX() {
         return x;
     }
 
@@ -186,7 +216,7 @@ class Vector {
      * Function to get the y component of the Vector
      * @return      - y component
      */
-    private double getY() {
+    double getY() {
         return y;
     }
 
@@ -219,4 +249,14 @@ class Vector {
     void setY(double y){
         this.y = y;
     }
+
+    /**
+     * Procedure to set both components, so one Vector can be reused instead of making a new one
+     * @param x     - New value for x
+     * @param y     - New value for y
+     */
+    void set(double x, double y){
+        this.x = x;
+        this.y = y;
+    }
 }